@@ -0,0 +1,176 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * CLASS: BalanceSweep
+ * Monte Carlo balance testing: plays thousands of headless battles for every floor and
+ * every combat-relevant loadout (CPU x Cooler) and reports win rates and turns-to-kill.
+ * * Cells (floor, CPU, cooler) run in parallel on all cores. Each cell has its own
+ *   GameState copy, policy and random stream, so results only depend on the seed.
+ * * GPU and PSU are not swept: they only change visuals and the power budget, never
+ *   a battle. RAM, storage, ECC and BIOS settings come from the template GameState.
+ */
+public class BalanceSweep {
+
+    // A battle still running after this many turns counts as a stalemate (not a win).
+    public static final int MAX_TURNS = 200;
+
+    /** CLASS: Cell - results for one floor with one loadout. */
+    public static class Cell {
+        public final int floor;
+        public final Hardware.CpuType cpu;
+        public final Hardware.CoolerType cooler;
+        public long battles, wins, stalemates;
+        final long[] turnsToWin = new long[MAX_TURNS + 1]; // Histogram: turns used by won battles.
+        long turnSum;
+
+        Cell(int floor, Hardware.CpuType cpu, Hardware.CoolerType cooler) {
+            this.floor = floor; this.cpu = cpu; this.cooler = cooler;
+        }
+
+        public double winRate() { return battles == 0 ? 0 : wins / (double) battles; }
+        public double meanTurns() { return wins == 0 ? Double.NaN : turnSum / (double) wins; }
+
+        // Turns needed by the p-th percentile of won battles (p in 0..100).
+        public int turnsPercentile(double p) {
+            if (wins == 0) return -1;
+            long rank = Math.max(1, (long) Math.ceil(p / 100.0 * wins)), seen = 0;
+            for (int t = 0; t < turnsToWin.length; t++) if ((seen += turnsToWin[t]) >= rank) return t;
+            return MAX_TURNS;
+        }
+    }
+
+    /** CLASS: Result - every cell of one sweep. */
+    public static class Result {
+        public final String policy;
+        public final int floors, battlesPerCell;
+        public final List<Cell> cells;
+        public final long wallNanos;
+
+        Result(String policy, int floors, int battlesPerCell, List<Cell> cells, long wallNanos) {
+            this.policy = policy; this.floors = floors; this.battlesPerCell = battlesPerCell;
+            this.cells = cells; this.wallNanos = wallNanos;
+        }
+
+        public long battles() { return cells.stream().mapToLong(c -> c.battles).sum(); }
+
+        public Cell cell(int floor, Hardware.CpuType cpu, Hardware.CoolerType cooler) {
+            for (Cell c : cells) if (c.floor == floor && c.cpu == cpu && c.cooler == cooler) return c;
+            return null;
+        }
+
+        // Win rate on 'floor' averaged over all loadouts.
+        public double floorWinRate(int floor) {
+            long b = 0, w = 0;
+            for (Cell c : cells) if (c.floor == floor) { b += c.battles; w += c.wins; }
+            return b == 0 ? 0 : w / (double) b;
+        }
+
+        // Win rate of 'cpu' on 'floor', averaged over coolers.
+        public double cpuWinRate(int floor, Hardware.CpuType cpu) {
+            long b = 0, w = 0;
+            for (Cell c : cells) if (c.floor == floor && c.cpu == cpu) { b += c.battles; w += c.wins; }
+            return b == 0 ? 0 : w / (double) b;
+        }
+
+        // Text report: per-floor summary, then a CPU x floor win-rate grid.
+        public String report() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("%s: %,d battles in %.2f s (%,.0f battles/s)%n%n",
+                    policy, battles(), wallNanos / 1e9, battles() / (wallNanos / 1e9)));
+            sb.append(String.format("%-6s %7s %8s %6s %6s  %s%n", "FLOOR", "WIN%", "TURNS", "P90", "STALE", "HARDEST LOADOUT"));
+            for (int f = 1; f <= floors; f++) {
+                long wins = 0, turnSum = 0, stale = 0;
+                long[] hist = new long[MAX_TURNS + 1];
+                Cell hardest = null;
+                for (Cell c : cells) {
+                    if (c.floor != f) continue;
+                    wins += c.wins; turnSum += c.turnSum; stale += c.stalemates;
+                    for (int t = 0; t < hist.length; t++) hist[t] += c.turnsToWin[t];
+                    if (hardest == null || c.winRate() < hardest.winRate()) hardest = c;
+                }
+                Cell all = new Cell(f, null, null);
+                all.wins = wins; all.turnSum = turnSum;
+                System.arraycopy(hist, 0, all.turnsToWin, 0, hist.length);
+                sb.append(String.format("%-6d %6.1f%% %8s %6s %6d  %s + %s (%.1f%%)%n", f, 100 * floorWinRate(f),
+                        wins == 0 ? "-" : String.format("%.2f", all.meanTurns()),
+                        wins == 0 ? "-" : String.valueOf(all.turnsPercentile(90)), stale,
+                        hardest.cpu.label, hardest.cooler.label, 100 * hardest.winRate()));
+            }
+            sb.append(String.format("%nWIN%% BY CPU (all coolers)%n%-16s", "CPU"));
+            for (int f = 1; f <= floors; f++) sb.append(String.format("%6s", "F" + f));
+            sb.append('\n');
+            for (Hardware.CpuType cpu : Hardware.CpuType.values()) {
+                if (cells.stream().noneMatch(c -> c.cpu == cpu)) continue; // Not played (soak runs).
+                sb.append(String.format("%-16s", cpu.label));
+                for (int f = 1; f <= floors; f++) sb.append(String.format("%6.0f", 100 * cpuWinRate(f, cpu)));
+                sb.append('\n');
+            }
+            return sb.toString();
+        }
+    }
+
+    // Plays 'battlesPerCell' battles of every floor 1..floors with every CPU and cooler.
+    // 'template' supplies the upgrades (RAM, storage, ECC, BIOS); it is copied, never changed.
+    public static Result run(GameState template, int floors, int battlesPerCell,
+                             Supplier<BattlePolicy> policies, BattleEngine.Balance balance, long seed) {
+        List<Cell> cells = new ArrayList<>();
+        for (int f = 1; f <= floors; f++)
+            for (Hardware.CpuType cpu : Hardware.CpuType.values())
+                for (Hardware.CoolerType cooler : Hardware.CoolerType.values())
+                    cells.add(new Cell(f, cpu, cooler));
+
+        long start = System.nanoTime();
+        IntStream.range(0, cells.size()).parallel().forEach(i -> {
+            Cell c = cells.get(i);
+            GameState.Draft d = template.edit();
+            d.currentCpu = c.cpu;
+            d.currentCooler = c.cooler;
+            GameState gs = d.freeze();
+            // One independent stream per cell: same seed, same results, whatever the thread count.
+            SplittableRandom rng = new SplittableRandom(seed + i * 0x9E3779B97F4A7C15L);
+            BattlePolicy policy = policies.get();
+            for (int n = 0; n < battlesPerCell; n++) play(c, new BattleEngine(gs, c.floor, balance, rng), policy, rng);
+        });
+        return new Result(policies.get().name(), floors, battlesPerCell, cells, System.nanoTime() - start);
+    }
+
+    public static Result run(GameState template, int floors, int battlesPerCell, Supplier<BattlePolicy> policies, long seed) {
+        return run(template, floors, battlesPerCell, policies, BattleEngine.Balance.DEFAULT, seed);
+    }
+
+    // Plays 'battlesPerFloor' battles of every floor 1..floors with the loadout's own
+    // CPU and cooler, one battle at a time. Meant for expensive players (MctsAgent) that
+    // already use every core for each decision.
+    public static Result soak(GameState gs, int floors, int battlesPerFloor, BattlePolicy policy, long seed) {
+        List<Cell> cells = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int f = 1; f <= floors; f++) {
+            Cell c = new Cell(f, gs.currentCpu, gs.currentCooler);
+            cells.add(c);
+            SplittableRandom rng = new SplittableRandom(seed + (f - 1) * 0x9E3779B97F4A7C15L);
+            for (int n = 0; n < battlesPerFloor; n++) play(c, new BattleEngine(gs, f, rng), policy, rng);
+        }
+        return new Result(policy.name(), floors, battlesPerFloor, cells, System.nanoTime() - start);
+    }
+
+    private static void play(Cell c, BattleEngine battle, BattlePolicy policy, SplittableRandom rng) {
+        c.battles++;
+        while (!battle.isOver()) {
+            if (battle.turn() > MAX_TURNS) { c.stalemates++; return; }
+            BattleEngine.Action a = policy.choose(battle, rng);
+            BattleEngine.Outcome o = battle.act(a);
+            // A policy that keeps picking refused actions would stall the turn forever.
+            if (o == BattleEngine.Outcome.NO_THREADS || o == BattleEngine.Outcome.OUT_OF_MEMORY
+                    || o == BattleEngine.Outcome.UNAVAILABLE) battle.act(BattleEngine.Action.END_TURN);
+        }
+        if (battle.isWon()) {
+            c.wins++;
+            c.turnSum += battle.turn();
+            c.turnsToWin[battle.turn()]++;
+        }
+    }
+}
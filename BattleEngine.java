@@ -0,0 +1,382 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * CLASS: BattleEngine
+ * The combat rules of one floor, with no Swing in sight.
+ * * CyberQuestRPG drives it from buttons and timers and draws the result;
+ *   BalanceSweep drives it from a BattlePolicy and plays millions of battles.
+ * * It reads the loadout from a GameState but never writes to it: rewards and
+ *   floor progress are applied by the caller once the battle is over.
+ * * Every random roll (stability fails, crits) comes from the SplittableRandom
+ *   passed in, so a battle can be replayed from its seed.
+ * * The player's side (HP, RAM, threads, Turbo, SMT and their rules) is a PlayerSide,
+ *   shared with HordeBattle; this class adds the waves, targeting and the enemy attacks.
+ */
+public class BattleEngine {
+
+    // --- PLAYER ACTIONS ---
+    // 'label' is the name used in logs and Gantt charts, 'ramCost' the base RAM price.
+    public enum Action {
+        ATTACK("FCFS", 50),       // Hits the first enemy in the queue.
+        AOE("RR", 150),           // Hits every enemy for half damage.
+        SNIPE("SJF", 100),        // Hits the weakest enemy for 150% damage.
+        HEAL("HEAL", 200),        // Repairs 150 HP.
+        TURBO("TURBO", 0),        // +50% damage for 2 turns. 2 charges per battle, costs no thread.
+        SMT("SMT", 300),          // Doubles the threads for this turn. Once per battle.
+        END_TURN("IDLE/WAIT", 0); // Enemy phase, regeneration, threads refilled.
+
+        public final String label;
+        public final int ramCost;
+        Action(String label, int ramCost) { this.label = label; this.ramCost = ramCost; }
+    }
+
+    // --- RESULT OF ONE ACTION ---
+    public enum Outcome { OK, NO_THREADS, OUT_OF_MEMORY, KERNEL_PANIC, UNAVAILABLE, BATTLE_OVER }
+
+    // --- ENEMY BALANCE ---
+    // HP and damage multipliers per EnemyType (indexed by ordinal). DEFAULT mirrors the
+    // enum; a balance sweep tries candidate values without recompiling EnemyType.
+    public static class Balance {
+        public static final Balance DEFAULT = new Balance();
+
+        public final double[] hpMult = new double[EnemyType.values().length];
+        public final double[] dmgMult = new double[EnemyType.values().length];
+
+        public Balance() {
+            for (EnemyType t : EnemyType.values()) { hpMult[t.ordinal()] = t.hpMult; dmgMult[t.ordinal()] = t.dmgMult; }
+        }
+
+        // Copy with new multipliers for one enemy type.
+        public Balance with(EnemyType t, double hp, double dmg) {
+            Balance b = new Balance();
+            System.arraycopy(hpMult, 0, b.hpMult, 0, hpMult.length);
+            System.arraycopy(dmgMult, 0, b.dmgMult, 0, dmgMult.length);
+            b.hpMult[t.ordinal()] = hp;
+            b.dmgMult[t.ordinal()] = dmg;
+            return b;
+        }
+    }
+
+    // --- SETUP ---
+    private final GameState gs;
+    private final Balance balance;
+    private final SplittableRandom rng;
+    private BattleListener listener;
+    public final int stage;
+    public final int totalRounds;
+
+    // --- LIVE STATE ---
+    private final List<Monster> arena = new ArrayList<>();
+    private Monster[] wave = new Monster[0]; // Every enemy spawned this round, dead ones included.
+    private int round = 1;
+    private int turn = 1;                  // Player turns started so far (1 = first turn).
+    private final PlayerSide player;       // HP, RAM, threads, Turbo, SMT and their rules.
+    private boolean won = false, lost = false;
+    private int moves = 0;                 // Actions applied so far (refused ones don't count).
+    private Action lastMove;               // The most recent applied action.
+
+    // --- SNAPSHOT BOOKKEEPING (see BattleState) ---
+    private BattleState last;              // Latest snapshot taken or restored.
+    private int hitSince;                  // Bitmask of wave slots hit since 'last'.
+    private boolean newWaveSince;          // A new wave spawned since 'last'.
+
+    public BattleEngine(GameState gs, int stage, SplittableRandom rng) {
+        this(gs, stage, Balance.DEFAULT, rng);
+    }
+
+    public BattleEngine(GameState gs, int stage, Balance balance, SplittableRandom rng) {
+        this.gs = gs;
+        this.stage = stage;
+        this.balance = balance;
+        this.rng = rng;
+        this.totalRounds = rounds(stage);
+        this.player = new PlayerSide(gs);
+        startRound();
+    }
+
+    // Copy constructor for look-ahead: deep-copies the live state (monsters included),
+    // keeps the loadout and balance, drops the listener and rolls its own dice.
+    private BattleEngine(BattleEngine o, SplittableRandom rng) {
+        this.gs = o.gs;
+        this.stage = o.stage;
+        this.balance = o.balance;
+        this.rng = rng;
+        this.totalRounds = o.totalRounds;
+        this.wave = new Monster[o.wave.length];
+        for (int i = 0; i < wave.length; i++) {
+            Monster m = o.wave[i];
+            wave[i] = new Monster("P" + i, m.type, m.maxHP);
+            wave[i].currentHP = m.currentHP;
+            wave[i].isDead = m.isDead;
+            if (o.arena.contains(m)) arena.add(wave[i]); // Same order as the original queue.
+        }
+        this.round = o.round; this.turn = o.turn;
+        this.player = new PlayerSide(o.player);
+        this.won = o.won; this.lost = o.lost;
+        this.moves = o.moves; this.lastMove = o.lastMove;
+    }
+
+    // Independent copy of this battle that draws from 'rng' (used by search players).
+    public BattleEngine copy(SplittableRandom rng) { return new BattleEngine(this, rng); }
+
+    // A battle that continues from 'state' and draws from 'rng'.
+    public BattleEngine(BattleState state, SplittableRandom rng) {
+        this(state.loadout, state.stage, state.balance, rng);
+        restore(state);
+    }
+
+    // --- SNAPSHOTS ---
+
+    // Immutable view of the current state, linked to the previous snapshot. Re-uses the
+    // previous snapshot's enemies that were not hit since, so it costs O(changed fields).
+    public BattleState snapshot() {
+        BattleState.Enemy[] w;
+        if (last != null && !newWaveSince && hitSince == 0) {
+            w = last.wave;
+        } else {
+            w = new BattleState.Enemy[wave.length];
+            for (int i = 0; i < w.length; i++) {
+                boolean same = last != null && !newWaveSince && (hitSince & (1 << i)) == 0;
+                w[i] = same ? last.wave[i] : new BattleState.Enemy(wave[i].type, wave[i].maxHP, wave[i].currentHP);
+            }
+        }
+        PlayerSide p = player;
+        last = new BattleState(gs, balance, stage, w, round, turn, p.hp, p.ram, p.ap, p.maxAP, p.turboCharges, p.turboDuration,
+                p.smtUsed, p.smtActive, won, lost, moves, lastMove, last);
+        hitSince = 0;
+        newWaveSince = false;
+        return last;
+    }
+
+    // Puts this battle back into 'state' (undo, or start of a "what if" branch). Re-uses
+    // the Monster objects, so the UI's arena list stays valid and nothing is allocated.
+    public void restore(BattleState state) {
+        if (state.stage != stage || state.loadout != gs || state.wave.length != wave.length)
+            throw new IllegalArgumentException("snapshot is from another battle setup");
+        arena.clear();
+        for (int i = 0; i < wave.length; i++) {
+            BattleState.Enemy e = state.wave[i];
+            Monster m = wave[i];
+            m.type = e.type; m.name = e.type.label; m.maxHP = e.maxHP; m.currentHP = e.hp;
+            m.isHit = false; m.isDead = false;
+            if (e.hp > 0) arena.add(m); // The queue is the wave minus the dead, in order.
+        }
+        round = state.round; turn = state.turn;
+        PlayerSide p = player;
+        p.hp = state.hp; p.ram = state.ram; p.ap = state.ap; p.maxAP = state.maxAP;
+        p.turboCharges = state.turboCharges; p.turboDuration = state.turboDuration;
+        p.smtUsed = state.smtUsed; p.smtActive = state.smtActive;
+        won = state.won; lost = state.lost;
+        moves = state.moves; lastMove = state.lastMove;
+        last = state;
+        hitSince = 0;
+        newWaveSince = false;
+    }
+
+    public void setListener(BattleListener l) { this.listener = l; player.listener = l; }
+
+    // --- DAMAGE RESOLUTION ---
+
+    // Crit check: 'roll' is a uniform random number in [0, 1).
+    static boolean rollCrit(GameState gs, double roll) {
+        return roll < gs.getCritChance();
+    }
+
+    // Damage of one skill use, before the per-skill multipliers (RR halves it, SJF adds 50%).
+    static int skillDamage(GameState gs, boolean turbo, boolean crit) {
+        int dmg = gs.calculateBaseDamage(); // Based on CPU GHz.
+        if (turbo) dmg = (int)(dmg * 1.5); // Apply 50% Turbo Boost.
+        if (crit) dmg *= 2; // Double damage on crit.
+        return dmg;
+    }
+
+    // RAM price of an action, including the undervolt discount on skills.
+    public int cost(Action a) { return cost(gs, a); }
+
+    static int cost(GameState gs, Action a) {
+        if (a == Action.SMT) return a.ramCost;
+        return a.ramCost - (int)(a.ramCost * (gs.undervoltVal / 100.0));
+    }
+
+    // --- WAVE RULES (shared with BattleSolver) ---
+
+    // Rounds on a floor. Formula: Stage 1-2 = 2 rounds, Stage 3-5 = 3 rounds...
+    static int rounds(int stage) { return 2 + (stage / 3); }
+
+    // Enemies per wave: more enemies on higher floors.
+    static int waveSize(int stage) { return 1 + (stage / 2); }
+
+    // Type of enemy 'i' in wave 'round'.
+    static EnemyType enemyType(int stage, int round, int i) {
+        EnemyType t = EnemyType.CALCULATOR;
+        // Progressive difficulty logic
+        if (stage > 3) t = EnemyType.CHROME;
+        if (stage > 6) t = EnemyType.ANDROID;
+        // Boss spawn on the last round of specific floors
+        if (round == rounds(stage) && i == 0) {
+            if (stage == 3) t = EnemyType.ZIP_BOMB;
+            if (stage == 6) t = EnemyType.RANSOMWARE;
+            if (stage == 10) t = EnemyType.CYBERPUNK;
+        }
+        return t;
+    }
+
+    static int enemyHP(int stage, EnemyType t, Balance balance) {
+        return (int)((40 + stage * 10) * balance.hpMult[t.ordinal()]);
+    }
+
+    // Deterministic enemy attack: 25 * enemy multiplier.
+    static int enemyDamage(EnemyType t, Balance balance) {
+        return (int)(25 * balance.dmgMult[t.ordinal()]);
+    }
+
+    // True if 'a' would do something right now (used by policies and to grey out buttons).
+    public boolean canUse(Action a) {
+        return !isOver() && player.canUse(a);
+    }
+
+    // --- PLAYER PHASE ---
+    public Outcome act(Action a) {
+        if (isOver()) return Outcome.BATTLE_OVER;
+        Outcome o;
+        switch (a) {
+            case TURBO: o = player.turbo(); break;
+            case SMT: o = player.smt(); break;
+            case END_TURN: endTurn(); o = Outcome.OK; break;
+            default: o = skill(a);
+        }
+        if (o == Outcome.OK || o == Outcome.KERNEL_PANIC) { moves++; lastMove = a; }
+        return o;
+    }
+
+    private Outcome skill(Action a) {
+        // 1-4. Threads, RAM (undervolt discount), stability check (see PlayerSide.pay)
+        Outcome paid = player.pay(a, rng);
+        if (paid != Outcome.OK) return paid;
+
+        // 5-6. Crit (Cache size) and Damage (CPU GHz, Turbo Boost, Crit)
+        int dmg = player.rollDamage(rng);
+
+        // 7. Execute Skill Logic
+        if (a == Action.ATTACK && !arena.isEmpty()) {
+            hit(arena.get(0), dmg); // First in queue.
+        } else if (a == Action.AOE) {
+            for (int i = 0; i < arena.size(); i++) hit(arena.get(i), dmg / 2); // Everyone, half damage.
+        } else if (a == Action.SNIPE && !arena.isEmpty()) {
+            hit(weakest(), (int)(dmg * 1.5)); // Lowest HP, bonus damage.
+        } else if (a == Action.HEAL) {
+            player.heal();
+        }
+        player.afterSkill();
+
+        // 8. Cleanup
+        checkClear();
+        return Outcome.OK;
+    }
+
+    private void hit(Monster m, int dmg) {
+        m.currentHP -= dmg;
+        for (int i = 0; i < wave.length; i++) if (wave[i] == m) hitSince |= 1 << i;
+        if (listener != null) listener.onMonsterHit(m, dmg);
+    }
+
+    // Enemy with the lowest HP (first one wins ties, like the stream min it replaces).
+    private Monster weakest() {
+        Monster best = arena.get(0);
+        for (int i = 1; i < arena.size(); i++) if (arena.get(i).currentHP < best.currentHP) best = arena.get(i);
+        return best;
+    }
+
+    // --- ENEMY PHASE ---
+    private void endTurn() {
+        player.startEnemyPhase();
+
+        // All alive monsters attack: deterministic 25 * enemy multiplier.
+        for (int i = 0; i < arena.size(); i++) {
+            Monster m = arena.get(i);
+            if (m.isDead) continue;
+            int dmg = enemyDamage(m.type, balance);
+            player.hp -= dmg;
+            if (listener != null) {
+                listener.onPlayerHit(m, dmg);
+                log(m.name + " hits: " + dmg + " HP");
+            }
+        }
+
+        // Regeneration, threads refilled (see PlayerSide.endEnemyPhase)
+        if (!player.endEnemyPhase()) {
+            lost = true;
+            if (listener != null) listener.onDefeat();
+        } else {
+            turn++;
+        }
+    }
+
+    // --- WAVES ---
+    private void startRound() {
+        newWaveSince = true;
+        arena.clear();
+        wave = new Monster[waveSize(stage)];
+        for (int i = 0; i < wave.length; i++) {
+            EnemyType t = enemyType(stage, round, i);
+            wave[i] = new Monster("P" + i, t, enemyHP(stage, t, balance));
+            arena.add(wave[i]);
+        }
+    }
+
+    private void checkClear() {
+        arena.removeIf(m -> m.currentHP <= 0);
+        if (!arena.isEmpty()) return;
+        if (round < totalRounds) {
+            round++;
+            startRound();
+            if (listener != null) listener.onWaveStart(round);
+        } else {
+            won = true;
+            if (listener != null) listener.onVictory();
+        }
+    }
+
+    private void log(String s) { if (listener != null) listener.onLog(s); }
+
+    // --- STATE (read-only views) ---
+    public List<Monster> arena() { return arena; }
+    public Monster[] wave() { return wave; }
+    public Balance balance() { return balance; }
+    public int round() { return round; }
+    public int turn() { return turn; }
+    public int hp() { return player.hp; }
+    public int maxHP() { return player.maxHP; }
+    public int ram() { return player.ram; }
+    public int maxRAM() { return player.maxRAM; }
+    public int ap() { return player.ap; }
+    public int maxAP() { return player.maxAP; }
+    public int turboCharges() { return player.turboCharges; }
+    public int turboDuration() { return player.turboDuration; }
+    public boolean smtUsed() { return player.smtUsed; }
+    public boolean smtActive() { return player.smtActive; }
+    public boolean isWon() { return won; }
+    public boolean isLost() { return lost; }
+    public boolean isOver() { return won || lost; }
+    // 64-bit fingerprint of everything the rules depend on (not the turn counter, which
+    // no rule reads): two battles of one floor and loadout with equal hashes play alike.
+    public long stateHash() {
+        PlayerSide p = player;
+        long h = stage;
+        h = h * 31 + round; h = h * 31 + p.hp; h = h * 31 + p.ram; h = h * 31 + p.ap; h = h * 31 + p.maxAP;
+        h = h * 31 + p.turboCharges; h = h * 31 + p.turboDuration;
+        h = h * 31 + (p.smtUsed ? 1 : 0); h = h * 31 + (p.smtActive ? 1 : 0);
+        h = h * 31 + (won ? 1 : 0); h = h * 31 + (lost ? 1 : 0);
+        for (Monster m : wave) h = h * 31 + (m.currentHP <= 0 ? 0 : m.currentHP);
+        // Final mix (SplitMix64) so nearby states land far apart in hash tables.
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+
+    public int moves() { return moves; }
+    public Action lastMove() { return lastMove; }
+    public GameState loadout() { return gs; }
+}
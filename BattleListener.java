@@ -0,0 +1,14 @@
+/**
+ * INTERFACE: BattleListener
+ * Hooks fired by BattleEngine while a battle is played.
+ * * All methods default to no-ops: the battle window overrides them to write the log,
+ *   flash enemies and play the banners; headless sweeps simply don't attach one.
+ */
+public interface BattleListener {
+    default void onLog(String message) {}
+    default void onMonsterHit(Monster m, int damage) {}  // Player damaged an enemy.
+    default void onPlayerHit(Monster m, int damage) {}   // Enemy phase: 'm' hit the player.
+    default void onWaveStart(int round) {}               // A new wave spawned (not called for the first one).
+    default void onVictory() {}                          // Last wave of the floor cleared.
+    default void onDefeat() {}                           // Player HP dropped to 0.
+}
@@ -0,0 +1,61 @@
+import java.util.SplittableRandom;
+
+/**
+ * INTERFACE: BattlePolicy
+ * A player that picks the next action in a BattleEngine (used by headless sweeps).
+ * * Policies only look at the battle and never change it; the caller applies the
+ *   chosen action. Returning END_TURN hands the turn to the enemies.
+ */
+public interface BattlePolicy {
+
+    String name();
+
+    BattleEngine.Action choose(BattleEngine battle, SplittableRandom rng);
+
+    // --- BUILT-IN PLAYERS ---
+
+    // "FCFS spam": basic attack on the first enemy until out of threads or RAM.
+    static BattlePolicy attackOnly() {
+        return new BattlePolicy() {
+            @Override public String name() { return "Attack Only"; }
+            @Override public BattleEngine.Action choose(BattleEngine b, SplittableRandom rng) {
+                return b.canUse(BattleEngine.Action.ATTACK) ? BattleEngine.Action.ATTACK : BattleEngine.Action.END_TURN;
+            }
+        };
+    }
+
+    // A sensible human: Turbo and SMT when available, heal when low, AoE big waves,
+    // snipe otherwise, basic attack when RAM is short.
+    static BattlePolicy greedy() {
+        return new BattlePolicy() {
+            @Override public String name() { return "Greedy"; }
+            @Override public BattleEngine.Action choose(BattleEngine b, SplittableRandom rng) {
+                if (b.turboDuration() == 0 && b.canUse(BattleEngine.Action.TURBO)) return BattleEngine.Action.TURBO;
+                if (b.canUse(BattleEngine.Action.SMT)) return BattleEngine.Action.SMT;
+                if (b.hp() * 10 < b.maxHP() * 4 && b.canUse(BattleEngine.Action.HEAL)) return BattleEngine.Action.HEAL;
+                if (b.arena().size() >= 3 && b.canUse(BattleEngine.Action.AOE)) return BattleEngine.Action.AOE;
+                if (b.canUse(BattleEngine.Action.SNIPE)) return BattleEngine.Action.SNIPE;
+                if (b.canUse(BattleEngine.Action.ATTACK)) return BattleEngine.Action.ATTACK;
+                return BattleEngine.Action.END_TURN;
+            }
+        };
+    }
+
+    // Button masher: any usable action, chosen uniformly; ends the turn when none is left.
+    static BattlePolicy random() {
+        BattleEngine.Action[] all = BattleEngine.Action.values();
+        return new BattlePolicy() {
+            @Override public String name() { return "Random"; }
+            @Override public BattleEngine.Action choose(BattleEngine b, SplittableRandom rng) {
+                BattleEngine.Action pick = BattleEngine.Action.END_TURN;
+                int usable = 0;
+                for (BattleEngine.Action a : all) {
+                    if (a == BattleEngine.Action.END_TURN || !b.canUse(a)) continue;
+                    // Reservoir sampling: keeps each usable action with equal probability.
+                    if (rng.nextInt(++usable) == 0) pick = a;
+                }
+                return pick;
+            }
+        };
+    }
+}
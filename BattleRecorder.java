@@ -0,0 +1,118 @@
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.SplittableRandom;
+
+/**
+ * CLASS: BattleRecorder
+ * Records a battle as a small binary replay: the seed, the loadout and the player's
+ * inputs. Nothing else is needed - BattleEngine is deterministic given its dice, so
+ * BattleReplay re-creates every crit, kernel panic and enemy hit by replaying the
+ * inputs against a battle seeded the same way.
+ * * Only applied actions are recorded (refused clicks change nothing and roll no dice).
+ * * FILE FORMAT (big-endian, "varint" = unsigned LEB128: 7 bits per byte, high bit = more):
+ *     int     MAGIC 'CQRP'         byte  VERSION
+ *     long    seed                 varint floor
+ *     UTF     CPU name             UTF   cooler name
+ *     varint  ramIndex, storageLevel, overclockVal, undervoltVal
+ *     byte    ECC (0/1)
+ *     byte    balance: 0 = default, else the type count followed by (hp, dmg) doubles
+ *     varint  input count
+ *     varint  per input: (milliseconds since the previous input << 3) | action ordinal,
+ *             or UNDO (7) in the low bits: the last move was taken back (version 2)
+ *     varint  final turn           long  final BattleEngine.stateHash()
+ * * Delta-encoded times keep an input at 1-2 bytes; a whole battle is usually well
+ *   under 100 bytes. The footer lets a reader verify that its replay matches.
+ */
+public class BattleRecorder {
+
+    public static final int MAGIC = 0x43515250; // "CQRP"
+    public static final int VERSION = 2;
+    public static final int UNDO = 7; // Input code after the 7 action ordinals.
+
+    // --- DICE ---
+    // One seeded root per battle, split into independent streams: the combat dice (the
+    // only ones a replay needs) and the cosmetic ones (screen shake).
+    public static SplittableRandom dice(long seed) { return new SplittableRandom(seed).split(); }
+
+    public static SplittableRandom effects(long seed) {
+        SplittableRandom root = new SplittableRandom(seed);
+        root.split(); // Skip the combat stream.
+        return root.split();
+    }
+
+    private final long seed;
+    private final int floor;
+    private final GameState loadout;
+    private final BattleEngine.Balance balance;
+    private final ByteArrayOutputStream inputs = new ByteArrayOutputStream();
+    private int count;
+    private long lastMillis;
+
+    // 'loadout' is an immutable snapshot: later shop visits don't change the recording.
+    public BattleRecorder(GameState loadout, int floor, BattleEngine.Balance balance, long seed) {
+        this.loadout = loadout;
+        this.floor = floor;
+        this.balance = balance;
+        this.seed = seed;
+    }
+
+    // Call after every battle.act(a); 'millis' is the time since the battle started.
+    public void record(BattleEngine.Action a, BattleEngine.Outcome o, long millis) {
+        if (o != BattleEngine.Outcome.OK && o != BattleEngine.Outcome.KERNEL_PANIC) return;
+        write(a.ordinal(), millis);
+    }
+
+    // Call after battle.restore(...) took back the last move (in-turn undo).
+    public void recordUndo(long millis) { write(UNDO, millis); }
+
+    private void write(int code, long millis) {
+        long delta = Math.max(0, millis - lastMillis);
+        lastMillis = Math.max(lastMillis, millis);
+        writeVarint(inputs, (delta << 3) | code);
+        count++;
+    }
+
+    public int inputs() { return count; }
+
+    // The replay file, with the final state of 'battle' as the checksum footer.
+    public byte[] finish(BattleEngine battle) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + inputs.size());
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeLong(seed);
+            writeVarint(out, floor);
+            out.writeUTF(loadout.currentCpu.name());
+            out.writeUTF(loadout.currentCooler.name());
+            writeVarint(out, loadout.ramIndex);
+            writeVarint(out, loadout.storageLevel);
+            writeVarint(out, loadout.overclockVal);
+            writeVarint(out, loadout.undervoltVal);
+            out.writeByte(loadout.hasECC ? 1 : 0);
+            if (balance == BattleEngine.Balance.DEFAULT) {
+                out.writeByte(0);
+            } else {
+                out.writeByte(balance.hpMult.length);
+                for (int i = 0; i < balance.hpMult.length; i++) { out.writeDouble(balance.hpMult[i]); out.writeDouble(balance.dmgMult[i]); }
+            }
+            writeVarint(out, count);
+            inputs.writeTo(out);
+            writeVarint(out, battle.turn());
+            out.writeLong(battle.stateHash());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // In-memory streams don't fail.
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeVarint(java.io.OutputStream out, long v) {
+        try {
+            while ((v & ~0x7FL) != 0) { out.write((int) ((v & 0x7F) | 0x80)); v >>>= 7; }
+            out.write((int) v);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
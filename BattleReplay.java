@@ -0,0 +1,163 @@
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * CLASS: BattleReplay
+ * A recorded battle (see BattleRecorder for the file format), played back headless.
+ * * play() re-runs the whole battle with no listener, no timers and no Swing: a battle
+ *   takes microseconds instead of minutes.
+ * * seek(turn) returns the battle as it stood when 'turn' began. Replaying from the
+ *   start is so cheap that no keyframes are stored; an index of where every turn's
+ *   inputs start makes the seek itself a single loop.
+ * * UNDO inputs are replayed like the player did them: back to the snapshot before the
+ *   last move, with the dice rolling on (so a retried move can roll differently).
+ * * verify() checks the replay against the recorded final state (same turn, same
+ *   state hash), which catches rule changes that broke old replays.
+ * * read() refuses (IOException) any file seek() couldn't play: fields out of range,
+ *   impossible counts or turns, an UNDO with no move to take back.
+ */
+public class BattleReplay {
+
+    public final long seed;
+    public final int floor;
+    public final GameState loadout;
+    public final BattleEngine.Balance balance;
+    public final int finalTurn;
+    public final long finalHash;
+    private final byte[] codes;       // Action ordinal or BattleRecorder.UNDO per input.
+    private final long[] millis;      // Time of each input since the battle started.
+    private final int[] turnStart;    // turnStart[t] = index of the first input of turn t.
+
+    private BattleReplay(long seed, int floor, GameState loadout, BattleEngine.Balance balance,
+                         byte[] codes, long[] millis, int finalTurn, long finalHash) {
+        this.seed = seed; this.floor = floor; this.loadout = loadout; this.balance = balance;
+        this.codes = codes; this.millis = millis; this.finalTurn = finalTurn; this.finalHash = finalHash;
+        this.turnStart = new int[finalTurn + 2];
+        int t = 1;
+        // An enemy phase is never undone, so END_TURN inputs split the turns for good.
+        for (int i = 0; i < codes.length && t <= finalTurn; i++)
+            if (codes[i] == BattleEngine.Action.END_TURN.ordinal()) turnStart[++t] = i + 1;
+        for (t++; t < turnStart.length; t++) turnStart[t] = codes.length; // Turns never reached.
+    }
+
+    public static BattleReplay read(Path file) throws IOException { return read(Files.readAllBytes(file)); }
+
+    public static BattleReplay read(byte[] data) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        if (in.readInt() != BattleRecorder.MAGIC) throw new IOException("not a battle replay");
+        int version = in.readUnsignedByte();
+        if (version < 1 || version > BattleRecorder.VERSION) throw new IOException("unsupported replay version " + version);
+        long seed = in.readLong();
+        int floor = bounded("floor", readVarint(in), 1, 1000);
+        GameState.Draft gs = GameState.get().edit();
+        try {
+            gs.currentCpu = Hardware.CpuType.valueOf(in.readUTF());
+            gs.currentCooler = Hardware.CoolerType.valueOf(in.readUTF());
+        } catch (IllegalArgumentException e) {
+            throw new IOException("replay uses a part this version doesn't have: " + e.getMessage());
+        }
+        gs.ramIndex = bounded("RAM tier", readVarint(in), 0, GameState.MAX_RAM_INDEX);
+        gs.storageLevel = bounded("storage level", readVarint(in), 0, GameState.MAX_STORAGE_LEVEL);
+        gs.overclockVal = bounded("overclock", readVarint(in), 0, 100);
+        gs.undervoltVal = bounded("undervolt", readVarint(in), 0, 100);
+        gs.hasECC = in.readUnsignedByte() != 0;
+        BattleEngine.Balance balance = BattleEngine.Balance.DEFAULT;
+        int types = in.readUnsignedByte();
+        if (types != 0) {
+            if (types != EnemyType.values().length) throw new IOException("replay has " + types + " enemy types");
+            balance = new BattleEngine.Balance();
+            for (int i = 0; i < types; i++) { balance.hpMult[i] = in.readDouble(); balance.dmgMult[i] = in.readDouble(); }
+        }
+        int n = bounded("input count", readVarint(in), 0, data.length); // Every input takes at least one byte.
+        byte[] codes = new byte[n];
+        long[] millis = new long[n];
+        long t = 0;
+        int endTurns = 0;
+        for (int i = 0; i < n; i++) {
+            long v = readVarint(in);
+            int code = (int) (v & 7);
+            if (code == BattleRecorder.UNDO && version < 2) throw new IOException("bad action " + code + " at input " + i);
+            if (code == BattleEngine.Action.END_TURN.ordinal()) endTurns++;
+            codes[i] = (byte) code;
+            millis[i] = t += v >>> 3;
+        }
+        // Only END_TURN starts a new turn, so a battle can't have reached more turns than that.
+        int finalTurn = bounded("final turn", readVarint(in), 1, endTurns + 1);
+        long finalHash = in.readLong();
+        BattleReplay r = new BattleReplay(seed, floor, gs.freeze(), balance, codes, millis, finalTurn, finalHash);
+        // Whether an UNDO has a move to take back depends on which moves the rules applied,
+        // so play the file once (microseconds): after this, seek() can't fail on any turn.
+        try {
+            r.play();
+        } catch (IllegalStateException e) {
+            throw new IOException(e.getMessage());
+        }
+        return r;
+    }
+
+    // 'v' as an int, or an IOException naming the field if it is outside lo..hi.
+    private static int bounded(String what, long v, int lo, int hi) throws IOException {
+        if (v < lo || v > hi) throw new IOException(what + " " + v + " is outside " + lo + ".." + hi);
+        return (int) v;
+    }
+
+    private static long readVarint(DataInputStream in) throws IOException {
+        long v = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            v |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return v;
+        }
+        throw new IOException("varint too long");
+    }
+
+    // --- PLAYBACK ---
+
+    public int inputs() { return codes.length; }
+    public boolean isUndo(int i) { return codes[i] == BattleRecorder.UNDO; }
+    public BattleEngine.Action action(int i) { return isUndo(i) ? null : BattleEngine.Action.values()[codes[i]]; }
+    public long millis(int i) { return millis[i]; }
+
+    // Index range of the inputs played during 'turn': [firstInput(turn), firstInput(turn + 1)).
+    public int firstInput(int turn) { return turnStart[Math.max(1, Math.min(turn, finalTurn + 1))]; }
+
+    // A fresh battle at the start of the recording.
+    public BattleEngine start() {
+        return new BattleEngine(loadout, floor, balance, BattleRecorder.dice(seed));
+    }
+
+    // The whole battle, played to the end.
+    public BattleEngine play() { return seek(finalTurn + 1); }
+
+    // The battle as it stood when 'turn' began (1 = before the first input).
+    public BattleEngine seek(int turn) {
+        BattleEngine b = start();
+        int end = firstInput(turn);
+        BattleState shown = b.snapshot(); // Where an UNDO goes back from.
+        for (int i = 0; i < end; i++) {
+            if (isUndo(i)) {
+                if (shown.previous == null) throw new IllegalStateException("UNDO before the first move at input " + i);
+                shown = shown.previous;
+                b.restore(shown);
+            } else {
+                BattleEngine.Outcome o = b.act(action(i));
+                if (o == BattleEngine.Outcome.OK || o == BattleEngine.Outcome.KERNEL_PANIC) shown = b.snapshot();
+            }
+        }
+        return b;
+    }
+
+    public boolean verify() {
+        BattleEngine b = play();
+        return b.turn() == finalTurn && b.stateHash() == finalHash;
+    }
+
+    @Override public String toString() {
+        return "Floor " + floor + " | " + loadout.currentCpu.label + " + " + loadout.currentCooler.label
+                + " | " + codes.length + " inputs, " + finalTurn + " turns, seed " + Long.toHexString(seed)
+                + (millis.length == 0 ? "" : String.format(" | %.1f s played", millis[millis.length - 1] / 1000.0));
+    }
+}
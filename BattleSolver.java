@@ -0,0 +1,378 @@
+import java.util.SplittableRandom;
+
+/**
+ * CLASS: BattleSolver
+ * Exact win probability and optimal play for one floor with one loadout.
+ * * EXPECTIMAX: the player takes the action with the highest win probability (max
+ *   node); a skill then branches on chance - kernel panic, crit or normal hit - with
+ *   the exact probabilities of the loadout. The enemy phase is deterministic.
+ * * HORIZON: a battle still running after 'horizon' turns counts as lost. Every action
+ *   spends a thread, a Turbo charge or the SMT burst, and END_TURN advances the turn,
+ *   so with the turn in the state the game tree has no cycles.
+ * * TRANSPOSITION TABLE: a state packs into two longs (field widths sized from the
+ *   floor's maxima) and its value is kept in a fixed-size, 4-way set-associative table
+ *   of primitive arrays. When a set is full, the entry that was cheapest to compute is
+ *   replaced. An evicted state is just solved again, so the memory cap costs time,
+ *   never exactness.
+ * * PRUNING (exact): a chance node stops as soon as even winning all its remaining
+ *   outcomes could not beat the best sibling, and dominated moves are skipped
+ *   (healing at full HP or re-arming Turbo at 2 turns only burn threads/charges -
+ *   and more threads, RAM or charges never hurt).
+ * * RAM above the most the player could still spend before the horizon behaves exactly
+ *   like that maximum (no action can be refused for memory), so it is stored as the
+ *   maximum. This folds most of the RAM axis away.
+ * * Uses the same rules as BattleEngine (shared wave and damage helpers), so the
+ *   policy() it returns can play real engine battles.
+ */
+public class BattleSolver {
+
+    // --- STATE LAYOUT (indexes into the int[] state) ---
+    private static final int TURN = 0, ROUND = 1, HP = 2, RAM = 3, AP = 4,
+            TURBO_CHARGES = 5, TURBO_LEFT = 6, SMT_USED = 7, SMT_ACTIVE = 8, ENEMY = 9;
+
+    // Actions in the order they are tried: likely winners first, so a certain win
+    // (probability 1) is found early and cuts the remaining siblings.
+    private static final BattleEngine.Action[] ORDER = {
+            BattleEngine.Action.SNIPE, BattleEngine.Action.AOE, BattleEngine.Action.ATTACK,
+            BattleEngine.Action.TURBO, BattleEngine.Action.SMT, BattleEngine.Action.HEAL,
+            BattleEngine.Action.END_TURN };
+
+    // --- SETUP ---
+    private final GameState gs;
+    public final int floor, horizon;
+    private final BattleEngine.Balance balance;
+    private final int cores, maxHP, maxRAM, regen, ramRegen, rounds, waveSize;
+    private final double panic, crit;      // Kernel panic and crit probabilities.
+    private final int maxSkillCost;         // Most RAM one skill can cost.
+    private final int[][] skillDamage;      // [turbo][crit] damage before skill multipliers.
+    private final int[][] waveHP, waveDmg;  // [round][slot] spawn HP and attack damage.
+    private final int[] shift, width;       // Packing: bit offset and width of each state field.
+    private final boolean[] high;           // Packing: field lives in the second long.
+
+    // --- TRANSPOSITION TABLE ---
+    private static final int WAYS = 4;
+    private static final long USED = 1L << 63; // Marks an occupied slot (keys use bits 0..62).
+    private final long[] key0, key1;
+    private final double[] value;
+    private final int[] work;
+    private final int setMask;
+
+    // Stats.
+    public long expanded, hits, evictions;
+    private long nodeLimit = Long.MAX_VALUE, budgetEnd = Long.MAX_VALUE;
+
+    /** CLASS: Position - a frozen battle state (taken on the UI thread, solved anywhere). */
+    public static final class Position {
+        public final int floor;
+        private final int[] state;
+        private Position(int floor, int[] state) { this.floor = floor; this.state = state; }
+        public int turn() { return state[TURN]; }
+    }
+
+    public BattleSolver(GameState gs, int floor, int horizon, int memoryMB) {
+        this(gs, floor, BattleEngine.Balance.DEFAULT, horizon, memoryMB);
+    }
+
+    public BattleSolver(GameState gs, int floor, BattleEngine.Balance balance, int horizon, int memoryMB) {
+        if (horizon < 1) throw new IllegalArgumentException("horizon must be >= 1: " + horizon);
+        this.gs = gs; // An immutable snapshot: safe to keep.
+        this.floor = floor;
+        this.horizon = horizon;
+        this.balance = balance;
+        this.cores = gs.currentCpu.cores;
+        this.maxHP = gs.getCurrentMaxHP();
+        this.maxRAM = gs.getCurrentRamMB();
+        this.regen = gs.currentCooler.regen;
+        this.ramRegen = 100 + (gs.hasECC ? 150 : 0);
+        this.rounds = BattleEngine.rounds(floor);
+        this.waveSize = BattleEngine.waveSize(floor);
+        this.panic = Math.min(1.0, gs.undervoltVal / 200.0);
+        this.crit = gs.getCritChance();
+        int priciest = 0;
+        for (BattleEngine.Action a : BattleEngine.Action.values())
+            if (a != BattleEngine.Action.SMT) priciest = Math.max(priciest, BattleEngine.cost(gs, a));
+        this.maxSkillCost = priciest;
+        this.skillDamage = new int[2][2];
+        for (int t = 0; t < 2; t++)
+            for (int c = 0; c < 2; c++) skillDamage[t][c] = BattleEngine.skillDamage(gs, t == 1, c == 1);
+        this.waveHP = new int[rounds + 1][waveSize];
+        this.waveDmg = new int[rounds + 1][waveSize];
+        int[] slotMax = new int[waveSize];
+        for (int r = 1; r <= rounds; r++) {
+            for (int i = 0; i < waveSize; i++) {
+                EnemyType t = BattleEngine.enemyType(floor, r, i);
+                waveHP[r][i] = BattleEngine.enemyHP(floor, t, balance);
+                waveDmg[r][i] = BattleEngine.enemyDamage(t, balance);
+                slotMax[i] = Math.max(slotMax[i], waveHP[r][i]);
+            }
+        }
+
+        // Field widths from the largest value each field can hold, first-fit into two longs.
+        int fields = ENEMY + waveSize;
+        int[] max = new int[fields];
+        max[TURN] = horizon; max[ROUND] = rounds; max[HP] = maxHP; max[RAM] = maxRAM; max[AP] = 2 * cores;
+        max[TURBO_CHARGES] = 2; max[TURBO_LEFT] = 2; max[SMT_USED] = 1; max[SMT_ACTIVE] = 1;
+        System.arraycopy(slotMax, 0, max, ENEMY, waveSize);
+        shift = new int[fields]; width = new int[fields]; high = new boolean[fields];
+        int lo = 0, hi = 0;
+        for (int f = 0; f < fields; f++) {
+            width[f] = Math.max(1, 32 - Integer.numberOfLeadingZeros(max[f]));
+            if (lo + width[f] <= 63) { shift[f] = lo; lo += width[f]; }
+            else if (hi + width[f] <= 64) { shift[f] = hi; hi += width[f]; high[f] = true; }
+            else throw new IllegalArgumentException("floor " + floor + " state does not fit in 127 bits");
+        }
+
+        // Table size: 28 bytes per entry (two keys, a value and a work count).
+        long entries = Math.max(WAYS, (long) memoryMB * 1024 * 1024 / 28);
+        int sets = Integer.highestOneBit((int) Math.min(entries / WAYS, 1 << 26));
+        this.setMask = sets - 1;
+        this.key0 = new long[sets * WAYS];
+        this.key1 = new long[sets * WAYS];
+        this.value = new double[sets * WAYS];
+        this.work = new int[sets * WAYS];
+    }
+
+    // --- PUBLIC API ---
+
+    // Stops any single query after 'nodes' new expansions (IllegalStateException), so a
+    // caller can deepen the horizon step by step without hanging on a huge floor.
+    public void setNodeLimit(long nodes) { this.nodeLimit = nodes; }
+
+    // Exact chance to clear the floor within the horizon, playing perfectly from the start.
+    public double winProbability() {
+        return winProbability(start());
+    }
+
+    // Exact chance to win from 'p' within the horizon.
+    public double winProbability(Position p) {
+        check(p);
+        if (p.state[TURN] > horizon) return 0;
+        budgetEnd = nodeLimit == Long.MAX_VALUE ? Long.MAX_VALUE : expanded + nodeLimit;
+        return solve(p.state.clone());
+    }
+
+    // The optimal action in 'p' (the first best one if several tie). Past the horizon every
+    // action loses, so it is END_TURN (TURN would not fit its packed field either).
+    public BattleEngine.Action bestAction(Position p) {
+        check(p);
+        if (p.state[TURN] > horizon) return BattleEngine.Action.END_TURN;
+        budgetEnd = nodeLimit == Long.MAX_VALUE ? Long.MAX_VALUE : expanded + nodeLimit;
+        BattleEngine.Action best = BattleEngine.Action.END_TURN;
+        double bestQ = -1;
+        for (BattleEngine.Action a : ORDER) {
+            if (!usable(p.state, a)) continue;
+            double q = q(p.state, a, -1);
+            if (q > bestQ) { bestQ = q; best = a; }
+        }
+        return best;
+    }
+
+    // Snapshot of a live battle (cheap; call it on the thread that drives the battle).
+    // Solve it with a solver built for the same floor and loadout.
+    public static Position positionOf(BattleEngine b) {
+        if (b.isOver()) throw new IllegalArgumentException("battle is already over");
+        Monster[] wave = b.wave();
+        int[] s = new int[ENEMY + wave.length];
+        s[TURN] = b.turn(); s[ROUND] = b.round(); s[HP] = b.hp(); s[RAM] = b.ram(); s[AP] = b.ap();
+        s[TURBO_CHARGES] = b.turboCharges(); s[TURBO_LEFT] = b.turboDuration();
+        s[SMT_USED] = b.smtUsed() ? 1 : 0; s[SMT_ACTIVE] = b.smtActive() ? 1 : 0;
+        for (int i = 0; i < wave.length; i++) s[ENEMY + i] = Math.max(0, wave[i].currentHP);
+        return new Position(b.stage, s);
+    }
+
+    public Position start() {
+        int[] s = new int[ENEMY + waveSize];
+        s[TURN] = 1; s[ROUND] = 1; s[HP] = maxHP; s[RAM] = maxRAM; s[AP] = cores; s[TURBO_CHARGES] = 2;
+        System.arraycopy(waveHP[1], 0, s, ENEMY, waveSize);
+        return new Position(floor, s);
+    }
+
+    private void check(Position p) {
+        if (p.floor != floor) throw new IllegalArgumentException("position is from floor " + p.floor + ", solver is for floor " + floor);
+    }
+
+    // Perfect player for BattleEngine battles of this floor and loadout.
+    public BattlePolicy policy() {
+        return new BattlePolicy() {
+            @Override public String name() { return "Exact (" + horizon + " turns)"; }
+            @Override public BattleEngine.Action choose(BattleEngine b, SplittableRandom rng) {
+                if (b.isOver() || b.turn() > horizon) return BattleEngine.Action.END_TURN;
+                return bestAction(positionOf(b));
+            }
+        };
+    }
+
+    public long tableEntries() { return key0.length; }
+
+    // --- EXPECTIMAX ---
+
+    // Max node: best win probability over every usable action.
+    private double solve(int[] st) {
+        st[RAM] = Math.min(st[RAM], spendable(st));
+        long k0 = pack(st, false), k1 = pack(st, true);
+        int set = index(k0, k1);
+        for (int w = 0; w < WAYS; w++) {
+            int i = set + w;
+            if (key0[i] == (k0 | USED) && key1[i] == k1) { hits++; return value[i]; }
+        }
+        if (expanded >= budgetEnd) throw new IllegalStateException("node limit reached (" + nodeLimit + " states)");
+        long before = expanded++;
+        double best = 0;
+        for (BattleEngine.Action a : ORDER) {
+            if (!usable(st, a) || dominated(st, a)) continue;
+            best = Math.max(best, q(st, a, best));
+            if (best >= 1.0) break; // Nothing beats a certain win.
+        }
+        store(set, k0, k1, best, expanded - before);
+        return best;
+    }
+
+    // Chance node: expected win probability after taking 'a'. Once the result can no longer
+    // exceed 'alpha' (the best sibling so far) it returns early with a value <= alpha.
+    private double q(int[] st, BattleEngine.Action a, double alpha) {
+        switch (a) {
+            case TURBO: {
+                int[] next = st.clone();
+                next[TURBO_CHARGES]--;
+                next[TURBO_LEFT] = 2;
+                return solve(next);
+            }
+            case SMT: {
+                int[] next = st.clone();
+                next[RAM] -= BattleEngine.Action.SMT.ramCost;
+                next[SMT_USED] = 1;
+                next[SMT_ACTIVE] = 1;
+                next[AP] += cores; // Max threads double; the new half is granted at once.
+                return solve(next);
+            }
+            case END_TURN:
+                return enemyPhase(st.clone());
+            default: {
+                double ok = 1 - panic, q = 0, left = 1;
+                // Most likely outcome first: it tightens the bound the fastest.
+                double pNormal = ok * (1 - crit), pCrit = ok * crit;
+                if (pNormal > 0) {
+                    q += pNormal * hit(st, a, 0);
+                    left -= pNormal;
+                    if (q + left <= alpha) return q;
+                }
+                if (pCrit > 0) {
+                    q += pCrit * hit(st, a, 1);
+                    left -= pCrit;
+                    if (q + left <= alpha) return q;
+                }
+                if (panic > 0) { // KERNEL PANIC: the thread is lost, nothing else happens.
+                    int[] next = st.clone();
+                    next[AP]--;
+                    q += panic * solve(next);
+                }
+                return q;
+            }
+        }
+    }
+
+    // A skill that went through: pay, deal damage (or heal), then check the wave.
+    private double hit(int[] st, BattleEngine.Action a, int critical) {
+        int[] s = st.clone();
+        s[RAM] -= BattleEngine.cost(gs, a);
+        s[AP]--;
+        int dmg = skillDamage[s[TURBO_LEFT] > 0 ? 1 : 0][critical];
+        if (a == BattleEngine.Action.ATTACK) {
+            int first = firstAlive(s);
+            s[ENEMY + first] -= dmg;
+        } else if (a == BattleEngine.Action.AOE) {
+            for (int i = 0; i < waveSize; i++) if (s[ENEMY + i] > 0) s[ENEMY + i] -= dmg / 2;
+        } else if (a == BattleEngine.Action.SNIPE) {
+            int weakest = -1;
+            for (int i = 0; i < waveSize; i++)
+                if (s[ENEMY + i] > 0 && (weakest < 0 || s[ENEMY + i] < s[ENEMY + weakest])) weakest = i;
+            s[ENEMY + weakest] -= (int)(dmg * 1.5);
+        } else {
+            s[HP] = Math.min(maxHP, s[HP] + 150);
+        }
+        // Dead enemies leave the arena (stored as 0 HP).
+        boolean anyAlive = false;
+        for (int i = 0; i < waveSize; i++) {
+            if (s[ENEMY + i] <= 0) s[ENEMY + i] = 0;
+            else anyAlive = true;
+        }
+        if (anyAlive) return solve(s);
+        if (s[ROUND] == rounds) return 1; // Floor cleared.
+        s[ROUND]++;
+        System.arraycopy(waveHP[s[ROUND]], 0, s, ENEMY, waveSize);
+        return solve(s);
+    }
+
+    // Deterministic enemy phase, regeneration and thread refill (same order as BattleEngine).
+    private double enemyPhase(int[] s) {
+        if (s[TURBO_LEFT] > 0) s[TURBO_LEFT]--;
+        for (int i = 0; i < waveSize; i++) if (s[ENEMY + i] > 0) s[HP] -= waveDmg[s[ROUND]][i];
+        s[HP] = Math.min(maxHP, s[HP] + regen);
+        s[RAM] = Math.min(maxRAM, s[RAM] + ramRegen);
+        s[AP] = cores;
+        s[SMT_ACTIVE] = 0;
+        if (s[HP] <= 0) return 0;
+        if (++s[TURN] > horizon) return 0;
+        return solve(s);
+    }
+
+    private boolean usable(int[] st, BattleEngine.Action a) {
+        switch (a) {
+            case TURBO: return st[TURBO_CHARGES] > 0;
+            case SMT: return gs.currentCpu.supportsThreads && st[SMT_USED] == 0 && st[RAM] >= a.ramCost;
+            case END_TURN: return true;
+            default: return st[AP] > 0 && st[RAM] >= BattleEngine.cost(gs, a);
+        }
+    }
+
+    // Upper bound on the RAM the player can still spend: every thread of every remaining
+    // turn on the priciest skill, plus the SMT burst (and its extra threads) if still unused.
+    private int spendable(int[] st) {
+        long turns = horizon - st[TURN] + 1;
+        long bound = turns * cores * maxSkillCost;
+        if (st[SMT_ACTIVE] == 1) bound += (long) cores * maxSkillCost;
+        if (st[SMT_USED] == 0 && gs.currentCpu.supportsThreads) bound += BattleEngine.Action.SMT.ramCost + (long) cores * maxSkillCost;
+        return (int) Math.min(Integer.MAX_VALUE, bound);
+    }
+
+    // Moves that can only waste resources compared with doing something else.
+    private boolean dominated(int[] st, BattleEngine.Action a) {
+        if (a == BattleEngine.Action.HEAL) return st[HP] == maxHP;
+        if (a == BattleEngine.Action.TURBO) return st[TURBO_LEFT] == 2;
+        return false;
+    }
+
+    private int firstAlive(int[] s) {
+        for (int i = 0; i < waveSize; i++) if (s[ENEMY + i] > 0) return i;
+        return 0;
+    }
+
+    // --- STATE PACKING ---
+
+    private long pack(int[] st, boolean second) {
+        long k = 0;
+        for (int f = 0; f < st.length; f++) if (high[f] == second) k |= (long) st[f] << shift[f];
+        return k;
+    }
+
+    // --- TABLE HELPERS ---
+
+    private int index(long k0, long k1) {
+        long h = (k0 ^ Long.rotateLeft(k1, 29)) * 0x9E3779B97F4A7C15L;
+        return (int) ((h ^ (h >>> 32)) & setMask) * WAYS;
+    }
+
+    private void store(int set, long k0, long k1, double v, long cost) {
+        int victim = set;
+        for (int w = 0; w < WAYS; w++) {
+            int i = set + w;
+            if (key0[i] == 0) { victim = i; break; }
+            if (work[i] < work[victim]) victim = i;
+        }
+        if (key0[victim] != 0) evictions++;
+        key0[victim] = k0 | USED;
+        key1[victim] = k1;
+        value[victim] = v;
+        work[victim] = (int) Math.min(Integer.MAX_VALUE, cost);
+    }
+}
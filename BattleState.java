@@ -0,0 +1,57 @@
+/**
+ * CLASS: BattleState
+ * An immutable snapshot of a battle between two actions (see BattleEngine.snapshot()).
+ * * STRUCTURAL SHARING: enemies are immutable Enemy values. A snapshot re-uses the
+ *   previous snapshot's Enemy objects for every enemy that was not hit in between, and
+ *   the whole wave array when none was. Loadout and balance are shared references.
+ *   Taking a snapshot costs the scalar fields plus the enemies that changed.
+ * * HISTORY: 'previous' is the snapshot this one was taken after, so the snapshots of
+ *   one battle form a tree - undo is following the link, a "what if" branch is just
+ *   restoring an older snapshot and playing on. Nothing is ever copied or mutated.
+ * * BattleEngine.restore(state) puts an engine back into this state without allocating.
+ *   The dice are not part of the state: each engine keeps rolling its own stream.
+ */
+public final class BattleState {
+
+    /** CLASS: Enemy - one enemy of the wave as a value (hp <= 0 = dead). */
+    public static final class Enemy {
+        public final EnemyType type;
+        public final int maxHP, hp;
+
+        Enemy(EnemyType type, int maxHP, int hp) { this.type = type; this.maxHP = maxHP; this.hp = hp; }
+    }
+
+    // --- SHARED SETUP ---
+    final GameState loadout;
+    final BattleEngine.Balance balance;
+    public final int stage;
+
+    // --- STATE ---
+    final Enemy[] wave; // Every enemy spawned this round, in queue order. Never written after construction.
+    public final int round, turn, hp, ram, ap, maxAP, turboCharges, turboDuration, moves;
+    public final boolean smtUsed, smtActive, won, lost;
+    public final BattleEngine.Action lastMove;
+    public final BattleState previous;
+
+    BattleState(GameState loadout, BattleEngine.Balance balance, int stage, Enemy[] wave,
+                int round, int turn, int hp, int ram, int ap, int maxAP, int turboCharges, int turboDuration,
+                boolean smtUsed, boolean smtActive, boolean won, boolean lost,
+                int moves, BattleEngine.Action lastMove, BattleState previous) {
+        this.loadout = loadout; this.balance = balance; this.stage = stage; this.wave = wave;
+        this.round = round; this.turn = turn; this.hp = hp; this.ram = ram; this.ap = ap; this.maxAP = maxAP;
+        this.turboCharges = turboCharges; this.turboDuration = turboDuration;
+        this.smtUsed = smtUsed; this.smtActive = smtActive; this.won = won; this.lost = lost;
+        this.moves = moves; this.lastMove = lastMove; this.previous = previous;
+    }
+
+    public int waveSize() { return wave.length; }
+    public Enemy enemy(int i) { return wave[i]; }
+    public boolean isOver() { return won || lost; }
+
+    // Snapshots between this one and the start of the battle (0 = first snapshot).
+    public int depth() {
+        int d = 0;
+        for (BattleState s = previous; s != null; s = s.previous) d++;
+        return d;
+    }
+}
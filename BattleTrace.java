@@ -0,0 +1,34 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import scheduler.ChromeTraceWriter;
+
+// EXPORTER: Writes the battle log (GameState.LogEntry list) as Chrome Trace / Perfetto JSON,
+// so a fight can be inspected in chrome://tracing or ui.perfetto.dev with zoom and search.
+public class BattleTrace {
+    private static final int PID = 1;
+
+    private BattleTrace() {}
+
+    // One track per task name (e.g. "FCFS", "TURBO", "IDLE/WAIT"), created the first time it shows up.
+    // LogEntry times are milliseconds since the battle started; the trace format wants microseconds.
+    public static long export(List<GameState.LogEntry> logs, Path file) throws IOException {
+        try (ChromeTraceWriter out = new ChromeTraceWriter(file)) {
+            out.processName(PID, "Battle (" + GameState.get().currentCpu.label + ")");
+            Map<String, Integer> tracks = new HashMap<>();
+            for (GameState.LogEntry l : logs) {
+                Integer tid = tracks.get(l.task);
+                if (tid == null) {
+                    tid = tracks.size();
+                    tracks.put(l.task, tid);
+                    out.threadName(PID, tid, l.task);
+                    out.threadSortIndex(PID, tid, tid);
+                }
+                out.complete(l.task, l.type, PID, tid, l.start * 1000, l.dur * 1000, null, 0);
+            }
+            return out.events();
+        }
+    }
+}
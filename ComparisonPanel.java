@@ -0,0 +1,72 @@
+import javax.swing.*;
+import java.awt.*;
+import java.util.List;
+import scheduler.LatencyHistogram;
+import scheduler.PolicyComparison;
+import scheduler.TimelineRecorder;
+
+// COMPARE VIEW: One band per scheduling policy, stacked so they line up tick for tick.
+// Each band shows the policy's metrics and a Gantt strip per core for the start of the run.
+public class ComparisonPanel extends JPanel {
+    private static final int HEADER = 36;   // Text lines above each strip
+    private static final int LANE = 14;     // Height of one core's lane
+    private final List<PolicyComparison.Run> runs;
+
+    public ComparisonPanel(List<PolicyComparison.Run> runs) {
+        this.runs = runs;
+        int height = 40;
+        for (PolicyComparison.Run r : runs) height += bandHeight(r);
+        setPreferredSize(new Dimension(1100, height));
+    }
+
+    private static int bandHeight(PolicyComparison.Run r) {
+        return HEADER + r.timeline.cores() * LANE + 16;
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        g.setColor(new Color(30, 30, 30));
+        g.fillRect(0, 0, getWidth(), getHeight());
+        if (runs.isEmpty()) return;
+
+        // All strips share one time scale so the same tick sits at the same x everywhere.
+        long horizon = runs.get(0).timeline.horizon();
+        int xStart = 60, width = Math.max(100, getWidth() - xStart - 20);
+        double scale = width / (double) horizon;
+
+        g.setColor(Color.WHITE);
+        g.setFont(new Font("Arial", Font.BOLD, 14));
+        g.drawString("POLICY COMPARISON (same workload, first " + horizon + " ticks shown)", 10, 22);
+        g.setFont(new Font("SansSerif", Font.PLAIN, 12));
+
+        int y = 40;
+        for (PolicyComparison.Run r : runs) {
+            LatencyHistogram wait = r.metrics.waiting(), turn = r.metrics.turnaround(), resp = r.metrics.response();
+            g.setColor(Color.YELLOW);
+            g.drawString(r.label, 10, y + 12);
+            g.setColor(Color.LIGHT_GRAY);
+            g.drawString(String.format("%.2f jobs/1k ticks | util %.0f%% | ctx %,d | wait mean %.1f p99 %,d | turnaround p50 %,d p99 %,d p99.9 %,d | response p99 %,d | %.0f ms host",
+                    r.report.throughput(), r.report.meanUtilization() * 100, r.report.contextSwitches,
+                    wait.mean(), wait.percentile(0.99), turn.percentile(0.50), turn.percentile(0.99),
+                    turn.percentile(0.999), resp.percentile(0.99), r.report.wallNanos / 1e6), 10, y + 28);
+
+            TimelineRecorder t = r.timeline;
+            int top = y + HEADER;
+            for (int c = 0; c < t.cores(); c++) {
+                g.setColor(Color.GRAY);
+                g.drawString("C" + c, 10, top + c * LANE + 11);
+                g.setColor(new Color(45, 45, 45));
+                g.fillRect(xStart, top + c * LANE, width, LANE - 2);
+            }
+            for (int i = 0; i < t.size(); i++) {
+                int x = xStart + (int) (t.start(i) * scale);
+                int w = Math.max(1, (int) ((t.end(i) - t.start(i)) * scale));
+                // Golden-ratio hues keep neighbouring process ids visually distinct.
+                g.setColor(Color.getHSBColor((t.pid(i) * 0.618034f) % 1f, 0.6f, 0.95f));
+                g.fillRect(x, top + t.core(i) * LANE, w, LANE - 2);
+            }
+            y += bandHeight(r);
+        }
+    }
+}
@@ -1,83 +1,100 @@
 import javax.swing.*;
 import java.awt.*;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
 
 // CLASS DEFINITION: Extends JFrame to create the main game window.
+// The combat rules live in BattleEngine; this window turns button clicks into engine
+// actions and draws what happened (bars, logs, hit flashes, banners).
 public class CyberQuestRPG extends JFrame {
 
     // --- DATA MODELS ---
     // CPUProfile stores the visual stats (Name, Color, etc.) of the player's CPU.
     private CPUProfile cpu; 
     
-    // List<Monster> is a dynamic array that holds all currently alive enemies.
-    private List<Monster> arena = new ArrayList<>(); 
+    // The battle itself: HP, RAM, threads (AP), skills, waves and enemies.
+    private BattleEngine battle;
+    
+    // List<Monster> holds all currently alive enemies (owned and updated by the engine).
+    private List<Monster> arena; 
     
     // Reference to the Main Menu window so we can re-open it when the battle ends.
     private MainMenu menuRef; 
     
-    // Progression variables tracking the current floor and wave.
-    private int stage, currentRound = 1, totalRounds;
-
-    // --- BATTLE STATS ---
-    // Integer variables for Health (HP), Memory (RAM), and Action Points (AP).
-    // 'current' tracks live value, 'max' tracks the cap.
-    private int currentHP, maxHP;
-    private int currentRAM, maxRAM;
-    private int currentAP, maxAP;
-    
-    // --- SKILL MECHANICS (New in v5.4) ---
-    private int turboCharges = 2;   // Limits Turbo Boost to 2 uses per run.
-    private int turboDuration = 0;  // Tracks how many turns the boost lasts.
-    private boolean smtUsed = false;// Boolean flag to ensure SMT is used only once per battle.
+    // The floor being played.
+    private int stage;
     
     // --- GANTT LOGGING (ADDED) ---
     private long startTime;
     private List<GameState.LogEntry> logs = new ArrayList<>();
 
+    // --- REPLAY ---
+    // Every battle gets its own seed; with the recorded inputs it reproduces the whole fight.
+    private final long seed = new SplittableRandom().nextLong();
+    private BattleRecorder recorder;
+
+    // --- UNDO ---
+    // Snapshot after the last applied move; its 'previous' link is the undo history.
+    private BattleState shown;
+
     // --- UI COMPONENTS ---
     private GamePanel gamePanel;       // Custom drawing panel for graphics.
     private JProgressBar barHP, barRAM;// Visual bars for stats.
     private JLabel lblThreads;         // Text label for AP count.
     private JTextArea logArea;         // Scrollable text area for battle logs.
     private JButton btnEndTurn;        // Reference to button to change its color.
+    private JButton btnAuto;           // Autopilot toggle (label shows ON/OFF).
+
+    // --- LIVE FORECAST ON THE SKILL BUTTONS ---
+    // Expected damage / kill / survival per action, computed off the EDT by SkillForecast.
+    private final Map<BattleEngine.Action, JButton> skillButtons = new EnumMap<>(BattleEngine.Action.class);
+    private final Map<BattleEngine.Action, String> skillNames = new EnumMap<>(BattleEngine.Action.class);
+    private final SkillForecast forecast = new SkillForecast(this::showForecast);
+    private boolean oracleBusy;        // An ORACLE search is running in the background.
+
+    // --- AUTOPILOT (MCTS) ---
+    private MctsAgent autopilot;       // Created on first use; keeps its search trees between moves.
+    private Timer autoTimer;           // Plays one move per tick while the autopilot is on.
+    private boolean enemyPhase;        // True during the delayed enemy turn.
+    private boolean autoBusy;          // An autopilot search is running in the background.
+    private final SplittableRandom autoRng = new SplittableRandom();
 
     // CONSTRUCTOR: This runs when 'new CyberQuestRPG(...)' is called.
     public CyberQuestRPG(int stageNum, MainMenu menu) {
         this.menuRef = menu;
         this.stage = stageNum;
-        // Formula: Calculates rounds based on stage. Stage 1-2 = 2 rounds, Stage 3 = 3 rounds.
-        this.totalRounds = 2 + (stage / 3);
         
         // Start Timer for Logs
         this.startTime = System.currentTimeMillis();
 
-        // ACCESS GLOBAL STATE: Get the Singleton instance of GameState.
+        // ACCESS GLOBAL STATE: The player's current GameState snapshot (fixed for this battle).
         GameState gs = GameState.get();
         
-        // SETUP STATS:
-        // Calculate base cores from the equipped CPU type.
-        int baseCores = gs.currentCpu.cores;
-        
-        // Retrieve calculated max stats from GameState (includes upgrades).
-        this.maxRAM = gs.getCurrentRamMB();
-        this.maxHP = gs.getCurrentMaxHP();
-        
-        // Initialize current values to maximum at start of battle.
-        this.currentHP = maxHP;
-        this.currentRAM = maxRAM;
-        this.maxAP = baseCores;
-        this.currentAP = maxAP;
+        // SETUP BATTLE:
+        // The engine reads the loadout (cores, RAM, storage...) and spawns the first wave.
+        // Its dice come from this battle's seed, so the recorder can replay it exactly.
+        this.battle = new BattleEngine(gs, stage, BattleRecorder.dice(seed));
+        this.recorder = new BattleRecorder(gs, stage, battle.balance(), seed);
+        this.shown = battle.snapshot();
+        this.arena = battle.arena();
 
         // Create CPU visual profile for GamePanel.
-        this.cpu = new CPUProfile(gs.currentCpu.label, Architecture.X86_64, baseCores, maxHP, maxRAM, Color.CYAN);
+        this.cpu = new CPUProfile(gs.currentCpu.label, Architecture.X86_64, gs.currentCpu.cores, battle.maxHP(), battle.maxRAM(), Color.CYAN);
 
         // Build the Window UI.
         initUI();
         
-        // Spawn first wave of enemies.
-        startRound();
+        // Engine events -> visuals (log lines, hit flashes, screen shake, wave banners).
+        gamePanel.fx = BattleRecorder.effects(seed); // Screen shake: same seed, separate stream.
+        battle.setListener(new BattleListener() {
+            @Override public void onLog(String message) { log(message); }
+            @Override public void onMonsterHit(Monster m, int damage) { flashMonster(m); }
+            @Override public void onPlayerHit(Monster m, int damage) { gamePanel.isPlayerHit = true; }
+            @Override public void onWaveStart(int round) { showTurnAnim("NEXT WAVE"); }
+        });
         
         // Trigger the "FLOOR X" start animation.
         showTurnAnim("FLOOR " + stage);
@@ -96,16 +113,16 @@ public class CyberQuestRPG extends JFrame {
         JPanel top = new JPanel(new GridLayout(3, 1)); // 3 rows, 1 column.
         
         // Progress Bars configuration
-        barHP = new JProgressBar(0, maxHP); 
+        barHP = new JProgressBar(0, battle.maxHP()); 
         barHP.setStringPainted(true); // Shows numbers inside bar.
         barHP.setForeground(Color.GREEN);
         
-        barRAM = new JProgressBar(0, maxRAM); 
+        barRAM = new JProgressBar(0, battle.maxRAM()); 
         barRAM.setStringPainted(true); 
         barRAM.setForeground(Color.CYAN);
         
         // Thread Label configuration
-        lblThreads = new JLabel("THREADS READY: " + currentAP + " / " + maxAP, SwingConstants.CENTER);
+        lblThreads = new JLabel("THREADS READY: " + battle.ap() + " / " + battle.maxAP(), SwingConstants.CENTER);
         lblThreads.setFont(new Font("Consolas", Font.BOLD, 18));
         lblThreads.setForeground(Color.WHITE);
         
@@ -122,8 +139,8 @@ public class CyberQuestRPG extends JFrame {
         // CENTER SECTION (Graphics)
         gamePanel = new GamePanel();
         gamePanel.setData(cpu, arena); // Pass the data models to the view.
-        gamePanel.maxThreads = maxAP; 
-        gamePanel.activeThreads = currentAP;
+        gamePanel.maxThreads = battle.maxAP(); 
+        gamePanel.activeThreads = battle.ap();
         add(gamePanel, BorderLayout.CENTER); // Place in center.
 
         // BOTTOM SECTION (Buttons)
@@ -136,40 +153,54 @@ public class CyberQuestRPG extends JFrame {
     // FUNCTION: Creates the panel containing action buttons.
     private JPanel createControlPanel() {
         JPanel p = new JPanel(new BorderLayout());
-        JPanel skills = new JPanel(new GridLayout(2, 4, 5, 5)); // Grid: 2 rows, 4 cols, 5px gap.
+        JPanel skills = new JPanel(new GridLayout(2, 5, 5, 5)); // Grid: 2 rows, 5 cols, 5px gap.
         
         // BUTTON CREATION:
         // uses helper method 'mkBtn' to create buttons with Lambda functions for actions.
         
         // FCFS: Basic Attack
-        skills.add(mkBtn("FCFS", "Attack (50MB)", () -> act("FCFS", 50)));
+        skills.add(mkSkill(BattleEngine.Action.ATTACK, "FCFS", "Attack (50MB)"));
         
         // RR: Area of Effect (Hit All)
-        skills.add(mkBtn("RR", "AoE (150MB)", () -> act("RR", 150)));
+        skills.add(mkSkill(BattleEngine.Action.AOE, "RR", "AoE (150MB)"));
         
         // SJF: Priority Attack (Hits weakest)
-        skills.add(mkBtn("SJF", "Snipe (100MB)", () -> act("SJF", 100)));
+        skills.add(mkSkill(BattleEngine.Action.SNIPE, "SJF", "Snipe (100MB)"));
 
         // TURBO BOOST (New)
-        JButton btnTurbo = mkBtn("TURBO ("+turboCharges+")", "Boost Dmg (2 Turns)", () -> activateTurbo());
-        if(turboCharges <= 0) btnTurbo.setEnabled(false); // Disable if out of charges.
+        JButton btnTurbo = mkBtn("TURBO ("+battle.turboCharges()+")", "Boost Dmg (2 Turns)", () -> act(BattleEngine.Action.TURBO));
+        if(battle.turboCharges() <= 0) btnTurbo.setEnabled(false); // Disable if out of charges.
         skills.add(btnTurbo);
 
         // SMT (New Logic)
-        JButton btnSmt = mkBtn("SMT (1 Use)", "Double Threads (300MB)", () -> activateSMT());
+        JButton btnSmt = mkBtn("SMT (1 Use)", "Double Threads (300MB)", () -> act(BattleEngine.Action.SMT));
         // Disable if CPU doesn't support it OR if already used.
-        if(!GameState.get().currentCpu.supportsThreads || smtUsed) btnSmt.setEnabled(false);
+        if(!GameState.get().currentCpu.supportsThreads || battle.smtUsed()) btnSmt.setEnabled(false);
         skills.add(btnSmt);
         
         // HEAL
-        skills.add(mkBtn("HEAL", "Repair (200MB)", () -> act("HEAL", 200)));
+        skills.add(mkSkill(BattleEngine.Action.HEAL, "HEAL", "Repair (200MB)"));
         
         // END TURN
-        btnEndTurn = mkBtn("END TURN", "Pass Turn", this::endTurn); // Method reference '::'
+        btnEndTurn = mkBtn("END TURN", "Pass Turn", () -> endTurn(true));
         btnEndTurn.setBackground(new Color(200, 200, 200));
+        skillButtons.put(BattleEngine.Action.END_TURN, btnEndTurn);
+        skillNames.put(BattleEngine.Action.END_TURN, "END TURN");
         skills.add(btnEndTurn);
+
+        // ORACLE: exact odds and best move for the current position (BattleSolver)
+        skills.add(mkBtn("ORACLE", "Exact win chance & best move", this::askOracle));
+
+        // AUTOPILOT: Monte Carlo Tree Search plays for you (100ms per move)
+        boolean auto = autoTimer != null && autoTimer.isRunning();
+        btnAuto = mkBtn(auto ? "AUTO: ON" : "AUTO: OFF", "MCTS autopilot", this::toggleAutopilot);
+        skills.add(btnAuto);
+
+        // UNDO: takes back the last move of this turn (the dice keep rolling)
+        skills.add(mkBtn("UNDO", "Take back your last move this turn", this::undo));
         
         p.add(skills, BorderLayout.CENTER);
+        showForecast(forecast.current()); // Rebuilt panels keep the numbers.
         
         // Log Area (Right side)
         logArea = new JTextArea(5, 30); 
@@ -178,100 +209,127 @@ public class CyberQuestRPG extends JFrame {
     }
 
     // FUNCTION: Main Action Handler
-    // 'type': Which skill used. 'baseCost': RAM cost.
-    private void act(String type, int baseCost) {
-        // 1. Check Threads (Action Points)
-        if(currentAP <= 0) { log(">> NO THREADS LEFT!"); return; }
-        
-        GameState gs = GameState.get();
-        
-        // 2. RAM Cost Calculation (Includes Undervolt Discount)
-        int cost = baseCost - (int)(baseCost * (gs.undervoltVal/100.0));
-        if(currentRAM < cost) { log(">> OUT OF MEMORY (Need " + cost + "MB)"); return; }
-        
-        // 3. Stability Check (Risk mechanic)
-        // If undervolted, there is a chance the action fails completely.
-        if(Math.random() < (gs.undervoltVal/200.0)) { 
-            log(">> KERNEL PANIC (Instability Fail)"); 
-            currentAP--; 
-            updateBars(); 
-            return; 
-        }
+    // Hands the skill to the engine (threads, RAM, stability, damage, crits, waves),
+    // then logs it for the Gantt chart and refreshes the screen.
+    private void act(BattleEngine.Action a) {
+        BattleEngine.Outcome result = battle.act(a);
+        recorder.record(a, result, System.currentTimeMillis() - startTime);
+        if(result == BattleEngine.Outcome.OK || result == BattleEngine.Outcome.KERNEL_PANIC) shown = battle.snapshot();
+        if(result != BattleEngine.Outcome.OK) { updateBars(); return; } // Refused, or lost to a kernel panic.
 
-        // 4. Consume Resources
-        currentRAM -= cost;
-        currentAP--;
-        
-        // 5. Calculate Damage
-        int baseDmg = gs.calculateBaseDamage(); // Based on CPU GHz.
-        if(turboDuration > 0) baseDmg = (int)(baseDmg * 1.5); // Apply 50% Turbo Boost.
-        
-        // 6. Critical Hit Check (Based on Cache Size)
-        boolean crit = Math.random() < gs.getCritChance();
-        if(crit) baseDmg *= 2; // Double damage on crit.
-
-        // 7. Execute Skill Logic
-        if(type.equals("FCFS") && !arena.isEmpty()) {
-            hitMonster(arena.get(0), baseDmg); // Hits index 0 (First in Queue).
-        }
-        else if(type.equals("RR")) {
-            for(Monster m : arena) hitMonster(m, baseDmg/2); // Hits everyone for half dmg.
-        }
-        else if(type.equals("SJF") && !arena.isEmpty()) {
-            // Java Stream API to find monster with lowest HP.
-            Monster m = arena.stream().min(Comparator.comparingInt(x->x.currentHP)).orElse(arena.get(0));
-            hitMonster(m, (int)(baseDmg * 1.5)); // Bonus damage for logic.
-        }
-        else if(type.equals("HEAL")) {
-            currentHP = Math.min(maxHP, currentHP + 150); // Heals player.
-        }
+        boolean burst = a == BattleEngine.Action.TURBO || a == BattleEngine.Action.SMT;
         
         // LOG ACTION FOR GANTT CHART
-        logs.add(new GameState.LogEntry(type, System.currentTimeMillis() - startTime, 500, "COMPUTE"));
+        if(burst) logs.add(new GameState.LogEntry(a.label, System.currentTimeMillis() - startTime, 200, "IO"));
+        else logs.add(new GameState.LogEntry(a.label, System.currentTimeMillis() - startTime, 500, "COMPUTE"));
 
-        if(crit) log(">> CRIT!");
-        if(turboDuration > 0) log(">> TURBO BOOST ACTIVE!");
-        
-        // 8. Cleanup & Update UI
-        checkClear(); 
+        if(a == BattleEngine.Action.SMT) gamePanel.isHyperThreadingActive = true; // Triggers visual aura.
+
+        // Cleanup & Update UI
+        if(battle.isWon()) { win(); return; }
         updateBars(); 
         gamePanel.repaint();
+        
+        // Refresh UI to disable the used-up skill buttons immediately.
+        if(burst) { remove(createControlPanel()); add(createControlPanel(), BorderLayout.SOUTH); validate(); }
     }
     
-    // FUNCTION: Activates Turbo Mode
-    private void activateTurbo() {
-        if(turboCharges <= 0) return;
-        turboCharges--;
-        turboDuration = 2; // Set effect for 2 turns.
-        log(">> TURBO BOOST ENGAGED! (+50% DAMAGE)");
-        
-        // Log for Gantt Chart
-        logs.add(new GameState.LogEntry("TURBO", System.currentTimeMillis() - startTime, 200, "IO"));
-        
-        // Refresh UI to disable the button immediately.
-        remove(createControlPanel()); add(createControlPanel(), BorderLayout.SOUTH); validate();
+    // FUNCTION: ORACLE - solves the current position exactly in the background.
+    // Deepens the horizon one turn at a time until a search gets too big, then reports
+    // the deepest finished answer. The position is copied here on the EDT and the loadout
+    // is an immutable snapshot, so the player can keep fighting while it thinks.
+    private void askOracle() {
+        if(oracleBusy || battle.isOver()) return;
+        oracleBusy = true;
+        BattleSolver.Position pos = BattleSolver.positionOf(battle);
+        GameState loadout = battle.loadout(); // The PC this battle started with, not whatever the shop holds now.
+        BattleEngine.Balance balance = battle.balance();
+        log(">> ORACLE: thinking about turn " + pos.turn() + "...");
+        new SwingWorker<String, Void>() {
+            @Override protected String doInBackground() {
+                String answer = "no answer within budget";
+                for(int h = pos.turn(); h < pos.turn() + 10; h++) {
+                    BattleSolver solver = new BattleSolver(loadout, stage, balance, h, 64);
+                    solver.setNodeLimit(2_000_000);
+                    try {
+                        double p = solver.winProbability(pos);
+                        BattleEngine.Action best = solver.bestAction(pos);
+                        answer = String.format("%.1f%% to clear within %d turn(s), best move: %s", 100 * p, h - pos.turn() + 1, best.label);
+                        if(p >= 1.0) break; // Cannot get better with more turns.
+                    } catch(IllegalStateException tooBig) { break; }
+                }
+                return answer;
+            }
+            @Override protected void done() {
+                oracleBusy = false;
+                try { log(">> ORACLE (turn " + pos.turn() + "): " + get()); }
+                catch(Exception ex) { log(">> ORACLE failed: " + ex.getMessage()); }
+            }
+        }.execute();
     }
 
-    // FUNCTION: Activates Hyperthreading/SMT
-    private void activateSMT() {
-        if(currentRAM < 300 || smtUsed) return;
-        currentRAM -= 300; 
-        smtUsed = true; // Lock the skill for rest of battle.
-        gamePanel.isHyperThreadingActive=true; // Triggers visual aura.
-        maxAP *= 2; // Double max capacity.
-        currentAP += maxAP/2; // Give immediate extra points.
-        log(">> SMT ENABLED (ONE-TIME BURST).");
-        
-        // Log for Gantt Chart
-        logs.add(new GameState.LogEntry("SMT", System.currentTimeMillis() - startTime, 200, "IO"));
-        
+    // FUNCTION: AUTOPILOT - one MCTS move every 0.6s until switched off or the battle ends.
+    // Each decision searches a copy of the battle for ~100ms on all cores in the background;
+    // the EDT only takes the copy and later plays the answer.
+    private void toggleAutopilot() {
+        if(autoTimer != null && autoTimer.isRunning()) {
+            autoTimer.stop();
+            log(">> AUTOPILOT OFF.");
+        } else {
+            if(autopilot == null) autopilot = new MctsAgent(90);
+            if(autoTimer == null) autoTimer = new Timer(600, e -> autoStep());
+            autoTimer.start();
+            log(">> AUTOPILOT ON (" + autopilot.name() + ", " + autopilot.workers + " workers).");
+        }
+        btnAuto.setText(autoTimer.isRunning() ? "AUTO: ON" : "AUTO: OFF");
+    }
+
+    private void autoStep() {
+        if(autoBusy || enemyPhase || battle.isOver()) return;
+        autoBusy = true;
+        BattleState from = shown;
+        SplittableRandom rng = autoRng.split();
+        BattleEngine position = battle.copy(rng.split());
+        new SwingWorker<BattleEngine.Action, Void>() {
+            @Override protected BattleEngine.Action doInBackground() {
+                return autopilot.choose(position, battle, rng);
+            }
+            @Override protected void done() {
+                autoBusy = false;
+                BattleEngine.Action a;
+                try { a = get(); }
+                catch(Exception ex) { log(">> AUTOPILOT failed: " + ex.getMessage()); return; }
+                // Play it only if nothing happened meanwhile. Every applied move, undo and
+                // enemy phase takes a new snapshot, so this is stricter than comparing
+                // moves() (an undo plus another move gives the same count).
+                if(!autoTimer.isRunning() || enemyPhase || battle.isOver() || shown != from) return;
+                if(a == BattleEngine.Action.END_TURN) endTurn(false);
+                else act(a);
+            }
+        }.execute();
+    }
+
+    // FUNCTION: UNDO - back to the snapshot before the last move. Only within the turn:
+    // once the enemies have moved, the turn is history.
+    private void undo() {
+        if(enemyPhase || shown.previous == null || shown.lastMove == BattleEngine.Action.END_TURN) {
+            log(">> NOTHING TO UNDO THIS TURN.");
+            return;
+        }
+        BattleEngine.Action undone = shown.lastMove;
+        shown = shown.previous;
+        battle.restore(shown);
+        recorder.recordUndo(System.currentTimeMillis() - startTime);
+        log(">> UNDO: " + undone.label + " taken back.");
+        gamePanel.isHyperThreadingActive = battle.smtActive();
         updateBars();
-        remove(createControlPanel()); add(createControlPanel(), BorderLayout.SOUTH); validate();
+        gamePanel.repaint();
+        // TURBO / SMT charges come back: refresh their buttons like after using them.
+        if(undone == BattleEngine.Action.TURBO || undone == BattleEngine.Action.SMT) { remove(createControlPanel()); add(createControlPanel(), BorderLayout.SOUTH); validate(); }
     }
-    
-    // FUNCTION: Helper to apply damage and trigger animation
-    private void hitMonster(Monster m, int d) {
-        m.currentHP -= d; 
+
+    // FUNCTION: Hit flash - draws the monster white for 150ms.
+    private void flashMonster(Monster m) {
         m.isHit = true; // Flag for GamePanel to flash enemy white.
         // Timer to reset the 'hit' flag after 150ms.
         Timer t=new Timer(150, e->{m.isHit=false; gamePanel.repaint();}); 
@@ -280,53 +338,34 @@ public class CyberQuestRPG extends JFrame {
     }
 
     // --- AI LOGIC & TURN MANAGEMENT ---
-    private void endTurn() {
+    private void endTurn(boolean ask) {
+        if(enemyPhase) return; // The enemies are already on their way.
         // Warning if player skips turn with AP remaining.
-        if(currentAP > 0) {
+        if(ask && battle.ap() > 0) {
              if(JOptionPane.showConfirmDialog(this, "End Turn?", "Wait", JOptionPane.YES_NO_OPTION) != JOptionPane.YES_OPTION) return;
         }
 
         // Log Idle time for Gantt
         logs.add(new GameState.LogEntry("IDLE/WAIT", System.currentTimeMillis() - startTime, 1000, "IDLE"));
 
-        GameState gs = GameState.get();
         showTurnAnim("ENEMY PHASE");
-        
-        // Decrement Turbo timer
-        if(turboDuration > 0) turboDuration--;
+        enemyPhase = true;
         
         // DELAYED AI TURN (1.5 seconds) so player sees "Enemy Phase" text.
         Timer t = new Timer(1500, e -> {
-            // LOOP: All alive monsters attack
-            for(Monster m : arena) {
-                if(!m.isDead) {
-                    // AI Logic: Deterministic Attack
-                    int dmg = (int)(25 * m.type.dmgMult); // Base 25 * Enemy Multiplier.
-                    currentHP -= dmg; // Reduce Player HP.
-                    log(m.name + " hits: " + dmg + " HP");
-                    gamePanel.isPlayerHit=true; // Trigger Screen Shake.
-                }
-            }
-            
-            // REGENERATION
-            int hpRegen = gs.currentCooler.regen;
-            currentHP = Math.min(maxHP, currentHP + hpRegen);
-            
-            int ramRegen = 100; 
-            if(gs.hasECC) ramRegen += 150; // Bonus for ECC RAM.
-            currentRAM = Math.min(maxRAM, currentRAM + ramRegen);
-            
-            // RESET AP
-            currentAP = maxAP;
-            // Disable SMT bonus after turn (Burst mechanic).
-            if(gamePanel.isHyperThreadingActive) { maxAP/=2; currentAP=maxAP; gamePanel.isHyperThreadingActive=false; }
+            // Enemy attacks, Turbo countdown, HP/RAM regeneration, threads refilled.
+            BattleEngine.Outcome result = battle.act(BattleEngine.Action.END_TURN);
+            recorder.record(BattleEngine.Action.END_TURN, result, System.currentTimeMillis() - startTime);
+            shown = battle.snapshot();
+            enemyPhase = false;
+            gamePanel.isHyperThreadingActive = battle.smtActive();
             
             updateBars(); 
             gamePanel.isPlayerHit=false; 
             gamePanel.repaint();
             
             // CHECK DEATH
-            if(currentHP<=0) lose();
+            if(battle.isLost()) lose();
             else showTurnAnim("PLAYER PHASE");
         });
         t.setRepeats(false); 
@@ -335,11 +374,14 @@ public class CyberQuestRPG extends JFrame {
 
     // FUNCTION: Handles Player Death (Roguelike Reset)
     private void lose() {
-        // Save Logs
-        GameState.get().lastBattleLogs = new ArrayList<>(logs);
-        
+        if(autoTimer != null) autoTimer.stop();
+        forecast.shutdown();
+        // Save Logs and reset floor progress (one atomic update).
+        List<GameState.LogEntry> saved = new ArrayList<>(logs);
+        byte[] replay = recorder.finish(battle);
+        GameState.update(s -> { s.lastBattleLogs = saved; s.setLastBattleReplay(replay); s.currentFloor = 1; });
+
         JOptionPane.showMessageDialog(this, "SYSTEM CRITICAL FAILURE.\nREBOOTING TO FLOOR 1...");
-        GameState.get().currentFloor = 1; // Reset floor progress.
         dispose(); // Close window.
         menuRef.setVisible(true); // Show menu.
         menuRef.dispose(); new MainMenu().setVisible(true); // Re-init menu to update title.
@@ -355,65 +397,56 @@ public class CyberQuestRPG extends JFrame {
         t.start();
     }
 
-    // FUNCTION: Spawns monsters based on stage difficulty
-    private void startRound() {
-        arena.clear();
-        int count = 1 + (stage/2); // More enemies on higher floors.
-        for(int i=0; i<count; i++) {
-            EnemyType t = EnemyType.CALCULATOR;
-            // Progressive difficulty logic
-            if(stage>3) t = EnemyType.CHROME; 
-            if(stage>6) t = EnemyType.ANDROID;
-            // Boss spawn on specific rounds
-            if(currentRound==totalRounds && i==0) {
-                 if(stage==3) t=EnemyType.ZIP_BOMB; 
-                 if(stage==6) t=EnemyType.RANSOMWARE; 
-                 if(stage==10) t=EnemyType.CYBERPUNK;
-            }
-            int hp = (int)((40 + stage*10) * t.hpMult); // Calculate HP.
-            arena.add(new Monster("P"+i, t, hp));
-        }
-        gamePanel.repaint();
-    }
+    // FUNCTION: Stage Clear - the engine reports the last wave is gone.
+    private void win() {
+        if(autoTimer != null) autoTimer.stop();
+        forecast.shutdown();
+        // STAGE CLEAR: Give Rewards
+        // Save Logs, pay the reward and increment the floor count (one atomic update).
+        List<GameState.LogEntry> saved = new ArrayList<>(logs);
+        byte[] replay = recorder.finish(battle);
+        int rew = 1000 + stage*500;
+        GameState.update(s -> { s.lastBattleLogs = saved; s.setLastBattleReplay(replay); s.currency += rew; s.currentFloor++; });
 
-    // FUNCTION: Checks if current wave is cleared
-    private void checkClear() {
-        arena.removeIf(m -> m.currentHP<=0); // Remove dead monsters.
-        
-        if(arena.isEmpty()) {
-            if(currentRound<totalRounds) { 
-                // Start next wave
-                currentRound++; 
-                startRound(); 
-                showTurnAnim("NEXT WAVE"); 
-            }
-            else { 
-                // STAGE CLEAR: Give Rewards
-                // Save Logs
-                GameState.get().lastBattleLogs = new ArrayList<>(logs);
-                
-                int rew = 1000 + stage*500; 
-                GameState.get().currency+=rew; 
-                GameState.get().currentFloor++; // Increment Floor count.
-                
-                JOptionPane.showMessageDialog(this, "SECTOR CLEARED! ADVANCING TO FLOOR " + GameState.get().currentFloor);
-                dispose(); 
-                menuRef.setVisible(true); 
-                menuRef.dispose(); new MainMenu().setVisible(true);
-            }
-        }
+        JOptionPane.showMessageDialog(this, "SECTOR CLEARED! ADVANCING TO FLOOR " + GameState.get().currentFloor);
+        dispose(); 
+        menuRef.setVisible(true); 
+        menuRef.dispose(); new MainMenu().setVisible(true);
     }
 
     // HELPER: Updates the visual progress bars
     private void updateBars() {
-        barHP.setValue(currentHP); barHP.setString(currentHP+"/"+maxHP);
-        barRAM.setValue(currentRAM); barRAM.setString(currentRAM+"/"+maxRAM+" MB");
-        lblThreads.setText("THREADS: " + currentAP + " / " + maxAP);
-        gamePanel.activeThreads=currentAP; gamePanel.maxThreads=maxAP;
+        barHP.setValue(battle.hp()); barHP.setString(battle.hp()+"/"+battle.maxHP());
+        barRAM.setValue(battle.ram()); barRAM.setString(battle.ram()+"/"+battle.maxRAM()+" MB");
+        lblThreads.setText("THREADS: " + battle.ap() + " / " + battle.maxAP());
+        gamePanel.activeThreads=battle.ap(); gamePanel.maxThreads=battle.maxAP();
         
         // Visual warning: Turn button red if AP remains
-        if(currentAP > 0) btnEndTurn.setBackground(new Color(255, 100, 100));
+        if(battle.ap() > 0) btnEndTurn.setBackground(new Color(255, 100, 100));
         else btnEndTurn.setBackground(new Color(200, 200, 200));
+
+        // New state -> new forecast (cached, or computed in the background).
+        forecast.request(battle);
+    }
+
+    // HELPER: Writes the forecast under each skill name ('odds' null = not ready yet).
+    private void showForecast(Map<BattleEngine.Action, SkillForecast.Odds> odds) {
+        for (Map.Entry<BattleEngine.Action, JButton> e : skillButtons.entrySet()) {
+            String name = skillNames.get(e.getKey());
+            SkillForecast.Odds o = odds == null ? null : odds.get(e.getKey());
+            String line = odds == null ? "..." : o == null ? "unavailable"
+                    : o.damage > 0 ? String.format("~%.0f dmg | %.0f%% kill | %.0f%% safe", o.damage, 100 * o.kill, 100 * o.survive)
+                    : String.format("%.0f%% safe", 100 * o.survive);
+            e.getValue().setText("<html><center>" + name + "<br><small>" + line + "</small></center></html>");
+        }
+    }
+
+    // HELPER: Skill button that also shows its live forecast.
+    private JButton mkSkill(BattleEngine.Action a, String name, String tip) {
+        JButton b = mkBtn(name, tip + " - expected damage, kill chance, survival if you end the turn after it", () -> act(a));
+        skillButtons.put(a, b);
+        skillNames.put(a, name);
+        return b;
     }
 
     // HELPER: Factory method to create styled buttons
@@ -0,0 +1,145 @@
+import java.util.Arrays;
+
+/**
+ * CLASS: EnemyStore
+ * The enemies of a horde (thousands of them) in flat int arrays, indexed three ways:
+ * * QUEUE (spawn order): an intrusive doubly linked list - O(1) "first in queue" for FCFS
+ *   and O(1) removal of any enemy.
+ * * HP INDEX: a bucket queue, one intrusive list per HP value. Enemies of a horde all
+ *   spawn at a few HP values and only lose HP, so the buckets stay few and small:
+ *   "weakest" walks up from a cursor to the first non-empty bucket, and moving or
+ *   removing an enemy is O(1).
+ * * PER TYPE: alive counts per EnemyType, so the enemy phase is one multiply per type
+ *   instead of a loop over every monster.
+ * * AREA DAMAGE IS LAZY: damageAll(d) only raises a global offset (an enemy's HP is
+ *   stored HP - offset), then drops the buckets at or below it. Cost: the enemies it
+ *   kills plus the HP range crossed, never the horde size.
+ * Enemy ids are slots 0..capacity-1 and are not reused (a horde never respawns).
+ */
+public class EnemyStore {
+
+    private static final int NONE = -1;
+
+    private final int[] stored;        // HP + offset at the time of the last hit (alive iff > offset).
+    private final byte[] type;         // EnemyType ordinal.
+    private final int[] qPrev, qNext;  // Spawn-order queue links.
+    private final int[] bPrev, bNext;  // HP bucket links.
+    private final int[] bucketHead;    // First enemy with stored HP = index.
+    private final int[] countByType = new int[EnemyType.values().length];
+    private int qHead = NONE, qTail = NONE;
+    private int size, added;
+    private int offset;                // Area damage dealt to everyone so far.
+    private int cursor;                // No enemy has stored HP below this.
+
+    public EnemyStore(int capacity, int maxHP) {
+        stored = new int[capacity];
+        type = new byte[capacity];
+        qPrev = new int[capacity]; qNext = new int[capacity];
+        bPrev = new int[capacity]; bNext = new int[capacity];
+        bucketHead = new int[maxHP + 1];
+        Arrays.fill(bucketHead, NONE);
+        cursor = maxHP + 1;
+    }
+
+    // Spawns an enemy at the end of the queue; returns its id.
+    public int add(EnemyType t, int hp) {
+        if (hp <= 0 || hp >= bucketHead.length - offset) throw new IllegalArgumentException("hp out of range: " + hp);
+        int id = added++;
+        stored[id] = hp + offset;
+        type[id] = (byte) t.ordinal();
+        qPrev[id] = qTail; qNext[id] = NONE;
+        if (qTail == NONE) qHead = id; else qNext[qTail] = id;
+        qTail = id;
+        link(id);
+        countByType[t.ordinal()]++;
+        size++;
+        return id;
+    }
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+    public int count(EnemyType t) { return countByType[t.ordinal()]; }
+    public int hp(int id) { return stored[id] - offset; }
+    public EnemyType type(int id) { return EnemyType.values()[type[id]]; }
+
+    // First enemy in spawn order (FCFS target), or -1 if none is left.
+    public int first() { return qHead; }
+
+    // Enemy with the lowest HP (SJF target), or -1 if none is left.
+    public int weakest() {
+        if (size == 0) return NONE;
+        while (bucketHead[cursor] == NONE) cursor++;
+        return bucketHead[cursor];
+    }
+
+    // Highest HP left (0 if none): walks down the HP index from the top.
+    public int maxHP() {
+        if (size == 0) return 0;
+        int b = bucketHead.length - 1;
+        while (bucketHead[b] == NONE) b--;
+        return b - offset;
+    }
+
+    // Single-target hit. Returns true if it killed the enemy.
+    public boolean damage(int id, int dmg) {
+        unlink(id);
+        stored[id] -= dmg;
+        if (stored[id] <= offset) { dequeue(id); return true; }
+        link(id);
+        return false;
+    }
+
+    // The same damage to every enemy (AoE). Returns the number of kills.
+    public int damageAll(int dmg) {
+        if (dmg <= 0 || size == 0) return 0;
+        offset += dmg;
+        int kills = 0;
+        int top = Math.min(offset, bucketHead.length - 1);
+        for (int b = cursor; b <= top; b++) {
+            for (int id = bucketHead[b]; id != NONE; id = bNext[id]) { dequeue(id); kills++; }
+            bucketHead[b] = NONE;
+        }
+        cursor = Math.max(cursor, top + 1);
+        return kills;
+    }
+
+    // Total attack of the horde: alive count x damage for each type ('perType' by ordinal).
+    public long attack(int[] perType) {
+        long total = 0;
+        for (int t = 0; t < countByType.length; t++) total += (long) countByType[t] * perType[t];
+        return total;
+    }
+
+    // Alive enemies per HP band: bins[i] counts HP in (i*width, (i+1)*width].
+    public int[] histogram(int bins, int width) {
+        int[] h = new int[bins];
+        for (int b = Math.max(cursor, offset + 1); b < bucketHead.length; b++) {
+            int bin = Math.min(bins - 1, (b - offset - 1) / width);
+            for (int id = bucketHead[b]; id != NONE; id = bNext[id]) h[bin]++;
+        }
+        return h;
+    }
+
+    // --- LINKS ---
+
+    private void link(int id) {
+        int b = stored[id];
+        bPrev[id] = NONE;
+        bNext[id] = bucketHead[b];
+        if (bucketHead[b] != NONE) bPrev[bucketHead[b]] = id;
+        bucketHead[b] = id;
+        if (b < cursor) cursor = b;
+    }
+
+    private void unlink(int id) {
+        if (bPrev[id] == NONE) bucketHead[stored[id]] = bNext[id]; else bNext[bPrev[id]] = bNext[id];
+        if (bNext[id] != NONE) bPrev[bNext[id]] = bPrev[id];
+    }
+
+    private void dequeue(int id) {
+        if (qPrev[id] == NONE) qHead = qNext[id]; else qNext[qPrev[id]] = qNext[id];
+        if (qNext[id] == NONE) qTail = qPrev[id]; else qPrev[qNext[id]] = qPrev[id];
+        countByType[type[id]]--;
+        size--;
+    }
+}
@@ -1,6 +1,7 @@
 import javax.swing.*;
 import java.awt.*;
 import java.util.List;
+import java.util.SplittableRandom;
 
 /**
  * CLASS: GamePanel
@@ -26,6 +27,10 @@ public class GamePanel extends JPanel {
     // Flags set by 'CyberQuestRPG.java' to trigger visual effects.
     public boolean isHyperThreadingActive = false; // Draws a cyan aura around the CPU.
     public boolean isPlayerHit = false;            // Triggers the "Shake" effect.
+
+    // Dice for the cosmetic jitter (shake, hit jiggle). The battle window hands in a stream
+    // split from the battle's seed; it never touches the combat dice, so replays stay exact.
+    public SplittableRandom fx = new SplittableRandom();
     
     // UI STATS
     // Used to draw the specific thread count if needed (currently drawn in main UI, but kept here for potential overlay).
@@ -108,7 +113,7 @@ public class GamePanel extends JPanel {
         // If the player was hit, randomly shift the entire coordinate system.
         // This makes everything drawn afterwards appear to "shake".
         if (isPlayerHit) {
-            g2d.translate((Math.random() * 10) - 5, (Math.random() * 10) - 5);
+            g2d.translate((fx.nextDouble() * 10) - 5, (fx.nextDouble() * 10) - 5);
         }
         
         // --- LAYER 3: PLAYER (CPU) ---
@@ -150,8 +155,8 @@ public class GamePanel extends JPanel {
                 // If the monster was just hit, draw it White. Otherwise, use its normal color.
                 if (m.isHit) { 
                     // Jiggle position slightly for impact feel
-                    x += (Math.random() * 10) - 5; 
-                    y += (Math.random() * 10) - 5; 
+                    x += (fx.nextDouble() * 10) - 5; 
+                    y += (fx.nextDouble() * 10) - 5; 
                     g2d.setColor(Color.WHITE); 
                 } else { 
                     g2d.setColor(m.type.color); 
@@ -1,65 +1,112 @@
 import java.util.HashMap;
-import java.util.Map;
 import java.util.List;
-import java.util.ArrayList;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
+// ONE SNAPSHOT OF A PLAYER PROFILE (money, floor, loadout, upgrades, owned parts, last battle).
+// Snapshots are IMMUTABLE: every field is final and the collections are read-only, so any
+// thread (battles, sweeps, the optimizer, the tournament server) can read one while the
+// player keeps shopping - it simply keeps seeing the state it was handed.
+// Changes go through a Draft: edit() copies a snapshot into a mutable Draft, the caller
+// changes it, freeze() turns it into the next snapshot. ProfileStore publishes that
+// snapshot atomically (copy-on-write), and GameState.update(...) does all of it for the
+// profile the player is using.
 public class GameState {
-    // STATIC INSTANCE: The single copy of this class.
-    private static GameState instance;
-    
+
     // GAME RESOURCES
-    public int currency = 2000; 
+    public final int currency;
 
     // --- ROGUELIKE STATE ---
     // If the player dies, this resets to 1. If they win, it increments.
-    public int currentFloor = 1; 
+    public final int currentFloor;
 
     // --- CURRENT LOADOUT ---
     // Stores which Enum constants are currently equipped.
-    public Hardware.CpuType currentCpu = Hardware.CpuType.ATHLON;
-    public Hardware.GpuType currentGpu = Hardware.GpuType.INTEGRATED;
-    public Hardware.CoolerType currentCooler = Hardware.CoolerType.STOCK;
-    public Hardware.PsuType currentPsu = Hardware.PsuType.GENERIC_300W;
+    public final Hardware.CpuType currentCpu;
+    public final Hardware.GpuType currentGpu;
+    public final Hardware.CoolerType currentCooler;
+    public final Hardware.PsuType currentPsu;
 
-    public boolean hasECC = false; // Flag for RAM regeneration
+    public final boolean hasECC; // Flag for RAM regeneration
 
     // --- UPGRADES ---
     // Arrays allow us to step through tiers (Tier 0 = 4096, Tier 1 = 8192...)
-    public int ramIndex = 0; 
-    public final int[] RAM_TIERS = {4096, 8192, 16384, 32768}; 
-    public final int MAX_RAM_INDEX = RAM_TIERS.length - 1;
-    
-    public int storageLevel = 1; 
-    public final int MAX_STORAGE_LEVEL = 20;
+    // One table for every snapshot, private so no caller can change a tier (see ramTierMB).
+    public final int ramIndex;
+    private static final int[] RAM_TIERS = {4096, 8192, 16384, 32768};
+    public static final int MAX_RAM_INDEX = RAM_TIERS.length - 1;
+
+    public final int storageLevel;
+    public static final int MAX_STORAGE_LEVEL = 20;
 
     // BIOS TUNING VARIABLES
-    public int overclockVal = 0; // Increases Damage & Watts
-    public int undervoltVal = 0; // Decreases RAM Cost & Stability
+    public final int overclockVal; // Increases Damage & Watts
+    public final int undervoltVal; // Decreases RAM Cost & Stability
 
-    // INVENTORY MAPS
+    // INVENTORY MAPS (read-only)
     // Map<Key, Value> stores what items we own. Value is quantity (1 = owned).
-    public Map<Hardware.CpuType, Integer> cpuInventory = new HashMap<>();
-    public Map<Hardware.GpuType, Integer> gpuInventory = new HashMap<>();
-    public Map<Hardware.CoolerType, Integer> coolerInventory = new HashMap<>();
-    public Map<Hardware.PsuType, Integer> psuInventory = new HashMap<>();
-    
-    public List<LogEntry> lastBattleLogs = new ArrayList<>();
-
-    // PRIVATE CONSTRUCTOR: Prevents other classes from doing 'new GameState()'
-    private GameState() {
+    public final Map<Hardware.CpuType, Integer> cpuInventory;
+    public final Map<Hardware.GpuType, Integer> gpuInventory;
+    public final Map<Hardware.CoolerType, Integer> coolerInventory;
+    public final Map<Hardware.PsuType, Integer> psuInventory;
+
+    public final List<LogEntry> lastBattleLogs;
+    private final byte[] lastBattleReplay; // BattleRecorder file of the last battle (null before the first). Never handed out.
+
+    private GameState(Draft d) {
+        currency = d.currency; currentFloor = d.currentFloor;
+        currentCpu = d.currentCpu; currentGpu = d.currentGpu;
+        currentCooler = d.currentCooler; currentPsu = d.currentPsu;
+        hasECC = d.hasECC; ramIndex = d.ramIndex; storageLevel = d.storageLevel;
+        overclockVal = d.overclockVal; undervoltVal = d.undervoltVal;
+        // Map.copyOf / List.copyOf return their argument when it is already immutable, so
+        // whatever the Draft didn't touch is shared with the previous snapshot, not copied.
+        cpuInventory = Map.copyOf(d.cpuInventory); gpuInventory = Map.copyOf(d.gpuInventory);
+        coolerInventory = Map.copyOf(d.coolerInventory); psuInventory = Map.copyOf(d.psuInventory);
+        lastBattleLogs = List.copyOf(d.lastBattleLogs);
+        lastBattleReplay = d.lastBattleReplay;
+    }
+
+    // A NEW PLAYER: starter PC, $2000, floor 1.
+    public static GameState starter() {
+        Draft d = new Draft();
+        d.currency = 2000; d.currentFloor = 1;
+        d.currentCpu = Hardware.CpuType.ATHLON; d.currentGpu = Hardware.GpuType.INTEGRATED;
+        d.currentCooler = Hardware.CoolerType.STOCK; d.currentPsu = Hardware.PsuType.GENERIC_300W;
+        d.storageLevel = 1;
         // Add starter items to inventory
-        cpuInventory.put(Hardware.CpuType.ATHLON, 1);
-        gpuInventory.put(Hardware.GpuType.INTEGRATED, 1);
-        coolerInventory.put(Hardware.CoolerType.STOCK, 1);
-        psuInventory.put(Hardware.PsuType.GENERIC_300W, 1);
+        d.cpuInventory = Map.of(Hardware.CpuType.ATHLON, 1);
+        d.gpuInventory = Map.of(Hardware.GpuType.INTEGRATED, 1);
+        d.coolerInventory = Map.of(Hardware.CoolerType.STOCK, 1);
+        d.psuInventory = Map.of(Hardware.PsuType.GENERIC_300W, 1);
+        d.lastBattleLogs = List.of();
+        return d.freeze();
+    }
+
+    // --- THE PLAYER'S PROFILE (shortcuts to ProfileStore's active profile) ---
+
+    // The current snapshot. Safe to keep and read from any thread; it never changes.
+    public static GameState get() { return ProfileStore.get().current(); }
+
+    // Applies 'edit' to a Draft of the current snapshot and publishes the result atomically.
+    // 'edit' may run more than once (if another thread published first), so it must only
+    // change the Draft. Returns the snapshot it published.
+    public static GameState update(Consumer<Draft> edit) {
+        return ProfileStore.get().update(ProfileStore.get().active(), edit);
     }
 
-    // STATIC GETTER: The global access point.
-    public static GameState get() {
-        if (instance == null) instance = new GameState();
-        return instance;
+    // Same, but 'edit' can refuse (return false, e.g. not enough money): nothing is published.
+    public static boolean tryUpdate(Predicate<Draft> edit) {
+        return ProfileStore.get().tryUpdate(ProfileStore.get().active(), edit);
     }
 
+    // A mutable copy to change and freeze() (simulations use it for what-if loadouts).
+    public Draft edit() { return new Draft(this); }
+
+    // The last battle's replay file (a copy: arrays can't be made read-only), or null.
+    public byte[] lastBattleReplay() { return lastBattleReplay == null ? null : lastBattleReplay.clone(); }
+
     // --- LOGIC CALCULATIONS ---
 
     // Calculates total power draw to compare against PSU limit
@@ -69,13 +116,16 @@ public class GameState {
         return cpuW + currentGpu.watts + currentCooler.watts + 50; // +50 is base system load
     }
 
-    public int getCurrentRamMB() { return RAM_TIERS[Math.min(ramIndex, MAX_RAM_INDEX)]; }
+    public int getCurrentRamMB() { return ramTierMB(Math.min(ramIndex, MAX_RAM_INDEX)); }
+
+    // Size of RAM tier 'index' (0..MAX_RAM_INDEX) in MB.
+    public static int ramTierMB(int index) { return RAM_TIERS[index]; }
 
     // Linear HP scaling: Base 100 + (50 per storage level)
     public int getCurrentMaxHP() {
         return 100 + (storageLevel * 50);
     }
-    
+
     // Calculates Player Damage based on Hardware
     public int calculateBaseDamage() {
         double ghz = currentCpu.freqGHz;
@@ -83,25 +133,77 @@ public class GameState {
         // Formula: Frequency * 12 * Overclock Multiplier
         return (int)(ghz * 12 * oc);
     }
-    
+
     // Calculates Crit Chance based on Cache
-    // 1MB Cache = 1% Chance. 
+    // 1MB Cache = 1% Chance.
     public double getCritChance() { return Math.min(1.0, currentCpu.l3CacheMB / 100.0); }
 
-    // Inventory Helpers (Shortcut methods to add items)
-    public void addCpu(Hardware.CpuType c) { cpuInventory.put(c, cpuInventory.getOrDefault(c, 0)+1); }
-    public void addGpu(Hardware.GpuType g) { gpuInventory.put(g, gpuInventory.getOrDefault(g, 0)+1); }
-    public void addCooler(Hardware.CoolerType c) { coolerInventory.put(c, coolerInventory.getOrDefault(c, 0)+1); }
-    public void addPsu(Hardware.PsuType p) { psuInventory.put(p, psuInventory.getOrDefault(p, 0)+1); }
-    
     public boolean hasCpu(Hardware.CpuType c) { return cpuInventory.getOrDefault(c, 0) > 0; }
     public boolean hasGpu(Hardware.GpuType g) { return gpuInventory.getOrDefault(g, 0) > 0; }
     public boolean hasCooler(Hardware.CoolerType c) { return coolerInventory.getOrDefault(c, 0) > 0; }
     public boolean hasPsu(Hardware.PsuType p) { return psuInventory.getOrDefault(p, 0) > 0; }
 
+    /**
+     * CLASS: Draft
+     * The writable side of a snapshot: same fields, not final. Only the thread that made
+     * it may touch it; freeze() hands back an immutable GameState.
+     * * The inventories start as the snapshot's read-only maps; the add* helpers swap in
+     *   a changed copy, so a Draft that buys nothing shares them with its snapshot.
+     */
+    public static class Draft {
+        public int currency, currentFloor;
+        public Hardware.CpuType currentCpu;
+        public Hardware.GpuType currentGpu;
+        public Hardware.CoolerType currentCooler;
+        public Hardware.PsuType currentPsu;
+        public boolean hasECC;
+        public int ramIndex, storageLevel, overclockVal, undervoltVal;
+        public Map<Hardware.CpuType, Integer> cpuInventory;
+        public Map<Hardware.GpuType, Integer> gpuInventory;
+        public Map<Hardware.CoolerType, Integer> coolerInventory;
+        public Map<Hardware.PsuType, Integer> psuInventory;
+        public List<LogEntry> lastBattleLogs;
+        private byte[] lastBattleReplay; // Shared with the snapshot; only replaced, never written to.
+
+        private Draft() {}
+
+        private Draft(GameState s) {
+            currency = s.currency; currentFloor = s.currentFloor;
+            currentCpu = s.currentCpu; currentGpu = s.currentGpu;
+            currentCooler = s.currentCooler; currentPsu = s.currentPsu;
+            hasECC = s.hasECC; ramIndex = s.ramIndex; storageLevel = s.storageLevel;
+            overclockVal = s.overclockVal; undervoltVal = s.undervoltVal;
+            cpuInventory = s.cpuInventory; gpuInventory = s.gpuInventory;
+            coolerInventory = s.coolerInventory; psuInventory = s.psuInventory;
+            lastBattleLogs = s.lastBattleLogs; lastBattleReplay = s.lastBattleReplay;
+        }
+
+        public GameState freeze() { return new GameState(this); }
+
+        // Stores a copy, so the caller's array can't change the snapshots made from this Draft.
+        public void setLastBattleReplay(byte[] file) { lastBattleReplay = file == null ? null : file.clone(); }
+
+        // Inventory Helpers (Shortcut methods to add items)
+        public void addCpu(Hardware.CpuType c) { cpuInventory = plusOne(cpuInventory, c); }
+        public void addGpu(Hardware.GpuType g) { gpuInventory = plusOne(gpuInventory, g); }
+        public void addCooler(Hardware.CoolerType c) { coolerInventory = plusOne(coolerInventory, c); }
+        public void addPsu(Hardware.PsuType p) { psuInventory = plusOne(psuInventory, p); }
+
+        public boolean hasCpu(Hardware.CpuType c) { return cpuInventory.getOrDefault(c, 0) > 0; }
+        public boolean hasGpu(Hardware.GpuType g) { return gpuInventory.getOrDefault(g, 0) > 0; }
+        public boolean hasCooler(Hardware.CoolerType c) { return coolerInventory.getOrDefault(c, 0) > 0; }
+        public boolean hasPsu(Hardware.PsuType p) { return psuInventory.getOrDefault(p, 0) > 0; }
+
+        private static <K> Map<K, Integer> plusOne(Map<K, Integer> m, K item) {
+            Map<K, Integer> copy = new HashMap<>(m);
+            copy.merge(item, 1, Integer::sum);
+            return copy;
+        }
+    }
+
     // Simple data class to store battle history
     public static class LogEntry {
-        public String task; public long start; public long dur; public String type;
+        public final String task; public final long start; public final long dur; public final String type;
         public LogEntry(String t, long s, long d, String ty) { task=t; start=s; dur=d; type=ty; }
     }
-}
\ No newline at end of file
+}
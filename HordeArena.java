@@ -0,0 +1,130 @@
+import javax.swing.*;
+import java.awt.*;
+import java.util.SplittableRandom;
+
+// CLASS DEFINITION: The horde mode window.
+// Same controls as CyberQuestRPG, but the enemies are far too many to draw one by one:
+// the arena shows how many are left per type and a histogram of their HP instead.
+// The rules live in HordeBattle; this window only turns clicks into actions and draws.
+public class HordeArena extends JFrame {
+
+    private final HordeBattle battle;
+    private final MainMenu menuRef;
+
+    // --- UI COMPONENTS ---
+    private JProgressBar barHP, barRAM;
+    private JLabel lblThreads, lblHorde, lblTiming;
+    private JTextArea logArea;
+    private final HistogramPanel histogram = new HistogramPanel();
+
+    public HordeArena(int stage, int size, MainMenu menu) {
+        this.menuRef = menu;
+        this.battle = new HordeBattle(GameState.get(), stage, size, BattleEngine.Balance.DEFAULT, new SplittableRandom());
+
+        setTitle("HORDE MODE | FLOOR " + stage + " | " + String.format("%,d", size) + " PROCESSES");
+        setSize(1100, 750);
+        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+        addWindowListener(new java.awt.event.WindowAdapter() {
+            @Override public void windowClosed(java.awt.event.WindowEvent e) { menuRef.setVisible(true); }
+        });
+        setLayout(new BorderLayout());
+
+        // TOP: player bars + horde summary
+        JPanel top = new JPanel(new GridLayout(3, 2));
+        barHP = new JProgressBar(0, battle.maxHP()); barHP.setStringPainted(true); barHP.setForeground(Color.GREEN);
+        barRAM = new JProgressBar(0, battle.maxRAM()); barRAM.setStringPainted(true); barRAM.setForeground(Color.BLUE);
+        lblThreads = new JLabel("", SwingConstants.CENTER);
+        lblHorde = new JLabel("", SwingConstants.CENTER);
+        lblTiming = new JLabel("", SwingConstants.CENTER);
+        top.add(barHP); top.add(lblHorde);
+        top.add(barRAM); top.add(lblTiming);
+        top.add(lblThreads);
+        add(top, BorderLayout.NORTH);
+        add(histogram, BorderLayout.CENTER);
+
+        // BOTTOM: skills + log
+        JPanel bottom = new JPanel(new BorderLayout());
+        JPanel skills = new JPanel(new GridLayout(2, 4, 5, 5));
+        skills.add(mkBtn("FCFS", "Hit the first process in the queue", BattleEngine.Action.ATTACK));
+        skills.add(mkBtn("RR", "Half damage to the WHOLE horde", BattleEngine.Action.AOE));
+        skills.add(mkBtn("SJF", "Snipe the weakest process", BattleEngine.Action.SNIPE));
+        skills.add(mkBtn("TURBO", "Boost Dmg (2 Turns)", BattleEngine.Action.TURBO));
+        skills.add(mkBtn("SMT", "Double Threads (300MB)", BattleEngine.Action.SMT));
+        skills.add(mkBtn("HEAL", "Repair (200MB)", BattleEngine.Action.HEAL));
+        skills.add(mkBtn("END TURN", "The horde strikes back", BattleEngine.Action.END_TURN));
+        bottom.add(skills, BorderLayout.CENTER);
+        logArea = new JTextArea(5, 30);
+        bottom.add(new JScrollPane(logArea), BorderLayout.EAST);
+        add(bottom, BorderLayout.SOUTH);
+
+        battle.setListener(new BattleListener() {
+            @Override public void onLog(String message) { logArea.append(message + "\n"); }
+        });
+        refresh();
+        logArea.append(String.format(">> %,d PROCESSES SPAWNED.%n", size));
+    }
+
+    // FUNCTION: One action, then redraw (or end the run).
+    private void act(BattleEngine.Action a) {
+        battle.act(a);
+        refresh();
+        if (battle.isWon()) finish("HORDE TERMINATED IN " + battle.turn() + " TURN(S)!");
+        else if (battle.isLost()) finish("OVERRUN BY THE HORDE. " + String.format("%,d", battle.enemies().size()) + " PROCESSES LEFT.");
+    }
+
+    private void finish(String message) {
+        JOptionPane.showMessageDialog(this, message);
+        dispose(); // The window listener brings the menu back.
+    }
+
+    // HELPER: Updates bars, counters and the histogram.
+    private void refresh() {
+        barHP.setValue(battle.hp()); barHP.setString(battle.hp() + "/" + battle.maxHP());
+        barRAM.setValue(battle.ram()); barRAM.setString(battle.ram() + "/" + battle.maxRAM() + " MB");
+        lblThreads.setText("THREADS: " + battle.ap() + " / " + battle.maxAP() + "   TURBO: " + battle.turboCharges() + "   TURN " + battle.turn());
+        EnemyStore e = battle.enemies();
+        StringBuilder sb = new StringBuilder(String.format("HORDE: %,d", e.size()));
+        for (EnemyType t : HordeBattle.tiers(battle.stage)) sb.append(String.format(" | %s %,d", t.label, e.count(t)));
+        lblHorde.setText(sb.toString());
+        lblTiming.setText(String.format("last action resolved in %.3f ms", battle.lastResolveNanos / 1e6));
+        histogram.update(e);
+    }
+
+    private JButton mkBtn(String t, String tip, BattleEngine.Action a) {
+        JButton b = new JButton(t);
+        b.setToolTipText(tip);
+        b.addActionListener(e -> act(a));
+        return b;
+    }
+
+    /** CLASS: HistogramPanel - alive processes per HP band, one bar per band. */
+    private static class HistogramPanel extends JPanel {
+        private static final int BINS = 40;
+        private int[] bins = new int[BINS];
+        private int width = 1;
+
+        HistogramPanel() { setBackground(new Color(20, 20, 30)); }
+
+        void update(EnemyStore e) {
+            width = Math.max(1, (e.maxHP() + BINS - 1) / BINS);
+            bins = e.histogram(BINS, width);
+            repaint();
+        }
+
+        @Override protected void paintComponent(Graphics g) {
+            super.paintComponent(g);
+            int w = getWidth(), h = getHeight() - 30, peak = 1;
+            for (int c : bins) peak = Math.max(peak, c);
+            int bw = Math.max(1, (w - 40) / BINS);
+            for (int i = 0; i < BINS; i++) {
+                int bh = (int) ((long) bins[i] * (h - 20) / peak);
+                g.setColor(new Color(255, 80 + (175 * i / BINS), 50));
+                g.fillRect(20 + i * bw, h - bh, bw - 2, bh);
+            }
+            g.setColor(Color.WHITE);
+            g.drawString("HP 1", 20, h + 15);
+            g.drawString("HP " + (BINS * width), w - 80, h + 15);
+            g.drawString(String.format("peak %,d processes / band of %d HP", peak, width), w / 2 - 100, 20);
+        }
+    }
+}
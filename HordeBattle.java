@@ -0,0 +1,137 @@
+import java.util.SplittableRandom;
+
+/**
+ * CLASS: HordeBattle
+ * Horde mode: one huge wave (10,000+ enemies) instead of a few small ones.
+ * * The player's side is BattleEngine's own PlayerSide (threads, RAM and the undervolt
+ *   discount, kernel panics, crits, Turbo, SMT, heal, regeneration), so a rule change
+ *   there reaches both modes. This class only has the enemies.
+ * * Enemies live in an EnemyStore: FCFS hits the queue head, SJF the bottom HP bucket,
+ *   RR is one lazy area-damage call, and the enemy phase multiplies the alive count of
+ *   each type by its damage. No action loops over the horde.
+ * * SWARM: a horde can't hit like 10,000 separate enemies, so its attack is scaled so
+ *   that a full horde hits like SWARM regular enemies; it weakens as it thins out.
+ * * Enemy types are drawn from the floor's tiers with the battle's dice, so a seed
+ *   gives the same horde every time.
+ */
+public class HordeBattle {
+
+    public static final int SWARM = 3;
+
+    private final SplittableRandom rng;
+    private BattleListener listener;
+    public final int stage, initialSize;
+    private final EnemyStore enemies;
+    private final int[] damageByType = new int[EnemyType.values().length];
+
+    // --- PLAYER STATE (the same rules as BattleEngine) ---
+    private final PlayerSide player;
+    private int turn = 1;
+    private boolean won = false, lost = false;
+
+    // Time spent resolving the last action (enemy store work included), for the HUD.
+    public long lastResolveNanos;
+
+    public HordeBattle(GameState gs, int stage, int size, BattleEngine.Balance balance, SplittableRandom rng) {
+        if (size <= 0) throw new IllegalArgumentException("horde size must be positive: " + size);
+        this.stage = stage;
+        this.rng = rng;
+        this.initialSize = size;
+        this.player = new PlayerSide(gs);
+
+        EnemyType[] pool = tiers(stage);
+        int top = 0;
+        for (EnemyType t : pool) top = Math.max(top, BattleEngine.enemyHP(stage, t, balance));
+        for (EnemyType t : EnemyType.values()) damageByType[t.ordinal()] = BattleEngine.enemyDamage(t, balance);
+        this.enemies = new EnemyStore(size, top);
+        for (int i = 0; i < size; i++) {
+            EnemyType t = pool[rng.nextInt(pool.length)];
+            enemies.add(t, BattleEngine.enemyHP(stage, t, balance));
+        }
+    }
+
+    // Regular (non-boss) enemy types up to the floor's tier.
+    static EnemyType[] tiers(int stage) {
+        if (stage <= 3) return new EnemyType[]{EnemyType.CALCULATOR, EnemyType.NOTEPAD};
+        if (stage <= 6) return new EnemyType[]{EnemyType.CALCULATOR, EnemyType.NOTEPAD, EnemyType.CHROME, EnemyType.VS_CODE};
+        return new EnemyType[]{EnemyType.CHROME, EnemyType.VS_CODE, EnemyType.ANDROID, EnemyType.BLENDER, EnemyType.PREMIERE};
+    }
+
+    public void setListener(BattleListener l) { this.listener = l; player.listener = l; }
+
+    public boolean canUse(BattleEngine.Action a) {
+        return !isOver() && player.canUse(a);
+    }
+
+    // --- PLAYER PHASE ---
+    public BattleEngine.Outcome act(BattleEngine.Action a) {
+        if (isOver()) return BattleEngine.Outcome.BATTLE_OVER;
+        long start = System.nanoTime();
+        BattleEngine.Outcome o;
+        switch (a) {
+            case TURBO: o = player.turbo(); break;
+            case SMT: o = player.smt(); break;
+            case END_TURN: endTurn(); o = BattleEngine.Outcome.OK; break;
+            default: o = skill(a);
+        }
+        lastResolveNanos = System.nanoTime() - start;
+        return o;
+    }
+
+    private BattleEngine.Outcome skill(BattleEngine.Action a) {
+        BattleEngine.Outcome paid = player.pay(a, rng);
+        if (paid != BattleEngine.Outcome.OK) return paid;
+        int dmg = player.rollDamage(rng);
+
+        int kills = 0;
+        if (a == BattleEngine.Action.ATTACK && !enemies.isEmpty()) {
+            kills = enemies.damage(enemies.first(), dmg) ? 1 : 0;
+        } else if (a == BattleEngine.Action.AOE) {
+            kills = enemies.damageAll(dmg / 2);
+        } else if (a == BattleEngine.Action.SNIPE && !enemies.isEmpty()) {
+            kills = enemies.damage(enemies.weakest(), (int)(dmg * 1.5)) ? 1 : 0;
+        } else if (a == BattleEngine.Action.HEAL) {
+            player.heal();
+        }
+        player.afterSkill();
+        if (kills > 0 && listener != null) log(String.format(">> %s: %,d killed, %,d left", a.label, kills, enemies.size()));
+        if (enemies.isEmpty()) {
+            won = true;
+            if (listener != null) listener.onVictory();
+        }
+        return BattleEngine.Outcome.OK;
+    }
+
+    // --- ENEMY PHASE ---
+    private void endTurn() {
+        player.startEnemyPhase();
+        // Batched per type: alive count x damage, scaled by the swarm rule.
+        long raw = enemies.attack(damageByType);
+        int dmg = (int) ((raw * SWARM + initialSize - 1) / initialSize);
+        player.hp -= dmg;
+        if (listener != null) log(String.format("Horde of %,d hits: %d HP", enemies.size(), dmg));
+        if (!player.endEnemyPhase()) {
+            lost = true;
+            if (listener != null) listener.onDefeat();
+        } else {
+            turn++;
+        }
+    }
+
+    private void log(String s) { if (listener != null) listener.onLog(s); }
+
+    // --- STATE (read-only views) ---
+    public EnemyStore enemies() { return enemies; }
+    public int turn() { return turn; }
+    public int hp() { return player.hp; }
+    public int maxHP() { return player.maxHP; }
+    public int ram() { return player.ram; }
+    public int maxRAM() { return player.maxRAM; }
+    public int ap() { return player.ap; }
+    public int maxAP() { return player.maxAP; }
+    public int turboCharges() { return player.turboCharges; }
+    public boolean smtUsed() { return player.smtUsed; }
+    public boolean isWon() { return won; }
+    public boolean isLost() { return lost; }
+    public boolean isOver() { return won || lost; }
+}
@@ -0,0 +1,225 @@
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * CLASS: LoadoutOptimizer
+ * Finds the strongest build for a target floor that the PSU can power and the
+ * player can afford: CPU, GPU, cooler, PSU, overclock and undervolt.
+ * * SCORE: win rate of the build over a fixed set of headless battles on the floor
+ *   (BattleEngine + the greedy BattlePolicy), then fewer turns, then less money spent.
+ *   Damage, HP, regen, crits and instability all show up in that one number.
+ * * BRANCH AND BOUND: the search walks CPU -> cooler -> undervolt -> (overclock, GPU, PSU).
+ *   A branch is cut as soon as the cheapest way to finish it breaks the budget or
+ *   the PSU limit. Overclock only adds damage, so for each (GPU, PSU) pair only the
+ *   highest overclock that PSU can still power is worth simulating.
+ * * MEMO: battles only depend on CPU, cooler, overclock, undervolt, the floor and the
+ *   upgrades (RAM, storage, ECC). GPU and PSU just change watts and price, so every
+ *   (GPU, PSU) completion reuses the same evaluation, and so does the next search
+ *   after buying a part. Keep one optimizer around to keep the cache warm.
+ */
+public class LoadoutOptimizer {
+
+    // Battles simulated per evaluation (same seed every time, so scores are repeatable).
+    public static final int BATTLES = 64;
+
+    /** CLASS: Build - one complete loadout and how it scored. */
+    public static class Build {
+        public final Hardware.CpuType cpu;
+        public final Hardware.GpuType gpu;
+        public final Hardware.CoolerType cooler;
+        public final Hardware.PsuType psu;
+        public final int overclock, undervolt;
+        public final int spend, watts;           // Money for parts not owned yet; total draw.
+        public final double winRate, meanTurns;  // Simulated on the target floor.
+
+        Build(Hardware.CpuType cpu, Hardware.GpuType gpu, Hardware.CoolerType cooler, Hardware.PsuType psu,
+              int overclock, int undervolt, int spend, int watts, double winRate, double meanTurns) {
+            this.cpu = cpu; this.gpu = gpu; this.cooler = cooler; this.psu = psu;
+            this.overclock = overclock; this.undervolt = undervolt;
+            this.spend = spend; this.watts = watts;
+            this.winRate = winRate; this.meanTurns = meanTurns;
+        }
+
+        // True if this build scores better: win rate, then turns, then price, then watts.
+        boolean beats(Build o) {
+            if (o == null) return true;
+            if (winRate != o.winRate) return winRate > o.winRate;
+            if (meanTurns != o.meanTurns) return meanTurns < o.meanTurns;
+            if (spend != o.spend) return spend < o.spend;
+            return watts < o.watts;
+        }
+
+        // Buys the missing parts and equips the build (CPU, GPU, cooler, PSU, BIOS sliders).
+        public void apply(GameState.Draft gs) {
+            if (gs.currency < spend) throw new IllegalStateException("cannot afford build: $" + spend);
+            gs.currency -= spend;
+            if (!gs.hasCpu(cpu)) gs.addCpu(cpu);
+            if (!gs.hasGpu(gpu)) gs.addGpu(gpu);
+            if (!gs.hasCooler(cooler)) gs.addCooler(cooler);
+            if (!gs.hasPsu(psu)) gs.addPsu(psu);
+            gs.currentCpu = cpu; gs.currentGpu = gpu; gs.currentCooler = cooler; gs.currentPsu = psu;
+            gs.overclockVal = overclock; gs.undervoltVal = undervolt;
+        }
+
+        public String describe(GameState gs) {
+            GameState.Draft d = gs.edit();
+            d.currentCpu = cpu; d.overclockVal = overclock;
+            GameState g = d.freeze();
+            return String.format("CPU: %s  (OC %d%%, UV %d%%)%nGPU: %s%nCOOLING: %s%nPSU: %s%n%n"
+                            + "Damage: %d   Crit: %.0f%%   Max HP: %d   Regen: %d/turn%n"
+                            + "Power: %dW / %dW   Cost: $%d%nSimulated: %.0f%% wins, %.1f turns%n",
+                    cpu.label, overclock, undervolt, gpu.label, cooler.label, psu.label,
+                    g.calculateBaseDamage(), 100 * g.getCritChance(), g.getCurrentMaxHP(), cooler.regen,
+                    watts, psu.maxWatts, spend, 100 * winRate, meanTurns);
+        }
+    }
+
+    // Memo key: everything a battle depends on.
+    private record Key(int floor, Hardware.CpuType cpu, Hardware.CoolerType cooler, int overclock, int undervolt,
+                       int ramIndex, int storageLevel, boolean ecc) {}
+
+    private final Map<Key, double[]> memo = new ConcurrentHashMap<>();
+
+    // Stats of the last search.
+    public long nodes, pruned, simulated, cacheHits;
+
+    // Best build for 'floor' within the player's money and the PSU limits.
+    // Undervolt is tried in steps of 'undervoltStep' percent (overclock is exact).
+    // Returns null if not even the current parts can be powered.
+    public Build optimize(GameState gs, int floor, int undervoltStep) {
+        nodes = pruned = simulated = cacheHits = 0;
+        Build best = null;
+        for (Hardware.CpuType cpu : Hardware.CpuType.values()) {
+            nodes++;
+            int cpuCost = price(gs, cpu);
+            // BOUND: cheapest cooler/GPU/PSU still needed, and the lowest possible draw.
+            if (cpuCost + cheapestCooler(gs) + cheapestCompletion(gs, cpu.watts + minCoolerWatts()) > gs.currency) { pruned++; continue; }
+            for (Hardware.CoolerType cooler : Hardware.CoolerType.values()) {
+                nodes++;
+                int partsCost = cpuCost + price(gs, cooler);
+                int baseWatts = cpu.watts + cooler.watts;
+                if (partsCost + cheapestCompletion(gs, baseWatts) > gs.currency) { pruned++; continue; }
+                for (int uv = 0; uv <= 100; uv += undervoltStep) {
+                    Build b = bestCompletion(gs, floor, cpu, cooler, uv, partsCost);
+                    if (b != null && b.beats(best)) best = b;
+                }
+            }
+        }
+        return best;
+    }
+
+    // For one (CPU, cooler, undervolt): every GPU/PSU pair that fits the budget, each run at
+    // the highest overclock its PSU can power (a lower overclock on the same pair never
+    // wins). A pair that allows no more overclock than a cheaper one is dominated and
+    // skipped without simulating.
+    private Build bestCompletion(GameState gs, int floor, Hardware.CpuType cpu, Hardware.CoolerType cooler,
+                                 int uv, int partsCost) {
+        Hardware.GpuType[] gpus = Hardware.GpuType.values();
+        Hardware.PsuType[] psus = Hardware.PsuType.values();
+        int n = gpus.length * psus.length;
+        int[] oc = new int[n], spend = new int[n], watts = new int[n];
+        for (int i = 0; i < n; i++) {
+            nodes++;
+            Hardware.GpuType gpu = gpus[i / psus.length];
+            Hardware.PsuType psu = psus[i % psus.length];
+            spend[i] = partsCost + price(gs, gpu) + price(gs, psu);
+            oc[i] = maxOverclock(cpu, cooler.watts + gpu.watts, psu.maxWatts);
+            if (spend[i] > gs.currency) oc[i] = -1;
+            if (oc[i] >= 0) watts[i] = watts(cpu, oc[i], cooler.watts + gpu.watts);
+        }
+        Build best = null;
+        for (int i = 0; i < n; i++) {
+            if (oc[i] < 0 || dominated(i, oc, spend, watts)) { pruned++; continue; }
+            double[] score = evaluate(gs, floor, cpu, cooler, oc[i], uv);
+            Build b = new Build(cpu, gpus[i / psus.length], cooler, psus[i % psus.length], oc[i], uv,
+                    spend[i], watts[i], score[0], score[1]);
+            if (b.beats(best)) best = b;
+        }
+        return best;
+    }
+
+    // True if another feasible pair gives at least the same overclock for no more money and
+    // no more watts, and is strictly better in one of them (earlier index breaks exact ties).
+    private static boolean dominated(int i, int[] oc, int[] spend, int[] watts) {
+        for (int j = 0; j < oc.length; j++) {
+            if (j == i || oc[j] < 0 || oc[j] < oc[i] || spend[j] > spend[i] || watts[j] > watts[i]) continue;
+            if (oc[j] > oc[i] || spend[j] < spend[i] || watts[j] < watts[i] || j < i) return true;
+        }
+        return false;
+    }
+
+    // Simulated {win rate, mean turns to win} of one combat setup (memoized).
+    private double[] evaluate(GameState gs, int floor, Hardware.CpuType cpu, Hardware.CoolerType cooler, int oc, int uv) {
+        Key k = new Key(floor, cpu, cooler, oc, uv, gs.ramIndex, gs.storageLevel, gs.hasECC);
+        double[] cached = memo.get(k);
+        if (cached != null) { cacheHits++; return cached; }
+        simulated++;
+        GameState.Draft d = gs.edit();
+        d.currentCpu = cpu; d.currentCooler = cooler; d.overclockVal = oc; d.undervoltVal = uv;
+        GameState g = d.freeze();
+        BattlePolicy player = BattlePolicy.greedy();
+        SplittableRandom rng = new SplittableRandom(floor);
+        int wins = 0;
+        long turns = 0;
+        for (int i = 0; i < BATTLES; i++) {
+            BattleEngine battle = new BattleEngine(g, floor, rng);
+            while (!battle.isOver() && battle.turn() <= BalanceSweep.MAX_TURNS) {
+                BattleEngine.Outcome o = battle.act(player.choose(battle, rng));
+                if (o == BattleEngine.Outcome.NO_THREADS || o == BattleEngine.Outcome.OUT_OF_MEMORY
+                        || o == BattleEngine.Outcome.UNAVAILABLE) battle.act(BattleEngine.Action.END_TURN);
+            }
+            if (battle.isWon()) { wins++; turns += battle.turn(); }
+        }
+        double[] score = {wins / (double) BATTLES, wins == 0 ? Double.MAX_VALUE : turns / (double) wins};
+        memo.put(k, score);
+        return score;
+    }
+
+    public int cachedEvaluations() { return memo.size(); }
+    public void clearCache() { memo.clear(); }
+
+    // --- POWER AND PRICE HELPERS (same formula as GameState.getTotalWatts) ---
+
+    static int watts(Hardware.CpuType cpu, int overclock, int otherWatts) {
+        return (int)(cpu.watts * (1.0 + overclock / 100.0)) + otherWatts + 50;
+    }
+
+    // Highest overclock (0..100) that keeps the draw within 'maxWatts', or -1 if even 0% is too much.
+    static int maxOverclock(Hardware.CpuType cpu, int otherWatts, int maxWatts) {
+        if (watts(cpu, 0, otherWatts) > maxWatts) return -1;
+        int lo = 0, hi = 100;
+        while (lo < hi) { // Draw grows with the overclock: binary search the last one that fits.
+            int mid = (lo + hi + 1) >>> 1;
+            if (watts(cpu, mid, otherWatts) <= maxWatts) lo = mid; else hi = mid - 1;
+        }
+        return lo;
+    }
+
+    private static int price(GameState gs, Hardware.CpuType c) { return gs.hasCpu(c) ? 0 : c.cost; }
+    private static int price(GameState gs, Hardware.GpuType g) { return gs.hasGpu(g) ? 0 : g.cost; }
+    private static int price(GameState gs, Hardware.CoolerType c) { return gs.hasCooler(c) ? 0 : c.cost; }
+    private static int price(GameState gs, Hardware.PsuType p) { return gs.hasPsu(p) ? 0 : p.cost; }
+
+    private static int cheapestCooler(GameState gs) {
+        int min = Integer.MAX_VALUE;
+        for (Hardware.CoolerType c : Hardware.CoolerType.values()) min = Math.min(min, price(gs, c));
+        return min;
+    }
+
+    private static int minCoolerWatts() {
+        int min = Integer.MAX_VALUE;
+        for (Hardware.CoolerType c : Hardware.CoolerType.values()) min = Math.min(min, c.watts);
+        return min;
+    }
+
+    // Cheapest GPU + PSU that can power 'partWatts' (CPU at 0% OC + cooler), or a huge
+    // number if no PSU can.
+    private static int cheapestCompletion(GameState gs, int partWatts) {
+        int min = Integer.MAX_VALUE / 2;
+        for (Hardware.GpuType g : Hardware.GpuType.values())
+            for (Hardware.PsuType p : Hardware.PsuType.values())
+                if (partWatts + g.watts + 50 <= p.maxWatts) min = Math.min(min, price(gs, g) + price(gs, p));
+        return min;
+    }
+}
@@ -6,6 +6,10 @@ import java.awt.*;
 // It serves as the central hub where the player builds their PC, buys parts, and starts the game.
 public class MainMenu extends JFrame {
 
+    // Shared across menu instances (the menu is rebuilt after every battle) so its
+    // memoized battle evaluations survive between searches.
+    private static final LoadoutOptimizer OPTIMIZER = new LoadoutOptimizer();
+
     // MAIN METHOD: The entry point of the Java application.
     public static void main(String[] args) {
         // OPTIONAL: Sets the UI look to match the operating system (Windows/Mac/Linux style).
@@ -31,8 +35,8 @@ public class MainMenu extends JFrame {
         add(header, BorderLayout.NORTH);
 
         // BUTTON PANEL (Center)
-        // GridLayout(3, 2, 20, 20) means 3 rows, 2 columns, with 20px gaps between items.
-        JPanel menuPanel = new JPanel(new GridLayout(3, 2, 20, 20));
+        // GridLayout(4, 2, 20, 20) means 4 rows, 2 columns, with 20px gaps between items.
+        JPanel menuPanel = new JPanel(new GridLayout(4, 2, 20, 20));
         // Adds padding around the edges of the panel so buttons aren't touching the window border.
         menuPanel.setBorder(BorderFactory.createEmptyBorder(30,50,50,50));
 
@@ -47,8 +51,13 @@ public class MainMenu extends JFrame {
         menuPanel.add(createBigBtn("🛒 COMPONENT SHOP", "Buy Parts", this::openShop));
         menuPanel.add(createBigBtn("🎓 CPU EDUCATION", "Scheduling Simulator", this::openEducation)); 
         menuPanel.add(createBigBtn("📊 LOGS", "Gantt Charts", this::openLogs));
+        menuPanel.add(createBigBtn("🎲 BALANCE LAB", "Monte Carlo Sweep", this::openBalanceLab));
+        menuPanel.add(createBigBtn("🧟 HORDE MODE", "10,000+ Processes", this::openHorde));
 
         add(menuPanel, BorderLayout.CENTER);
+
+        // PROFILE BAR (South): each player has their own money, floor and parts.
+        add(createProfileBar(), BorderLayout.SOUTH);
         
         // Updates the window title bar with current currency and hardware info.
         updateTitle();
@@ -62,8 +71,8 @@ public class MainMenu extends JFrame {
         int maxW = gs.currentPsu.maxWatts;
         String powerStr = watts + "/" + maxW + "W";
         
-        // Displays: CPU Name | Power Usage / Capacity | Floor # | Current Money
-        setTitle("BUILD: " + gs.currentCpu.label + " | PWR: " + powerStr + " | FLOOR: " + gs.currentFloor + " | FUNDS: $" + gs.currency);
+        // Displays: Profile | CPU Name | Power Usage / Capacity | Floor # | Current Money
+        setTitle("PLAYER: " + ProfileStore.get().active() + " | BUILD: " + gs.currentCpu.label + " | PWR: " + powerStr + " | FLOOR: " + gs.currentFloor + " | FUNDS: $" + gs.currency);
     }
 
     // HELPER: Factory method to create consistent, styled buttons.
@@ -75,6 +84,47 @@ public class MainMenu extends JFrame {
         return b;
     }
 
+    // --- PROFILES ---
+    // Switching, adding or deleting a profile rebuilds the menu so it shows that player.
+    private JPanel createProfileBar() {
+        ProfileStore store = ProfileStore.get();
+        JPanel bar = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        JComboBox<String> box = new JComboBox<>(store.names().toArray(new String[0]));
+        box.setSelectedItem(store.active());
+        box.addActionListener(e -> {
+            String name = (String) box.getSelectedItem();
+            if (name != null && !name.equals(store.active())) { store.select(name); reopen(); }
+        });
+
+        JButton add = new JButton("NEW PROFILE");
+        add.addActionListener(e -> {
+            String name = JOptionPane.showInputDialog(this, "Profile name:");
+            if (name == null || name.isBlank()) return;
+            if (!store.create(name)) {
+                JOptionPane.showMessageDialog(this, "A profile named " + name.trim() + " already exists.");
+                return;
+            }
+            store.select(name.trim());
+            reopen();
+        });
+
+        // The last profile can't be deleted; the active one is swapped out first.
+        JButton del = new JButton("DELETE PROFILE");
+        del.setEnabled(store.names().size() > 1);
+        del.addActionListener(e -> {
+            String victim = store.active();
+            if (JOptionPane.showConfirmDialog(this, "Delete profile " + victim + "?", "PROFILES", JOptionPane.YES_NO_OPTION) != JOptionPane.YES_OPTION) return;
+            for (String n : store.names()) if (!n.equals(victim)) { store.select(n); break; }
+            store.delete(victim);
+            reopen();
+        });
+
+        bar.add(new JLabel("PROFILE:")); bar.add(box); bar.add(add); bar.add(del);
+        return bar;
+    }
+
+    private void reopen() { dispose(); new MainMenu().setVisible(true); }
+
     // --- ACTION: START GAME (ROGUELIKE RUN) ---
     private void deployRun() {
         GameState gs = GameState.get();
@@ -92,6 +142,30 @@ public class MainMenu extends JFrame {
         new CyberQuestRPG(gs.currentFloor, this).setVisible(true);
     }
 
+    // --- ACTION: HORDE MODE ---
+    // One giant wave on the current floor's enemy tier. Practice only: no credits, no floor progress.
+    private void openHorde() {
+        GameState gs = GameState.get();
+        if(gs.getTotalWatts() > gs.currentPsu.maxWatts) {
+            JOptionPane.showMessageDialog(this, "POST FAILURE: PSU OVERLOAD!\nUpgrade PSU or Downclock.", "BOOT ERROR", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        String input = JOptionPane.showInputDialog(this, "Horde size (processes):", "10000");
+        if (input == null) return;
+        int size;
+        try {
+            size = Integer.parseInt(input.trim().replace(",", ""));
+        } catch (NumberFormatException e) {
+            size = 0;
+        }
+        if (size <= 0 || size > 1_000_000) {
+            JOptionPane.showMessageDialog(this, "Enter a size between 1 and 1,000,000.", "HORDE MODE", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        this.setVisible(false);
+        new HordeArena(gs.currentFloor, size, this).setVisible(true);
+    }
+
     // --- ACTION: OPEN CONFIGURATION WINDOW ---
     // Opens a modal dialog with Tabs for Assembly, Upgrades, and BIOS.
     private void openConfigurator() {
@@ -106,6 +180,7 @@ public class MainMenu extends JFrame {
         tabs.addTab("ASSEMBLY", createAssemblyPanel(d));  // Select Parts
         tabs.addTab("UPGRADES", createUpgradesPanel(d)); // RAM/Storage Levels
         tabs.addTab("BIOS TUNING", createBiosPanel());   // Overclocking Sliders
+        tabs.addTab("OPTIMIZER", createOptimizerPanel(d)); // Best build for a floor
 
         d.add(tabs, BorderLayout.CENTER);
         d.setLocationRelativeTo(this); // Centers popup over main window
@@ -124,10 +199,11 @@ public class MainMenu extends JFrame {
         // 1. COMPONENT SELECTORS (Dropdowns)
         // Uses 'createCombo' helper to create dropdowns that only show *owned* items.
         // The lambda 'ps -> gs.hasPsu(ps)' is a filter: True if owned, False if not.
-        p.add(createCombo("POWER SUPPLY", gs.currentPsu, Hardware.PsuType.values(), ps -> gs.hasPsu(ps), o -> { gs.currentPsu=(Hardware.PsuType)o; d.repaint(); }));
-        p.add(createCombo("CPU", gs.currentCpu, Hardware.CpuType.values(), c -> gs.hasCpu(c), o -> { gs.currentCpu=(Hardware.CpuType)o; d.repaint(); }));
-        p.add(createCombo("GPU", gs.currentGpu, Hardware.GpuType.values(), g -> gs.hasGpu(g), o -> { gs.currentGpu=(Hardware.GpuType)o; d.repaint(); }));
-        p.add(createCombo("COOLING", gs.currentCooler, Hardware.CoolerType.values(), c -> gs.hasCooler(c), o -> { gs.currentCooler=(Hardware.CoolerType)o; d.repaint(); }));
+        // Picking an item publishes a new GameState (the 's' in 's -> ...' is its editable Draft).
+        p.add(createCombo("POWER SUPPLY", gs.currentPsu, Hardware.PsuType.values(), ps -> gs.hasPsu(ps), o -> { GameState.update(s -> s.currentPsu=(Hardware.PsuType)o); d.repaint(); }));
+        p.add(createCombo("CPU", gs.currentCpu, Hardware.CpuType.values(), c -> gs.hasCpu(c), o -> { GameState.update(s -> s.currentCpu=(Hardware.CpuType)o); d.repaint(); }));
+        p.add(createCombo("GPU", gs.currentGpu, Hardware.GpuType.values(), g -> gs.hasGpu(g), o -> { GameState.update(s -> s.currentGpu=(Hardware.GpuType)o); d.repaint(); }));
+        p.add(createCombo("COOLING", gs.currentCooler, Hardware.CoolerType.values(), c -> gs.hasCooler(c), o -> { GameState.update(s -> s.currentCooler=(Hardware.CoolerType)o); d.repaint(); }));
 
         // 2. POWER METER (Visual Feedback)
         int currentW = gs.getTotalWatts();
@@ -161,15 +237,14 @@ public class MainMenu extends JFrame {
         // RAM UPGRADE
         // Checks array bounds to ensure we don't upgrade past 32GB
         int nextRam = gs.ramIndex + 1; 
-        boolean ramMaxed = nextRam > gs.MAX_RAM_INDEX;
-        String ramTxt = ramMaxed ? "RAM MAXED ("+gs.getCurrentRamMB()+"MB)" : "RAM: "+gs.getCurrentRamMB()+"MB -> "+gs.RAM_TIERS[nextRam]+"MB ($500)";
+        boolean ramMaxed = nextRam > GameState.MAX_RAM_INDEX;
+        String ramTxt = ramMaxed ? "RAM MAXED ("+gs.getCurrentRamMB()+"MB)" : "RAM: "+gs.getCurrentRamMB()+"MB -> "+GameState.ramTierMB(nextRam)+"MB ($500)";
         
         JButton bRam = new JButton(ramTxt);
         bRam.setEnabled(!ramMaxed); // Gray out button if maxed
         bRam.addActionListener(e->{
-            if(gs.currency>=500){
-                gs.currency-=500;
-                gs.ramIndex++; 
+            // The money check happens inside the update, so it is checked and spent atomically.
+            if(GameState.tryUpdate(s -> { if(s.currency<500) return false; s.currency-=500; s.ramIndex++; return true; })){
                 d.repaint(); 
                 openConfigurator(); // Re-opens panel to update button text
             }
@@ -177,17 +252,17 @@ public class MainMenu extends JFrame {
         p.add(bRam);
         
         // STORAGE UPGRADE (HP)
-        boolean storeMaxed = gs.storageLevel >= gs.MAX_STORAGE_LEVEL;
-        String stoTxt = storeMaxed ? "SSD MAXED (Tier "+gs.MAX_STORAGE_LEVEL+")" : "SSD TIER "+gs.storageLevel+" (+HP) ($300)";
+        boolean storeMaxed = gs.storageLevel >= GameState.MAX_STORAGE_LEVEL;
+        String stoTxt = storeMaxed ? "SSD MAXED (Tier "+GameState.MAX_STORAGE_LEVEL+")" : "SSD TIER "+gs.storageLevel+" (+HP) ($300)";
         JButton bSto = new JButton(stoTxt);
         bSto.setEnabled(!storeMaxed);
-        bSto.addActionListener(e->{if(gs.currency>=300){gs.currency-=300;gs.storageLevel++;d.repaint(); openConfigurator();}});
+        bSto.addActionListener(e->{if(GameState.tryUpdate(s -> { if(s.currency<300) return false; s.currency-=300; s.storageLevel++; return true; })){d.repaint(); openConfigurator();}});
         p.add(bSto);
         
         // ECC (One-time purchase)
         JButton bEcc=new JButton(gs.hasECC?"ECC INSTALLED":"BUY ECC RAM ($1000)"); 
         bEcc.setEnabled(!gs.hasECC);
-        bEcc.addActionListener(e->{if(gs.currency>=1000){gs.currency-=1000;gs.hasECC=true;d.repaint(); openConfigurator();}});
+        bEcc.addActionListener(e->{if(GameState.tryUpdate(s -> { if(s.currency<1000) return false; s.currency-=1000; s.hasECC=true; return true; })){d.repaint(); openConfigurator();}});
         p.add(bEcc);
         
         return p;
@@ -203,17 +278,73 @@ public class MainMenu extends JFrame {
         p.add(new JLabel("Overclock % (Increases Watts!)")); 
         p.add(sOC); 
         // Updates GameState immediately when slider moves
-        sOC.addChangeListener(e->gs.overclockVal=sOC.getValue());
+        sOC.addChangeListener(e->GameState.update(s -> s.overclockVal=sOC.getValue()));
         
         // UNDERVOLT SLIDER (0-100%)
         JSlider sUV=new JSlider(0,100,gs.undervoltVal); 
         p.add(new JLabel("Undervolt % (Unstable!)")); 
         p.add(sUV); 
-        sUV.addChangeListener(e->gs.undervoltVal=sUV.getValue());
+        sUV.addChangeListener(e->GameState.update(s -> s.undervoltVal=sUV.getValue()));
         
         return p;
     }
 
+    // --- PANEL 4: OPTIMIZER (Best build for a floor) ---
+    // Searches every CPU/GPU/cooler/PSU/overclock/undervolt combination that the money and
+    // the PSU allow, scoring each one with simulated battles on the chosen floor.
+    private JPanel createOptimizerPanel(JDialog d) {
+        JPanel p = new JPanel(new BorderLayout(10, 10));
+        p.setBorder(BorderFactory.createEmptyBorder(10,10,10,10));
+        GameState gs = GameState.get();
+
+        JPanel top = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        JSpinner floor = new JSpinner(new SpinnerNumberModel(gs.currentFloor, 1, 10, 1));
+        JButton search = new JButton("FIND BEST BUILD");
+        JButton equip = new JButton("BUY & EQUIP");
+        equip.setEnabled(false);
+        top.add(new JLabel("Target floor:")); top.add(floor);
+        top.add(search); top.add(equip);
+
+        JTextArea result = new JTextArea("Budget: $" + gs.currency + "\nOwned parts cost nothing.");
+        result.setEditable(false);
+        result.setFont(new Font("Monospaced", Font.PLAIN, 14));
+        p.add(top, BorderLayout.NORTH);
+        p.add(new JScrollPane(result), BorderLayout.CENTER);
+
+        LoadoutOptimizer.Build[] found = new LoadoutOptimizer.Build[1];
+        search.addActionListener(e -> {
+            int f = (Integer) floor.getValue();
+            GameState snapshot = GameState.get(); // The search runs off the EDT on this (immutable) snapshot.
+            search.setEnabled(false); equip.setEnabled(false);
+            result.setText("Searching...");
+            new SwingWorker<String, Void>() {
+                @Override protected String doInBackground() {
+                    synchronized (OPTIMIZER) {
+                        long t0 = System.nanoTime();
+                        found[0] = OPTIMIZER.optimize(snapshot, f, 5);
+                        String stats = String.format("%n%,d nodes, %,d pruned, %,d simulated, %,d cached (%.0f ms)",
+                                OPTIMIZER.nodes, OPTIMIZER.pruned, OPTIMIZER.simulated, OPTIMIZER.cacheHits, (System.nanoTime() - t0) / 1e6);
+                        if (found[0] == null) return "No affordable build can be powered." + stats;
+                        return "BEST BUILD FOR FLOOR " + f + "\n\n" + found[0].describe(snapshot) + stats;
+                    }
+                }
+                @Override protected void done() {
+                    try { result.setText(get()); } catch (Exception ex) { result.setText("Search failed: " + ex); }
+                    search.setEnabled(true);
+                    equip.setEnabled(found[0] != null);
+                }
+            }.execute();
+        });
+        equip.addActionListener(e -> {
+            LoadoutOptimizer.Build b = found[0];
+            if (b == null || !GameState.tryUpdate(s -> { if (s.currency < b.spend) return false; b.apply(s); return true; })) return;
+            updateTitle();
+            d.dispose();
+            openConfigurator(); // Re-opens to show the new parts
+        });
+        return p;
+    }
+
     // --- HELPER: GENERIC COMBO BOX CREATOR ---
     // This creates a dropdown <T> that is strictly typed (e.g., only CPU Enums or GPU Enums).
     // filter: A function determining which items to show.
@@ -237,30 +368,33 @@ public class MainMenu extends JFrame {
         JDialog d = new JDialog(this, "NEWEGG...ISH", true); 
         d.setSize(800, 600); 
         d.setLayout(new GridLayout(0, 2)); // 2 Columns
-        GameState gs = GameState.get();
         
         // Calls a generic helper to create shop buttons for each Enum type.
         // This dramatically reduces code duplication.
-        createShopSection(d, "CPUs", Hardware.CpuType.values(), c -> c.cost, c -> " ("+c.watts+"W)", i -> gs.addCpu((Hardware.CpuType)i));
-        createShopSection(d, "GPUs", Hardware.GpuType.values(), c -> c.cost, c -> " ("+c.watts+"W)", i -> gs.addGpu((Hardware.GpuType)i));
-        createShopSection(d, "Coolers", Hardware.CoolerType.values(), c -> c.cost, c -> "", i -> gs.addCooler((Hardware.CoolerType)i));
-        createShopSection(d, "PSUs", Hardware.PsuType.values(), c -> c.cost, c -> " ("+c.maxWatts+"W)", i -> gs.addPsu((Hardware.PsuType)i));
+        createShopSection(d, "CPUs", Hardware.CpuType.values(), c -> c.cost, c -> " ("+c.watts+"W)", (s, i) -> s.addCpu(i));
+        createShopSection(d, "GPUs", Hardware.GpuType.values(), c -> c.cost, c -> " ("+c.watts+"W)", (s, i) -> s.addGpu(i));
+        createShopSection(d, "Coolers", Hardware.CoolerType.values(), c -> c.cost, c -> "", (s, i) -> s.addCooler(i));
+        createShopSection(d, "PSUs", Hardware.PsuType.values(), c -> c.cost, c -> " ("+c.maxWatts+"W)", (s, i) -> s.addPsu(i));
         
         d.setVisible(true);
     }
     
     // GENERIC SHOP CREATOR
     // Takes a list of items (e.g., all CPUs) and creates a "Buy" button for each.
-    private <T> void createShopSection(JDialog d, String title, T[] items, java.util.function.Function<T,Integer> costFunc, java.util.function.Function<T,String> infoFunc, java.util.function.Consumer<T> buyAction) {
+    // buyAction adds the item to a GameState Draft; paying and adding are published together.
+    private <T> void createShopSection(JDialog d, String title, T[] items, java.util.function.Function<T,Integer> costFunc, java.util.function.Function<T,String> infoFunc, java.util.function.BiConsumer<GameState.Draft,T> buyAction) {
         for(T item : items) {
             int cost = costFunc.apply(item); // Get cost dynamically
             if(cost == 0) continue; // Don't sell "Default/Stock" items
             
             JButton b = new JButton(item.toString() + infoFunc.apply(item) + " - $" + cost);
             b.addActionListener(e -> {
-                if(GameState.get().currency >= cost) {
-                    GameState.get().currency -= cost;
-                    buyAction.accept(item); // Add to inventory
+                if(GameState.tryUpdate(s -> {
+                    if(s.currency < cost) return false;
+                    s.currency -= cost;
+                    buyAction.accept(s, item); // Add to inventory
+                    return true;
+                })) {
                     JOptionPane.showMessageDialog(d, "Purchased!");
                     updateTitle(); // Update money display
                 }
@@ -273,7 +407,155 @@ public class MainMenu extends JFrame {
     private void openLogs() { JFrame f = new JFrame("BATTLE LOGS");
         f.setSize(800, 500); 
         f.add(new GanttChartPanel());
+        // EXPORT: Same log as Chrome Trace JSON, for zooming around in a real trace viewer.
+        JButton export = new JButton("Export Trace (chrome://tracing / Perfetto)");
+        export.addActionListener(e -> {
+            JFileChooser chooser = new JFileChooser();
+            chooser.setSelectedFile(new java.io.File("battle-trace.json"));
+            if (chooser.showSaveDialog(f) != JFileChooser.APPROVE_OPTION) return;
+            try {
+                long n = BattleTrace.export(GameState.get().lastBattleLogs, chooser.getSelectedFile().toPath());
+                JOptionPane.showMessageDialog(f, n + " trace events written.");
+            } catch (java.io.IOException ex) {
+                JOptionPane.showMessageDialog(f, "Export failed: " + ex.getMessage());
+            }
+        });
+        // REPLAYS: the last battle as a tiny binary file (seed + inputs), and a headless player.
+        byte[] replay = GameState.get().lastBattleReplay();
+        JButton save = new JButton("Save Replay");
+        save.setEnabled(replay != null);
+        save.addActionListener(e -> {
+            JFileChooser chooser = new JFileChooser();
+            chooser.setSelectedFile(new java.io.File("battle.cqr"));
+            if (chooser.showSaveDialog(f) != JFileChooser.APPROVE_OPTION) return;
+            try {
+                java.nio.file.Files.write(chooser.getSelectedFile().toPath(), replay);
+                JOptionPane.showMessageDialog(f, replay.length + " bytes written.");
+            } catch (java.io.IOException ex) {
+                JOptionPane.showMessageDialog(f, "Save failed: " + ex.getMessage());
+            }
+        });
+        JButton open = new JButton("Open Replay...");
+        open.addActionListener(e -> {
+            JFileChooser chooser = new JFileChooser();
+            if (chooser.showOpenDialog(f) != JFileChooser.APPROVE_OPTION) return;
+            try { // read() refuses every file the viewer couldn't show, so IOException is the only failure.
+                openReplay(BattleReplay.read(chooser.getSelectedFile().toPath()));
+            } catch (java.io.IOException ex) {
+                JOptionPane.showMessageDialog(f, "Cannot read replay: " + ex.getMessage());
+            }
+        });
+        JPanel south = new JPanel(new GridLayout(1, 3));
+        south.add(export); south.add(save); south.add(open);
+        f.add(south, BorderLayout.SOUTH);
         f.setLocationRelativeTo(this);
         f.setVisible(true); }
+
+    // REPLAY VIEWER: seek to any turn of a recorded battle (re-simulated headless on every move
+    // of the slider) and see the full state plus the inputs of that turn.
+    private void openReplay(BattleReplay r) {
+        JFrame f = new JFrame("REPLAY");
+        f.setSize(700, 500);
+        JLabel info = new JLabel("<html>" + r + "<br>Replay " + (r.verify() ? "VERIFIED" : "DOES NOT MATCH the recording") + "</html>");
+        JSlider turn = new JSlider(1, r.finalTurn, 1);
+        turn.setMajorTickSpacing(Math.max(1, r.finalTurn / 10));
+        turn.setPaintTicks(true); turn.setPaintLabels(true);
+        JTextArea out = new JTextArea();
+        out.setEditable(false);
+        out.setFont(new Font("Monospaced", Font.PLAIN, 12));
+        Runnable show = () -> {
+            int t = turn.getValue();
+            BattleEngine b = r.seek(t);
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("TURN %d  (wave %d/%d)%n", t, b.round(), b.totalRounds));
+            sb.append(String.format("HP %d/%d   RAM %d/%d MB   THREADS %d/%d   TURBO %d left (%d turns on)   SMT %s%n%n",
+                    b.hp(), b.maxHP(), b.ram(), b.maxRAM(), b.ap(), b.maxAP(), b.turboCharges(), b.turboDuration(),
+                    b.smtUsed() ? "used" : "ready"));
+            for (Monster m : b.arena()) sb.append(String.format("  %-14s %4d/%d HP%n", m.name, m.currentHP, m.maxHP));
+            sb.append("\nINPUTS THIS TURN:\n");
+            for (int i = r.firstInput(t); i < r.firstInput(t + 1); i++)
+                sb.append(String.format("  %7.1f s  %s%n", r.millis(i) / 1000.0, r.isUndo(i) ? "UNDO" : r.action(i).label));
+            if (t == r.finalTurn) {
+                BattleEngine end = r.play();
+                sb.append(end.isWon() ? "\n>> SECTOR CLEARED" : end.isLost() ? "\n>> SYSTEM FAILURE" : "\n>> (unfinished)");
+            }
+            out.setText(sb.toString());
+        };
+        turn.addChangeListener(e -> show.run());
+        show.run();
+        f.add(info, BorderLayout.NORTH);
+        f.add(new JScrollPane(out), BorderLayout.CENTER);
+        f.add(turn, BorderLayout.SOUTH);
+        f.setLocationRelativeTo(this);
+        f.setVisible(true);
+    }
+    // BALANCE LAB: Plays millions of headless battles (every floor x CPU x cooler, with the
+    // current upgrades) and shows win rates and turns-to-kill. One enemy type's multipliers
+    // can be overridden to try a new balance without recompiling EnemyType.
+    private void openBalanceLab() {
+        JFrame f = new JFrame("BALANCE LAB");
+        f.setSize(900, 600);
+        JPanel top = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        JComboBox<String> policy = new JComboBox<>(new String[]{"Greedy", "Attack Only", "Random", "MCTS (this build)"});
+        JSpinner battles = new JSpinner(new SpinnerNumberModel(10_000, 100, 1_000_000, 1_000));
+        JComboBox<EnemyType> enemy = new JComboBox<>(EnemyType.values());
+        JSpinner hp = new JSpinner(new SpinnerNumberModel(EnemyType.CALCULATOR.hpMult, 0.1, 50.0, 0.1));
+        JSpinner dmg = new JSpinner(new SpinnerNumberModel(EnemyType.CALCULATOR.dmgMult, 0.1, 50.0, 0.1));
+        enemy.addActionListener(e -> {
+            EnemyType t = (EnemyType) enemy.getSelectedItem();
+            hp.setValue(t.hpMult); dmg.setValue(t.dmgMult);
+        });
+        JButton run = new JButton("Run Sweep");
+        top.add(new JLabel("Player:")); top.add(policy);
+        top.add(new JLabel("Battles/loadout:")); top.add(battles);
+        top.add(new JLabel("Enemy:")); top.add(enemy);
+        top.add(new JLabel("HP x")); top.add(hp);
+        top.add(new JLabel("DMG x")); top.add(dmg);
+        top.add(run);
+        JTextArea out = new JTextArea();
+        out.setEditable(false);
+        out.setFont(new Font("Monospaced", Font.PLAIN, 12));
+        f.add(top, BorderLayout.NORTH);
+        f.add(new JScrollPane(out), BorderLayout.CENTER);
+
+        run.addActionListener(e -> {
+            String who = (String) policy.getSelectedItem();
+            boolean mcts = who.startsWith("MCTS");
+            java.util.function.Supplier<BattlePolicy> players = who.equals("Random") ? BattlePolicy::random
+                    : who.equals("Attack Only") ? BattlePolicy::attackOnly : BattlePolicy::greedy;
+            EnemyType t = (EnemyType) enemy.getSelectedItem();
+            BattleEngine.Balance balance = BattleEngine.Balance.DEFAULT.with(t, (Double) hp.getValue(), (Double) dmg.getValue());
+            int n = (Integer) battles.getValue();
+            GameState template = GameState.get(); // An immutable snapshot: the sweep never sees later edits.
+            run.setEnabled(false);
+            if (mcts) {
+                // Soak test: the autopilot plays floors 1-10 with the current build, 100ms per move.
+                out.setText("MCTS soak test: " + n / 1000 + " battles per floor with " + template.currentCpu.label + "...");
+                new SwingWorker<String, Void>() {
+                    @Override protected String doInBackground() {
+                        return BalanceSweep.soak(template, 10, Math.max(1, n / 1000), new MctsAgent(100), 1).report();
+                    }
+                    @Override protected void done() {
+                        try { out.setText(get()); } catch (Exception ex) { out.setText("Soak test failed: " + ex); }
+                        run.setEnabled(true);
+                    }
+                }.execute();
+                return;
+            }
+            out.setText("Simulating " + String.format("%,d", (long) n * 10 * Hardware.CpuType.values().length * Hardware.CoolerType.values().length) + " battles...");
+            new SwingWorker<String, Void>() {
+                @Override protected String doInBackground() {
+                    return BalanceSweep.run(template, 10, n, players, balance, 1).report();
+                }
+                @Override protected void done() {
+                    try { out.setText(get()); } catch (Exception ex) { out.setText("Sweep failed: " + ex); }
+                    run.setEnabled(true);
+                }
+            }.execute();
+        });
+        f.setLocationRelativeTo(this);
+        f.setVisible(true);
+    }
+
     private void openEducation() { JFrame f=new JFrame("SIMULATOR"); f.setSize(800,500); f.add(new SchedulerSimulator()); f.setVisible(true); }
 }
\ No newline at end of file
@@ -0,0 +1,191 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * CLASS: MctsAgent
+ * A player that plays battles by itself with Monte Carlo Tree Search (in-game
+ * autopilot, soak tests of floors 1-10).
+ * * SEARCH: every iteration resets the worker's battle to the root snapshot, walks
+ *   down the tree choosing actions by UCT (average score + exploration bonus), adds
+ *   one untried action, then finishes the battle with a fast rollout (greedy, with
+ *   some random moves). The score is added to every node on the path.
+ * * OPEN LOOP: a node is a sequence of actions, not a state. Crits and kernel panics
+ *   are re-rolled on every visit, so a node's score averages over the dice, and the
+ *   subtree of the action really played stays valid whatever the dice said.
+ * * ROOT PARALLEL: each worker grows its own tree from its own random stream (no locks,
+ *   no shared counters). At the deadline the root visit counts are summed and the most
+ *   visited usable action is played.
+ * * TREE REUSE: when the next decision is for the same battle, one applied move later,
+ *   each worker's subtree under that move becomes its new root. A caller that searches
+ *   a copy of a live battle (off the UI thread) names the live battle as 'game', so
+ *   fresh copies of it still count as the same battle.
+ * * The time budget is per decision; a decision overshoots it by at most one iteration.
+ * * One agent drives one battle at a time (its trees belong to that battle).
+ */
+public class MctsAgent implements BattlePolicy {
+
+    private static final BattleEngine.Action[] ACTIONS = BattleEngine.Action.values();
+    private static final double EXPLORATION = 0.7;   // UCT constant for scores in [0, 1].
+    private static final int ROLLOUT_TURNS = 20;     // Rollouts stop this many turns ahead.
+    private static final double RANDOM_MOVES = 0.25; // Share of rollout moves chosen at random.
+    private static final BattlePolicy GREEDY = BattlePolicy.greedy(), RANDOM = BattlePolicy.random();
+
+    /** CLASS: Node - statistics of one action sequence in one worker's tree. */
+    private static final class Node {
+        final Node[] child = new Node[ACTIONS.length];
+        int visits;
+        double score;
+    }
+
+    public final long budgetNanos;
+    public final int workers;
+    private final int maxIterations;
+
+    // Trees of the previous decision, and what it was for.
+    private Node[] roots;
+    private Object lastGame;
+    private int lastMoves;
+    private BattleEngine.Action lastChoice;
+
+    // Stats of the last decision.
+    public long lastIterations, lastReusedVisits;
+
+    public MctsAgent(long budgetMillis) {
+        this(budgetMillis, Runtime.getRuntime().availableProcessors(), Integer.MAX_VALUE);
+    }
+
+    // 'maxIterations' caps the iterations per worker and decision (with a generous
+    // budget, a fixed cap makes seeded runs repeatable).
+    public MctsAgent(long budgetMillis, int workers, int maxIterations) {
+        if (budgetMillis <= 0 || workers <= 0 || maxIterations <= 0)
+            throw new IllegalArgumentException("budget, workers and iterations must be positive");
+        this.budgetNanos = budgetMillis * 1_000_000L;
+        this.workers = workers;
+        this.maxIterations = maxIterations;
+    }
+
+    @Override public String name() { return "MCTS (" + budgetNanos / 1_000_000 + " ms)"; }
+
+    @Override
+    public BattleEngine.Action choose(BattleEngine battle, SplittableRandom rng) {
+        return choose(battle, battle, rng);
+    }
+
+    // Decision for 'battle', a position of 'game' (the battle itself, or the live battle
+    // 'battle' was copied from): trees are reused across decisions of the same game.
+    public BattleEngine.Action choose(BattleEngine battle, Object game, SplittableRandom rng) {
+        if (battle.isOver()) return BattleEngine.Action.END_TURN;
+        long deadline = System.nanoTime() + budgetNanos;
+        reuseOrReset(battle, game);
+
+        // One stream per worker, split up front so the streams don't depend on timing.
+        SplittableRandom[] streams = new SplittableRandom[workers];
+        for (int w = 0; w < workers; w++) streams[w] = rng.split();
+        long[] iterations = new long[workers];
+        IntStream.range(0, workers).parallel()
+                .forEach(w -> iterations[w] = search(roots[w], battle, streams[w], deadline));
+
+        // Most visited usable action over all trees.
+        BattleEngine.Action best = BattleEngine.Action.END_TURN;
+        long bestVisits = -1;
+        for (int a = 0; a < ACTIONS.length; a++) {
+            if (!usable(battle, ACTIONS[a])) continue;
+            long visits = 0;
+            for (Node root : roots) if (root.child[a] != null) visits += root.child[a].visits;
+            if (visits > bestVisits) { bestVisits = visits; best = ACTIONS[a]; }
+        }
+        lastIterations = 0;
+        for (long n : iterations) lastIterations += n;
+        lastGame = game;
+        lastMoves = battle.moves();
+        lastChoice = best;
+        return best;
+    }
+
+    // Keeps the subtrees under the move just played, or starts fresh trees.
+    private void reuseOrReset(BattleEngine battle, Object game) {
+        boolean continues = roots != null && game == lastGame
+                && battle.moves() == lastMoves + 1 && battle.lastMove() == lastChoice;
+        Node[] next = new Node[workers];
+        lastReusedVisits = 0;
+        for (int w = 0; w < workers; w++) {
+            Node kept = continues ? roots[w].child[lastChoice.ordinal()] : null;
+            next[w] = kept != null ? kept : new Node();
+            lastReusedVisits += next[w].visits;
+        }
+        roots = next;
+    }
+
+    // --- ONE WORKER ---
+
+    private long search(Node root, BattleEngine battle, SplittableRandom rng, long deadline) {
+        List<Node> path = new ArrayList<>();
+        // One engine per worker, reset to the root snapshot before every iteration.
+        BattleEngine sim = battle.copy(rng);
+        BattleState start = sim.snapshot();
+        long n = 0;
+        while (n < maxIterations && System.nanoTime() < deadline) {
+            sim.restore(start);
+            int horizon = sim.turn() + ROLLOUT_TURNS;
+            path.clear();
+            Node node = root;
+            path.add(node);
+            // SELECTION / EXPANSION: follow UCT until an untried action, then add it.
+            while (!sim.isOver()) {
+                int pick = -1, untried = 0;
+                double bestUct = Double.NEGATIVE_INFINITY, logN = Math.log(node.visits + 1);
+                for (int a = 0; a < ACTIONS.length; a++) {
+                    if (!usable(sim, ACTIONS[a])) continue;
+                    Node c = node.child[a];
+                    if (c == null) {
+                        // Untried actions come first, one chosen uniformly (reservoir sampling).
+                        if (rng.nextInt(++untried) == 0) pick = a;
+                    } else if (untried == 0) {
+                        double uct = c.score / c.visits + EXPLORATION * Math.sqrt(logN / c.visits);
+                        if (uct > bestUct) { bestUct = uct; pick = a; }
+                    }
+                }
+                boolean expand = node.child[pick] == null;
+                if (expand) node.child[pick] = new Node();
+                node = node.child[pick];
+                sim.act(ACTIONS[pick]);
+                path.add(node);
+                if (expand) break;
+            }
+            // SIMULATION / BACKUP
+            double score = rollout(sim, rng, horizon);
+            for (int i = 0; i < path.size(); i++) { Node p = path.get(i); p.visits++; p.score += score; }
+            n++;
+        }
+        return n;
+    }
+
+    private static double rollout(BattleEngine sim, SplittableRandom rng, int horizon) {
+        while (!sim.isOver() && sim.turn() <= horizon) {
+            BattleEngine.Action a = (rng.nextDouble() < RANDOM_MOVES ? RANDOM : GREEDY).choose(sim, rng);
+            BattleEngine.Outcome o = sim.act(a);
+            if (o != BattleEngine.Outcome.OK && o != BattleEngine.Outcome.KERNEL_PANIC) sim.act(BattleEngine.Action.END_TURN);
+        }
+        return score(sim);
+    }
+
+    // A win scores 1. Anything else scores up to 0.5 for the share of the floor already
+    // destroyed, so even a hopeless floor still ranks moves by progress.
+    private static double score(BattleEngine b) {
+        if (b.isWon()) return 1;
+        long total = 0, left = 0;
+        for (Monster m : b.wave()) { total += m.maxHP; left += Math.max(0, m.currentHP); }
+        double wave = total == 0 ? 0 : 1 - left / (double) total;
+        return 0.5 * (b.round() - 1 + wave) / b.totalRounds;
+    }
+
+    // Usable and not a pure waste (healing at full HP, re-arming Turbo at full duration).
+    private static boolean usable(BattleEngine b, BattleEngine.Action a) {
+        if (!b.canUse(a)) return false;
+        if (a == BattleEngine.Action.HEAL) return b.hp() < b.maxHP();
+        if (a == BattleEngine.Action.TURBO) return b.turboDuration() < 2;
+        return true;
+    }
+}
@@ -18,4 +18,7 @@ public enum Motherboard {
     Motherboard(String n, int max, String t, String d) {
         this.name = n; this.maxUpgradeLevel = max; this.trait = t; this.desc = d;
     }
+
+    // Number of CPU sockets on the board (used by the scheduler's NUMA model).
+    public int sockets() { return trait.equals("DUAL_CPU") ? 2 : 1; }
 }
\ No newline at end of file
@@ -1,3 +1,8 @@
+import scheduler.CfsPolicy;
+import scheduler.MacQosPolicy;
+import scheduler.SchedulingPolicy;
+import scheduler.WindowsPriorityPolicy;
+
 public enum OperatingSystem {
     WINDOWS("Windows 11", "Heavy GUI. 'Bloatware' (Chrome/Teams) is 20% stronger."),
     LINUX("Ubuntu Server", "Lightweight. Background tasks are 20% weaker."),
@@ -10,4 +15,13 @@ public enum OperatingSystem {
         this.label = l;
         this.desc = d;
     }
+
+    // Scheduling personality of this OS (a fresh run queue, one per core).
+    public SchedulingPolicy newScheduler() {
+        switch (this) {
+            case WINDOWS: return new WindowsPriorityPolicy(); // 32 levels + foreground boost
+            case LINUX:   return new CfsPolicy();             // vruntime red-black tree
+            default:      return new MacQosPolicy();          // QoS classes
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,144 @@
+import java.util.SplittableRandom;
+
+/**
+ * CLASS: PlayerSide
+ * The player's half of a battle: HP, RAM, threads, Turbo Boost and SMT, plus the rules
+ * that spend and refill them. BattleEngine and HordeBattle each own one, so the two
+ * modes can only differ in their enemies.
+ * * A skill goes pay() (threads, RAM with the undervolt discount, the kernel panic
+ *   roll), then rollDamage() (crit, Turbo); the battle decides whom the damage hits
+ *   and calls afterSkill() for the log.
+ * * The enemy phase is startEnemyPhase() (Turbo ticks down), the battle subtracting
+ *   whatever its enemies deal from 'hp', then endEnemyPhase() (cooler regeneration,
+ *   RAM refill with the ECC bonus, threads back, SMT bonus gone).
+ * * Rolls come from the dice the battle passes in, panic first and crit second, so a
+ *   seed replays the same battle in either mode.
+ */
+final class PlayerSide {
+
+    final GameState gs;
+    BattleListener listener;
+
+    // --- STATE (the battle reads and snapshots these directly) ---
+    int hp, maxHP;
+    int ram, maxRAM;
+    int ap, maxAP;
+    int turboCharges = 2;          // Turbo Boost uses left this battle.
+    int turboDuration = 0;         // Turns of Turbo Boost left.
+    boolean smtUsed = false;       // SMT is once per battle.
+    boolean smtActive = false;     // SMT threads are granted until the turn ends.
+    private boolean crit;          // The last rollDamage() was a crit.
+
+    PlayerSide(GameState gs) {
+        this.gs = gs;
+        this.maxHP = gs.getCurrentMaxHP();
+        this.maxRAM = gs.getCurrentRamMB();
+        this.maxAP = gs.currentCpu.cores;
+        this.hp = maxHP;
+        this.ram = maxRAM;
+        this.ap = maxAP;
+    }
+
+    // Copy for look-ahead: same loadout and state, no listener.
+    PlayerSide(PlayerSide o) {
+        this.gs = o.gs;
+        this.hp = o.hp; this.maxHP = o.maxHP;
+        this.ram = o.ram; this.maxRAM = o.maxRAM;
+        this.ap = o.ap; this.maxAP = o.maxAP;
+        this.turboCharges = o.turboCharges; this.turboDuration = o.turboDuration;
+        this.smtUsed = o.smtUsed; this.smtActive = o.smtActive;
+    }
+
+    // True if 'a' would do something now (the battle checks that it isn't over).
+    boolean canUse(BattleEngine.Action a) {
+        switch (a) {
+            case TURBO: return turboCharges > 0;
+            case SMT: return gs.currentCpu.supportsThreads && !smtUsed && ram >= a.ramCost;
+            case END_TURN: return true;
+            default: return ap > 0 && ram >= BattleEngine.cost(gs, a);
+        }
+    }
+
+    // --- PLAYER PHASE ---
+
+    BattleEngine.Outcome turbo() {
+        if (turboCharges <= 0) return BattleEngine.Outcome.UNAVAILABLE;
+        turboCharges--;
+        turboDuration = 2; // Set effect for 2 turns.
+        log(">> TURBO BOOST ENGAGED! (+50% DAMAGE)");
+        return BattleEngine.Outcome.OK;
+    }
+
+    BattleEngine.Outcome smt() {
+        if (!canUse(BattleEngine.Action.SMT)) return BattleEngine.Outcome.UNAVAILABLE;
+        ram -= BattleEngine.Action.SMT.ramCost;
+        smtUsed = true;
+        smtActive = true;
+        maxAP *= 2;         // Double max capacity.
+        ap += maxAP / 2;    // Give immediate extra points.
+        log(">> SMT ENABLED (ONE-TIME BURST).");
+        return BattleEngine.Outcome.OK;
+    }
+
+    // Pays for skill 'a'. OK means the skill goes ahead; anything else means it doesn't
+    // (a KERNEL_PANIC still burns the thread).
+    BattleEngine.Outcome pay(BattleEngine.Action a, SplittableRandom rng) {
+        // 1. Check Threads (Action Points)
+        if (ap <= 0) { log(">> NO THREADS LEFT!"); return BattleEngine.Outcome.NO_THREADS; }
+
+        // 2. RAM Cost Calculation (Includes Undervolt Discount)
+        int cost = BattleEngine.cost(gs, a);
+        if (ram < cost) { if (listener != null) log(">> OUT OF MEMORY (Need " + cost + "MB)"); return BattleEngine.Outcome.OUT_OF_MEMORY; }
+
+        // 3. Stability Check: if undervolted, there is a chance the action fails completely.
+        if (rng.nextDouble() < (gs.undervoltVal / 200.0)) {
+            log(">> KERNEL PANIC (Instability Fail)");
+            ap--;
+            return BattleEngine.Outcome.KERNEL_PANIC;
+        }
+
+        // 4. Consume Resources
+        ram -= cost;
+        ap--;
+        return BattleEngine.Outcome.OK;
+    }
+
+    // Damage of the paid skill, before the per-skill multipliers: Crit (Cache size),
+    // CPU GHz and Turbo Boost.
+    int rollDamage(SplittableRandom rng) {
+        crit = BattleEngine.rollCrit(gs, rng.nextDouble());
+        return BattleEngine.skillDamage(gs, turboDuration > 0, crit);
+    }
+
+    void heal() { hp = Math.min(maxHP, hp + 150); }
+
+    // Log lines that follow a skill's hits.
+    void afterSkill() {
+        if (crit) log(">> CRIT!");
+        if (turboDuration > 0) log(">> TURBO BOOST ACTIVE!");
+    }
+
+    // --- ENEMY PHASE ---
+
+    void startEnemyPhase() {
+        // Decrement Turbo timer
+        if (turboDuration > 0) turboDuration--;
+    }
+
+    // After the enemies hit: regeneration and a fresh set of threads. False if the
+    // player is down.
+    boolean endEnemyPhase() {
+        // REGENERATION
+        hp = Math.min(maxHP, hp + gs.currentCooler.regen);
+        int ramRegen = 100;
+        if (gs.hasECC) ramRegen += 150; // Bonus for ECC RAM.
+        ram = Math.min(maxRAM, ram + ramRegen);
+
+        // RESET AP (the SMT bonus only lasts one turn)
+        ap = maxAP;
+        if (smtActive) { maxAP /= 2; ap = maxAP; smtActive = false; }
+        return hp > 0;
+    }
+
+    void log(String s) { if (listener != null) listener.onLog(s); }
+}
@@ -0,0 +1,119 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * CLASS: ProfileStore
+ * Every player profile, by name, and which one the player is using.
+ * * Each profile is one AtomicReference to its current GameState snapshot. Reading a
+ *   profile is a single volatile read - no lock, and the snapshot it returns never
+ *   changes, so a background simulation sees one consistent state from start to end.
+ * * WRITES ARE COPY-ON-WRITE: update() copies the current snapshot into a Draft, lets
+ *   the caller edit it, freezes it and publishes it with compareAndSet. If another
+ *   thread published in between, the edit is redone on the newer snapshot, so two
+ *   purchases can never both spend the same money.
+ * * Profiles are independent: updating one never touches another.
+ * * Creating, deleting and switching profiles is rare (menu clicks) and synchronized;
+ *   reads and updates never take that lock.
+ * * Names are trimmed at every entry point, so " bob " and "bob" are the same profile.
+ */
+public class ProfileStore {
+
+    public static final String DEFAULT_PROFILE = "Player 1";
+
+    // The game's store, made when the class loads (thread-safe, unlike a lazy check).
+    private static final ProfileStore SHARED = new ProfileStore();
+
+    public static ProfileStore get() { return SHARED; }
+
+    private final ConcurrentHashMap<String, AtomicReference<GameState>> profiles = new ConcurrentHashMap<>();
+    private volatile String active = DEFAULT_PROFILE;
+
+    // A store with one new profile (DEFAULT_PROFILE), selected.
+    public ProfileStore() {
+        profiles.put(DEFAULT_PROFILE, new AtomicReference<>(GameState.starter()));
+    }
+
+    // --- PROFILES ---
+
+    // Adds a new player (starter PC). Returns false if the name is taken.
+    public synchronized boolean create(String name) {
+        return profiles.putIfAbsent(key(name), new AtomicReference<>(GameState.starter())) == null;
+    }
+
+    // Removes a profile. The active one can't be removed (switch first).
+    public synchronized void delete(String name) {
+        String key = key(name);
+        if (key.equals(active)) throw new IllegalStateException("cannot delete the active profile " + key);
+        profiles.remove(key);
+    }
+
+    public synchronized void select(String name) {
+        String key = key(name);
+        ref(key); // Must exist.
+        active = key;
+    }
+
+    public String active() { return active; }
+
+    // Profile names, sorted.
+    public List<String> names() {
+        List<String> n = new ArrayList<>(profiles.keySet());
+        Collections.sort(n);
+        return n;
+    }
+
+    // --- SNAPSHOTS ---
+
+    public GameState snapshot(String name) { return ref(name).get(); }
+
+    // Snapshot of the active profile.
+    public GameState current() { return snapshot(active); }
+
+    // Replaces an existing profile's state outright (create() makes new profiles).
+    // Synchronized with delete(), so a put can't land on a profile that is being removed.
+    public synchronized void put(String name, GameState state) {
+        if (state == null) throw new IllegalArgumentException("profile state must not be null");
+        ref(name).set(state);
+    }
+
+    // Copy-on-write edit of a profile; returns the snapshot published. 'edit' may run
+    // more than once, so it must only change the Draft it is given.
+    public GameState update(String name, Consumer<GameState.Draft> edit) {
+        AtomicReference<GameState> ref = ref(name);
+        while (true) {
+            GameState before = ref.get();
+            GameState.Draft d = before.edit();
+            edit.accept(d);
+            GameState after = d.freeze();
+            if (ref.compareAndSet(before, after)) return after;
+        }
+    }
+
+    // Same, but 'edit' can refuse by returning false: then nothing is published.
+    public boolean tryUpdate(String name, Predicate<GameState.Draft> edit) {
+        AtomicReference<GameState> ref = ref(name);
+        while (true) {
+            GameState before = ref.get();
+            GameState.Draft d = before.edit();
+            if (!edit.test(d)) return false;
+            if (ref.compareAndSet(before, d.freeze())) return true;
+        }
+    }
+
+    private AtomicReference<GameState> ref(String name) {
+        AtomicReference<GameState> r = profiles.get(key(name));
+        if (r == null) throw new IllegalArgumentException("no profile named " + name);
+        return r;
+    }
+
+    // The stored form of a profile name: trimmed, never empty.
+    private static String key(String name) {
+        if (name == null || name.isBlank()) throw new IllegalArgumentException("profile name must not be empty");
+        return name.trim();
+    }
+}
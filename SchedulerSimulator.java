@@ -1,39 +1,196 @@
 import javax.swing.*;
 import java.awt.*;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Comparator;
+import java.util.Random;
+import java.util.function.Supplier;
+import scheduler.AffinityBalancer;
+import scheduler.BurstDistribution;
+import scheduler.ChromeTraceListener;
+import scheduler.ChromeTraceWriter;
+import scheduler.Core;
+import scheduler.CoreScaling;
+import scheduler.EdfPolicy;
+import scheduler.FcfsPolicy;
+import scheduler.GlobalQueueBalancer;
+import scheduler.LoadBalancer;
+import scheduler.PeriodicTask;
+import scheduler.PolicyComparison;
+import scheduler.PolicyStudy;
+import scheduler.QuantumTuner;
+import scheduler.PushMigrationBalancer;
+import scheduler.RateMonotonicPolicy;
+import scheduler.RealTimeStudy;
+import scheduler.RoundRobinPolicy;
+import scheduler.RunMetrics;
+import scheduler.RunReport;
+import scheduler.SchedTraceReader;
+import scheduler.SchedulerEngine;
+import scheduler.SchedulingPolicy;
+import scheduler.SimProcess;
+import scheduler.SjfPolicy;
+import scheduler.SrtfPolicy;
+import scheduler.StudyResult;
+import scheduler.Topology;
+import scheduler.TopologyStudy;
+import scheduler.WorkStealingBalancer;
+import scheduler.WorkloadGenerator;
 
+// VIEWER: All scheduling logic lives in the headless 'scheduler' package.
+// This panel only feeds processes into a SchedulerEngine and draws its state.
 public class SchedulerSimulator extends JPanel {
-    private List<Process> queue = new ArrayList<>();
     private String currentAlgo = "FCFS";
+    private String currentBalancer = "Global Queue";
+    // Round Robin time slice; the 'Tune Quantum' study can replace the textbook 30 ticks.
+    // Volatile because background studies build policies on worker threads.
+    private volatile long rrQuantum = RoundRobinPolicy.DEFAULT_QUANTUM;
+    // Remembers sweep results per workload fingerprint, so repeated tuning is instant.
+    private final QuantumTuner tuner = new QuantumTuner();
+    private String currentWorkload = "Manual"; // "Manual" = only the 'Add Process' button.
+    // Default core count comes from the CPU the player has equipped.
+    private int coreCount = GameState.get().currentCpu.cores;
+    private Motherboard board = Motherboard.BASIC_BOARD;
+    private SchedulerEngine engine = createEngine();
+    // Streaming latency/throughput accounting for the live engine (replaced on reset).
+    private RunMetrics metrics = new RunMetrics();
+    private int nextPid = 1;
+    // Processes added by hand since the last reset (replayed by 'Compare').
+    private final List<SimProcess> submitted = new ArrayList<>();
+    // Real Linux trace replayed instead of random processes (null = none loaded).
+    private Path traceFile;
+    private SchedTraceReader traceReader;
     private JTextArea explanation;
     private DrawPanel drawPanel;
     private Timer simTimer;
-    private Process activeProcess = null;
+
+    // --- PLAYBACK ---
+    // Simulated time runs at 'ticksPerSecond' of wall time, independent of the frame rate.
+    // 1x = 20 ticks/s (the old one tick per 50 ms). Infinity = as fast as the CPU allows.
+    private static final int FRAME_MS = 33;
+    private double ticksPerSecond = 20;
+    private double tickDebt = 0;         // Fractional ticks owed from previous frames.
+    private long lastFrame;
+    private long paintedChanges = -1, paintedNow = -1;
 
     public SchedulerSimulator() {
         setLayout(new BorderLayout());
+        engine.addListener(metrics);
         
-        // Control Panel
-        JPanel controls = new JPanel();
-        controls.add(new JLabel("Algorithm: "));
-        String[] algos = {"FCFS", "SJF", "Round Robin"};
-        JComboBox<String> cb = new JComboBox<>(algos);
+        // Control Panel (four rows: algorithm/hardware, live actions, playback, background studies)
+        JPanel controls = new JPanel(new GridLayout(4, 1));
+        JPanel setup = new JPanel();
+        JPanel actions = new JPanel();
+        JPanel playback = new JPanel();
+        JPanel studies = new JPanel();
+        controls.add(setup);
+        controls.add(actions);
+        controls.add(playback);
+        controls.add(studies);
+
+        setup.add(new JLabel("Algorithm: "));
+        // Textbook algorithms first, then the real-world OS personalities.
+        JComboBox<String> cb = new JComboBox<>(algorithms().toArray(new String[0]));
         cb.addActionListener(e -> { currentAlgo = (String)cb.getSelectedItem(); resetSim(); updateText(); });
-        controls.add(cb);
+        setup.add(cb);
+
+        // Core counts of the CPUs sold in the shop (Celeron = 1 ... Ryzen 9 = 12).
+        setup.add(new JLabel("Cores: "));
+        JComboBox<Integer> cbCores = new JComboBox<>(new Integer[]{1, 2, 4, 6, 8, 12});
+        cbCores.setSelectedItem(coreCount);
+        cbCores.addActionListener(e -> { coreCount = (Integer)cbCores.getSelectedItem(); resetSim(); });
+        setup.add(cbCores);
+
+        // Dual-socket boards double the cores and add NUMA effects.
+        setup.add(new JLabel("Board: "));
+        JComboBox<Motherboard> cbBoard = new JComboBox<>(Motherboard.values());
+        cbBoard.addActionListener(e -> { board = (Motherboard)cbBoard.getSelectedItem(); resetSim(); });
+        setup.add(cbBoard);
+
+        setup.add(new JLabel("Balancer: "));
+        JComboBox<String> cbBal = new JComboBox<>(new String[]{"Global Queue", "Push Migration", "Work Stealing", "Affinity"});
+        cbBal.addActionListener(e -> { currentBalancer = (String)cbBal.getSelectedItem(); resetSim(); updateText(); });
+        setup.add(cbBal);
+
+        // Streaming workloads keep the live view fed without clicking 'Add Process'.
+        setup.add(new JLabel("Workload: "));
+        JComboBox<String> cbLoad = new JComboBox<>(new String[]{"Manual", "Exponential", "Pareto", "Bimodal", "CPU + I/O Mix"});
+        cbLoad.addActionListener(e -> { currentWorkload = (String)cbLoad.getSelectedItem(); traceFile = null; resetSim(); });
+        setup.add(cbLoad);
         
         JButton btnAdd = new JButton("Add Process");
         btnAdd.addActionListener(e -> addRandomProcess());
-        controls.add(btnAdd);
+        actions.add(btnAdd);
         
-        JButton btnRun = new JButton("Run Sim");
-        btnRun.addActionListener(e -> startSim());
-        controls.add(btnRun);
+        playback.add(new JLabel("Playback: "));
+        for (int speed : new int[]{1, 10, 100}) {
+            JButton btnSpeed = new JButton(speed + "x");
+            btnSpeed.addActionListener(e -> startSim(20.0 * speed));
+            playback.add(btnSpeed);
+        }
+
+        JButton btnNext = new JButton("Next Switch");
+        btnNext.addActionListener(e -> { pauseSim(); engine.advanceToNextSwitch(); repaintIfChanged(); });
+        playback.add(btnNext);
+
+        JButton btnEnd = new JButton("To End");
+        btnEnd.addActionListener(e -> startSim(Double.POSITIVE_INFINITY));
+        playback.add(btnEnd);
+
+        JButton btnPause = new JButton("Pause");
+        btnPause.addActionListener(e -> pauseSim());
+        playback.add(btnPause);
         
         JButton btnReset = new JButton("Reset");
-        btnReset.addActionListener(e -> resetSim());
-        controls.add(btnReset);
+        btnReset.addActionListener(e -> { traceFile = null; resetSim(); });
+        actions.add(btnReset);
+
+        JButton btnTrace = new JButton("Load Trace");
+        btnTrace.addActionListener(e -> loadTrace(btnTrace));
+        actions.add(btnTrace);
+
+        JButton btnMetrics = new JButton("Metrics");
+        btnMetrics.addActionListener(e -> explanation.setText(metrics.summary(engine)));
+        actions.add(btnMetrics);
+
+        JButton btnCsv = new JButton("Export CSV");
+        btnCsv.addActionListener(e -> exportCsv());
+        actions.add(btnCsv);
+
+        JButton btnChrome = new JButton("Export Trace");
+        btnChrome.addActionListener(e -> exportChromeTrace(btnChrome));
+        actions.add(btnChrome);
+
+        JButton btnCompare = new JButton("Compare");
+        btnCompare.addActionListener(e -> runComparison(btnCompare));
+        studies.add(btnCompare);
+
+        JButton btnTune = new JButton("Tune Quantum");
+        btnTune.addActionListener(e -> runQuantumTuner(btnTune));
+        studies.add(btnTune);
+
+        JButton btnStream = new JButton("Stream 10M");
+        btnStream.addActionListener(e -> runStreamStudy(btnStream));
+        studies.add(btnStream);
+
+        JButton btnScale = new JButton("Core Scaling");
+        btnScale.addActionListener(e -> runScalingStudy(btnScale));
+        studies.add(btnScale);
+
+        JButton btnNuma = new JButton("NUMA Study");
+        btnNuma.addActionListener(e -> runTopologyStudy(btnNuma));
+        studies.add(btnNuma);
+
+        JButton btnOs = new JButton("OS Showdown");
+        btnOs.addActionListener(e -> runOsShowdown(btnOs));
+        studies.add(btnOs);
+
+        JButton btnRt = new JButton("Real-Time");
+        btnRt.addActionListener(e -> runRealTimeStudy(btnRt));
+        studies.add(btnRt);
 
         add(controls, BorderLayout.NORTH);
 
@@ -50,93 +207,624 @@ public class SchedulerSimulator extends JPanel {
 
     private void updateText() {
         if(currentAlgo.equals("FCFS")) explanation.setText("First-Come, First-Served (FCFS):\nThe CPU executes processes in the exact order they arrive.");
-        if(currentAlgo.equals("SJF")) explanation.setText("Shortest Job First (SJF):\nThe CPU scans the queue and picks the process with the smallest Burst Time.");
-        if(currentAlgo.equals("Round Robin")) explanation.setText("Round Robin (RR):\nEach process gets a small 'Time Quantum'. If it doesn't finish, it goes to the back.");
+        if(currentAlgo.equals("SJF")) explanation.setText("Shortest Job First (SJF):\nThe queue is a min-heap on Burst Time, so the shortest job is always at the front.");
+        if(currentAlgo.equals("SRTF")) explanation.setText("Shortest Remaining Time First (SRTF):\nPreemptive SJF. A new arrival that needs less time than the running process takes over the CPU.");
+        if(currentAlgo.equals("Round Robin")) explanation.setText("Round Robin (RR):\nEach process gets a small 'Time Quantum'. If it doesn't finish, it goes to the back.\nCurrent quantum: " + rrQuantum + " ticks.");
+        if(currentAlgo.equals(OperatingSystem.LINUX.label)) explanation.setText("Linux CFS:\nEvery process collects 'virtual runtime' (CPU time divided by its weight). A red-black tree always runs the one with the least.");
+        if(currentAlgo.equals(OperatingSystem.WINDOWS.label)) explanation.setText("Windows Priority Boost:\n32 priority levels. Waking threads get a temporary boost, foreground apps a bigger boost and 3x longer quantum.");
+        if(currentAlgo.equals(OperatingSystem.MACOS.label)) explanation.setText("macOS QoS:\nWork is tagged Interactive / Initiated / Utility / Background. Interactive runs first; the rest compete by latency deadline.");
+        if(currentBalancer.equals("Global Queue")) explanation.append("\n\nGlobal Queue: every core takes work from one shared queue.");
+        if(currentBalancer.equals("Push Migration")) explanation.append("\n\nPush Migration: each core has its own queue; a balancer regularly moves jobs from the busiest core to the idlest.");
+        if(currentBalancer.equals("Work Stealing")) explanation.append("\n\nWork Stealing: each core has its own queue; a core that runs dry steals a job from the longest queue.");
+        if(currentBalancer.equals("Affinity")) explanation.append("\n\nAffinity: jobs go back to the core whose cache is still warm, and stay on the socket that holds their memory.");
+    }
+
+    private static LoadBalancer createBalancer(String name, Topology topo) {
+        if (name.equals("Push Migration")) return new PushMigrationBalancer();
+        if (name.equals("Work Stealing")) return new WorkStealingBalancer();
+        if (name.equals("Affinity")) return new AffinityBalancer(topo);
+        return new GlobalQueueBalancer();
+    }
+
+    // TOPOLOGY: Sockets come from the board, cores and L3 size from the matching shop CPU.
+    private Topology createTopology() {
+        int l3 = GameState.get().currentCpu.l3CacheMB;
+        for (Hardware.CpuType c : Hardware.CpuType.values()) {
+            if (c.cores == coreCount) { l3 = c.l3CacheMB; break; }
+        }
+        return new Topology(board.sockets(), coreCount, l3);
+    }
+
+    // Textbook algorithms first, then the real-world OS personalities.
+    private static List<String> algorithms() {
+        List<String> algos = new ArrayList<>(List.of("FCFS", "SJF", "SRTF", "Round Robin"));
+        for (OperatingSystem os : OperatingSystem.values()) algos.add(os.label);
+        return algos;
+    }
+
+    private SchedulerEngine createEngine() {
+        String algo = currentAlgo;
+        Topology topo = createTopology();
+        return new SchedulerEngine(topo, () -> createPolicy(algo), createBalancer(currentBalancer, topo));
+    }
+
+    // Fixed-seed random workload (same bursts as 'Add Process'), arriving every 'maxGap'/2 ticks on average.
+    private static List<SimProcess> randomWorkload(int count, int maxGap) {
+        Random rnd = new Random(42); // Fixed seed: identical workload every time.
+        List<SimProcess> workload = new ArrayList<>();
+        long t = 0;
+        for (int i = 0; i < count; i++) {
+            t += rnd.nextInt(maxGap + 1);
+            workload.add(new SimProcess(i, "P" + i, t, rnd.nextInt(100) + 20));
+        }
+        return workload;
+    }
+
+    // FACTORY: Maps the combo box entry to a policy from the engine package.
+    private SchedulingPolicy createPolicy(String algo) {
+        for (OperatingSystem os : OperatingSystem.values()) {
+            if (algo.equals(os.label)) return os.newScheduler();
+        }
+        if (algo.equals("SJF")) return new SjfPolicy();
+        if (algo.equals("SRTF")) return new SrtfPolicy();
+        if (algo.equals("Round Robin")) return new RoundRobinPolicy(rrQuantum);
+        return new FcfsPolicy();
+    }
+
+    // GENERATOR: Seeded Poisson stream of the selected workload, sized to keep the cores ~90% busy.
+    // "Manual" streams the same uniform 20-120 bursts as 'Add Process'.
+    private static WorkloadGenerator createGenerator(String workload, int cores, long count, long seed) {
+        BurstDistribution cpu = BurstDistribution.uniform(20, 119);
+        BurstDistribution io = BurstDistribution.uniform(1, 5);
+        double ioFraction = 0;
+        if (workload.equals("Exponential")) cpu = BurstDistribution.exponential(70);
+        if (workload.equals("Pareto")) cpu = BurstDistribution.pareto(1.2, 10, 50_000);
+        if (workload.equals("Bimodal")) cpu = BurstDistribution.bimodal(BurstDistribution.uniform(2, 20), BurstDistribution.exponential(300), 0.7);
+        if (workload.equals("CPU + I/O Mix")) { cpu = BurstDistribution.exponential(150); ioFraction = 0.6; }
+        double gap = WorkloadGenerator.gapForLoad(cpu, io, ioFraction, cores, 0.9);
+        return new WorkloadGenerator(count, gap, cpu, io, ioFraction, seed);
+    }
+
+    // COMPARE MODE: Every algorithm runs a clone of the same workload at the same time
+    // (the processes added by hand, or 20,000 from the selected workload generator).
+    // Results open side by side in their own window.
+    private void runComparison(JButton source) {
+        source.setEnabled(false);
+        List<SimProcess> workload = new ArrayList<>(submitted);
+        if (workload.isEmpty()) workload = createGenerator(currentWorkload, engine.cores().length, 20_000, 42).take(20_000);
+        List<String> algos = algorithms();
+        // Capture the machine now: the suppliers run on worker threads.
+        Topology topo = createTopology();
+        String bal = currentBalancer;
+        List<Supplier<SchedulerEngine>> engines = new ArrayList<>();
+        for (String algo : algos) engines.add(() -> new SchedulerEngine(topo, () -> createPolicy(algo), createBalancer(bal, topo)));
+        List<SimProcess> input = workload;
+        explanation.setText("Comparing " + algos.size() + " algorithms on " + input.size() + " identical processes...");
+        long timeline = submitted.isEmpty() ? 400 : Math.max(100, engine.now() + 200);
+        new SwingWorker<List<PolicyComparison.Run>, Void>() {
+            @Override
+            protected List<PolicyComparison.Run> doInBackground() {
+                return PolicyComparison.compare(input, engines, timeline);
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    List<PolicyComparison.Run> runs = get();
+                    StringBuilder sb = new StringBuilder("COMPARE (" + input.size() + " processes)\n");
+                    long slowest = 0;
+                    for (PolicyComparison.Run r : runs) {
+                        sb.append(r.report).append('\n');
+                        slowest = Math.max(slowest, r.report.wallNanos);
+                    }
+                    sb.append(String.format("Slowest policy took %.0f ms of host time.", slowest / 1e6));
+                    explanation.setText(sb.toString());
+                    JFrame f = new JFrame("Scheduler Comparison");
+                    f.add(new JScrollPane(new ComparisonPanel(runs)));
+                    f.setSize(1150, 800);
+                    f.setLocationRelativeTo(SchedulerSimulator.this);
+                    f.setVisible(true);
+                } catch (Exception ex) {
+                    explanation.setText("Comparison failed: " + ex);
+                }
+                source.setEnabled(true);
+            }
+        }.execute();
+    }
+
+    // QUANTUM TUNER: Round Robin on the current machine over a grid of quanta and
+    // context-switch costs, all grid points simulated in parallel. The recommended
+    // quantum for a 1 tick switch cost becomes the Round Robin quantum from the next
+    // reset on; the live run (and the processes added by hand) are left alone.
+    private void runQuantumTuner(JButton source) {
+        source.setEnabled(false);
+        List<SimProcess> workload = new ArrayList<>(submitted);
+        if (workload.isEmpty()) workload = createGenerator(currentWorkload, engine.cores().length, 20_000, 42).take(20_000);
+        List<SimProcess> input = workload;
+        Topology topo = createTopology();
+        String bal = currentBalancer;
+        String machine = topo + ", " + bal;
+        long[] quanta = {2, 5, 10, 20, 30, 50, 80, 120, 200, 400};
+        long[] costs = {0, 1, 2, 5};
+        explanation.setText("Sweeping " + quanta.length * costs.length + " Round Robin configurations...");
+        new SwingWorker<QuantumTuner.Sweep, Void>() {
+            @Override
+            protected QuantumTuner.Sweep doInBackground() {
+                return tuner.sweep(input, quanta, costs, machine,
+                        q -> new SchedulerEngine(topo, () -> new RoundRobinPolicy(q), createBalancer(bal, topo)));
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    QuantumTuner.Sweep sweep = get();
+                    StringBuilder sb = new StringBuilder(String.format(
+                            "QUANTUM TUNER (%,d processes, %s): %d of %d points simulated, rest cached, %.0f ms%n",
+                            input.size(), machine, sweep.simulated, sweep.points.size(), sweep.wallNanos / 1e6));
+                    for (long cost : costs) {
+                        sb.append("Switch cost ").append(cost).append(" - Pareto front (response vs throughput):\n");
+                        for (QuantumTuner.Point p : sweep.front(cost)) sb.append("  ").append(p).append('\n');
+                    }
+                    QuantumTuner.Point best = sweep.recommend(1);
+                    if (best != null) {
+                        rrQuantum = best.quantum;
+                        sb.append("Round Robin uses quantum ").append(rrQuantum).append(" from the next reset (best response within 1% of top throughput at cost 1).");
+                    }
+                    explanation.setText(sb.toString());
+                } catch (Exception ex) {
+                    explanation.setText("Quantum tuner failed: " + ex);
+                }
+                source.setEnabled(true);
+            }
+        }.execute();
+    }
+
+    // STREAM STUDY: 10 million processes of the selected workload through the current setup,
+    // generated on the fly (never more than one pending process in memory).
+    private void runStreamStudy(JButton source) {
+        source.setEnabled(false);
+        String workload = currentWorkload;
+        explanation.setText("Streaming 10,000,000 '" + workload + "' processes...");
+        SchedulerEngine run = createEngine();
+        int cores = run.cores().length;
+        new SwingWorker<String, Void>() {
+            @Override
+            protected String doInBackground() {
+                RunMetrics m = new RunMetrics();
+                run.addListener(m);
+                long start = System.nanoTime();
+                run.feed(createGenerator(workload, cores, 10_000_000, 42));
+                run.runToCompletion();
+                RunReport r = new RunReport(run, System.nanoTime() - start);
+                return String.format("STREAM (%s, 10,000,000 processes, %.1f s host time, %,.0f processes/s)%n%s",
+                        workload, r.wallNanos / 1e9, r.simRate(), m.summary(run));
+            }
+
+            @Override
+            protected void done() {
+                try { explanation.setText(get()); }
+                catch (Exception ex) { explanation.setText("Stream study failed: " + ex); }
+                source.setEnabled(true);
+            }
+        }.execute();
     }
 
     private void addRandomProcess() {
-        queue.add(new Process("P"+(queue.size()+1), (int)(Math.random()*100)+20));
+        int pid = nextPid++;
+        SimProcess p = new SimProcess(pid, "P"+pid, engine.now(), (int)(Math.random()*100)+20);
+        submitted.add(p);
+        engine.submit(p);
         drawPanel.repaint();
     }
 
     private void resetSim() {
         if(simTimer != null) simTimer.stop();
-        queue.clear();
-        activeProcess = null;
+        engine = createEngine();
+        metrics = new RunMetrics();
+        engine.addListener(metrics);
+        nextPid = 1;
+        submitted.clear();
+        closeTrace();
+        if (traceFile != null) {
+            try {
+                traceReader = new SchedTraceReader(traceFile);
+                engine.feed(traceReader); // Bursts are pulled lazily as the clock reaches them.
+            } catch (IOException ex) {
+                explanation.setText("Could not open trace: " + ex.getMessage());
+                traceFile = null;
+            }
+        } else if (!currentWorkload.equals("Manual")) {
+            engine.feed(createGenerator(currentWorkload, engine.cores().length, Long.MAX_VALUE, 42));
+        }
         drawPanel.repaint();
     }
 
-    private void startSim() {
-        if(simTimer != null && simTimer.isRunning()) return;
-        
-        simTimer = new Timer(50, e -> {
-            if (activeProcess == null) {
-                if (queue.isEmpty()) { ((Timer)e.getSource()).stop(); return; }
-                
-                // Logic for picking next process based on Algorithm
-                if (currentAlgo.equals("FCFS")) {
-                    activeProcess = queue.remove(0);
-                } 
-                else if (currentAlgo.equals("SJF")) {
-                    activeProcess = queue.stream().min(Comparator.comparingInt(p -> p.burst)).orElse(null);
-                    queue.remove(activeProcess);
-                } 
-                else if (currentAlgo.equals("Round Robin")) {
-                    activeProcess = queue.remove(0);
+    // CSV EXPORT: Summary metrics and latency histograms of the live run.
+    private void exportCsv() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new java.io.File("scheduler-metrics.csv"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        Path file = chooser.getSelectedFile().toPath();
+        try (Writer out = Files.newBufferedWriter(file)) {
+            metrics.writeCsv(engine, out);
+            explanation.setText("Metrics written to " + file);
+        } catch (IOException ex) {
+            explanation.setText("Could not write CSV: " + ex.getMessage());
+        }
+    }
+
+    // CHROME TRACE EXPORT: Re-runs the current input (loaded trace, processes added by hand,
+    // or 200,000 generated ones) on the current setup and streams every CPU slice to a
+    // Chrome Trace / Perfetto JSON file while it runs.
+    private void exportChromeTrace(JButton source) {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new java.io.File("scheduler-trace.json"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        Path out = chooser.getSelectedFile().toPath();
+        Path trace = traceFile;
+        List<SimProcess> manual = new ArrayList<>(submitted);
+        String workload = currentWorkload;
+        SchedulerEngine run = createEngine();
+        source.setEnabled(false);
+        explanation.setText("Writing " + out.getFileName() + "...");
+        new SwingWorker<String, Void>() {
+            @Override
+            protected String doInBackground() throws IOException {
+                ChromeTraceWriter writer = new ChromeTraceWriter(out);
+                // A null reader (no trace loaded) is skipped by try-with-resources.
+                try (writer; SchedTraceReader reader = trace != null ? new SchedTraceReader(trace) : null) {
+                    run.addListener(new ChromeTraceListener(writer, run, true));
+                    if (reader != null) run.feed(reader);
+                    else if (!manual.isEmpty()) for (SimProcess p : manual) run.submit(p.copy());
+                    else run.feed(createGenerator(workload, run.cores().length, 200_000, 42));
+                    run.runToCompletion();
                 }
+                // Read after close(), so the totals include the closing bracket.
+                return String.format("Wrote %,d trace events (%,.1f MB) to %s%nOpen it in ui.perfetto.dev or chrome://tracing.",
+                        writer.events(), writer.bytesWritten() / 1e6, out);
             }
 
-            if (activeProcess != null) {
-                activeProcess.progress++;
-                // RR Logic: Time Quantum of 30 ticks
-                if (currentAlgo.equals("Round Robin") && activeProcess.progress % 30 == 0 && activeProcess.progress < activeProcess.burst) {
-                    queue.add(activeProcess); // Re-queue
-                    activeProcess = null; // Context Switch
-                }
-                // Finish Logic
-                else if (activeProcess.progress >= activeProcess.burst) {
-                    activeProcess = null; // Done
+            @Override
+            protected void done() {
+                try { explanation.setText(get()); }
+                catch (Exception ex) { explanation.setText("Trace export failed: " + ex); }
+                source.setEnabled(true);
+            }
+        }.execute();
+    }
+
+    private void closeTrace() {
+        if (traceReader == null) return;
+        try { traceReader.close(); } catch (IOException ignored) { }
+        traceReader = null;
+    }
+
+    // TRACE REPLAY: Loads a 'perf sched script' or ftrace sched_switch dump. The live view
+    // replays it tick by tick; a background run replays the whole file on the current setup.
+    private void loadTrace(JButton source) {
+        JFileChooser chooser = new JFileChooser();
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        traceFile = chooser.getSelectedFile().toPath();
+        resetSim();
+        if (traceFile == null) return;
+
+        source.setEnabled(false);
+        Path file = traceFile;
+        explanation.setText("Replaying " + file.getFileName() + "...");
+        SchedulerEngine replay = createEngine();
+        new SwingWorker<String, Void>() {
+            @Override
+            protected String doInBackground() throws IOException {
+                long start = System.nanoTime();
+                try (SchedTraceReader reader = new SchedTraceReader(file)) {
+                    replay.feed(reader);
+                    replay.runToCompletion();
+                    long wall = System.nanoTime() - start;
+                    RunReport r = new RunReport(replay, wall);
+                    return String.format("TRACE %s: %,d lines, %,d sched events, %,d CPU bursts (%.0f MB/s)%n%s",
+                            file.getFileName(), reader.lines(), reader.events(), reader.bursts(),
+                            reader.fileSize() / 1e6 / (wall / 1e9), r);
                 }
             }
-            drawPanel.repaint();
-        });
+
+            @Override
+            protected void done() {
+                try { explanation.setText(get()); }
+                catch (Exception ex) { explanation.setText("Trace replay failed: " + ex); }
+                source.setEnabled(true);
+            }
+        }.execute();
+    }
+
+    // Plays at 'speed' simulated ticks per wall-clock second (changing speed keeps playing).
+    private void startSim(double speed) {
+        ticksPerSecond = speed;
+        if(simTimer != null && simTimer.isRunning()) return;
+        tickDebt = 0;
+        lastFrame = System.nanoTime();
+        simTimer = new Timer(FRAME_MS, e -> frame());
         simTimer.start();
     }
 
-    private class Process {
-        String name; int burst; int progress = 0;
-        public Process(String n, int b) { name=n; burst=b; }
+    private void pauseSim() {
+        if(simTimer != null) simTimer.stop();
+    }
+
+    // One animation frame: move the clock by however many ticks the elapsed wall time is
+    // worth (the engine jumps over idle stretches), then repaint only if the picture changed.
+    private void frame() {
+        long t = System.nanoTime();
+        double seconds = (t - lastFrame) / 1e9;
+        lastFrame = t;
+        if (engine.isIdle()) { pauseSim(); repaintIfChanged(); return; }
+        if (Double.isInfinite(ticksPerSecond)) {
+            // "To End": simulate flat out, but hand the EDT back every frame so the UI stays live.
+            long deadline = t + FRAME_MS * 600_000L; // ~60% of the frame
+            boolean more = true;
+            while (more && System.nanoTime() < deadline) {
+                for (int i = 0; i < 4096 && (more = engine.step()); i++) { }
+            }
+        } else {
+            tickDebt += seconds * ticksPerSecond;
+            long whole = (long) tickDebt;
+            if (whole > 0) {
+                tickDebt -= whole;
+                engine.advanceTo(engine.now() + whole);
+            }
+        }
+        repaintIfChanged();
+    }
+
+    // Repaints when something arrived, started or stopped, or when the clock moved while a
+    // core is busy (its progress bar grows). An idle machine waiting for arrivals costs nothing.
+    private void repaintIfChanged() {
+        boolean busy = false;
+        for (Core c : engine.cores()) busy |= !c.isIdle();
+        if (engine.changes() == paintedChanges && (!busy || engine.now() == paintedNow)) return;
+        paintedChanges = engine.changes();
+        paintedNow = engine.now();
+        drawPanel.repaint();
+    }
+
+    // SCALING STUDY: Same random workload on every CPU in the shop, simulated in the background.
+    // Each core count is an independent run, so CoreScaling spreads them over the host's cores.
+    private void runScalingStudy(JButton source) {
+        source.setEnabled(false);
+        explanation.setText("Simulating 200,000 processes on every CPU model...");
+        String algo = currentAlgo, bal = currentBalancer;
+        new SwingWorker<String, Void>() {
+            @Override
+            protected String doInBackground() {
+                List<SimProcess> workload = randomWorkload(200_000, 12);
+                Hardware.CpuType[] cpus = Hardware.CpuType.values();
+                int[] counts = new int[cpus.length];
+                for (int i = 0; i < cpus.length; i++) counts[i] = cpus[i].cores;
+                List<RunReport> reports = CoreScaling.run(workload, counts, () -> createPolicy(algo),
+                        n -> createBalancer(bal, Topology.flat(n)));
+
+                StringBuilder sb = new StringBuilder("CORE SCALING (" + algo + ", " + bal + ")\n");
+                for (int i = 0; i < cpus.length; i++) {
+                    RunReport r = reports.get(i);
+                    sb.append(String.format("%-16s %2d cores: %6.2f jobs/1k ticks, util %3.0f%%, migrations %,d%n",
+                            cpus[i].label, r.cores, r.throughput(), r.meanUtilization() * 100, r.migrations));
+                }
+                return sb.toString();
+            }
+
+            @Override
+            protected void done() {
+                try { explanation.setText(get()); }
+                catch (Exception ex) { explanation.setText("Scaling study failed: " + ex); }
+                source.setEnabled(true);
+            }
+        }.execute();
+    }
+
+    // NUMA STUDY: Same workload on the selected board/CPU, naive placement vs cache & NUMA affinity.
+    private void runTopologyStudy(JButton source) {
+        source.setEnabled(false);
+        Topology topo = createTopology();
+        explanation.setText("Simulating 100,000 processes on " + topo + "...");
+        String algo = currentAlgo;
+        new SwingWorker<String, Void>() {
+            @Override
+            protected String doInBackground() {
+                // Keep the machine ~90% busy whatever the core count (mean burst is ~70 ticks).
+                int gap = (int) Math.max(1, 2 * 70 / (0.9 * topo.totalCores()));
+                List<StudyResult> results = TopologyStudy.compare(randomWorkload(100_000, gap), topo,
+                        () -> createPolicy(algo), List.of(
+                                () -> createBalancer("Global Queue", topo),
+                                () -> createBalancer("Work Stealing", topo),
+                                () -> createBalancer("Affinity", topo)));
+                StringBuilder sb = new StringBuilder("NUMA STUDY (" + algo + ", " + topo + ")\n");
+                for (StudyResult r : results) sb.append(r).append('\n');
+                return sb.toString();
+            }
+
+            @Override
+            protected void done() {
+                try { explanation.setText(get()); }
+                catch (Exception ex) { explanation.setText("NUMA study failed: " + ex); }
+                source.setEnabled(true);
+            }
+        }.execute();
+    }
+
+    // REAL-TIME STUDY: 1,000 periodic tasks at rising utilization, EDF vs Rate Monotonic on one core.
+    // The admission test predicts who will miss deadlines; the run over 500,000 ticks checks it.
+    private void runRealTimeStudy(JButton source) {
+        source.setEnabled(false);
+        explanation.setText("Simulating 1,000 periodic tasks for 500,000 ticks at four utilizations...");
+        new SwingWorker<String, Void>() {
+            @Override
+            protected String doInBackground() {
+                StringBuilder sb = new StringBuilder("REAL-TIME (1,000 periodic tasks, 1 core, 500,000 ticks)\n");
+                for (double u : new double[]{0.70, 0.90, 0.98, 1.05}) {
+                    List<PeriodicTask> tasks = PeriodicTask.randomSet(1000, u, 10, 1000, 11);
+                    List<RealTimeStudy.Result> results = RealTimeStudy.compare(tasks, 500_000,
+                            List.of(EdfPolicy::new, RateMonotonicPolicy::new));
+                    sb.append(String.format("Target U = %.2f%n", u));
+                    for (RealTimeStudy.Result r : results) sb.append("  ").append(r).append('\n');
+                }
+                return sb.toString();
+            }
+
+            @Override
+            protected void done() {
+                try { explanation.setText(get()); }
+                catch (Exception ex) { explanation.setText("Real-time study failed: " + ex); }
+                source.setEnabled(true);
+            }
+        }.execute();
+    }
+
+    // OS SHOWDOWN: Desktop-like mix of short interactive bursts and long background jobs,
+    // scheduled by each OperatingSystem personality on the selected core count.
+    private void runOsShowdown(JButton source) {
+        source.setEnabled(false);
+        int cores = coreCount;
+        explanation.setText("Simulating 200,000 mixed processes on " + cores + " cores for every OS...");
+        new SwingWorker<String, Void>() {
+            @Override
+            protected String doInBackground() {
+                Random rnd = new Random(7);
+                List<SimProcess> workload = new ArrayList<>();
+                long t = 0;
+                // Mean burst ~120 ticks; space arrivals to keep the machine ~90% busy.
+                double gap = 120 / (0.9 * cores);
+                for (int i = 0; i < 200_000; i++) {
+                    t += (long) (rnd.nextDouble() * 2 * gap);
+                    boolean ui = rnd.nextInt(10) < 3;
+                    long burst = ui ? 2 + rnd.nextInt(19) : 50 + rnd.nextInt(251);
+                    int nice = ui ? 0 : rnd.nextInt(25) - 5;
+                    workload.add(new SimProcess(i, (ui ? "UI" : "Job") + i, t, burst, nice, ui));
+                }
+                List<Supplier<SchedulingPolicy>> personalities = new ArrayList<>();
+                for (OperatingSystem os : OperatingSystem.values()) personalities.add(os::newScheduler);
+                List<StudyResult> results = PolicyStudy.compare(workload, cores, personalities);
+
+                StringBuilder sb = new StringBuilder("OS SHOWDOWN (" + cores + " cores, 30% interactive)\n");
+                for (int i = 0; i < results.size(); i++) {
+                    StudyResult r = results.get(i);
+                    sb.append(String.format("%-14s %6.2f jobs/1k ticks | UI response %6.1f | batch response %,8.1f | turnaround p99 %,d | ctx %,d%n",
+                            OperatingSystem.values()[i].label, r.report.throughput(), r.interactiveResponse,
+                            r.batchResponse, r.p99, r.report.contextSwitches));
+                }
+                return sb.toString();
+            }
+
+            @Override
+            protected void done() {
+                try { explanation.setText(get()); }
+                catch (Exception ex) { explanation.setText("OS showdown failed: " + ex); }
+                source.setEnabled(true);
+            }
+        }.execute();
     }
 
     // Custom drawing for the Simulator
     private class DrawPanel extends JPanel {
+        private static final int QUEUE_X = 200;            // Where the queue strip starts
+        private static final int BOX_PITCH = 70;           // One queued box + gap
+        private static final int HEATMAP_THRESHOLD = 500;  // Longer queues are summarized
+        private int queueOffset = 0;                       // First visible queue slot (mouse wheel)
+
+        DrawPanel() {
+            // VIRTUAL SCROLLING: the wheel moves a window over the queue; only that window is painted.
+            addMouseWheelListener(e -> {
+                queueOffset = Math.max(0, queueOffset + e.getWheelRotation() * 5);
+                repaint();
+            });
+        }
+
         @Override
         protected void paintComponent(Graphics g) {
             super.paintComponent(g);
             g.setColor(Color.DARK_GRAY); g.fillRect(0,0,getWidth(),getHeight());
-            
+
+            // One row per core. Rows are shrunk so that all cores fit in the panel.
+            Core[] cores = engine.cores();
+            double scale = Math.min(1.0, getHeight() / (cores.length * 160.0));
+            int width = (int) (getWidth() / scale); // Visible width in row coordinates
+            for (Core core : cores) {
+                Graphics2D row = (Graphics2D) g.create();
+                row.scale(scale, scale);
+                row.translate(0, core.index * 160);
+                // With a shared queue, only the first row draws it.
+                drawCore(row, core, core.index == 0 || !engine.balancer().sharedQueue(), width);
+                row.dispose();
+            }
+            g.setColor(Color.WHITE);
+            g.drawString(metrics.statusLine(engine), 10, getHeight() - 10);
+        }
+
+        private void drawCore(Graphics2D g, Core core, boolean showQueue, int width) {
             g.setColor(Color.LIGHT_GRAY); g.fillRect(50, 50, 100, 100);
-            g.setColor(Color.BLACK); g.drawString("CPU", 90, 105);
+            String label = engine.cores().length == 1 ? "CPU"
+                    : engine.topology().sockets > 1 ? "S" + core.socket + " CPU " + core.index : "CPU " + core.index;
+            g.setColor(Color.BLACK); g.drawString(label, 75, 105);
             
-            if(activeProcess != null) {
+            SimProcess active = core.running();
+            if(active != null) {
                 g.setColor(Color.CYAN);
                 g.fillRect(60, 60, 80, 80);
                 g.setColor(Color.BLACK);
-                g.drawString(activeProcess.name, 85, 100);
-                int pct = (int)((activeProcess.progress / (double)activeProcess.burst)*80);
+                g.drawString(active.name, 85, 100);
+                int pct = (int)((engine.executed(active) / (double)active.burst)*80);
                 g.setColor(Color.GREEN); g.fillRect(60, 130, pct, 5);
             }
 
-            int x = 200;
-            for(Process p : queue) {
+            if (!showQueue) return;
+            int n = core.queue().size();
+            if (n > HEATMAP_THRESHOLD) { drawHeatmap(g, core, n, width); return; }
+
+            // Only the boxes that fit on screen are fetched and drawn.
+            int visible = Math.max(1, (width - QUEUE_X) / BOX_PITCH);
+            int first = Math.min(queueOffset, Math.max(0, n - visible));
+            int last = Math.min(n, first + visible);
+            int x = QUEUE_X;
+            SchedulingPolicy ready = core.queue();
+            for(int i = first; i < last; i++) {
+                SimProcess p = ready.readyAt(i);
                 g.setColor(Color.ORANGE);
                 g.fillRect(x, 70, 60, 60);
                 g.setColor(Color.BLACK);
                 g.drawString(p.name, x+10, 95);
                 g.drawString(p.burst+"ms", x+10, 115);
-                x += 70;
+                x += BOX_PITCH;
+            }
+            g.setColor(Color.WHITE);
+            String range = n > visible ? "  (" + (first + 1) + "-" + last + " of " + n + ", scroll for more)" : "";
+            g.drawString("WAITING QUEUE ->" + range, QUEUE_X, 60);
+        }
+
+        // HEATMAP: one cell per power-of-two remaining-time bucket, brighter = more processes.
+        // Reads the engine's per-queue counters, so it costs the same for 501 or 5 million jobs.
+        private void drawHeatmap(Graphics2D g, Core core, int n, int width) {
+            int lo = Core.LENGTH_BUCKETS, hi = -1;
+            long max = 1;
+            for (int b = 0; b < Core.LENGTH_BUCKETS; b++) {
+                long c = core.queuedWithLength(b);
+                if (c == 0) continue;
+                lo = Math.min(lo, b); hi = Math.max(hi, b);
+                max = Math.max(max, c);
+            }
+            g.setColor(Color.WHITE);
+            g.drawString(String.format("WAITING QUEUE: %,d processes by remaining time (ticks)", n), QUEUE_X, 60);
+            if (hi < 0) return;
+            int cell = Math.max(20, Math.min(60, (width - QUEUE_X) / (hi - lo + 1)));
+            for (int b = lo; b <= hi; b++) {
+                long c = core.queuedWithLength(b);
+                int x = QUEUE_X + (b - lo) * cell;
+                // Log scale so a handful of long jobs still show up next to thousands of short ones.
+                float heat = c == 0 ? 0f : (float) (Math.log1p(c) / Math.log1p(max));
+                g.setColor(Color.getHSBColor(0.12f - 0.12f * heat, 0.9f, 0.25f + 0.75f * heat));
+                g.fillRect(x, 70, cell - 2, 45);
+                g.setColor(Color.BLACK);
+                if (c > 0) g.drawString(c < 10_000 ? Long.toString(c) : (c / 1000) + "k", x + 2, 97);
+                g.setColor(Color.LIGHT_GRAY);
+                if ((b - lo) % 2 == 0) g.drawString("<" + (1L << b), x, 130);
             }
-            g.setColor(Color.WHITE); g.drawString("WAITING QUEUE ->", 200, 60);
         }
     }
 }
\ No newline at end of file
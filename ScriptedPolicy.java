@@ -0,0 +1,130 @@
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * CLASS: ScriptedPolicy
+ * A BattlePolicy written as a short priority list, so tournament clients can send a
+ * bot as one line of text instead of code:
+ *     TURBO if turbo=0; SMT; HEAL if hp<40%; AOE if enemies>=3; SNIPE; ATTACK
+ * * RULES are tried left to right; the first one whose action is usable and whose
+ *   conditions all hold is played. If none matches, the turn ends.
+ * * RULE   = ACTION [ "if" COND { "&" COND } ]   (ACTION = a BattleEngine.Action name)
+ * * COND   = VAR OP NUMBER ["%"]   with OP one of < <= > >= = !=, and NUMBER in
+ *            0..100 with "%", 0..MAX_NUMBER without (so choose() can't overflow)
+ * * VAR    = hp | ram (a "%" makes them a share of the maximum), ap (threads left),
+ *            enemies (alive in the wave), turbo (Turbo turns left), turn, round
+ * * The script is parsed once into arrays; choose() only compares ints. A parsed
+ *   policy has no state, so one instance can drive any number of battles at once.
+ */
+public class ScriptedPolicy implements BattlePolicy {
+
+    public static final int MAX_RULES = 32;
+    public static final int MAX_NUMBER = 1_000_000; // Above any HP, RAM or turn count.
+
+    private static final String[] VARS = {"hp", "ram", "ap", "enemies", "turbo", "turn", "round"};
+    private static final String[] OPS = {"<=", ">=", "!=", "<", ">", "="}; // Two-char ops first.
+
+    private final String source;
+    private final BattleEngine.Action[] actions;
+    private final int[][] var, op, value; // Per rule, per condition.
+    private final boolean[][] percent;
+
+    // Throws IllegalArgumentException (with the offending part) on a bad script.
+    public ScriptedPolicy(String script) {
+        this.source = script.trim();
+        String[] rules = source.split(";", -1); // -1 keeps a trailing empty rule, to reject it.
+        if (source.isEmpty()) throw new IllegalArgumentException("empty script");
+        if (rules.length > MAX_RULES) throw new IllegalArgumentException("more than " + MAX_RULES + " rules");
+        actions = new BattleEngine.Action[rules.length];
+        var = new int[rules.length][]; op = new int[rules.length][]; value = new int[rules.length][];
+        percent = new boolean[rules.length][];
+        for (int r = 0; r < rules.length; r++) parseRule(r, rules[r].trim());
+    }
+
+    private void parseRule(int r, String rule) {
+        if (rule.isEmpty()) throw new IllegalArgumentException("empty rule " + (r + 1));
+        String[] parts = rule.split("\\s+if\\s+", 2);
+        try {
+            actions[r] = BattleEngine.Action.valueOf(parts[0].trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("unknown action '" + parts[0].trim() + "'");
+        }
+        String[] conds = parts.length == 1 ? new String[0] : parts[1].split("&", -1);
+        var[r] = new int[conds.length]; op[r] = new int[conds.length]; value[r] = new int[conds.length];
+        percent[r] = new boolean[conds.length];
+        for (int c = 0; c < conds.length; c++) parseCondition(r, c, conds[c].replace(" ", ""));
+    }
+
+    private void parseCondition(int r, int c, String cond) {
+        for (int o = 0; o < OPS.length; o++) {
+            int at = cond.indexOf(OPS[o]);
+            if (at <= 0) continue;
+            var[r][c] = indexOf(VARS, cond.substring(0, at).toLowerCase(Locale.ROOT), cond);
+            op[r][c] = o;
+            String number = cond.substring(at + OPS[o].length());
+            percent[r][c] = number.endsWith("%");
+            if (percent[r][c]) {
+                if (var[r][c] > 1) throw new IllegalArgumentException("'%' only applies to hp and ram: " + cond);
+                number = number.substring(0, number.length() - 1);
+            }
+            try {
+                value[r][c] = Integer.parseInt(number);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("bad number in '" + cond + "'");
+            }
+            // Bounded here so holds() can scale a percent by the maximum without overflowing.
+            int max = percent[r][c] ? 100 : MAX_NUMBER;
+            if (value[r][c] < 0 || value[r][c] > max) throw new IllegalArgumentException("number out of 0.." + max + " in '" + cond + "'");
+            return;
+        }
+        throw new IllegalArgumentException("bad condition '" + cond + "'");
+    }
+
+    private static int indexOf(String[] names, String name, String context) {
+        for (int i = 0; i < names.length; i++) if (names[i].equals(name)) return i;
+        throw new IllegalArgumentException("unknown variable in '" + context + "'");
+    }
+
+    @Override public String name() { return "Script [" + source + "]"; }
+
+    @Override
+    public BattleEngine.Action choose(BattleEngine b, SplittableRandom rng) {
+        for (int r = 0; r < actions.length; r++) {
+            if (actions[r] != BattleEngine.Action.END_TURN && !b.canUse(actions[r])) continue;
+            if (holds(b, r)) return actions[r];
+        }
+        return BattleEngine.Action.END_TURN;
+    }
+
+    private boolean holds(BattleEngine b, int r) {
+        for (int c = 0; c < var[r].length; c++) {
+            int x = read(b, var[r][c]);
+            // Percent conditions compare x / max with value / 100, multiplied out to stay in ints.
+            int limit = value[r][c];
+            if (percent[r][c]) { x *= 100; limit *= var[r][c] == 0 ? b.maxHP() : b.maxRAM(); }
+            boolean ok;
+            switch (op[r][c]) {
+                case 0: ok = x <= limit; break;
+                case 1: ok = x >= limit; break;
+                case 2: ok = x != limit; break;
+                case 3: ok = x < limit; break;
+                case 4: ok = x > limit; break;
+                default: ok = x == limit;
+            }
+            if (!ok) return false;
+        }
+        return true;
+    }
+
+    private static int read(BattleEngine b, int v) {
+        switch (v) {
+            case 0: return b.hp();
+            case 1: return b.ram();
+            case 2: return b.ap();
+            case 3: return b.arena().size();
+            case 4: return b.turboDuration();
+            case 5: return b.turn();
+            default: return b.round();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import javax.swing.SwingUtilities;
+
+/**
+ * CLASS: SkillForecast
+ * What each action would do right now: expected damage, chance to kill an enemy and
+ * chance to survive the enemy phase that follows (if the turn ends right after it).
+ * * compute() is headless: it plays every action many times from a snapshot of the
+ *   battle, with the engine's own rules and dice, and averages.
+ * * The async part keeps Swing responsive: request() is called on the EDT after
+ *   every state change, cancels the forecast in flight and starts a new one on a
+ *   single background thread. Results come back on the EDT through 'onReady'.
+ * * Results are cached by BattleEngine.stateHash(), and the dice are seeded from the
+ *   hash too, so a position always shows the same numbers and revisiting one is free.
+ */
+public class SkillForecast {
+
+    public static final int SAMPLES = 2000; // Plays per action.
+    private static final int CACHE_SIZE = 256;
+
+    /** CLASS: Odds - forecast of one action. */
+    public static class Odds {
+        public final double damage;  // Expected damage dealt to enemies (overkill not counted).
+        public final double kill;    // Probability that at least one enemy dies.
+        public final double survive; // Probability of being alive after the next enemy phase.
+
+        Odds(double damage, double kill, double survive) { this.damage = damage; this.kill = kill; this.survive = survive; }
+    }
+
+    // Forecast of every usable action in 'battle', or null if the thread was interrupted.
+    // 'battle' is only copied, never changed.
+    public static Map<BattleEngine.Action, Odds> compute(BattleEngine battle, int samples, SplittableRandom rng) {
+        Map<BattleEngine.Action, Odds> odds = new EnumMap<>(BattleEngine.Action.class);
+        BattleEngine sim = battle.copy(rng);
+        BattleState start = sim.snapshot();
+        for (BattleEngine.Action a : BattleEngine.Action.values()) {
+            if (!battle.canUse(a)) continue;
+            double damage = 0;
+            int kills = 0, survived = 0;
+            for (int n = 0; n < samples; n++) {
+                if ((n & 63) == 0 && Thread.currentThread().isInterrupted()) return null;
+                sim.restore(start);
+                Monster[] wave = sim.wave(); // Same objects even if the action clears the wave.
+                int[] before = new int[wave.length];
+                for (int i = 0; i < wave.length; i++) before[i] = Math.max(0, wave[i].currentHP);
+                sim.act(a);
+                boolean killed = false;
+                for (int i = 0; i < wave.length; i++) {
+                    int after = Math.max(0, wave[i].currentHP);
+                    damage += before[i] - after;
+                    if (before[i] > 0 && after == 0) killed = true;
+                }
+                if (killed) kills++;
+                if (a != BattleEngine.Action.END_TURN) sim.act(BattleEngine.Action.END_TURN);
+                if (!sim.isLost()) survived++;
+            }
+            odds.put(a, new Odds(damage / samples, kills / (double) samples, survived / (double) samples));
+        }
+        return odds;
+    }
+
+    // --- ASYNC (EDT side) ---
+    private final Consumer<Map<BattleEngine.Action, Odds>> onReady;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "skill-forecast");
+        t.setDaemon(true);
+        return t;
+    });
+    // LRU cache: state hash -> forecast (touched on the EDT only).
+    private final Map<Long, Map<BattleEngine.Action, Odds>> cache = new LinkedHashMap<Long, Map<BattleEngine.Action, Odds>>(64, 0.75f, true) {
+        @Override protected boolean removeEldestEntry(Map.Entry<Long, Map<BattleEngine.Action, Odds>> e) { return size() > CACHE_SIZE; }
+    };
+    private Future<?> pending;
+    private long wanted; // Hash of the state the UI is showing.
+
+    public SkillForecast(Consumer<Map<BattleEngine.Action, Odds>> onReady) { this.onReady = onReady; }
+
+    // Call on the EDT whenever the battle changed. Never blocks: answers from the cache
+    // or copies the battle and forecasts the copy in the background.
+    public void request(BattleEngine battle) {
+        long hash = battle.stateHash();
+        if (pending != null && hash == wanted) return; // Already on its way.
+        wanted = hash;
+        if (pending != null) { pending.cancel(true); pending = null; }
+        Map<BattleEngine.Action, Odds> hit = cache.get(hash);
+        if (hit != null || battle.isOver()) { onReady.accept(hit); return; }
+        onReady.accept(null); // "Thinking..." until the new numbers arrive.
+        BattleEngine snapshot = battle.copy(new SplittableRandom(hash));
+        pending = executor.submit(() -> {
+            Map<BattleEngine.Action, Odds> odds = compute(snapshot, SAMPLES, new SplittableRandom(hash));
+            if (odds == null) return; // Cancelled: a newer state took over.
+            SwingUtilities.invokeLater(() -> {
+                cache.put(hash, odds);
+                if (hash != wanted) return; // Stale: the battle moved on meanwhile.
+                pending = null;
+                onReady.accept(odds);
+            });
+        });
+    }
+
+    // Last forecast for the state on screen, if it is ready (EDT only).
+    public Map<BattleEngine.Action, Odds> current() { return cache.get(wanted); }
+
+    public void shutdown() { executor.shutdownNow(); }
+}
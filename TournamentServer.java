@@ -0,0 +1,351 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import scheduler.LatencyHistogram;
+
+/**
+ * CLASS: TournamentServer
+ * Headless bot-vs-floor tournaments over a localhost socket (no window, no save game).
+ * Start it with `./gradlew tournament` (or `java TournamentServer [port] [maxBattles]`)
+ * and talk to it with any line-based client, e.g. `nc localhost 7077`.
+ * * PROTOCOL (one command per line, one reply line each unless stated):
+ *     LOADOUT cpu=CORE_I5 cooler=STOCK ram=2 storage=3 oc=20 uv=0 ecc=1   -> OK ...
+ *     POLICY greedy | attack | random | script TURBO if turbo=0; SNIPE; ATTACK -> OK ...
+ *     RUN <floor> <battles> [seed]
+ *         -> streams "RESULT <n> WIN|LOSS|STALEMATE turns=.. moves=.. wait_us=.. run_us=.."
+ *            (or "RESULT <n> ERROR <reason>" if the battle threw) in the order battles
+ *            finish, then one "DONE ..." summary line
+ *     QUIT
+ *   Anything wrong gets "ERR <reason>" and the session goes on. Loadout keys left out
+ *   keep their value (a session starts from the starter PC); GPU and PSU are not
+ *   settable because they never change a battle.
+ * * ONE VIRTUAL THREAD PER BATTLE (and per connection). Battles are small and mostly
+ *   CPU-bound, so the JVM runs them on a few carrier threads (one per core); what virtual
+ *   threads buy is that 10,000 in-flight battles cost a few KB each instead of a
+ *   platform thread and its stack each.
+ * * BOUNDED MEMORY: a server-wide semaphore caps the battles in flight (all connections
+ *   together). RUN takes a permit before starting each battle, so a run of a million
+ *   battles never has more than the cap alive. Results go through a small bounded queue
+ *   to one writer thread per connection: a client that reads slowly blocks its battles,
+ *   which keep their permits, which stalls its RUN - backpressure, not a growing buffer.
+ * * TURN BY TURN: a battle yields after each of its turns, so the battles in flight all
+ *   make progress together (and results of short battles are not stuck behind long ones).
+ * * LATENCY per battle: wait_us = from RUN reading the command until the battle got its
+ *   permit, run_us = start to finish (turns of other battles included), work_us = its own
+ *   turns only (policy + rules). DONE reports their percentiles (from LatencyHistograms,
+ *   so within ~1.6%, in constant memory) and the peak number of this run's battles in flight.
+ * * RESULTS ARE SEEDED like BalanceSweep: battle n plays with its own stream derived
+ *   from the seed, so the same RUN gives the same results whatever the scheduling.
+ * * MCTS is not offered: it already uses every core for each decision, and a few of
+ *   them would starve the thousands of other battles.
+ */
+public class TournamentServer implements Closeable {
+
+    public static final int DEFAULT_PORT = 7077;
+    public static final int DEFAULT_MAX_IN_FLIGHT = 10_000;
+    public static final int MAX_BATTLES_PER_RUN = 1_000_000;
+    private static final int OUTPUT_QUEUE = 1024;       // Result lines waiting for the writer.
+    private static final String END_OF_OUTPUT = new String("EOF"); // Writer poison pill (by identity).
+
+    private final ServerSocket socket;
+    private final Semaphore inFlight;
+    private final ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Binds to the loopback address only: tournaments are local. Port 0 = any free port.
+    public TournamentServer(int port, int maxInFlight) throws IOException {
+        if (maxInFlight <= 0) throw new IllegalArgumentException("maxInFlight must be positive: " + maxInFlight);
+        this.socket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+
+    public int port() { return socket.getLocalPort(); }
+
+    // Accepts connections until close(); each one is served on its own virtual thread.
+    public void serve() throws IOException {
+        try {
+            while (true) {
+                Socket client = socket.accept();
+                threads.submit(() -> session(client));
+            }
+        } catch (SocketException e) {
+            if (!socket.isClosed()) throw e; // Closed by close(): normal shutdown.
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+        threads.shutdownNow();
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int max = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_MAX_IN_FLIGHT;
+        try (TournamentServer server = new TournamentServer(port, max)) {
+            System.out.println("Tournament server on localhost:" + server.port() + " (max " + max + " battles in flight)");
+            server.serve();
+        }
+    }
+
+    // --- ONE CONNECTION ---
+
+    private void session(Socket client) {
+        BlockingQueue<String> out = new ArrayBlockingQueue<>(OUTPUT_QUEUE);
+        AtomicBoolean hungUp = new AtomicBoolean();
+        try (client;
+             BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8));
+             Writer w = new BufferedWriter(new OutputStreamWriter(client.getOutputStream(), StandardCharsets.UTF_8))) {
+            Thread writer = Thread.ofVirtual().start(() -> drain(out, w, hungUp));
+            GameState loadout = GameState.starter();
+            BattlePolicy policy = BattlePolicy.greedy();
+            try {
+                send(out, "HELLO cpuquest-tournament 1");
+                String line;
+                while ((line = in.readLine()) != null) {
+                    line = line.trim();
+                    if (line.isEmpty()) continue;
+                    String[] cmd = line.split("\\s+", 2);
+                    String rest = cmd.length > 1 ? cmd[1] : "";
+                    try {
+                        switch (cmd[0].toUpperCase(Locale.ROOT)) {
+                            case "LOADOUT": loadout = setLoadout(loadout, rest); send(out, "OK " + describe(loadout)); break;
+                            case "POLICY": policy = policy(rest); send(out, "OK " + policy.name()); break;
+                            case "RUN": run(out, hungUp, loadout, policy, rest); break;
+                            case "QUIT": send(out, "BYE"); return;
+                            default: send(out, "ERR unknown command " + cmd[0]);
+                        }
+                    } catch (IllegalArgumentException e) {
+                        send(out, "ERR " + e.getMessage());
+                    }
+                }
+            } finally {
+                send(out, END_OF_OUTPUT);
+                writer.join();
+            }
+        } catch (IOException | InterruptedException e) {
+            // Client gone or server closing: nothing to report to.
+        }
+    }
+
+    // Writer thread: one per connection, so battle threads never touch the socket.
+    // Flushes when it has caught up, so a burst of results goes out in few packets.
+    // If the client hangs up it raises 'hungUp' (RUN stops starting battles) and keeps
+    // taking (and dropping) lines, so battles still running never block on a full queue
+    // and always give their permits back.
+    private static void drain(BlockingQueue<String> out, Writer w, AtomicBoolean hungUp) {
+        boolean connected = true;
+        try {
+            while (true) {
+                String line = out.take();
+                if (line == END_OF_OUTPUT) break;
+                if (!connected) continue;
+                try {
+                    w.write(line);
+                    w.write('\n');
+                    if (out.isEmpty()) w.flush();
+                } catch (IOException e) {
+                    connected = false;
+                    hungUp.set(true);
+                }
+            }
+            if (connected) w.flush();
+        } catch (IOException | InterruptedException e) {
+            // Server closing or client gone at the very end: nothing left to deliver.
+        }
+    }
+
+    private static void send(BlockingQueue<String> out, String line) {
+        try {
+            out.put(line);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // --- COMMANDS ---
+
+    // All keys or none: a bad key leaves the loadout as it was.
+    private static GameState setLoadout(GameState current, String args) {
+        GameState.Draft gs = current.edit();
+        for (String kv : args.split("\\s+")) {
+            if (kv.isEmpty()) continue;
+            String[] p = kv.split("=", 2);
+            if (p.length != 2) throw new IllegalArgumentException("expected key=value, got " + kv);
+            String key = p[0].toLowerCase(Locale.ROOT), value = p[1];
+            switch (key) {
+                case "cpu": gs.currentCpu = constant(Hardware.CpuType.class, value); break;
+                case "cooler": gs.currentCooler = constant(Hardware.CoolerType.class, value); break;
+                case "ram": gs.ramIndex = number(key, value, 0, GameState.MAX_RAM_INDEX); break;
+                case "storage": gs.storageLevel = number(key, value, 0, GameState.MAX_STORAGE_LEVEL); break;
+                case "oc": gs.overclockVal = number(key, value, 0, 100); break;
+                case "uv": gs.undervoltVal = number(key, value, 0, 100); break;
+                case "ecc": gs.hasECC = number(key, value, 0, 1) == 1; break;
+                default: throw new IllegalArgumentException("unknown loadout key " + p[0]);
+            }
+        }
+        return gs.freeze();
+    }
+
+    private static String describe(GameState gs) {
+        return "cpu=" + gs.currentCpu.name() + " cooler=" + gs.currentCooler.name() + " ram=" + gs.ramIndex
+                + " storage=" + gs.storageLevel + " oc=" + gs.overclockVal + " uv=" + gs.undervoltVal
+                + " ecc=" + (gs.hasECC ? 1 : 0);
+    }
+
+    private static <E extends Enum<E>> E constant(Class<E> type, String name) {
+        try {
+            return Enum.valueOf(type, name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("unknown " + type.getSimpleName() + " " + name);
+        }
+    }
+
+    private static int number(String key, String value, int min, int max) {
+        int n;
+        try {
+            n = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(key + " is not a number: " + value);
+        }
+        if (n < min || n > max) throw new IllegalArgumentException(key + " must be in " + min + ".." + max);
+        return n;
+    }
+
+    private static BattlePolicy policy(String spec) {
+        String[] p = spec.trim().split("\\s+", 2);
+        switch (p[0].toLowerCase(Locale.ROOT)) {
+            case "greedy": return BattlePolicy.greedy();
+            case "attack": return BattlePolicy.attackOnly();
+            case "random": return BattlePolicy.random();
+            case "script":
+                if (p.length < 2) throw new IllegalArgumentException("script needs its rules");
+                return new ScriptedPolicy(p[1]);
+            default: throw new IllegalArgumentException("unknown policy " + p[0] + " (greedy, attack, random, script ...)");
+        }
+    }
+
+    // RUN: starts every battle (as permits allow), then waits for the last one to finish.
+    // 'loadout' is an immutable snapshot: a LOADOUT sent later can't change running battles.
+    private void run(BlockingQueue<String> out, AtomicBoolean hungUp, GameState loadout, BattlePolicy policy, String args)
+            throws InterruptedException {
+        String[] a = args.trim().split("\\s+");
+        if (a.length < 2 || a.length > 3) throw new IllegalArgumentException("usage: RUN <floor> <battles> [seed]");
+        int floor = number("floor", a[0], 1, 1000);
+        int battles = number("battles", a[1], 1, MAX_BATTLES_PER_RUN);
+        long seed;
+        try {
+            seed = a.length == 3 ? Long.parseLong(a[2]) : System.nanoTime();
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("seed is not a number: " + a[2]);
+        }
+
+        // Constant memory whatever the run size; battles record under the histogram's lock.
+        LatencyHistogram runMicros = new LatencyHistogram(), workMicros = new LatencyHistogram();
+        AtomicInteger wins = new AtomicInteger(), stalemates = new AtomicInteger(), errors = new AtomicInteger();
+        AtomicInteger running = new AtomicInteger(), peak = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(battles);
+        long start = System.nanoTime();
+        for (int i = 0; i < battles; i++) {
+            if (hungUp.get()) {
+                // Nobody is listening: skip the battles not started yet.
+                for (int skip = i; skip < battles; skip++) done.countDown();
+                break;
+            }
+            inFlight.acquire();
+            long admitted = System.nanoTime();
+            int n = i;
+            threads.submit(() -> {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    SplittableRandom rng = new SplittableRandom(seed + n * 0x9E3779B97F4A7C15L);
+                    long t0 = System.nanoTime();
+                    Match m = new Match(new BattleEngine(loadout, floor, rng));
+                    m.play(policy, rng);
+                    long runUs = (System.nanoTime() - t0) / 1000, workUs = m.workNanos / 1000;
+                    synchronized (runMicros) { runMicros.record(runUs); }
+                    synchronized (workMicros) { workMicros.record(workUs); }
+                    if (m.verdict == WIN) wins.incrementAndGet();
+                    else if (m.verdict == STALEMATE) stalemates.incrementAndGet();
+                    send(out, "RESULT " + n + " " + m.verdict + " turns=" + m.battle.turn() + " moves=" + m.battle.moves()
+                            + " wait_us=" + (admitted - start) / 1000 + " run_us=" + runUs + " work_us=" + workUs);
+                } catch (RuntimeException e) {
+                    // A broken battle (a policy that throws, a rules bug) is reported, not
+                    // counted as a loss, and the rest of the run goes on.
+                    errors.incrementAndGet();
+                    send(out, "RESULT " + n + " ERROR " + reason(e));
+                } finally {
+                    running.decrementAndGet();
+                    inFlight.release();
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        long wall = System.nanoTime() - start;
+        // Every battle recorded before its countDown(), so after await() no lock is needed.
+        send(out, String.format(Locale.ROOT,
+                "DONE battles=%d wins=%d stalemates=%d errors=%d wall_ms=%d battles_per_s=%.0f peak_in_flight=%d"
+                        + " run_us_p50=%d run_us_p99=%d run_us_max=%d work_us_p50=%d work_us_p99=%d work_us_max=%d",
+                battles, wins.get(), stalemates.get(), errors.get(), wall / 1_000_000, battles / (wall / 1e9), peak.get(),
+                runMicros.percentile(0.50), runMicros.percentile(0.99), runMicros.max(),
+                workMicros.percentile(0.50), workMicros.percentile(0.99), workMicros.max()));
+    }
+
+    // One-line reason for an ERROR result (the protocol is line-based).
+    private static String reason(RuntimeException e) {
+        String msg = e.getClass().getSimpleName() + (e.getMessage() == null ? "" : ": " + e.getMessage());
+        return msg.replace('\r', ' ').replace('\n', ' ');
+    }
+
+    private static final String WIN = "WIN", LOSS = "LOSS", STALEMATE = "STALEMATE";
+
+    /** CLASS: Match - one tournament battle, played turn by turn. */
+    private static final class Match {
+        final BattleEngine battle;
+        String verdict;
+        long workNanos; // Time spent in this battle's own turns (not waiting for a carrier).
+
+        Match(BattleEngine battle) { this.battle = battle; }
+
+        // Same loop as BalanceSweep.play: refused actions end the turn, MAX_TURNS is a
+        // stalemate. After every turn the battle yields, so the battles sharing a carrier
+        // take turns instead of running one after the other to completion.
+        void play(BattlePolicy policy, SplittableRandom rng) {
+            int turn = battle.turn();
+            long segment = System.nanoTime();
+            while (!battle.isOver() && verdict == null) {
+                if (battle.turn() > BalanceSweep.MAX_TURNS) { verdict = STALEMATE; break; }
+                BattleEngine.Outcome o = battle.act(policy.choose(battle, rng));
+                if (o == BattleEngine.Outcome.NO_THREADS || o == BattleEngine.Outcome.OUT_OF_MEMORY
+                        || o == BattleEngine.Outcome.UNAVAILABLE) battle.act(BattleEngine.Action.END_TURN);
+                if (battle.turn() != turn && !battle.isOver()) {
+                    turn = battle.turn();
+                    workNanos += System.nanoTime() - segment;
+                    Thread.yield();
+                    segment = System.nanoTime();
+                }
+            }
+            workNanos += System.nanoTime() - segment;
+            if (verdict == null) verdict = battle.isWon() ? WIN : LOSS;
+        }
+    }
+}
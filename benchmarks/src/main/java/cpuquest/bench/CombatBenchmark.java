@@ -0,0 +1,63 @@
+package cpuquest.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BENCHMARK: Combat math
+ * * baseDamage / totalWatts: GameState.calculateBaseDamage and getTotalWatts, called on
+ *   every skill use and every time the loadout screen redraws.
+ * * damageRoll: the damage and crit resolution behind every skill (BattleEngine: crit
+ *   roll, GHz-based damage, Turbo and crit multipliers).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CombatBenchmark {
+
+    private static final MethodHandle BASE_DAMAGE = Game.method("GameState", "calculateBaseDamage");
+    private static final MethodHandle TOTAL_WATTS = Game.method("GameState", "getTotalWatts");
+    private static final MethodHandle ROLL_CRIT = Game.method("BattleEngine", "rollCrit");
+    private static final MethodHandle SKILL_DAMAGE = Game.method("BattleEngine", "skillDamage");
+
+    @Param({"ATHLON", "CORE_I9", "XEON"})
+    public String cpu;
+
+    @Param({"0", "40"})
+    public int overclock;
+
+    @Param({"false", "true"})
+    public boolean turbo;
+
+    private Object gs;
+    private final SplittableRandom rng = new SplittableRandom(42);
+
+    @Setup
+    public void setup() {
+        gs = Game.state("currentCpu", Game.constant("Hardware$CpuType", cpu),
+                "currentGpu", Game.constant("Hardware$GpuType", "RTX_3060"),
+                "overclockVal", overclock);
+    }
+
+    @Benchmark
+    public int baseDamage() throws Throwable {
+        return (int) BASE_DAMAGE.invokeExact(gs);
+    }
+
+    @Benchmark
+    public int totalWatts() throws Throwable {
+        return (int) TOTAL_WATTS.invokeExact(gs);
+    }
+
+    @Benchmark
+    public int damageRoll() throws Throwable {
+        boolean crit = (boolean) ROLL_CRIT.invokeExact(gs, rng.nextDouble());
+        return (int) SKILL_DAMAGE.invokeExact(gs, turbo, crit);
+    }
+}
@@ -0,0 +1,96 @@
+package cpuquest.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * CLASS: Game
+ * Access to the game classes (GameState, CyberQuestRPG, GamePanel...), which live in the
+ * default package.
+ * * Code in a named package cannot import default-package classes, and JMH refuses
+ *   benchmarks in the default package, so the benchmarks look the game up by name.
+ * * Hot calls go through method handles stored in static final fields. The JIT treats
+ *   such a handle as a constant and compiles invokeExact into a direct call, so the
+ *   lookup costs nothing inside the measured loop. Reflection is only used in @Setup.
+ */
+final class Game {
+    private Game() {}
+
+    static Class<?> type(String name) {
+        try {
+            return Class.forName(name);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("game class not on the classpath: " + name, e);
+        }
+    }
+
+    // Handle on the (only) method called 'name', with every reference type erased to Object
+    // so callers can invokeExact it without naming default-package types.
+    static MethodHandle method(String className, String name) {
+        Class<?> owner = type(className);
+        try {
+            for (Method m : owner.getDeclaredMethods()) {
+                if (!m.getName().equals(name)) continue;
+                MethodHandle h = MethodHandles.privateLookupIn(owner, MethodHandles.lookup()).unreflect(m);
+                return h.asType(h.type().erase());
+            }
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+        throw new IllegalStateException(className + "." + name + " not found");
+    }
+
+    static Object call(String className, String name, Object target, Object... args) {
+        try {
+            for (Method m : type(className).getDeclaredMethods()) {
+                if (!m.getName().equals(name) || m.getParameterCount() != args.length) continue;
+                m.setAccessible(true);
+                return m.invoke(target, args);
+            }
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+        throw new IllegalStateException(className + "." + name + " not found");
+    }
+
+    static Object create(String className, Object... args) {
+        try {
+            for (var c : type(className).getConstructors()) {
+                if (c.getParameterCount() == args.length) return c.newInstance(args);
+            }
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+        throw new IllegalStateException(className + " has no " + args.length + "-argument constructor");
+    }
+
+    static void set(Object target, String field, Object value) {
+        try {
+            Field f = target.getClass().getField(field);
+            f.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static Object constant(String enumClass, String name) {
+        return Enum.valueOf((Class) type(enumClass), name);
+    }
+
+    // A GameState snapshot: the starter PC with some fields changed ("field", value, ...).
+    // Snapshots are immutable, so the changes are made on a Draft and then frozen.
+    static Object state(Object... fieldValues) {
+        Object draft = call("GameState", "edit", call("GameState", "starter", null));
+        for (int i = 0; i < fieldValues.length; i += 2) set(draft, (String) fieldValues[i], fieldValues[i + 1]);
+        return call("GameState$Draft", "freeze", draft);
+    }
+
+    // Makes 'state' the player's current GameState (what GameState.get() returns).
+    static void publish(Object state) {
+        Object store = call("ProfileStore", "get", null);
+        call("ProfileStore", "put", store, call("ProfileStore", "active", store), state);
+    }
+}
@@ -0,0 +1,75 @@
+package cpuquest.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BENCHMARK: Horde mode enemy store
+ * * areaDamage: one RR hit on the whole horde (EnemyStore.damageAll), strong enough to
+ *   kill the weaker half - the worst case, since every kill is unlinked.
+ * * snipe: SJF on the horde - find the weakest enemy and hit it.
+ * * enemyPhase: the horde's total attack (alive count x damage per type).
+ * * A fresh horde is spawned before every call (Level.Invocation), so each call sees the
+ *   full-size horde, not one already thinned out by earlier calls.
+ *   The gc profiler counts that setup too: gc.alloc.rate.norm here is the spawn, the
+ *   measured calls themselves allocate nothing.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HordeBenchmark {
+
+    private static final MethodHandle ADD = Game.method("EnemyStore", "add");
+    private static final MethodHandle DAMAGE = Game.method("EnemyStore", "damage");
+    private static final MethodHandle DAMAGE_ALL = Game.method("EnemyStore", "damageAll");
+    private static final MethodHandle WEAKEST = Game.method("EnemyStore", "weakest");
+    private static final MethodHandle ATTACK = Game.method("EnemyStore", "attack");
+
+    // Horde mode's floor 1-3 tier: Calculator (weak) and Notepad (strong).
+    private static final int WEAK_HP = 60, STRONG_HP = 120;
+
+    @Param({"10000", "100000"})
+    public int size;
+
+    private Object store;
+    private Object weak, strong;
+    private final int[] perType = new int[16];
+
+    @Setup(Level.Trial)
+    public void types() {
+        weak = Game.constant("EnemyType", "CALCULATOR");
+        strong = Game.constant("EnemyType", "NOTEPAD");
+        Arrays.fill(perType, 10);
+    }
+
+    @Setup(Level.Invocation)
+    public void spawn() throws Throwable {
+        store = Game.create("EnemyStore", size, STRONG_HP);
+        SplittableRandom rng = new SplittableRandom(42);
+        for (int i = 0; i < size; i++) {
+            int spawned = (int) ADD.invokeExact(store, rng.nextBoolean() ? weak : strong, rng.nextBoolean() ? WEAK_HP : STRONG_HP);
+        }
+    }
+
+    @Benchmark
+    public int areaDamage() throws Throwable {
+        return (int) DAMAGE_ALL.invokeExact(store, WEAK_HP);
+    }
+
+    @Benchmark
+    public boolean snipe() throws Throwable {
+        return (boolean) DAMAGE.invokeExact(store, (int) WEAKEST.invokeExact(store), 30);
+    }
+
+    @Benchmark
+    public long enemyPhase() throws Throwable {
+        return (long) ATTACK.invokeExact(store, perType);
+    }
+}
@@ -0,0 +1,68 @@
+package cpuquest.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import javax.swing.JComponent;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BENCHMARK: Battle scene rendering
+ * Paints GamePanel (background, GPU effect, player, enemies with HP bars, turn banner)
+ * into an offscreen BufferedImage the size of the battle window's centre area.
+ * * Runs headless: JComponent.paint on a panel that is not on screen draws straight
+ *   into the given Graphics, without Swing's back buffer.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class RenderBenchmark {
+
+    @Param({"INTEGRATED", "RTX_4090"})
+    public String gpu;
+
+    @Param({"1", "6"})
+    public int enemies;
+
+    @Param({"false", "true"})
+    public boolean banner;
+
+    private JComponent panel;
+    private BufferedImage frame;
+
+    @Setup
+    public void setup() {
+        Game.publish(Game.state("currentGpu", Game.constant("Hardware$GpuType", gpu)));
+
+        panel = (JComponent) Game.create("GamePanel");
+        panel.setSize(1100, 560);
+        Object cpu = Game.create("CPUProfile", "AMD Ryzen 9", Game.constant("Architecture", "X86_64"), 12, 600, 16384, Color.CYAN);
+        List<Object> arena = new ArrayList<>();
+        for (int i = 0; i < enemies; i++) {
+            Object m = Game.create("Monster", "P" + i, Game.constant("EnemyType", i == 0 ? "CYBERPUNK" : "CHROME"), 1400);
+            Game.set(m, "currentHP", 1400 - i * 150);
+            arena.add(m);
+        }
+        Game.call("GamePanel", "setData", panel, cpu, arena);
+        Game.set(panel, "turnOverlayText", banner ? "ENEMY PHASE" : "");
+        frame = new BufferedImage(panel.getWidth(), panel.getHeight(), BufferedImage.TYPE_INT_RGB);
+    }
+
+    @Benchmark
+    public BufferedImage paint() {
+        Graphics2D g = frame.createGraphics();
+        try {
+            panel.paint(g);
+        } finally {
+            g.dispose();
+        }
+        return frame;
+    }
+}
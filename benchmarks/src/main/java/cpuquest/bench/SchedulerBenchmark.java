@@ -0,0 +1,92 @@
+package cpuquest.bench;
+
+import org.openjdk.jmh.annotations.*;
+import scheduler.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * BENCHMARK: Scheduler hot paths
+ * * run: a whole simulation (arrival, dispatch, slice end, load balancing) of a
+ *   generated workload on the engine behind SchedulerSimulator. Scores are per process.
+ * * sjfSelect: one SJF selection on a ready queue of 'queued' processes - take the
+ *   shortest job, then enqueue a new one so the queue size stays the same.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SchedulerBenchmark {
+
+    static final int PROCESSES = 20_000;
+
+    @State(Scope.Thread)
+    public static class Run {
+        @Param({"SJF", "RR", "CFS"})
+        public String policy;
+
+        @Param({"1", "8"})
+        public int cores;
+
+        List<SimProcess> workload;
+        SchedulerEngine engine;
+
+        @Setup(Level.Trial)
+        public void workload() {
+            BurstDistribution bursts = BurstDistribution.exponential(40);
+            double gap = WorkloadGenerator.gapForLoad(bursts, bursts, 0, cores, 0.9);
+            workload = new WorkloadGenerator(PROCESSES, gap, bursts, 42).take(PROCESSES);
+        }
+
+        // A fresh engine and fresh processes for every run (not part of the measurement).
+        @Setup(Level.Invocation)
+        public void engine() {
+            Supplier<SchedulingPolicy> policies = switch (policy) {
+                case "SJF" -> SjfPolicy::new;
+                case "RR" -> () -> new RoundRobinPolicy(10);
+                default -> CfsPolicy::new;
+            };
+            engine = new SchedulerEngine(cores, policies, new WorkStealingBalancer());
+            for (SimProcess p : workload) engine.submit(p.copy());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROCESSES)
+    public long run(Run r) {
+        r.engine.runToCompletion();
+        return r.engine.completed();
+    }
+
+    @State(Scope.Thread)
+    public static class Queue {
+        @Param({"16", "1024", "65536"})
+        public int queued;
+
+        final SjfPolicy sjf = new SjfPolicy();
+        SimProcess[] spare;
+        int next;
+
+        @Setup(Level.Trial)
+        public void fill() {
+            SplittableRandom rnd = new SplittableRandom(7);
+            for (int i = 0; i < queued; i++) sjf.enqueue(new SimProcess(i, "P" + i, 0, 1 + rnd.nextInt(1000)), 0);
+            spare = new SimProcess[1024];
+            for (int i = 0; i < spare.length; i++) spare[i] = new SimProcess(queued + i, "S" + i, 0, 1 + rnd.nextInt(1000));
+        }
+    }
+
+    @Benchmark
+    public SimProcess sjfSelect(Queue q) {
+        SimProcess shortest = q.sjf.next(0);
+        int i = q.next;
+        q.sjf.enqueue(q.spare[i], 0);
+        q.spare[i] = shortest; // Recycled later, so the burst mix never drifts.
+        q.next = (i + 1) & (q.spare.length - 1);
+        return shortest;
+    }
+}
@@ -0,0 +1,182 @@
+package scheduler;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * CLASS: Admission
+ * Schedulability tests for periodic task sets on ONE core, run before anything executes.
+ * * EDF:
+ *   - Implicit deadlines (D = T): exact test, total utilization <= 1.
+ *   - Constrained deadlines (D < T): processor-demand analysis with QPA (Zhang & Burns),
+ *     which only evaluates the demand at a handful of deadlines instead of every one.
+ * * RATE MONOTONIC:
+ *   - Hyperbolic bound (Bini & Buttazzo), product of (U_i + 1) <= 2: O(n), sufficient only.
+ *   - Response-time analysis: exact worst-case finish time of every task.
+ * * All tests assume synchronous release (every phase = 0), the worst case, so a set
+ *   that passes is also safe with any phases.
+ */
+public final class Admission {
+
+    private Admission() { }
+
+    public static final class Result {
+        public final boolean admitted;
+        public final String reason;
+        public final double utilization;
+
+        Result(boolean admitted, String reason, double utilization) {
+            this.admitted = admitted; this.reason = reason; this.utilization = utilization;
+        }
+
+        @Override
+        public String toString() {
+            return (admitted ? "ADMITTED" : "REJECTED") + String.format(" (U=%.3f) ", utilization) + reason;
+        }
+    }
+
+    // Gives up on the demand/busy-period iterations beyond this many steps (reported as rejected).
+    private static final int MAX_ITERATIONS = 1_000_000;
+
+    public static double utilization(List<PeriodicTask> tasks) {
+        double u = 0;
+        for (PeriodicTask t : tasks) u += t.utilization();
+        return u;
+    }
+
+    // --- EDF ---
+
+    public static Result edf(List<PeriodicTask> tasks) {
+        double u = utilization(tasks);
+        if (tasks.isEmpty()) return new Result(true, "empty task set", 0);
+        if (u > 1 + 1e-12) return new Result(false, "utilization above 1", u);
+        boolean implicit = true;
+        for (PeriodicTask t : tasks) implicit &= t.deadline == t.period;
+        if (implicit) return new Result(true, "implicit deadlines, U <= 1", u);
+
+        // Demand must be checked up to L: the synchronous busy period, or the
+        // tighter analytic bound when U < 1.
+        long busy = busyPeriod(tasks);
+        if (busy < 0) return new Result(false, "busy period did not converge", u);
+        long limit = busy;
+        if (u < 1) {
+            long dMax = 0;
+            double sum = 0;
+            for (PeriodicTask t : tasks) {
+                dMax = Math.max(dMax, t.deadline);
+                sum += (t.period - t.deadline) * t.utilization();
+            }
+            limit = Math.min(limit, Math.max(dMax, (long) Math.ceil(sum / (1 - u))));
+        }
+
+        long dMin = Long.MAX_VALUE;
+        for (PeriodicTask t : tasks) dMin = Math.min(dMin, t.deadline);
+
+        // QPA: walk backwards from the last deadline before L.
+        long t = lastDeadlineBefore(tasks, limit + 1);
+        long h = demand(tasks, t);
+        for (int i = 0; i < MAX_ITERATIONS && h <= t && h > dMin; i++) {
+            t = (h < t) ? h : lastDeadlineBefore(tasks, t);
+            h = demand(tasks, t);
+        }
+        if (h <= dMin) return new Result(true, "processor demand fits (QPA, L=" + limit + ")", u);
+        if (h > t) return new Result(false, "demand " + h + " exceeds interval " + t, u);
+        return new Result(false, "QPA did not converge", u);
+    }
+
+    // Total work with both release and deadline inside [0, t].
+    static long demand(List<PeriodicTask> tasks, long t) {
+        long h = 0;
+        for (PeriodicTask task : tasks) {
+            if (t >= task.deadline) h += ((t - task.deadline) / task.period + 1) * task.wcet;
+        }
+        return h;
+    }
+
+    // Largest absolute deadline strictly before t (0 if none).
+    private static long lastDeadlineBefore(List<PeriodicTask> tasks, long t) {
+        long best = 0;
+        for (PeriodicTask task : tasks) {
+            if (t <= task.deadline) continue;
+            long k = (t - 1 - task.deadline) / task.period;
+            best = Math.max(best, k * task.period + task.deadline);
+        }
+        return best;
+    }
+
+    // Length of the first busy period after a synchronous release (-1 if it did not converge).
+    private static long busyPeriod(List<PeriodicTask> tasks) {
+        long w = 0;
+        for (PeriodicTask t : tasks) w += t.wcet;
+        for (int i = 0; i < MAX_ITERATIONS; i++) {
+            long next = 0;
+            for (PeriodicTask t : tasks) next += ceilDiv(w, t.period) * t.wcet;
+            if (next == w) return w;
+            w = next;
+        }
+        return -1;
+    }
+
+    // --- RATE MONOTONIC ---
+
+    public static Result rateMonotonic(List<PeriodicTask> tasks) {
+        double u = utilization(tasks);
+        if (tasks.isEmpty()) return new Result(true, "empty task set", 0);
+        if (u > 1 + 1e-12) return new Result(false, "utilization above 1", u);
+
+        boolean implicit = true;
+        double product = 1;
+        for (PeriodicTask t : tasks) {
+            implicit &= t.deadline == t.period;
+            product *= t.utilization() + 1;
+        }
+        if (implicit && product <= 2) return new Result(true, "hyperbolic bound holds", u);
+
+        // RESPONSE-TIME ANALYSIS, highest priority (shortest period) first.
+        // R = C_i + sum over higher-priority j of ceil(R / T_j) * C_j, iterated to a fixed point.
+        List<PeriodicTask> byRate = new ArrayList<>(tasks);
+        byRate.sort(Comparator.comparingLong((PeriodicTask t) -> t.period).thenComparingInt(t -> t.id));
+        long higherWcet = 0;
+        for (int i = 0; i < byRate.size(); i++) {
+            PeriodicTask task = byRate.get(i);
+            long r = task.wcet + higherWcet;
+            while (r <= task.deadline) {
+                long next = task.wcet;
+                for (int j = 0; j < i; j++) {
+                    PeriodicTask hp = byRate.get(j);
+                    next += ceilDiv(r, hp.period) * hp.wcet;
+                }
+                if (next == r) break;
+                r = next;
+            }
+            if (r > task.deadline) {
+                return new Result(false, task.name + " response time exceeds its deadline " + task.deadline, u);
+            }
+            higherWcet += task.wcet;
+        }
+        return new Result(true, "response-time analysis passed", u);
+    }
+
+    // --- ONLINE ADMISSION ---
+
+    // Admits tasks one at a time in list order and turns away any task that would
+    // break the O(1) sufficient bound (density <= 1 for EDF, hyperbolic product <= 2
+    // for RM). Cheap enough for thousands of tasks, at the price of some pessimism.
+    // The hyperbolic bound only holds for implicit deadlines, so RM turns away D < T tasks.
+    public static List<PeriodicTask> admitGreedy(List<PeriodicTask> tasks, boolean edf) {
+        List<PeriodicTask> admitted = new ArrayList<>();
+        double load = edf ? 0 : 1;
+        for (PeriodicTask t : tasks) {
+            if (!edf && t.deadline != t.period) continue;
+            double next = edf ? load + t.density() : load * (t.utilization() + 1);
+            if (next <= (edf ? 1 : 2)) {
+                admitted.add(t);
+                load = next;
+            }
+        }
+        return admitted;
+    }
+
+    private static long ceilDiv(long a, long b) { return (a + b - 1) / b; }
+}
@@ -0,0 +1,57 @@
+package scheduler;
+
+/**
+ * BALANCER: Cache & NUMA Affinity
+ * Topology-aware version of work stealing.
+ * * Placement: back to the core the process last ran on (warm cache), unless that
+ *   core is clearly busier than the rest; otherwise the least loaded core on the
+ *   process's home socket (local memory); otherwise the least loaded core anywhere.
+ * * Stealing: an idle core first steals inside its own socket (shared L3). It only
+ *   reaches across sockets when the remote queue is at least 'remoteStealThreshold' deep.
+ */
+public class AffinityBalancer implements LoadBalancer {
+    private final Topology topology;
+    private final int slack;                // How much busier the old core may be than the idlest one.
+    private final int remoteStealThreshold;
+
+    public AffinityBalancer(Topology topology) { this(topology, 2, 3); }
+
+    public AffinityBalancer(Topology topology, int slack, int remoteStealThreshold) {
+        this.topology = topology; this.slack = slack; this.remoteStealThreshold = remoteStealThreshold;
+    }
+
+    @Override public String name() { return "Affinity"; }
+
+    @Override
+    public int place(SimProcess p, Core[] cores) {
+        int idlest = LoadBalancer.leastLoaded(cores);
+        if (p.lastCore >= 0 && cores[p.lastCore].load() <= cores[idlest].load() + slack) return p.lastCore;
+        if (p.homeSocket >= 0) {
+            int best = -1;
+            int first = p.homeSocket * topology.coresPerSocket;
+            for (int i = first; i < first + topology.coresPerSocket; i++) {
+                if (best < 0 || cores[i].load() < cores[best].load()) best = i;
+            }
+            if (cores[best].load() <= cores[idlest].load() + slack) return best;
+        }
+        return idlest;
+    }
+
+    @Override
+    public int victim(Core idle, Core[] cores) {
+        int socket = topology.socketOf(idle.index);
+        int local = -1, remote = -1;
+        for (Core c : cores) {
+            int size = c.queue.size();
+            if (size == 0) continue;
+            if (topology.socketOf(c.index) == socket) {
+                if (local < 0 || size > cores[local].queue.size()) local = c.index;
+            } else if (remote < 0 || size > cores[remote].queue.size()) {
+                remote = c.index;
+            }
+        }
+        if (local >= 0) return local;
+        if (remote >= 0 && cores[remote].queue.size() >= remoteStealThreshold) return remote;
+        return -1;
+    }
+}
@@ -0,0 +1,68 @@
+package scheduler;
+
+import java.util.SplittableRandom;
+
+/**
+ * INTERFACE: BurstDistribution
+ * Random CPU-burst lengths (in ticks, always >= 1) for WorkloadGenerator.
+ * * The static factories cover the shapes seen in real systems:
+ *   uniform (the classic textbook demo), exponential (memoryless), Pareto
+ *   (heavy tail: a few huge jobs hold most of the work) and bimodal (short
+ *   interactive bursts mixed with long batch jobs).
+ */
+public interface BurstDistribution {
+
+    long sample(SplittableRandom rnd);
+
+    // Expected burst length, used to size arrival rates for a target load.
+    double mean();
+
+    String name();
+
+    static BurstDistribution uniform(long min, long max) {
+        if (min < 1 || max < min) throw new IllegalArgumentException("need 1 <= min <= max");
+        return new BurstDistribution() {
+            public long sample(SplittableRandom rnd) { return rnd.nextLong(min, max + 1); }
+            public double mean() { return (min + max) / 2.0; }
+            public String name() { return "Uniform " + min + "-" + max; }
+        };
+    }
+
+    static BurstDistribution exponential(double mean) {
+        if (mean < 1) throw new IllegalArgumentException("mean must be >= 1: " + mean);
+        return new BurstDistribution() {
+            public long sample(SplittableRandom rnd) { return Math.max(1, Math.round(-mean * Math.log(1 - rnd.nextDouble()))); }
+            public double mean() { return mean; }
+            public String name() { return "Exponential mean " + mean; }
+        };
+    }
+
+    // Bounded Pareto on [min, max]: P(X > x) ~ (min/x)^alpha. The bound keeps one
+    // freak sample from stalling a whole run.
+    static BurstDistribution pareto(double alpha, long min, long max) {
+        if (alpha <= 0 || min < 1 || max <= min) throw new IllegalArgumentException("need alpha > 0 and 1 <= min < max");
+        double ratio = Math.pow((double) min / max, alpha);
+        return new BurstDistribution() {
+            public long sample(SplittableRandom rnd) {
+                double u = rnd.nextDouble();
+                return Math.min(max, Math.round(min / Math.pow(1 - u * (1 - ratio), 1 / alpha)));
+            }
+            public double mean() {
+                if (alpha == 1) return min * Math.log((double) max / min) / (1 - ratio);
+                return alpha * Math.pow(min, alpha) / (1 - ratio) / (alpha - 1)
+                        * (Math.pow(min, 1 - alpha) - Math.pow(max, 1 - alpha));
+            }
+            public String name() { return "Pareto a=" + alpha + " " + min + "-" + max; }
+        };
+    }
+
+    // With probability 'pShort' a burst comes from 'shortBursts', otherwise from 'longBursts'.
+    static BurstDistribution bimodal(BurstDistribution shortBursts, BurstDistribution longBursts, double pShort) {
+        if (pShort < 0 || pShort > 1) throw new IllegalArgumentException("pShort must be in 0..1: " + pShort);
+        return new BurstDistribution() {
+            public long sample(SplittableRandom rnd) { return (rnd.nextDouble() < pShort ? shortBursts : longBursts).sample(rnd); }
+            public double mean() { return pShort * shortBursts.mean() + (1 - pShort) * longBursts.mean(); }
+            public String name() { return String.format("Bimodal %.0f%% short", pShort * 100); }
+        };
+    }
+}
@@ -0,0 +1,115 @@
+package scheduler;
+
+import java.util.Iterator;
+import java.util.TreeSet;
+
+/**
+ * POLICY: Linux Completely Fair Scheduler (CFS)
+ * Every process accumulates "virtual runtime": real CPU time scaled down by its
+ * weight (nice -20 weighs ~87x more than nice 0, nice 19 ~68x less). The process
+ * with the smallest vruntime runs next, so CPU time is shared in proportion to weight.
+ * * The ready queue is a red-black tree (java.util.TreeSet) ordered by vruntime,
+ *   exactly like the kernel's rb-tree: O(log n) insert and pick-leftmost.
+ * * Time slice = scheduling period * (own weight / total queued weight), never
+ *   below MIN_GRANULARITY. A waking process preempts the running one when its
+ *   vruntime is more than WAKEUP_GRANULARITY behind.
+ */
+public class CfsPolicy implements SchedulingPolicy {
+
+    // Kernel tunables (in ticks = ms).
+    public static final long SCHED_LATENCY = 24, MIN_GRANULARITY = 3, WAKEUP_GRANULARITY = 4;
+
+    // sched_prio_to_weight[] from the Linux kernel, index = nice + 20.
+    private static final int[] WEIGHT = {
+        88761, 71755, 56483, 46273, 36291, 29154, 23254, 18705, 14949, 11916,
+         9548,  7620,  6100,  4904,  3906,  3121,  2501,  1991,  1586,  1277,
+         1024,   820,   655,   526,   423,   335,   272,   215,   172,   137,
+          110,    87,    70,    56,    45,    36,    29,    23,    18,    15
+    };
+    private static final int NICE_0_WEIGHT = 1024;
+    private static final long SCALE = 1 << 10; // vruntime fixed point: 1 nice-0 tick = 1024 units.
+
+    private final TreeSet<SimProcess> tree = new TreeSet<>((a, b) -> {
+        if (a.vruntime != b.vruntime) return Long.compare(a.vruntime, b.vruntime);
+        return Integer.compare(a.id, b.id);
+    });
+    private long minVruntime = 0;
+    private long queuedWeight = 0;
+
+    @Override public String name() { return "CFS"; }
+
+    static int weight(SimProcess p) { return WEIGHT[p.nice + 20]; }
+
+    // Virtual time for 'ticks' of real CPU time at the weight of 'p'.
+    private static long scaled(SimProcess p, long ticks) {
+        return ticks * SCALE * NICE_0_WEIGHT / weight(p);
+    }
+
+    @Override
+    public void enqueue(SimProcess p, long now) {
+        place(p);
+        tree.add(p);
+        queuedWeight += weight(p);
+    }
+
+    // Brings 'p' up to date before it enters the tree: charge the slice it just ran,
+    // or start newcomers at the queue's minimum so they cannot starve everyone else.
+    private void place(SimProcess p) {
+        if (p.vruntimeRelative) {
+            p.vruntime += minVruntime;
+            p.vruntimeRelative = false;
+        } else if (p.firstRun < 0) {
+            p.vruntime = Math.max(p.vruntime, minVruntime);
+        } else {
+            p.vruntime += scaled(p, p.sliceWork());
+            p.dispatchRemaining = p.remaining; // Charged; don't charge twice.
+        }
+    }
+
+    @Override
+    public SimProcess next(long now) {
+        SimProcess p = tree.pollFirst();
+        if (p == null) return null;
+        queuedWeight -= weight(p);
+        minVruntime = Math.max(minVruntime, p.vruntime);
+        return p;
+    }
+
+    // Migration takes the rightmost (least entitled) process and stores its vruntime
+    // relative to this queue, to be re-based on the destination queue's minimum.
+    @Override
+    public SimProcess steal(long now) {
+        SimProcess p = tree.pollLast();
+        if (p == null) return null;
+        queuedWeight -= weight(p);
+        p.vruntime -= minVruntime;
+        p.vruntimeRelative = true;
+        return p;
+    }
+
+    @Override
+    public long quantum(SimProcess p) {
+        long period = Math.max(SCHED_LATENCY, (tree.size() + 1) * MIN_GRANULARITY);
+        long w = weight(p);
+        return Math.max(MIN_GRANULARITY, period * w / (queuedWeight + w));
+    }
+
+    @Override
+    public boolean preempts(SimProcess arrived, SimProcess running, long runningRemaining) {
+        long current = running.vruntime + scaled(running, running.dispatchRemaining - runningRemaining);
+        long incoming = arrived.vruntimeRelative ? arrived.vruntime + minVruntime
+                : Math.max(arrived.vruntime, minVruntime);
+        return current - incoming > WAKEUP_GRANULARITY * SCALE;
+    }
+
+    @Override public int size() { return tree.size(); }
+
+    // In-order walk of the tree. O(index), but viewers only ask for the first few slots.
+    @Override
+    public SimProcess readyAt(int index) {
+        if (index < 0 || index >= tree.size()) throw new IndexOutOfBoundsException(index);
+        Iterator<SimProcess> it = tree.iterator();
+        for (int i = 0; i < index; i++) it.next();
+        return it.next();
+    }
+}
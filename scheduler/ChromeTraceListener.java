@@ -0,0 +1,52 @@
+package scheduler;
+
+/**
+ * CLASS: ChromeTraceListener
+ * SchedulerListener that streams a run into a ChromeTraceWriter as it happens:
+ * one track per core, one slice per time a process held that core.
+ * * Arrivals can be added as instant markers on an extra "arrivals" track.
+ * * 1 simulated tick = 1 ms, so ticks are written as tick * 1000 microseconds.
+ */
+public class ChromeTraceListener implements SchedulerListener {
+    private static final int PID = 1;
+    private final ChromeTraceWriter out;
+    private final boolean arrivals;
+    private final int arrivalTrack;
+    private final long[] sliceStart;
+
+    public ChromeTraceListener(ChromeTraceWriter out, SchedulerEngine engine, boolean arrivals) {
+        this.out = out;
+        this.arrivals = arrivals;
+        Core[] cores = engine.cores();
+        this.sliceStart = new long[cores.length];
+        this.arrivalTrack = cores.length;
+        out.processName(PID, engine.policy().name() + " / " + engine.balancer().name());
+        for (Core c : cores) {
+            out.threadName(PID, c.index, engine.topology().sockets > 1 ? "Socket " + c.socket + " Core " + c.index : "Core " + c.index);
+            out.threadSortIndex(PID, c.index, c.index);
+        }
+        if (arrivals) {
+            out.threadName(PID, arrivalTrack, "Arrivals");
+            out.threadSortIndex(PID, arrivalTrack, -1);
+        }
+    }
+
+    @Override
+    public void onArrival(SimProcess p, long now) {
+        if (arrivals) out.instant(p.name, "arrival", PID, arrivalTrack, now * 1000);
+    }
+
+    @Override
+    public void onDispatch(SimProcess p, int core, long now) { sliceStart[core] = now; }
+
+    @Override
+    public void onPreempt(SimProcess p, int core, long now) { slice(p, core, now, "preempted"); }
+
+    @Override
+    public void onComplete(SimProcess p, int core, long now) { slice(p, core, now, "completed"); }
+
+    private void slice(SimProcess p, int core, long now, String how) {
+        long start = sliceStart[core];
+        out.complete(p.name, how, PID, core, start * 1000, (now - start) * 1000, "remaining", p.remaining);
+    }
+}
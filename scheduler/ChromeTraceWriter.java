@@ -0,0 +1,161 @@
+package scheduler;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * CLASS: ChromeTraceWriter
+ * Streams Chrome Trace Event JSON (loadable in chrome://tracing and ui.perfetto.dev).
+ * * Output is {"traceEvents":[ ... ]}. Each event is encoded straight into one reusable
+ *   ByteBuffer that is flushed to a FileChannel whenever it fills up, so memory stays
+ *   at the buffer size however many events are written. No String is built per event.
+ * * Times are in microseconds, as the format expects. Tracks are (pid, tid) pairs;
+ *   processName()/threadName() give them readable labels.
+ */
+public class ChromeTraceWriter implements Closeable {
+    private static final int BUFFER = 1 << 20;
+
+    private final FileChannel channel;
+    private final ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER);
+    private final byte[] digits = new byte[20];
+    private long events = 0;
+    private long bytes = 0;
+    private boolean closed = false;
+
+    public ChromeTraceWriter(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        ascii("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[");
+    }
+
+    // --- EVENTS ---
+
+    // "X" complete event: a slice of 'durMicros' on track (pid, tid). 'argName' may be null.
+    public void complete(String name, String category, int pid, int tid, long tsMicros, long durMicros,
+                         String argName, long argValue) {
+        begin(name, category, "X", pid, tid, tsMicros);
+        ascii(",\"dur\":"); number(durMicros);
+        if (argName != null) { ascii(",\"args\":{"); string(argName); put((byte) ':'); number(argValue); put((byte) '}'); }
+        put((byte) '}');
+    }
+
+    // "i" instant event, drawn as a marker on its track.
+    public void instant(String name, String category, int pid, int tid, long tsMicros) {
+        begin(name, category, "i", pid, tid, tsMicros);
+        ascii(",\"s\":\"t\"}");
+    }
+
+    // "C" counter event: one series of a per-process counter track.
+    public void counter(String name, int pid, long tsMicros, String series, long value) {
+        begin(name, null, "C", pid, 0, tsMicros);
+        ascii(",\"args\":{"); string(series); put((byte) ':'); number(value); ascii("}}");
+    }
+
+    public void processName(int pid, String name) { metadata("process_name", pid, 0, name); }
+
+    public void threadName(int pid, int tid, String name) { metadata("thread_name", pid, tid, name); }
+
+    // Orders tracks inside a process (lower first).
+    public void threadSortIndex(int pid, int tid, int index) {
+        begin("thread_sort_index", null, "M", pid, tid, 0);
+        ascii(",\"args\":{\"sort_index\":"); number(index); ascii("}}");
+    }
+
+    private void metadata(String kind, int pid, int tid, String name) {
+        begin(kind, null, "M", pid, tid, 0);
+        ascii(",\"args\":{\"name\":"); string(name); ascii("}}");
+    }
+
+    private void begin(String name, String category, String phase, int pid, int tid, long ts) {
+        if (closed) throw new IllegalStateException("trace already closed");
+        if (events++ > 0) put((byte) ',');
+        put((byte) '\n');
+        ascii("{\"name\":"); string(name);
+        if (category != null) { ascii(",\"cat\":"); string(category); }
+        ascii(",\"ph\":\""); ascii(phase);
+        ascii("\",\"pid\":"); number(pid);
+        ascii(",\"tid\":"); number(tid);
+        ascii(",\"ts\":"); number(ts);
+    }
+
+    public long events() { return events; }
+    public long bytesWritten() { return bytes + buf.position(); }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        ascii("\n]}\n");
+        closed = true;
+        flush();
+        channel.close();
+    }
+
+    // --- ENCODING ---
+
+    private void put(byte b) {
+        if (!buf.hasRemaining()) flush();
+        buf.put(b);
+    }
+
+    // Trusted ASCII without escaping (keys and punctuation).
+    private void ascii(String s) {
+        for (int i = 0; i < s.length(); i++) put((byte) s.charAt(i));
+    }
+
+    private void number(long v) {
+        if (v < 0) {
+            put((byte) '-');
+            if (v == Long.MIN_VALUE) { ascii("9223372036854775808"); return; }
+            v = -v;
+        }
+        int n = 0;
+        do { digits[n++] = (byte) ('0' + v % 10); v /= 10; } while (v != 0);
+        while (n > 0) put(digits[--n]);
+    }
+
+    // JSON string literal, UTF-8 encoded.
+    private void string(String s) {
+        put((byte) '"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') { put((byte) '\\'); put((byte) c); }
+            else if (c < 0x20) {
+                ascii("\\u00");
+                put((byte) Character.forDigit(c >> 4, 16));
+                put((byte) Character.forDigit(c & 15, 16));
+            }
+            else if (c < 0x80) put((byte) c);
+            else {
+                int cp = Character.codePointAt(s, i);
+                if (Character.isSupplementaryCodePoint(cp)) i++;
+                if (cp < 0x800) {
+                    put((byte) (0xC0 | cp >> 6));
+                } else if (cp < 0x10000) {
+                    put((byte) (0xE0 | cp >> 12));
+                    put((byte) (0x80 | (cp >> 6 & 0x3F)));
+                } else {
+                    put((byte) (0xF0 | cp >> 18));
+                    put((byte) (0x80 | (cp >> 12 & 0x3F)));
+                    put((byte) (0x80 | (cp >> 6 & 0x3F)));
+                }
+                put((byte) (0x80 | (cp & 0x3F)));
+            }
+        }
+        put((byte) '"');
+    }
+
+    private void flush() {
+        buf.flip();
+        try {
+            while (buf.hasRemaining()) bytes += channel.write(buf);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buf.clear();
+    }
+}
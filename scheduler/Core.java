@@ -0,0 +1,49 @@
+package scheduler;
+
+/**
+ * CLASS: Core
+ * One simulated CPU core: what it is running right now, its run queue and its counters.
+ * * With a GlobalQueueBalancer every core points at the same run queue.
+ */
+public class Core {
+    public final int index;
+    public final int socket;
+    final SchedulingPolicy queue;
+
+    // --- LIVE STATE (owned by SchedulerEngine) ---
+    SimProcess running = null;
+    long sliceStart = 0;  // Tick at which 'running' was dispatched.
+    long token = 0;       // Dispatch id of the live SLICE_END event for this core.
+    long sliceOverhead;   // Cache refill ticks at the start of the current slice.
+    double sliceStretch;  // Wall ticks per tick of work (remote memory makes it > 1).
+    long sliceNeed;       // Wall ticks the running process needs to finish completely.
+
+    // --- COUNTERS ---
+    long busyTicks = 0, dispatches = 0, migrationsIn = 0;
+
+    // --- QUEUE PROFILE ---
+    // Queued processes per remaining-time bucket: bucket b holds remaining in [2^(b-1), 2^b).
+    // Kept up to date by the engine on every enqueue/dequeue (shared along with a shared
+    // queue), so a viewer can summarize a queue of any length without walking it.
+    public static final int LENGTH_BUCKETS = 40;
+    final long[] queuedByLength;
+
+    Core(int index, int socket, SchedulingPolicy queue, long[] queuedByLength) {
+        this.index = index; this.socket = socket; this.queue = queue; this.queuedByLength = queuedByLength;
+    }
+
+    static int lengthBucket(long remaining) {
+        return Math.min(LENGTH_BUCKETS - 1, 64 - Long.numberOfLeadingZeros(Math.max(0, remaining)));
+    }
+
+    public SimProcess running() { return running; }
+    public SchedulingPolicy queue() { return queue; }
+    public boolean isIdle() { return running == null; }
+    public long busyTicks() { return busyTicks; }
+    public long dispatches() { return dispatches; }
+    public long migrationsIn() { return migrationsIn; }
+    public long queuedWithLength(int bucket) { return queuedByLength[bucket]; }
+
+    // Queued plus running processes. Meaningless for a shared queue (all cores report the same size).
+    public int load() { return queue.size() + (running != null ? 1 : 0); }
+}
@@ -0,0 +1,34 @@
+package scheduler;
+
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * CLASS: CoreScaling
+ * Runs the same workload on several core counts to see how throughput scales.
+ * * Each configuration is an independent, single-threaded simulation, so they run
+ *   side by side on the host's cores (one ForkJoin task per configuration).
+ */
+public final class CoreScaling {
+    private CoreScaling() {}
+
+    // 'workload' is never mutated: every run gets fresh copies of the processes.
+    // 'balancers' receives the core count of the run it is created for.
+    public static List<RunReport> run(List<SimProcess> workload, int[] coreCounts,
+                                      Supplier<SchedulingPolicy> policies, IntFunction<LoadBalancer> balancers) {
+        return IntStream.range(0, coreCounts.length).parallel()
+                .mapToObj(i -> runOne(workload, coreCounts[i], policies, balancers.apply(coreCounts[i])))
+                .toList();
+    }
+
+    public static RunReport runOne(List<SimProcess> workload, int cores,
+                                   Supplier<SchedulingPolicy> policies, LoadBalancer balancer) {
+        SchedulerEngine engine = new SchedulerEngine(cores, policies, balancer);
+        long start = System.nanoTime();
+        for (SimProcess p : workload) engine.submit(p.copy());
+        engine.runToCompletion();
+        return new RunReport(engine, System.nanoTime() - start);
+    }
+}
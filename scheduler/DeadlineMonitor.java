@@ -0,0 +1,87 @@
+package scheduler;
+
+import java.util.Arrays;
+
+/**
+ * CLASS: DeadlineMonitor
+ * SchedulerListener that scores RealTimeJobs against their deadlines as they finish.
+ * * Memory does not grow with the horizon: outcomes go straight into counters and
+ *   LatencyHistograms, so a run can release millions of jobs.
+ * * Jobs still unfinished when the run stops are only visible in the run queues;
+ *   call finish() once at the end to count those whose deadline has already passed.
+ */
+public class DeadlineMonitor implements SchedulerListener {
+    private long released = 0, met = 0, missed = 0, unfinishedLate = 0;
+    private long[] missesByTask = new long[16];
+    private final LatencyHistogram tardiness = new LatencyHistogram(); // max(0, finish - deadline), every finished job
+    private final LatencyHistogram lateOnly = new LatencyHistogram();  // finish - deadline, missed jobs only
+    private final LatencyHistogram response = new LatencyHistogram();  // finish - release
+
+    @Override
+    public void onArrival(SimProcess p, long now) {
+        if (p instanceof RealTimeJob) released++;
+    }
+
+    @Override
+    public void onComplete(SimProcess p, int core, long now) {
+        if (!(p instanceof RealTimeJob job)) return;
+        long late = now - job.deadline;
+        response.record(now - job.arrival);
+        tardiness.record(late);
+        if (late > 0) {
+            missed++;
+            lateOnly.record(late);
+            countMiss(job.task.id);
+        } else {
+            met++;
+        }
+    }
+
+    // Counts queued or running jobs whose deadline is at or before 'horizon' as misses.
+    public void finish(SchedulerEngine engine, long horizon) {
+        for (Core c : engine.cores()) {
+            if (c.running() != null) checkUnfinished(c.running(), horizon);
+        }
+        for (Core c : engine.cores()) {
+            if (c.index > 0 && c.queue() == engine.cores()[0].queue()) break; // Shared queue: scan it once.
+            for (int i = 0; i < c.queue().size(); i++) checkUnfinished(c.queue().readyAt(i), horizon);
+        }
+    }
+
+    private void checkUnfinished(SimProcess p, long horizon) {
+        if (p instanceof RealTimeJob job && job.deadline <= horizon) {
+            unfinishedLate++;
+            lateOnly.record(horizon - job.deadline); // A lower bound: it is still running late.
+            countMiss(job.task.id);
+        }
+    }
+
+    private void countMiss(int task) {
+        if (task >= missesByTask.length) missesByTask = Arrays.copyOf(missesByTask, Math.max(task + 1, missesByTask.length * 2));
+        missesByTask[task]++;
+    }
+
+    public long released() { return released; }
+    public long met() { return met; }
+    public long missed() { return missed + unfinishedLate; }
+    public long finishedLate() { return missed; }
+    public long unfinishedLate() { return unfinishedLate; }
+    public LatencyHistogram tardiness() { return tardiness; }
+    public LatencyHistogram lateness() { return lateOnly; }
+    public LatencyHistogram response() { return response; }
+
+    public long missesOf(int taskId) { return taskId < missesByTask.length ? missesByTask[taskId] : 0; }
+
+    // Number of distinct tasks with at least one miss.
+    public int tasksWithMisses() {
+        int n = 0;
+        for (long m : missesByTask) if (m > 0) n++;
+        return n;
+    }
+
+    // Missed deadlines / jobs judged so far.
+    public double missRatio() {
+        long judged = met + missed + unfinishedLate;
+        return judged == 0 ? 0 : missed() / (double) judged;
+    }
+}
@@ -0,0 +1,36 @@
+package scheduler;
+
+import java.util.Comparator;
+
+/**
+ * POLICY: Earliest Deadline First (preemptive)
+ * Always runs the job whose absolute deadline is closest. Optimal on one core:
+ * any task set with utilization <= 1 (implicit deadlines) meets every deadline.
+ * * Processes without a deadline (plain SimProcess) count as "deadline = infinity"
+ *   and only run in the gaps.
+ */
+public class EdfPolicy implements SchedulingPolicy {
+    static long deadlineOf(SimProcess p) {
+        return (p instanceof RealTimeJob job) ? job.deadline : Long.MAX_VALUE;
+    }
+
+    static final Comparator<SimProcess> BY_DEADLINE = (a, b) -> {
+        long da = deadlineOf(a), db = deadlineOf(b);
+        if (da != db) return Long.compare(da, db);
+        if (a.arrival != b.arrival) return Long.compare(a.arrival, b.arrival);
+        return Integer.compare(a.id, b.id);
+    };
+
+    private final ProcessHeap queue = new ProcessHeap(BY_DEADLINE);
+
+    @Override public String name() { return "EDF"; }
+    @Override public void enqueue(SimProcess p, long now) { queue.add(p); }
+    @Override public SimProcess next(long now) { return queue.poll(); }
+    @Override public int size() { return queue.size(); }
+    @Override public SimProcess readyAt(int index) { return queue.get(index); }
+
+    @Override
+    public boolean preempts(SimProcess arrived, SimProcess running, long runningRemaining) {
+        return deadlineOf(arrived) < deadlineOf(running);
+    }
+}
@@ -0,0 +1,101 @@
+package scheduler;
+
+/**
+ * CLASS: EventQueue
+ * Min-heap of future simulation events, keyed by simulated time.
+ * * Events with the same time fire in insertion order (a sequence number breaks ties),
+ *   so a run is fully deterministic.
+ * * Stored as parallel primitive arrays instead of one object per event: pushing
+ *   and popping millions of events allocates nothing once the arrays have grown.
+ */
+public class EventQueue {
+
+    // --- EVENT KINDS ---
+    public static final int ARRIVAL = 0;   // 'process' becomes ready.
+    public static final int SLICE_END = 1; // The slice started on 'core' by dispatch #'token' ends.
+    public static final int REBALANCE = 2; // Periodic load-balancer tick.
+    public static final int FEED_ARRIVAL = 3; // 'process' becomes ready; pull the next one from feed #'core'.
+
+    private long[] time = new long[64];
+    private long[] seq = new long[64];
+    private int[] kind = new int[64];
+    private long[] token = new long[64];
+    private int[] core = new int[64];
+    private SimProcess[] process = new SimProcess[64];
+    private int size = 0;
+    private long nextSeq = 0;
+
+    // Fields of the last popped event (read right after pop()).
+    public long popTime, popToken;
+    public int popKind, popCore;
+    public SimProcess popProcess;
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+    public long peekTime() { return time[0]; }
+
+    public void push(long t, int k, SimProcess p, int c, long tok) {
+        if (size == time.length) grow();
+        int i = size++;
+        long s = nextSeq++;
+        // SIFT UP: move the hole towards the root while the parent is later.
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!before(t, s, parent)) break;
+            move(parent, i);
+            i = parent;
+        }
+        set(i, t, s, k, p, c, tok);
+    }
+
+    // Removes the earliest event and exposes it through the pop* fields.
+    public void pop() {
+        popTime = time[0]; popKind = kind[0]; popProcess = process[0]; popToken = token[0]; popCore = core[0];
+        int last = --size;
+        long t = time[last], s = seq[last], tok = token[last];
+        int k = kind[last], c = core[last];
+        SimProcess p = process[last];
+        process[last] = null;
+        if (last == 0) return;
+        // SIFT DOWN: move the hole towards the leaves while a child is earlier.
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= last) break;
+            if (child + 1 < last && earlier(child + 1, child)) child++;
+            if (!earlierThan(child, t, s)) break;
+            move(child, i);
+            i = child;
+        }
+        set(i, t, s, k, p, c, tok);
+    }
+
+    public void clear() {
+        java.util.Arrays.fill(process, 0, size, null);
+        size = 0;
+    }
+
+    // --- HEAP HELPERS ---
+    private boolean before(long t, long s, int slot) { return t < time[slot] || (t == time[slot] && s < seq[slot]); }
+    private boolean earlier(int a, int b) { return earlierThan(a, time[b], seq[b]); }
+    private boolean earlierThan(int slot, long t, long s) { return time[slot] < t || (time[slot] == t && seq[slot] < s); }
+
+    private void move(int from, int to) {
+        time[to] = time[from]; seq[to] = seq[from]; kind[to] = kind[from];
+        token[to] = token[from]; process[to] = process[from]; core[to] = core[from];
+    }
+
+    private void set(int i, long t, long s, int k, SimProcess p, int c, long tok) {
+        time[i] = t; seq[i] = s; kind[i] = k; process[i] = p; core[i] = c; token[i] = tok;
+    }
+
+    private void grow() {
+        int n = time.length * 2;
+        time = java.util.Arrays.copyOf(time, n);
+        seq = java.util.Arrays.copyOf(seq, n);
+        kind = java.util.Arrays.copyOf(kind, n);
+        token = java.util.Arrays.copyOf(token, n);
+        core = java.util.Arrays.copyOf(core, n);
+        process = java.util.Arrays.copyOf(process, n);
+    }
+}
@@ -0,0 +1,16 @@
+package scheduler;
+
+/**
+ * POLICY: First-Come, First-Served
+ * Runs processes in arrival order, each one to completion.
+ */
+public class FcfsPolicy implements SchedulingPolicy {
+    private final ProcessQueue queue = new ProcessQueue();
+
+    @Override public String name() { return "FCFS"; }
+    @Override public void enqueue(SimProcess p, long now) { queue.addLast(p); }
+    @Override public SimProcess next(long now) { return queue.pollFirst(); }
+    @Override public SimProcess steal(long now) { return queue.pollLast(); }
+    @Override public int size() { return queue.size(); }
+    @Override public SimProcess readyAt(int index) { return queue.get(index); }
+}
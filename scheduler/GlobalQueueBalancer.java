@@ -0,0 +1,25 @@
+package scheduler;
+
+/**
+ * BALANCER: Global Queue
+ * Every core pulls from one shared run queue (classic SMP scheduling).
+ * * Perfect balance, but every process can land on any core, so migrations are frequent.
+ */
+public class GlobalQueueBalancer implements LoadBalancer {
+
+    @Override public String name() { return "Global Queue"; }
+    @Override public boolean sharedQueue() { return true; }
+
+    // The queue is shared, so 'place' only picks which running process a preemptive
+    // policy compares the arrival against: an idle core if there is one, otherwise
+    // the core whose process still needs the most time.
+    @Override
+    public int place(SimProcess p, Core[] cores) {
+        int best = 0;
+        for (int i = 0; i < cores.length; i++) {
+            if (cores[i].running == null) return i;
+            if (cores[i].running.remaining > cores[best].running.remaining) best = i;
+        }
+        return best;
+    }
+}
@@ -0,0 +1,101 @@
+package scheduler;
+
+/**
+ * CLASS: LatencyHistogram
+ * Constant-memory, log-bucketed histogram of non-negative long values
+ * (in the spirit of HdrHistogram).
+ * * Values below 128 get their own exact bucket. Above that, every power of two
+ *   is split into 64 linear sub-buckets, so any value is stored with at most
+ *   ~1.6% relative error, and the whole range of 'long' fits in ~3,700 counters.
+ * * Recording is a few shifts and one array increment; no allocation ever.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BITS = 7;
+    private static final int EXACT = 1 << SUB_BITS;    // 128 exact buckets
+    private static final int HALF = EXACT >> 1;        // 64 sub-buckets per power of two
+    private static final int BUCKETS = EXACT + (63 - SUB_BITS) * HALF; // shifts 1..56
+
+    private final long[] counts = new long[BUCKETS];
+    private long total = 0;
+    private double sum = 0; // A long sum would overflow after two values near Long.MAX_VALUE.
+    private long min = Long.MAX_VALUE, max = Long.MIN_VALUE;
+
+    // Negative values are clamped to 0.
+    public void record(long value) {
+        if (value < 0) value = 0;
+        counts[index(value)]++;
+        total++;
+        sum += value;
+        if (value < min) min = value;
+        if (value > max) max = value;
+    }
+
+    public long count() { return total; }
+    public long min() { return total == 0 ? 0 : min; }
+    public long max() { return total == 0 ? 0 : max; }
+    public double mean() { return total == 0 ? 0 : sum / total; }
+
+    // Value at quantile 'q' (0..1), reported as the upper edge of its bucket (never above max()).
+    // The rank is ceil(q * total) on the decimal 'q': in doubles 0.07 * 100 is 7.000000000000001,
+    // which would round up to rank 8.
+    public long percentile(double q) {
+        if (Double.isNaN(q)) throw new IllegalArgumentException("quantile is NaN");
+        if (total == 0) return 0;
+        long rank = Math.max(1, java.math.BigDecimal.valueOf(q).multiply(java.math.BigDecimal.valueOf(total))
+                .setScale(0, java.math.RoundingMode.CEILING).min(java.math.BigDecimal.valueOf(total)).longValue());
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(max, upperEdge(i));
+        }
+        return max;
+    }
+
+    // Adds every sample of 'other' into this histogram.
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) counts[i] += other.counts[i];
+        total += other.total;
+        sum += other.sum;
+        if (other.total > 0) {
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+        }
+    }
+
+    public void reset() {
+        java.util.Arrays.fill(counts, 0);
+        total = 0; sum = 0; min = Long.MAX_VALUE; max = Long.MIN_VALUE;
+    }
+
+    // --- BUCKET MATH ---
+
+    static int index(long v) {
+        if (v < EXACT) return (int) v;
+        int shift = (63 - Long.numberOfLeadingZeros(v)) - (SUB_BITS - 1); // >= 1
+        int mantissa = (int) (v >>> shift);                               // 64..127
+        return EXACT + (shift - 1) * HALF + (mantissa - HALF);
+    }
+
+    static long upperEdge(int index) {
+        if (index < EXACT) return index;
+        int shift = (index - EXACT) / HALF + 1;
+        long mantissa = (index - EXACT) % HALF + HALF;
+        return ((mantissa + 1) << shift) - 1;
+    }
+
+    // CSV rows "label,lower,upper,count" for every non-empty bucket, in value order.
+    public void writeCsv(String label, Appendable out) throws java.io.IOException {
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts[i] == 0) continue;
+            long lower = i == 0 ? 0 : upperEdge(i - 1) + 1;
+            out.append(label).append(',').append(Long.toString(lower)).append(',')
+               .append(Long.toString(upperEdge(i))).append(',').append(Long.toString(counts[i])).append('\n');
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("n=%,d mean=%.1f p50=%,d p99=%,d p99.9=%,d max=%,d",
+                total, mean(), percentile(0.50), percentile(0.99), percentile(0.999), max());
+    }
+}
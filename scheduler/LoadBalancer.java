@@ -0,0 +1,42 @@
+package scheduler;
+
+/**
+ * INTERFACE: LoadBalancer
+ * Spreads work over the cores of a multi-core SchedulerEngine.
+ * * place()     - which core's run queue gets a newly arrived process.
+ * * victim()    - which core an idle core with an empty queue may steal from.
+ * * rebalance() - periodic push migration, called every rebalanceInterval() ticks.
+ */
+public interface LoadBalancer {
+
+    String name();
+
+    // True if all cores should share one run queue instead of owning one each.
+    default boolean sharedQueue() { return false; }
+
+    // Index of the core whose run queue receives 'p'.
+    int place(SimProcess p, Core[] cores);
+
+    // Core to steal one process from for 'idle', or -1 to stay idle.
+    default int victim(Core idle, Core[] cores) { return -1; }
+
+    // Ticks between two rebalance() calls (0 = never).
+    default long rebalanceInterval() { return 0; }
+
+    // Moves queued work between cores with engine.migrate().
+    default void rebalance(SchedulerEngine engine) { }
+
+    // --- SHARED HELPERS ---
+
+    static int leastLoaded(Core[] cores) {
+        int best = 0;
+        for (int i = 1; i < cores.length; i++) if (cores[i].load() < cores[best].load()) best = i;
+        return best;
+    }
+
+    static int mostQueued(Core[] cores) {
+        int best = 0;
+        for (int i = 1; i < cores.length; i++) if (cores[i].queue.size() > cores[best].queue.size()) best = i;
+        return best;
+    }
+}
@@ -0,0 +1,101 @@
+package scheduler;
+
+/**
+ * POLICY: macOS Quality-of-Service (simplified XNU "Clutch" scheduler)
+ * Every process belongs to a QoS class, and every class has its own FIFO bucket.
+ * * USER_INTERACTIVE always runs first (it is what the user is looking at).
+ * * The other buckets compete by deadline: a bucket's deadline is the time its
+ *   oldest process became ready plus the class's worst-case execution latency
+ *   (WCEL). Earliest deadline wins, so even BACKGROUND work gets the CPU
+ *   eventually, just with far more latency allowed.
+ * * Inside a bucket processes round-robin on the class quantum.
+ * * Choosing a bucket looks at 4 heads: O(1) per decision.
+ */
+public class MacQosPolicy implements SchedulingPolicy {
+
+    public enum QosClass {
+        USER_INTERACTIVE(0, 10),
+        USER_INITIATED(37, 8),
+        UTILITY(150, 6),
+        BACKGROUND(250, 4);
+
+        public final long wcel;    // Worst-case execution latency (ticks).
+        public final long quantum; // Time slice inside the bucket (ticks).
+
+        QosClass(long wcel, long quantum) { this.wcel = wcel; this.quantum = quantum; }
+    }
+
+    // Interactive work is USER_INTERACTIVE, then the nice value picks the rest.
+    public static QosClass classify(SimProcess p) {
+        if (p.interactive) return QosClass.USER_INTERACTIVE;
+        if (p.nice < 0) return QosClass.USER_INITIATED;
+        if (p.nice < 10) return QosClass.UTILITY;
+        return QosClass.BACKGROUND;
+    }
+
+    private static final QosClass[] CLASSES = QosClass.values();
+    private final ProcessQueue[] buckets = new ProcessQueue[CLASSES.length];
+    private int size = 0;
+
+    public MacQosPolicy() {
+        for (int i = 0; i < buckets.length; i++) buckets[i] = new ProcessQueue();
+    }
+
+    @Override public String name() { return "macOS QoS"; }
+
+    @Override
+    public void enqueue(SimProcess p, long now) {
+        p.readySince = now;
+        buckets[classify(p).ordinal()].addLast(p);
+        size++;
+    }
+
+    @Override
+    public SimProcess next(long now) {
+        if (size == 0) return null;
+        if (!buckets[0].isEmpty()) return take(0, true);
+        int best = -1;
+        long bestDeadline = Long.MAX_VALUE;
+        for (int i = 1; i < buckets.length; i++) {
+            if (buckets[i].isEmpty()) continue;
+            long deadline = buckets[i].get(0).readySince + CLASSES[i].wcel;
+            if (deadline < bestDeadline) { bestDeadline = deadline; best = i; }
+        }
+        return take(best, true);
+    }
+
+    // Migrations take the least important work first.
+    @Override
+    public SimProcess steal(long now) {
+        for (int i = buckets.length - 1; i >= 0; i--) {
+            if (!buckets[i].isEmpty()) return take(i, false);
+        }
+        return null;
+    }
+
+    private SimProcess take(int bucket, boolean head) {
+        size--;
+        return head ? buckets[bucket].pollFirst() : buckets[bucket].pollLast();
+    }
+
+    @Override public long quantum(SimProcess p) { return classify(p).quantum; }
+
+    // A more important class takes the CPU from a less important one.
+    @Override
+    public boolean preempts(SimProcess arrived, SimProcess running, long runningRemaining) {
+        return classify(arrived).ordinal() < classify(running).ordinal();
+    }
+
+    @Override public int size() { return size; }
+
+    // Queue order = bucket by bucket, most important class first.
+    @Override
+    public SimProcess readyAt(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+        for (ProcessQueue b : buckets) {
+            if (index < b.size()) return b.get(index);
+            index -= b.size();
+        }
+        throw new IllegalStateException("size out of sync");
+    }
+}
@@ -0,0 +1,50 @@
+package scheduler;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * CLASS: PeriodicJobSource
+ * Lazily releases the jobs of a set of PeriodicTasks, in release-time order, up to a horizon.
+ * * Only the next release of each task is kept (a heap of tasks ordered by next
+ *   release), so memory is O(tasks) however long the horizon is. Feed it to
+ *   SchedulerEngine.feed() and the engine pulls one job per arrival event.
+ */
+public class PeriodicJobSource implements Iterator<SimProcess> {
+
+    private static class Slot {
+        final PeriodicTask task;
+        long nextRelease;
+        Slot(PeriodicTask task) { this.task = task; this.nextRelease = task.phase; }
+    }
+
+    private final PriorityQueue<Slot> upcoming = new PriorityQueue<>((a, b) -> {
+        if (a.nextRelease != b.nextRelease) return Long.compare(a.nextRelease, b.nextRelease);
+        return Integer.compare(a.task.id, b.task.id);
+    });
+    private final long horizon;
+    private int nextJobId = 0;
+
+    // Releases every job with release time < 'horizon'.
+    public PeriodicJobSource(List<PeriodicTask> tasks, long horizon) {
+        this.horizon = horizon;
+        for (PeriodicTask t : tasks) upcoming.add(new Slot(t));
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !upcoming.isEmpty() && upcoming.peek().nextRelease < horizon;
+    }
+
+    @Override
+    public SimProcess next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        Slot s = upcoming.poll();
+        RealTimeJob job = new RealTimeJob(nextJobId++, s.task, s.nextRelease);
+        s.nextRelease += s.task.period;
+        upcoming.add(s);
+        return job;
+    }
+}
@@ -0,0 +1,63 @@
+package scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * CLASS: PeriodicTask
+ * A real-time task that releases a job every 'period' ticks. Each job needs at
+ * most 'wcet' ticks of CPU and must finish within 'deadline' ticks of its release.
+ */
+public class PeriodicTask {
+    public final int id;
+    public final String name;
+    public final long period, wcet, deadline; // deadline is relative, 0 < deadline <= period
+    public final long phase;                  // Release time of the first job.
+
+    public PeriodicTask(int id, String name, long period, long wcet, long deadline, long phase) {
+        if (period <= 0 || wcet <= 0) throw new IllegalArgumentException("period and wcet must be positive");
+        if (deadline <= 0 || deadline > period) throw new IllegalArgumentException("deadline must be in 1..period: " + deadline);
+        if (phase < 0) throw new IllegalArgumentException("phase must be >= 0: " + phase);
+        this.id = id; this.name = name; this.period = period; this.wcet = wcet;
+        this.deadline = deadline; this.phase = phase;
+    }
+
+    // Implicit deadline (deadline = period), released at time 0.
+    public PeriodicTask(int id, String name, long period, long wcet) {
+        this(id, name, period, wcet, period, 0);
+    }
+
+    public double utilization() { return wcet / (double) period; }
+    public double density() { return wcet / (double) deadline; }
+
+    // Random task set with total utilization ~'targetU' (UUniFast), periods log-uniform
+    // in [minPeriod, maxPeriod]. WCETs are rounded to whole ticks, so the real total
+    // utilization differs slightly from the target. A share too small for a 1-tick
+    // WCET gets a longer period instead (common with thousands of tasks).
+    public static List<PeriodicTask> randomSet(int n, double targetU, long minPeriod, long maxPeriod, long seed) {
+        Random rnd = new Random(seed);
+        List<PeriodicTask> tasks = new ArrayList<>(n);
+        double sumU = targetU;
+        for (int i = 0; i < n; i++) {
+            double u;
+            if (i == n - 1) u = sumU;
+            else {
+                double next = sumU * Math.pow(rnd.nextDouble(), 1.0 / (n - i - 1));
+                u = sumU - next;
+                sumU = next;
+            }
+            long period = Math.round(Math.exp(Math.log(minPeriod) + rnd.nextDouble() * (Math.log(maxPeriod) - Math.log(minPeriod))));
+            long wcet = Math.round(u * period);
+            if (wcet < 1) {
+                wcet = 1;
+                period = Math.max(period, Math.round(1 / Math.max(u, 1e-9)));
+            }
+            tasks.add(new PeriodicTask(i, "T" + i, period, Math.min(wcet, period), period, 0));
+        }
+        return tasks;
+    }
+
+    @Override
+    public String toString() { return name + "(T=" + period + ", C=" + wcet + ", D=" + deadline + ")"; }
+}
@@ -0,0 +1,47 @@
+package scheduler;
+
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * CLASS: PolicyComparison
+ * "Compare mode": the same workload, cloned once per engine, run side by side.
+ * * Each engine (typically one per scheduling policy, all on the same machine) gets
+ *   fresh copies of the processes, so every policy sees identical input.
+ * * The runs are independent and go through a parallel stream on the common
+ *   fork-join pool, so the wall time is that of the slowest policy, not the sum.
+ */
+public final class PolicyComparison {
+    private PolicyComparison() {}
+
+    public static final class Run {
+        public final String label;
+        public final RunReport report;
+        public final RunMetrics metrics;
+        public final TimelineRecorder timeline;
+
+        Run(String label, RunReport report, RunMetrics metrics, TimelineRecorder timeline) {
+            this.label = label; this.report = report; this.metrics = metrics; this.timeline = timeline;
+        }
+    }
+
+    // Results come back in the order of 'engines'. 'timelineTicks' bounds the recorded Gantt data.
+    public static List<Run> compare(List<SimProcess> workload, List<Supplier<SchedulerEngine>> engines, long timelineTicks) {
+        return IntStream.range(0, engines.size()).parallel()
+                .mapToObj(i -> runOne(workload, engines.get(i).get(), timelineTicks))
+                .toList();
+    }
+
+    public static Run runOne(List<SimProcess> workload, SchedulerEngine engine, long timelineTicks) {
+        RunMetrics metrics = new RunMetrics();
+        TimelineRecorder timeline = new TimelineRecorder(engine.cores().length, timelineTicks);
+        engine.addListener(metrics);
+        engine.addListener(timeline);
+        long start = System.nanoTime();
+        for (SimProcess p : workload) engine.submit(p.copy());
+        engine.runToCompletion();
+        RunReport report = new RunReport(engine, System.nanoTime() - start);
+        return new Run(engine.policy().name(), report, metrics, timeline);
+    }
+}
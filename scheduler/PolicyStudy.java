@@ -0,0 +1,29 @@
+package scheduler;
+
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * CLASS: PolicyStudy
+ * Runs one workload under several scheduling policies on the same machine
+ * (e.g. the three OperatingSystem personalities) and reports latency and
+ * throughput for each, side by side.
+ * * Every policy is an independent run, executed in parallel like CoreScaling.
+ */
+public final class PolicyStudy {
+    private PolicyStudy() {}
+
+    // 'cores' cores with work stealing, so per-core policies keep their own run queues.
+    public static List<StudyResult> compare(List<SimProcess> workload, int cores,
+                                            List<Supplier<SchedulingPolicy>> policies) {
+        return IntStream.range(0, policies.size()).parallel()
+                .mapToObj(i -> runOne(workload, cores, policies.get(i)))
+                .toList();
+    }
+
+    public static StudyResult runOne(List<SimProcess> workload, int cores, Supplier<SchedulingPolicy> policy) {
+        SchedulerEngine engine = new SchedulerEngine(cores, policy, new WorkStealingBalancer());
+        return StudyResult.run(engine.policy().name(), engine, workload);
+    }
+}
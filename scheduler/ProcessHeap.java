@@ -0,0 +1,99 @@
+package scheduler;
+
+import java.util.Comparator;
+
+/**
+ * CLASS: ProcessHeap
+ * Indexed binary min-heap of processes.
+ * * Each process remembers its slot (SimProcess.heapIndex), so besides the usual
+ *   O(log n) add/poll it can also remove an arbitrary process in O(log n)
+ *   (needed when a queued process is migrated or cancelled).
+ * * A process can sit in at most one ProcessHeap at a time.
+ */
+public class ProcessHeap {
+    private final Comparator<SimProcess> order;
+    private SimProcess[] heap = new SimProcess[16];
+    private int size = 0;
+
+    public ProcessHeap(Comparator<SimProcess> order) { this.order = order; }
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+    public SimProcess peek() { return size == 0 ? null : heap[0]; }
+
+    // Slot order, not sorted order (slot 0 is always the minimum).
+    public SimProcess get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+        return heap[index];
+    }
+
+    public boolean contains(SimProcess p) {
+        return p.heapIndex >= 0 && p.heapIndex < size && heap[p.heapIndex] == p;
+    }
+
+    public void add(SimProcess p) {
+        if (size == heap.length) heap = java.util.Arrays.copyOf(heap, size * 2);
+        siftUp(size++, p);
+    }
+
+    public SimProcess poll() {
+        if (size == 0) return null;
+        SimProcess top = heap[0];
+        removeSlot(0);
+        return top;
+    }
+
+    public boolean remove(SimProcess p) {
+        if (!contains(p)) return false;
+        removeSlot(p.heapIndex);
+        return true;
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) { heap[i].heapIndex = -1; heap[i] = null; }
+        size = 0;
+    }
+
+    // --- HEAP HELPERS ---
+
+    private void removeSlot(int i) {
+        SimProcess gone = heap[i];
+        gone.heapIndex = -1;
+        SimProcess last = heap[--size];
+        heap[size] = null;
+        if (i == size) return;
+        // The former last element fills the hole; it may need to move either way.
+        siftDown(i, last);
+        if (heap[i] == last) siftUp(i, last);
+    }
+
+    private void siftUp(int i, SimProcess p) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            SimProcess q = heap[parent];
+            if (order.compare(p, q) >= 0) break;
+            place(i, q);
+            i = parent;
+        }
+        place(i, p);
+    }
+
+    private void siftDown(int i, SimProcess p) {
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            SimProcess c = heap[child];
+            int right = child + 1;
+            if (right < size && order.compare(heap[right], c) < 0) c = heap[child = right];
+            if (order.compare(p, c) <= 0) break;
+            place(i, c);
+            i = child;
+        }
+        place(i, p);
+    }
+
+    private void place(int i, SimProcess p) {
+        heap[i] = p;
+        p.heapIndex = i;
+    }
+}
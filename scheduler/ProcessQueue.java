@@ -0,0 +1,74 @@
+package scheduler;
+
+/**
+ * CLASS: ProcessQueue
+ * Growable ring buffer of processes (FIFO order).
+ * * Like ArrayDeque, but it also allows indexed reads so a viewer can draw
+ *   the queue without copying it.
+ */
+public class ProcessQueue {
+    private SimProcess[] items = new SimProcess[16];
+    private int head = 0, size = 0;
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+
+    public void addLast(SimProcess p) {
+        if (size == items.length) grow();
+        items[(head + size) & (items.length - 1)] = p;
+        size++;
+    }
+
+    public void addFirst(SimProcess p) {
+        if (size == items.length) grow();
+        head = (head - 1) & (items.length - 1);
+        items[head] = p;
+        size++;
+    }
+
+    public SimProcess pollFirst() {
+        if (size == 0) return null;
+        SimProcess p = items[head];
+        items[head] = null;
+        head = (head + 1) & (items.length - 1);
+        size--;
+        return p;
+    }
+
+    public SimProcess pollLast() {
+        if (size == 0) return null;
+        int slot = (head + size - 1) & (items.length - 1);
+        SimProcess p = items[slot];
+        items[slot] = null;
+        size--;
+        return p;
+    }
+
+    public SimProcess get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+        return items[(head + index) & (items.length - 1)];
+    }
+
+    // Removes the element at 'index', shifting the tail left. O(n) - only for small queues.
+    public SimProcess removeAt(int index) {
+        SimProcess p = get(index);
+        int mask = items.length - 1;
+        for (int i = index; i < size - 1; i++) items[(head + i) & mask] = items[(head + i + 1) & mask];
+        items[(head + size - 1) & mask] = null;
+        size--;
+        return p;
+    }
+
+    public void clear() {
+        while (size > 0) pollFirst();
+        head = 0;
+    }
+
+    // Doubles capacity (always a power of two so we can mask instead of modulo).
+    private void grow() {
+        SimProcess[] bigger = new SimProcess[items.length * 2];
+        for (int i = 0; i < size; i++) bigger[i] = items[(head + i) & (items.length - 1)];
+        items = bigger;
+        head = 0;
+    }
+}
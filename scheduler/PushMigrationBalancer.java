@@ -0,0 +1,38 @@
+package scheduler;
+
+/**
+ * BALANCER: Push Migration
+ * Arrivals go to the least loaded core. Every 'interval' ticks a balancer pass
+ * pushes queued processes from the busiest core to the idlest one until their
+ * loads differ by at most one.
+ */
+public class PushMigrationBalancer implements LoadBalancer {
+    public static final long DEFAULT_INTERVAL = 100;
+
+    private final long interval;
+
+    public PushMigrationBalancer() { this(DEFAULT_INTERVAL); }
+
+    public PushMigrationBalancer(long interval) {
+        if (interval <= 0) throw new IllegalArgumentException("interval must be positive: " + interval);
+        this.interval = interval;
+    }
+
+    @Override public String name() { return "Push Migration"; }
+    @Override public int place(SimProcess p, Core[] cores) { return LoadBalancer.leastLoaded(cores); }
+    @Override public long rebalanceInterval() { return interval; }
+
+    @Override
+    public void rebalance(SchedulerEngine engine) {
+        Core[] cores = engine.cores();
+        while (true) {
+            int busiest = 0, idlest = 0;
+            for (int i = 1; i < cores.length; i++) {
+                if (cores[i].load() > cores[busiest].load()) busiest = i;
+                if (cores[i].load() < cores[idlest].load()) idlest = i;
+            }
+            if (cores[busiest].load() - cores[idlest].load() <= 1) return;
+            if (!engine.migrate(cores[busiest], cores[idlest])) return;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongFunction;
+import java.util.stream.IntStream;
+
+/**
+ * CLASS: QuantumTuner
+ * Finds good Round Robin quanta for a workload by brute force.
+ * * SWEEP: every (quantum, context-switch cost) pair of a grid is one independent
+ *   simulation; the grid runs as a parallel stream on all host cores.
+ * * PARETO FRONT: for one switch cost, a quantum is on the front when no other quantum
+ *   has both a lower mean response time and a higher throughput. Short quanta answer
+ *   fast but waste CPU on switches; long quanta do the opposite.
+ * * CACHE: results are remembered per (workload fingerprint, machine, quantum, cost),
+ *   so sweeping the same workload again only simulates grid points it has not seen.
+ */
+public class QuantumTuner {
+
+    public static final class Point {
+        public final long quantum, switchCost;
+        public final double meanResponse, meanTurnaround;
+        public final double throughput;      // Jobs per 1000 ticks.
+        public final long contextSwitches;
+        public final double overheadShare;   // Fraction of busy time lost to overhead.
+
+        Point(long quantum, long switchCost, RunMetrics m, RunReport r) {
+            this.quantum = quantum; this.switchCost = switchCost;
+            this.meanResponse = m.response().mean();
+            this.meanTurnaround = m.turnaround().mean();
+            this.throughput = r.throughput();
+            this.contextSwitches = r.contextSwitches;
+            long busy = 0;
+            for (double u : r.utilization) busy += Math.round(u * r.makespan);
+            this.overheadShare = busy == 0 ? 0 : r.overheadTicks / (double) busy;
+        }
+
+        // True when 'other' is at least as good on both axes and strictly better on one.
+        boolean dominatedBy(Point other) {
+            return other.meanResponse <= meanResponse && other.throughput >= throughput
+                    && (other.meanResponse < meanResponse || other.throughput > throughput);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("q=%-4d cost=%-2d response %8.1f | turnaround %9.1f | %6.2f jobs/1k ticks | ctx %,d | overhead %.1f%%",
+                    quantum, switchCost, meanResponse, meanTurnaround, throughput, contextSwitches, overheadShare * 100);
+        }
+    }
+
+    public static final class Sweep {
+        public final List<Point> points;  // Grid order: cost-major, then quantum.
+        public final int simulated;       // Points actually run (the rest came from the cache).
+        public final long wallNanos;
+
+        Sweep(List<Point> points, int simulated, long wallNanos) {
+            this.points = points; this.simulated = simulated; this.wallNanos = wallNanos;
+        }
+
+        // Non-dominated points for one context-switch cost, by increasing quantum.
+        public List<Point> front(long switchCost) {
+            List<Point> same = new ArrayList<>();
+            for (Point p : points) if (p.switchCost == switchCost) same.add(p);
+            List<Point> front = new ArrayList<>();
+            for (Point p : same) {
+                boolean dominated = false;
+                for (Point o : same) if (p.dominatedBy(o)) { dominated = true; break; }
+                if (!dominated) front.add(p);
+            }
+            return front;
+        }
+
+        // Front point with the lowest response among those within 1% of the best throughput.
+        public Point recommend(long switchCost) {
+            List<Point> front = front(switchCost);
+            double best = 0;
+            for (Point p : front) best = Math.max(best, p.throughput);
+            Point pick = null;
+            for (Point p : front) {
+                if (p.throughput >= 0.99 * best && (pick == null || p.meanResponse < pick.meanResponse)) pick = p;
+            }
+            return pick;
+        }
+    }
+
+    private record Key(long fingerprint, String machine, long quantum, long switchCost) { }
+
+    private final Map<Key, Point> cache = new ConcurrentHashMap<>();
+
+    // 'machine' labels the engines 'engines' builds (e.g. "4 cores, Work Stealing") so the
+    // cache never mixes results from different hardware. 'engines' gets the quantum to use.
+    public Sweep sweep(List<SimProcess> workload, long[] quanta, long[] switchCosts,
+                       String machine, LongFunction<SchedulerEngine> engines) {
+        long start = System.nanoTime();
+        long fingerprint = fingerprint(workload);
+        int n = quanta.length * switchCosts.length;
+        AtomicInteger simulated = new AtomicInteger();
+        List<Point> points = IntStream.range(0, n).parallel()
+                .mapToObj(i -> {
+                    long q = quanta[i % quanta.length], cost = switchCosts[i / quanta.length];
+                    Key key = new Key(fingerprint, machine, q, cost);
+                    Point cached = cache.get(key);
+                    if (cached != null) return cached;
+                    Point p = simulate(workload, q, cost, engines.apply(q));
+                    cache.put(key, p);
+                    simulated.incrementAndGet();
+                    return p;
+                })
+                .toList();
+        return new Sweep(points, simulated.get(), System.nanoTime() - start);
+    }
+
+    public int cachedPoints() { return cache.size(); }
+
+    public void clearCache() { cache.clear(); }
+
+    private static Point simulate(List<SimProcess> workload, long quantum, long cost, SchedulerEngine engine) {
+        RunMetrics metrics = new RunMetrics();
+        engine.addListener(metrics);
+        engine.setContextSwitchCost(cost);
+        long start = System.nanoTime();
+        for (SimProcess p : workload) engine.submit(p.copy());
+        engine.runToCompletion();
+        return new Point(quantum, cost, metrics, new RunReport(engine, System.nanoTime() - start));
+    }
+
+    // Order-sensitive 64-bit hash of every process descriptor (not of run state).
+    public static long fingerprint(List<SimProcess> workload) {
+        long h = 0x9E3779B97F4A7C15L ^ workload.size();
+        for (SimProcess p : workload) {
+            h = mix(h ^ p.id);
+            h = mix(h ^ p.arrival);
+            h = mix(h ^ p.burst);
+            h = mix(h ^ ((long) p.nice << 1 | (p.interactive ? 1 : 0)));
+        }
+        return h;
+    }
+
+    // SplitMix64 finalizer.
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
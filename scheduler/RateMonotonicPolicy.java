@@ -0,0 +1,36 @@
+package scheduler;
+
+import java.util.Comparator;
+
+/**
+ * POLICY: Rate-Monotonic (preemptive, fixed priority)
+ * The shorter a task's period, the higher its priority; every job of a task has
+ * the same priority. Simple and predictable, but only guaranteed up to ~69%
+ * utilization for large task sets (Liu & Layland), or by exact response-time analysis.
+ * * Processes without a period (plain SimProcess) get the lowest priority.
+ */
+public class RateMonotonicPolicy implements SchedulingPolicy {
+    static long periodOf(SimProcess p) {
+        return (p instanceof RealTimeJob job) ? job.task.period : Long.MAX_VALUE;
+    }
+
+    static final Comparator<SimProcess> BY_RATE = (a, b) -> {
+        long pa = periodOf(a), pb = periodOf(b);
+        if (pa != pb) return Long.compare(pa, pb);
+        if (a.arrival != b.arrival) return Long.compare(a.arrival, b.arrival);
+        return Integer.compare(a.id, b.id);
+    };
+
+    private final ProcessHeap queue = new ProcessHeap(BY_RATE);
+
+    @Override public String name() { return "Rate Monotonic"; }
+    @Override public void enqueue(SimProcess p, long now) { queue.add(p); }
+    @Override public SimProcess next(long now) { return queue.poll(); }
+    @Override public int size() { return queue.size(); }
+    @Override public SimProcess readyAt(int index) { return queue.get(index); }
+
+    @Override
+    public boolean preempts(SimProcess arrived, SimProcess running, long runningRemaining) {
+        return periodOf(arrived) < periodOf(running);
+    }
+}
@@ -0,0 +1,22 @@
+package scheduler;
+
+/**
+ * CLASS: RealTimeJob
+ * One release of a PeriodicTask: a SimProcess with an absolute deadline.
+ */
+public class RealTimeJob extends SimProcess {
+    public final PeriodicTask task;
+    public final long deadline; // Absolute tick by which the job must finish.
+
+    public RealTimeJob(int id, PeriodicTask task, long release) {
+        super(id, task.name, release, task.wcet);
+        this.task = task;
+        this.deadline = release + task.deadline;
+    }
+
+    @Override
+    public RealTimeJob copy() { return new RealTimeJob(id, task, arrival); }
+
+    // Positive = finished late, negative = finished early.
+    public long lateness() { return finish - deadline; }
+}
@@ -0,0 +1,64 @@
+package scheduler;
+
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * CLASS: RealTimeStudy
+ * Runs a periodic task set under several real-time policies on one core up to a
+ * horizon and compares the admission verdict with the deadlines actually missed.
+ * * Jobs are released lazily by a PeriodicJobSource, so the cost is proportional to
+ *   the number of jobs, not to the number of ticks, and memory to the number of tasks.
+ * * Every policy is an independent run, executed in parallel like PolicyStudy.
+ */
+public final class RealTimeStudy {
+    private RealTimeStudy() {}
+
+    public static final class Result {
+        public final String label;
+        public final Admission.Result admission; // null when the policy has no admission test.
+        public final DeadlineMonitor monitor;
+        public final RunReport report;
+
+        Result(String label, Admission.Result admission, DeadlineMonitor monitor, RunReport report) {
+            this.label = label; this.admission = admission; this.monitor = monitor; this.report = report;
+        }
+
+        @Override
+        public String toString() {
+            LatencyHistogram late = monitor.lateness();
+            return String.format("%-15s %s | jobs %,d | missed %,d (%.2f%%, %d tasks) | lateness p50 %,d p99 %,d max %,d | ctx %,d",
+                    label, admission == null ? "no admission test" : (admission.admitted ? "ADMITTED" : "REJECTED"),
+                    monitor.released(), monitor.missed(), 100 * monitor.missRatio(), monitor.tasksWithMisses(),
+                    late.percentile(0.50), late.percentile(0.99), late.max(), report.contextSwitches);
+        }
+    }
+
+    // The admission test that matches 'policy' (null if it has none).
+    public static Admission.Result admit(SchedulingPolicy policy, List<PeriodicTask> tasks) {
+        if (policy instanceof EdfPolicy) return Admission.edf(tasks);
+        if (policy instanceof RateMonotonicPolicy) return Admission.rateMonotonic(tasks);
+        return null;
+    }
+
+    public static List<Result> compare(List<PeriodicTask> tasks, long horizon, List<Supplier<SchedulingPolicy>> policies) {
+        return IntStream.range(0, policies.size()).parallel()
+                .mapToObj(i -> runOne(tasks, horizon, policies.get(i)))
+                .toList();
+    }
+
+    // Runs the task set even when admission rejects it, so the prediction can be checked.
+    public static Result runOne(List<PeriodicTask> tasks, long horizon, Supplier<SchedulingPolicy> policy) {
+        SchedulerEngine engine = new SchedulerEngine(policy.get());
+        Admission.Result admission = admit(engine.policy(), tasks);
+        DeadlineMonitor monitor = new DeadlineMonitor();
+        engine.addListener(monitor);
+        long start = System.nanoTime();
+        engine.feed(new PeriodicJobSource(tasks, horizon));
+        engine.advanceTo(horizon);
+        monitor.finish(engine, horizon);
+        RunReport report = new RunReport(engine, System.nanoTime() - start);
+        return new Result(engine.policy().name(), admission, monitor, report);
+    }
+}
@@ -0,0 +1,28 @@
+package scheduler;
+
+/**
+ * POLICY: Round Robin
+ * FIFO queue, but every process only gets 'quantum' ticks before it is sent
+ * to the back of the line.
+ */
+public class RoundRobinPolicy implements SchedulingPolicy {
+    public static final long DEFAULT_QUANTUM = 30;
+
+    private final ProcessQueue queue = new ProcessQueue();
+    private final long quantum;
+
+    public RoundRobinPolicy() { this(DEFAULT_QUANTUM); }
+
+    public RoundRobinPolicy(long quantum) {
+        if (quantum <= 0) throw new IllegalArgumentException("quantum must be positive: " + quantum);
+        this.quantum = quantum;
+    }
+
+    @Override public String name() { return "Round Robin"; }
+    @Override public void enqueue(SimProcess p, long now) { queue.addLast(p); }
+    @Override public SimProcess next(long now) { return queue.pollFirst(); }
+    @Override public SimProcess steal(long now) { return queue.pollLast(); }
+    @Override public int size() { return queue.size(); }
+    @Override public SimProcess readyAt(int index) { return queue.get(index); }
+    @Override public long quantum() { return quantum; }
+}
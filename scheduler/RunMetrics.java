@@ -0,0 +1,108 @@
+package scheduler;
+
+import java.io.IOException;
+
+/**
+ * CLASS: RunMetrics
+ * SchedulerListener that keeps running latency statistics for a whole run in constant
+ * memory, whether the run has a hundred processes or a hundred million.
+ * * waiting = turnaround - burst (time spent ready but not making progress),
+ *   turnaround = finish - arrival, response = first dispatch - arrival.
+ * * Latencies go into LatencyHistograms; context switches, utilization and
+ *   throughput are read from the engine when a summary is asked for.
+ */
+public class RunMetrics implements SchedulerListener {
+    private final LatencyHistogram waiting = new LatencyHistogram();
+    private final LatencyHistogram turnaround = new LatencyHistogram();
+    private final LatencyHistogram response = new LatencyHistogram();
+    private long arrivals = 0, completed = 0, preemptions = 0;
+
+    @Override
+    public void onArrival(SimProcess p, long now) { arrivals++; }
+
+    @Override
+    public void onPreempt(SimProcess p, int core, long now) { preemptions++; }
+
+    @Override
+    public void onComplete(SimProcess p, int core, long now) {
+        completed++;
+        long t = now - p.arrival;
+        turnaround.record(t);
+        waiting.record(t - p.burst);
+        response.record(p.firstRun - p.arrival);
+    }
+
+    public LatencyHistogram waiting() { return waiting; }
+    public LatencyHistogram turnaround() { return turnaround; }
+    public LatencyHistogram response() { return response; }
+    public long arrivals() { return arrivals; }
+    public long completed() { return completed; }
+    public long preemptions() { return preemptions; }
+
+    public void reset() {
+        waiting.reset(); turnaround.reset(); response.reset();
+        arrivals = completed = preemptions = 0;
+    }
+
+    // One line for the live view.
+    public String statusLine(SchedulerEngine e) {
+        return String.format("t=%,d | done %,d/%,d | %.2f jobs/1k ticks | util %.0f%% | ctx %,d | wait p50 %,d p99 %,d | turnaround p99 %,d p99.9 %,d | response p99 %,d",
+                e.now(), completed, arrivals, throughput(e), 100 * meanUtilization(e), e.contextSwitches(),
+                waiting.percentile(0.50), waiting.percentile(0.99),
+                turnaround.percentile(0.99), turnaround.percentile(0.999), response.percentile(0.99));
+    }
+
+    // Multi-line table for the explanation area.
+    public String summary(SchedulerEngine e) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("METRICS at t=%,d: %,d of %,d processes done, %.2f jobs/1k ticks, util %.1f%%, context switches %,d, migrations %,d%n",
+                e.now(), completed, arrivals, throughput(e), 100 * meanUtilization(e), e.contextSwitches(), e.migrations()));
+        sb.append("waiting     ").append(waiting).append('\n');
+        sb.append("turnaround  ").append(turnaround).append('\n');
+        sb.append("response    ").append(response);
+        return sb.toString();
+    }
+
+    // CSV: a 'summary' section (metric,value) followed by the histogram buckets (histogram,lower,upper,count).
+    public void writeCsv(SchedulerEngine e, Appendable out) throws IOException {
+        out.append("metric,value\n");
+        row(out, "policy", e.policy().name());
+        row(out, "balancer", e.balancer().name());
+        row(out, "cores", e.cores().length);
+        row(out, "now", e.now());
+        row(out, "arrivals", arrivals);
+        row(out, "completed", completed);
+        row(out, "context_switches", e.contextSwitches());
+        row(out, "preemptions", preemptions);
+        row(out, "migrations", e.migrations());
+        row(out, "throughput_per_1k_ticks", throughput(e));
+        row(out, "mean_utilization", meanUtilization(e));
+        for (int i = 0; i < e.cores().length; i++) row(out, "utilization_core_" + i, e.utilization(i));
+        stats(out, "waiting", waiting);
+        stats(out, "turnaround", turnaround);
+        stats(out, "response", response);
+        out.append('\n').append("histogram,lower,upper,count\n");
+        waiting.writeCsv("waiting", out);
+        turnaround.writeCsv("turnaround", out);
+        response.writeCsv("response", out);
+    }
+
+    private static void stats(Appendable out, String name, LatencyHistogram h) throws IOException {
+        row(out, name + "_count", h.count());
+        row(out, name + "_mean", h.mean());
+        row(out, name + "_p50", h.percentile(0.50));
+        row(out, name + "_p99", h.percentile(0.99));
+        row(out, name + "_p999", h.percentile(0.999));
+        row(out, name + "_max", h.max());
+    }
+
+    private static void row(Appendable out, String key, Object value) throws IOException {
+        out.append(key).append(',').append(String.valueOf(value)).append('\n');
+    }
+
+    private double throughput(SchedulerEngine e) { return e.now() == 0 ? 0 : completed * 1000.0 / e.now(); }
+
+    private static double meanUtilization(SchedulerEngine e) {
+        return e.now() == 0 ? 0 : e.busyTicks() / (double) (e.now() * e.cores().length);
+    }
+}
@@ -0,0 +1,52 @@
+package scheduler;
+
+/**
+ * CLASS: RunReport
+ * Immutable summary of a finished (or paused) SchedulerEngine run.
+ */
+public class RunReport {
+    public final String policy, balancer;
+    public final int cores;
+    public final long makespan;        // Simulated ticks from 0 to the last event.
+    public final long completed, contextSwitches, migrations, balancerMoves;
+    public final long overheadTicks;   // Busy ticks lost to context switches, cache refills and remote memory.
+    public final double[] utilization; // Per core, 0..1.
+    public final long wallNanos;       // Host time the run took.
+
+    public RunReport(SchedulerEngine e, long wallNanos) {
+        this.policy = e.policy().name();
+        this.balancer = e.balancer().name();
+        this.cores = e.cores().length;
+        this.makespan = e.now();
+        this.completed = e.completed();
+        this.contextSwitches = e.contextSwitches();
+        this.migrations = e.migrations();
+        this.balancerMoves = e.balancerMoves();
+        this.overheadTicks = e.overheadTicks();
+        this.utilization = new double[cores];
+        for (int i = 0; i < cores; i++) utilization[i] = e.utilization(i);
+        this.wallNanos = wallNanos;
+    }
+
+    // Completed processes per 1000 simulated ticks.
+    public double throughput() { return makespan == 0 ? 0 : completed * 1000.0 / makespan; }
+
+    public double meanUtilization() {
+        double sum = 0;
+        for (double u : utilization) sum += u;
+        return cores == 0 ? 0 : sum / cores;
+    }
+
+    // Simulated processes per second of host time.
+    public double simRate() { return wallNanos == 0 ? 0 : completed * 1e9 / wallNanos; }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-12s %-15s %2d cores | makespan %,d | %.2f jobs/1k ticks | util %.0f%% | ctx %,d | migr %,d",
+                policy, balancer, cores, makespan, throughput(), meanUtilization() * 100, contextSwitches, migrations));
+        sb.append(" | per-core:");
+        for (double u : utilization) sb.append(String.format(" %.0f%%", u * 100));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,442 @@
+package scheduler;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * CLASS: SchedTraceReader
+ * Turns a real Linux scheduler trace into a stream of SimProcesses for SchedulerEngine.feed().
+ * * ACCEPTED INPUT (plain text, one event per line):
+ *   - ftrace / trace-cmd:  "bash-1234 [001] d..3 5.123456: sched_switch: prev_comm=bash prev_pid=1234 ... ==> next_comm=..."
+ *   - perf sched script:   "bash 1234 [001] 5.123456: sched:sched_switch: bash:1234 [120] S ==> swapper/1:0 [120]"
+ *   - sched_wakeup / sched_wakeup_new lines in either format. Everything else is skipped.
+ * * MODEL: a "process" is one CPU burst of a real task. It arrives when the task wakes
+ *   up (or is first seen on a CPU), collects all its on-CPU time across preemptions,
+ *   and ends when the task leaves the CPU blocked (any prev_state other than R).
+ * * MECHANICS:
+ *   - The file is memory-mapped in windows of WINDOW bytes and bulk-copied into one
+ *     reusable BLOCK, which is parsed byte by byte. No String is built per line:
+ *     only one name per distinct pid and one SimProcess per burst are allocated.
+ *   - Bursts finish out of arrival order, so they wait in a small reorder buffer
+ *     until no still-open burst can arrive earlier. A task that stays runnable longer
+ *     than 'maxLag' is cut into consecutive bursts to keep that buffer bounded.
+ */
+public class SchedTraceReader implements Iterator<SimProcess>, Closeable {
+
+    private static final long WINDOW = 256L << 20; // Bytes mapped at a time.
+    private static final int BLOCK = 1 << 20;      // Bytes parsed at a time (also the longest line).
+
+    private static final byte[] SWITCH = "sched_switch:".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] WAKEUP = "sched_wakeup:".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] WAKEUP_NEW = "sched_wakeup_new:".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] ARROW = " ==> ".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] PREV_PID = "prev_pid=".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] PREV_STATE = "prev_state=".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NEXT_COMM = "next_comm=".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NEXT_PID = " next_pid=".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NEXT_PRIO = "next_prio=".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] COMM = "comm=".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] PID = " pid=".getBytes(StandardCharsets.US_ASCII);
+
+    // --- PER-TASK STATE (one per distinct pid, reused for every burst) ---
+    private static class Task {
+        final int pid;
+        String name;
+        int nice;
+        boolean open;         // A burst is in progress (woken up, not blocked yet).
+        long arrival;         // Trace time (us) the open burst arrived.
+        long work;            // On-CPU time (us) collected by the open burst.
+        long runStart = -1;   // Trace time it was switched in (-1 = not on a CPU).
+        int openIndex = -1;   // Slot in the openTasks array.
+        Task(int pid) { this.pid = pid; }
+    }
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final long tickMicros;
+    private final long maxLag;
+
+    private MappedByteBuffer window; // Current mapped region of the file.
+    private long windowEnd = 0;      // File offset just past the mapped region.
+    private final byte[] block = new byte[BLOCK]; // Bytes being parsed, bulk-copied from the mapping.
+    private int blockLen = 0;
+    private int pos = 0;             // Parse position inside block.
+    private long consumed = 0;       // File offset of block[0].
+    private boolean eof = false;
+
+    private Task[] tasks = new Task[1 << 15];   // Indexed by pid.
+    private Task[] openTasks = new Task[256];
+    private int openCount = 0;
+    private final PriorityQueue<SimProcess> ready = new PriorityQueue<>((a, b) -> {
+        if (a.arrival != b.arrival) return Long.compare(a.arrival, b.arrival);
+        return Integer.compare(a.id, b.id);
+    });
+
+    private long origin = -1;      // First timestamp in the trace (us); ticks count from here.
+    private long now = 0;          // Latest timestamp seen (us).
+    private long watermark = -1;   // Bursts arriving at or before this (us) can be released.
+    private long nextScan = 0;
+    private int nextId = 0;
+
+    // --- STATS ---
+    private long lines = 0, events = 0, skipped = 0, bursts = 0;
+
+    // 1 tick = 'tickMicros' microseconds of trace time; default 1000 (1 tick = 1 ms).
+    public SchedTraceReader(Path file) throws IOException {
+        this(file, 1000, 1_000_000);
+    }
+
+    public SchedTraceReader(Path file, long tickMicros, long maxLagMicros) throws IOException {
+        if (tickMicros <= 0 || maxLagMicros <= 0) throw new IllegalArgumentException("tick and lag must be positive");
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+        this.tickMicros = tickMicros;
+        this.maxLag = maxLagMicros;
+    }
+
+    // --- ITERATOR ---
+
+    @Override
+    public boolean hasNext() {
+        while (!releasable()) {
+            if (eof) return !ready.isEmpty();
+            parseLine();
+        }
+        return true;
+    }
+
+    @Override
+    public SimProcess next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        return ready.poll();
+    }
+
+    private boolean releasable() {
+        return !ready.isEmpty() && (eof || ready.peek().arrival <= toTicks(watermark));
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+
+    // --- WINDOWED MAPPING ---
+
+    // Slides the unparsed tail of 'block' to the front and tops it up from the mapping
+    // (mapping the next WINDOW of the file when needed). Returns false at end of file.
+    private boolean refill() throws IOException {
+        int tail = blockLen - pos;
+        System.arraycopy(block, pos, block, 0, tail);
+        consumed += pos;
+        pos = 0;
+        blockLen = tail;
+        if (window == null || !window.hasRemaining()) {
+            if (windowEnd >= fileSize) return false;
+            long len = Math.min(WINDOW, fileSize - windowEnd);
+            window = channel.map(FileChannel.MapMode.READ_ONLY, windowEnd, len);
+            windowEnd += len;
+        }
+        int n = Math.min(BLOCK - blockLen, window.remaining());
+        window.get(block, blockLen, n);
+        blockLen += n;
+        return true;
+    }
+
+    // Parses one line, refilling the block when the line is cut off at its end.
+    private void parseLine() {
+        try {
+            int end = indexOf(block, pos, blockLen, (byte) '\n');
+            while (end < 0) {
+                if (pos == 0 && blockLen == BLOCK) throw new IllegalStateException("line longer than " + BLOCK + " bytes at offset " + consumed);
+                int scanned = blockLen - pos;
+                if (!refill()) {
+                    if (blockLen > pos) handleLine(pos, blockLen); // Last line without a newline.
+                    pos = blockLen;
+                    finishTrace();
+                    return;
+                }
+                end = indexOf(block, pos + scanned, blockLen, (byte) '\n');
+            }
+            if (end > pos) handleLine(pos, end);
+            pos = end + 1;
+        } catch (IOException e) {
+            throw new java.io.UncheckedIOException(e);
+        }
+    }
+
+    private void handleLine(int from, int to) {
+        lines++;
+        if (block[from] == '#') return;
+        // TIMESTAMP: the first token after the "[cpu]" column shaped like 123.456789:
+        int p = indexOf(block, from, to, (byte) ']');
+        long ts = -1;
+        while (p >= 0 && p < to) {
+            p = skipSpaces(p + 1, to);
+            int tokEnd = indexOf(block, p, to, (byte) ' ');
+            if (tokEnd < 0) tokEnd = to;
+            ts = parseTimestamp(p, tokEnd);
+            if (ts >= 0) { p = tokEnd; break; }
+            p = tokEnd;
+        }
+        if (ts < 0) { skipped++; return; }
+        // EVENT NAME: "sched_switch:" or "sched:sched_switch:".
+        p = skipSpaces(p, to);
+        int nameEnd = indexOf(block, p, to, (byte) ' ');
+        if (nameEnd < 0) { skipped++; return; }
+        advanceClock(ts);
+        int body = skipSpaces(nameEnd, to);
+        if (endsWith(p, nameEnd, SWITCH)) onSwitch(body, to);
+        else if (endsWith(p, nameEnd, WAKEUP) || endsWith(p, nameEnd, WAKEUP_NEW)) onWakeup(body, to);
+        else skipped++;
+    }
+
+    // --- EVENTS ---
+
+    private void onSwitch(int from, int to) {
+        int arrow = indexOf(block, from, to, ARROW);
+        if (arrow < 0) { skipped++; return; }
+        events++;
+        int prevPid, nextPid, nextPrio;
+        byte prevState;
+        int nextFrom = arrow + ARROW.length;
+        int nameFrom, nameTo;
+        int kv = indexOf(block, from, arrow, PREV_PID);
+        if (kv >= 0) {
+            // key=value format
+            prevPid = (int) parseLong(kv + PREV_PID.length, arrow);
+            int st = indexOf(block, kv, arrow, PREV_STATE);
+            prevState = st < 0 ? (byte) 'S' : block[st + PREV_STATE.length];
+            nameFrom = indexOf(block, nextFrom, to, NEXT_COMM);
+            int np = indexOf(block, nextFrom, to, NEXT_PID);
+            if (nameFrom < 0 || np < 0) { skipped++; events--; return; }
+            nameFrom += NEXT_COMM.length;
+            nameTo = np;
+            nextPid = (int) parseLong(np + NEXT_PID.length, to);
+            int pr = indexOf(block, np, to, NEXT_PRIO);
+            nextPrio = pr < 0 ? 120 : (int) parseLong(pr + NEXT_PRIO.length, to);
+        } else {
+            // perf compact format: "comm:pid [prio] S ==> comm:pid [prio]"
+            int prevBracket = lastIndexOf(block, from, arrow, (byte) '[');
+            int prevColon = prevBracket < 0 ? -1 : lastIndexOf(block, from, prevBracket, (byte) ':');
+            int nextBracket = lastIndexOf(block, nextFrom, to, (byte) '[');
+            int nextColon = nextBracket < 0 ? -1 : lastIndexOf(block, nextFrom, nextBracket, (byte) ':');
+            if (prevColon < 0 || nextColon < 0) { skipped++; events--; return; }
+            prevPid = (int) parseLong(prevColon + 1, prevBracket);
+            int close = indexOf(block, prevBracket, arrow, (byte) ']');
+            prevState = close < 0 ? (byte) 'S' : block[skipSpaces(close + 1, arrow)];
+            nameFrom = nextFrom;
+            nameTo = nextColon;
+            nextPid = (int) parseLong(nextColon + 1, nextBracket);
+            nextPrio = (int) parseLong(nextBracket + 1, to);
+        }
+
+        if (prevPid > 0) {
+            Task t = task(prevPid);
+            if (t.runStart >= 0) {
+                t.work += now - t.runStart;
+                t.runStart = -1;
+            }
+            if (prevState != 'R') closeBurst(t); // Blocked, sleeping or exiting: the burst is over.
+        }
+        if (nextPid > 0) {
+            Task t = task(nextPid);
+            if (t.name == null) {
+                t.name = new String(bytes(nameFrom, nameTo), StandardCharsets.UTF_8).trim() + ":" + nextPid;
+                t.nice = Math.max(-20, Math.min(19, nextPrio - 120));
+            }
+            if (!t.open) openBurst(t, now); // No wakeup seen (trace started mid-run).
+            t.runStart = now;
+        }
+    }
+
+    private void onWakeup(int from, int to) {
+        int pidAt = indexOf(block, from, to, PID);
+        int pid;
+        if (pidAt >= 0) {
+            pid = (int) parseLong(pidAt + PID.length, to);
+        } else {
+            int bracket = indexOf(block, from, to, (byte) '[');
+            int colon = bracket < 0 ? -1 : lastIndexOf(block, from, bracket, (byte) ':');
+            if (colon < 0) { skipped++; return; }
+            pid = (int) parseLong(colon + 1, bracket);
+        }
+        events++;
+        if (pid <= 0) return;
+        Task t = task(pid);
+        if (t.name == null) {
+            int c = indexOf(block, from, to, COMM);
+            int nameFrom = c >= 0 ? c + COMM.length : from;
+            int nameTo = c >= 0 ? pidAt : lastIndexOf(block, from, indexOf(block, from, to, (byte) '['), (byte) ':');
+            if (nameTo > nameFrom) t.name = new String(bytes(nameFrom, nameTo), StandardCharsets.UTF_8).trim() + ":" + pid;
+        }
+        if (!t.open) openBurst(t, now);
+    }
+
+    // --- BURST BOOKKEEPING ---
+
+    private void openBurst(Task t, long at) {
+        t.open = true;
+        t.arrival = at;
+        t.work = 0;
+        if (openCount == openTasks.length) openTasks = Arrays.copyOf(openTasks, openCount * 2);
+        t.openIndex = openCount;
+        openTasks[openCount++] = t;
+    }
+
+    private void closeBurst(Task t) {
+        if (!t.open) return;
+        emit(t);
+        t.open = false;
+        Task last = openTasks[--openCount];
+        openTasks[t.openIndex] = last;
+        last.openIndex = t.openIndex;
+        openTasks[openCount] = null;
+        t.openIndex = -1;
+    }
+
+    private void emit(Task t) {
+        if (t.work <= 0) return;
+        long burst = Math.max(1, (t.work + tickMicros / 2) / tickMicros);
+        String name = t.name != null ? t.name : "pid:" + t.pid;
+        ready.add(new SimProcess(nextId++, name, toTicks(t.arrival), burst, t.nice, false));
+        bursts++;
+    }
+
+    private void advanceClock(long ts) {
+        if (origin < 0) { origin = ts; nextScan = ts + maxLag / 2; }
+        if (ts > now) now = ts;
+        if (now < nextScan) return;
+        // Cut bursts that have been open too long, so every open burst arrived after the watermark.
+        long cutoff = now - maxLag;
+        for (int i = 0; i < openCount; i++) {
+            Task t = openTasks[i];
+            if (t.arrival >= cutoff) continue;
+            if (t.runStart >= 0) {
+                t.work += now - t.runStart;
+                t.runStart = now;
+            }
+            emit(t);
+            t.arrival = now;
+            t.work = 0;
+        }
+        watermark = cutoff;
+        nextScan = now + maxLag / 2;
+    }
+
+    // End of file: every open burst is final.
+    private void finishTrace() {
+        for (int i = 0; i < openCount; i++) {
+            Task t = openTasks[i];
+            if (t.runStart >= 0) { t.work += now - t.runStart; t.runStart = -1; }
+            emit(t);
+        }
+        openCount = 0;
+        eof = true;
+        watermark = Long.MAX_VALUE;
+    }
+
+    private Task task(int pid) {
+        if (pid >= tasks.length) tasks = Arrays.copyOf(tasks, Math.max(pid + 1, tasks.length * 2));
+        Task t = tasks[pid];
+        if (t == null) tasks[pid] = t = new Task(pid);
+        return t;
+    }
+
+    private long toTicks(long micros) {
+        if (micros == Long.MAX_VALUE) return Long.MAX_VALUE;
+        return Math.max(0, (micros - Math.max(origin, 0)) / tickMicros);
+    }
+
+    // --- BYTE-LEVEL PARSING HELPERS ---
+
+    // "123.456789" (any number of fraction digits) followed by ':' -> microseconds, else -1.
+    private long parseTimestamp(int from, int to) {
+        if (to - from < 3 || block[to - 1] != ':') return -1;
+        long whole = 0, frac = 0;
+        int fracDigits = -1;
+        for (int i = from; i < to - 1; i++) {
+            byte b = block[i];
+            if (b == '.') {
+                if (fracDigits >= 0) return -1;
+                fracDigits = 0;
+            } else if (b >= '0' && b <= '9') {
+                if (fracDigits < 0) whole = whole * 10 + (b - '0');
+                else if (fracDigits++ < 6) frac = frac * 10 + (b - '0');
+            } else {
+                return -1;
+            }
+        }
+        if (fracDigits <= 0) return -1;
+        for (int d = Math.min(fracDigits, 6); d < 6; d++) frac *= 10;
+        return whole * 1_000_000 + frac;
+    }
+
+    // Reads an optionally signed decimal starting at 'from' (stops at the first non-digit).
+    private long parseLong(int from, int to) {
+        int i = skipSpaces(from, to);
+        boolean neg = i < to && block[i] == '-';
+        if (neg) i++;
+        long v = 0;
+        for (; i < to; i++) {
+            byte b = block[i];
+            if (b < '0' || b > '9') break;
+            v = v * 10 + (b - '0');
+        }
+        return neg ? -v : v;
+    }
+
+    private int skipSpaces(int from, int to) {
+        while (from < to && (block[from] == ' ' || block[from] == '\t')) from++;
+        return from;
+    }
+
+    private boolean endsWith(int from, int to, byte[] suffix) {
+        if (to - from < suffix.length) return false;
+        int start = to - suffix.length;
+        for (int i = 0; i < suffix.length; i++) if (block[start + i] != suffix[i]) return false;
+        return start == from || block[start - 1] == ':';
+    }
+
+    private byte[] bytes(int from, int to) {
+        return Arrays.copyOfRange(block, from, Math.max(from, to));
+    }
+
+    private static int indexOf(byte[] b, int from, int to, byte target) {
+        for (int i = from; i < to; i++) if (b[i] == target) return i;
+        return -1;
+    }
+
+    private static int lastIndexOf(byte[] b, int from, int to, byte target) {
+        for (int i = to - 1; i >= from; i--) if (b[i] == target) return i;
+        return -1;
+    }
+
+    private static int indexOf(byte[] b, int from, int to, byte[] pattern) {
+        int last = to - pattern.length;
+        outer:
+        for (int i = from; i <= last; i++) {
+            for (int j = 0; j < pattern.length; j++) if (b[i + j] != pattern[j]) continue outer;
+            return i;
+        }
+        return -1;
+    }
+
+    // --- STATS FOR VIEWERS ---
+
+    public long lines() { return lines; }
+    public long events() { return events; }
+    public long skippedLines() { return skipped; }
+    public long bursts() { return bursts; }
+    public long fileSize() { return fileSize; }
+    public long bytesRead() { return eof ? fileSize : consumed + pos; }
+}
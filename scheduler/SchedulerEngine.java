@@ -0,0 +1,349 @@
+package scheduler;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * CLASS: SchedulerEngine
+ * Headless discrete-event CPU scheduler. No Swing, no timers, no threads.
+ * * RESPONSIBILITIES:
+ * 1. Owning the simulated clock and N cores, each with its own run queue, laid
+ *    out on sockets by a Topology (cache refill and remote memory costs).
+ * 2. Keeping future events (arrivals, end of running slices, balancer ticks) in an EventQueue.
+ * 3. Asking the SchedulingPolicy which process a free core runs next, and the
+ *    LoadBalancer where arrivals go and when work moves between cores.
+ * * MECHANICS:
+ * - The clock jumps straight from one event to the next instead of counting ticks,
+ *   so a 120 tick burst costs two events no matter how long it is.
+ * - Viewers can still watch in "real time" by calling advanceTo(now + 1) from a timer.
+ */
+public class SchedulerEngine {
+
+    private final Core[] cores;
+    private final Topology topology;
+    private final LoadBalancer balancer;
+    private final EventQueue events = new EventQueue();
+    private final List<SchedulerListener> listeners = new ArrayList<>();
+    private final List<Iterator<? extends SimProcess>> feeds = new ArrayList<>();
+
+    // --- CLOCK ---
+    private long now = 0;
+    private long nextToken = 0;         // Source of unique dispatch tokens.
+    private boolean rebalancePending = false;
+    private long contextSwitchCost = 0; // Ticks burned by the kernel on every dispatch.
+
+    // --- BOOKKEEPING ---
+    private long queued = 0;            // Processes sitting in any run queue.
+    private int idleCores;
+    private long dispatches = 0;        // Slices started on any core.
+    private long changes = 0;           // Bumped whenever something a viewer draws changes.
+
+    // --- COUNTERS ---
+    private long completed = 0, contextSwitches = 0, migrations = 0, balancerMoves = 0;
+    private long overheadTicks = 0;     // Busy ticks lost to context switches, cache refills and remote memory.
+
+    // Single core, single queue: the classic textbook setup.
+    public SchedulerEngine(SchedulingPolicy policy) {
+        this(1, () -> policy, new GlobalQueueBalancer());
+    }
+
+    // 'policies' is called once per core (or once in total when the balancer shares the queue).
+    public SchedulerEngine(int coreCount, Supplier<SchedulingPolicy> policies, LoadBalancer balancer) {
+        this(Topology.flat(coreCount), policies, balancer);
+    }
+
+    public SchedulerEngine(Topology topology, Supplier<SchedulingPolicy> policies, LoadBalancer balancer) {
+        int coreCount = topology.totalCores();
+        this.topology = topology;
+        this.balancer = balancer;
+        this.cores = new Core[coreCount];
+        SchedulingPolicy shared = balancer.sharedQueue() ? policies.get() : null;
+        long[] sharedProfile = new long[Core.LENGTH_BUCKETS];
+        for (int i = 0; i < coreCount; i++) {
+            cores[i] = shared != null
+                    ? new Core(i, topology.socketOf(i), shared, sharedProfile)
+                    : new Core(i, topology.socketOf(i), policies.get(), new long[Core.LENGTH_BUCKETS]);
+        }
+        this.idleCores = coreCount;
+    }
+
+    public void addListener(SchedulerListener l) { listeners.add(l); }
+
+    // Charges 'ticks' of pure overhead at the start of every slice (saving and restoring
+    // registers, switching address spaces). Set it before the run starts.
+    public void setContextSwitchCost(long ticks) {
+        if (ticks < 0) throw new IllegalArgumentException("context switch cost must be >= 0: " + ticks);
+        this.contextSwitchCost = ticks;
+    }
+
+    // --- INPUT ---
+
+    // Hands a process to the engine. Arrivals in the past or present are ready immediately.
+    public void submit(SimProcess p) {
+        if (p.arrival <= now) arrive(p);
+        else events.push(p.arrival, EventQueue.ARRIVAL, p, 0, 0);
+    }
+
+    // Hands over a lazy stream of processes sorted by arrival. Only the next process of
+    // each feed is held as a pending event, so a feed can describe millions of jobs
+    // (or an endless periodic task set cut off by a horizon) in constant memory.
+    public void feed(Iterator<? extends SimProcess> source) {
+        feeds.add(source);
+        pullFeed(feeds.size() - 1);
+    }
+
+    // --- DRIVING THE SIMULATION ---
+
+    // Performs one unit of work (a dispatch pass or one event). Returns false once nothing is left.
+    public boolean step() {
+        if (dispatchIfReady()) return true;
+        if (events.isEmpty()) return false;
+        fireNext();
+        return true;
+    }
+
+    // Processes every event up to and including tick 't', then parks the clock at 't'.
+    public void advanceTo(long t) {
+        while (true) {
+            dispatchIfReady();
+            if (events.isEmpty() || events.peekTime() > t) break;
+            fireNext();
+        }
+        if (t > now) now = t;
+    }
+
+    // Runs until the next process is put on a CPU (skipping any idle stretch in between).
+    // Returns false if the simulation ran out of work first.
+    public boolean advanceToNextSwitch() {
+        long target = dispatches;
+        while (step()) {
+            if (dispatches > target) return true;
+        }
+        return false;
+    }
+
+    // Runs until every submitted process has finished.
+    public void runToCompletion() {
+        while (step()) { }
+    }
+
+    // --- EVENT HANDLING ---
+
+    private void fireNext() {
+        events.pop();
+        now = events.popTime;
+        switch (events.popKind) {
+            case EventQueue.ARRIVAL -> arrive(events.popProcess);
+            case EventQueue.FEED_ARRIVAL -> {
+                int feed = events.popCore;
+                arrive(events.popProcess);
+                pullFeed(feed);
+            }
+            case EventQueue.SLICE_END -> {
+                Core c = cores[events.popCore];
+                if (events.popToken == c.token) endSlice(c);
+                // else: stale SLICE_END of a process that was already taken off the CPU.
+            }
+            case EventQueue.REBALANCE -> {
+                rebalancePending = false;
+                balancer.rebalance(this);
+                scheduleRebalance();
+            }
+            default -> throw new IllegalStateException("unknown event kind " + events.popKind);
+        }
+    }
+
+    private void arrive(SimProcess p) {
+        Core c = cores[balancer.place(p, cores)];
+        if (c.running != null && c.queue.preempts(p, c.running, c.running.remaining - workDone(c))) {
+            preempt(c);
+        }
+        enqueue(c, p);
+        changes++;
+        for (SchedulerListener l : listeners) l.onArrival(p, now);
+        scheduleRebalance();
+    }
+
+    // The running slice is over: either the burst is done or the quantum expired.
+    private void endSlice(Core c) {
+        SimProcess p = offCpu(c);
+        if (p.remaining <= 0) {
+            p.finish = now;
+            completed++;
+            for (SchedulerListener l : listeners) l.onComplete(p, c.index, now);
+        } else {
+            contextSwitches++;
+            p.quantumExpired = true;
+            enqueue(c, p);
+            for (SchedulerListener l : listeners) l.onPreempt(p, c.index, now);
+        }
+    }
+
+    // Takes the running process off core 'c' before its slice ends. Its pending
+    // SLICE_END event goes stale because the core's token changes.
+    private void preempt(Core c) {
+        SimProcess p = offCpu(c);
+        contextSwitches++;
+        p.quantumExpired = false;
+        enqueue(c, p);
+        for (SchedulerListener l : listeners) l.onPreempt(p, c.index, now);
+    }
+
+    private void enqueue(Core c, SimProcess p) {
+        c.queue.enqueue(p, now);
+        c.queuedByLength[Core.lengthBucket(p.remaining)]++;
+        queued++;
+    }
+
+    private SimProcess offCpu(Core c) {
+        SimProcess p = c.running;
+        long ran = now - c.sliceStart;
+        long work = workDone(c);
+        p.remaining -= work;
+        p.lastRunEnd = now;
+        c.busyTicks += ran;
+        overheadTicks += ran - work;
+        c.running = null;
+        c.token = ++nextToken;
+        idleCores++;
+        changes++;
+        return p;
+    }
+
+    // Starts work on every idle core, but only once every event of the current tick
+    // has been seen (so simultaneous arrivals all compete for the CPUs).
+    private boolean dispatchIfReady() {
+        if (idleCores == 0 || queued == 0) return false;
+        if (!events.isEmpty() && events.peekTime() <= now) return false;
+        boolean any = false;
+        for (Core c : cores) {
+            if (c.running != null) continue;
+            if (c.queue.isEmpty()) {
+                int v = balancer.victim(c, cores);
+                if (v < 0 || !migrate(cores[v], c)) continue;
+            }
+            SimProcess p = c.queue.next(now);
+            c.queuedByLength[Core.lengthBucket(p.remaining)]--;
+            dispatch(c, p);
+            any = true;
+            if (queued == 0) break;
+        }
+        return any;
+    }
+
+    // Ticks of real work the running process on 'c' has done in its current slice.
+    private long workDone(Core c) {
+        long ran = now - c.sliceStart;
+        if (ran >= c.sliceNeed) return c.running.remaining;
+        long useful = ran - c.sliceOverhead;
+        return useful <= 0 ? 0 : Math.min(c.running.remaining, (long) (useful / c.sliceStretch));
+    }
+
+    private void dispatch(Core c, SimProcess p) {
+        queued--;
+        idleCores--;
+        if (p.homeSocket < 0) p.homeSocket = c.socket; // First touch: memory lands on this socket.
+        c.sliceOverhead = contextSwitchCost + topology.warmupCost(p, c.index, now);
+        c.sliceStretch = topology.stretch(p, c.index);
+        c.sliceNeed = c.sliceOverhead + (long) Math.ceil(p.remaining * c.sliceStretch);
+        long q = c.queue.quantum(p);
+        long slice = (q > 0) ? Math.min(q, c.sliceNeed) : c.sliceNeed;
+        // Always leave room for at least one tick of real work, or a tiny quantum could livelock.
+        slice = Math.max(slice, Math.min(c.sliceNeed, c.sliceOverhead + (long) Math.ceil(c.sliceStretch)));
+        if (p.lastCore >= 0 && p.lastCore != c.index) {
+            migrations++;
+            c.migrationsIn++;
+        }
+        p.lastCore = c.index;
+        c.running = p;
+        c.sliceStart = now;
+        c.token = ++nextToken;
+        c.dispatches++;
+        dispatches++;
+        changes++;
+        if (p.firstRun < 0) p.firstRun = now;
+        p.dispatchRemaining = p.remaining;
+        events.push(now + slice, EventQueue.SLICE_END, p, c.index, c.token);
+        for (SchedulerListener l : listeners) l.onDispatch(p, c.index, now);
+    }
+
+    private void pullFeed(int feed) {
+        Iterator<? extends SimProcess> source = feeds.get(feed);
+        if (!source.hasNext()) return;
+        SimProcess p = source.next();
+        // An out-of-order arrival is clamped to 'now' rather than travelling back in time.
+        events.push(Math.max(p.arrival, now), EventQueue.FEED_ARRIVAL, p, feed, 0);
+    }
+
+    private void scheduleRebalance() {
+        long interval = balancer.rebalanceInterval();
+        if (interval <= 0 || rebalancePending || queued == 0) return;
+        rebalancePending = true;
+        events.push(now + interval, EventQueue.REBALANCE, null, 0, 0);
+    }
+
+    // --- BALANCER API ---
+
+    // Moves one queued process from 'from' to 'to'. Returns false if 'from' has nothing queued.
+    public boolean migrate(Core from, Core to) {
+        if (from == to || from.queue == to.queue) return false;
+        SimProcess p = from.queue.steal(now);
+        if (p == null) return false;
+        from.queuedByLength[Core.lengthBucket(p.remaining)]--;
+        to.queue.enqueue(p, now);
+        to.queuedByLength[Core.lengthBucket(p.remaining)]++;
+        balancerMoves++;
+        changes++;
+        return true;
+    }
+
+    // --- STATE FOR VIEWERS ---
+
+    public long now() { return now; }
+    public Core[] cores() { return cores; }
+    public Topology topology() { return topology; }
+    public LoadBalancer balancer() { return balancer; }
+    public SimProcess running() { return cores[0].running; }
+    public SchedulingPolicy policy() { return cores[0].queue; }
+    public long completed() { return completed; }
+    public long contextSwitches() { return contextSwitches; }
+    public long migrations() { return migrations; }
+    public long balancerMoves() { return balancerMoves; }
+    public long overheadTicks() { return overheadTicks; }
+    public long contextSwitchCost() { return contextSwitchCost; }
+    public long dispatches() { return dispatches; }
+
+    // Counter that moves on every arrival, dispatch and slice end. A viewer that saw the
+    // same value last frame (and has nothing running) does not need to repaint.
+    public long changes() { return changes; }
+
+    public long busyTicks() {
+        long sum = 0;
+        for (Core c : cores) sum += c.busyTicks + (c.running != null ? now - c.sliceStart : 0);
+        return sum;
+    }
+
+    // Fraction of elapsed time core 'i' spent running something.
+    public double utilization(int i) {
+        Core c = cores[i];
+        long busy = c.busyTicks + (c.running != null ? now - c.sliceStart : 0);
+        return now == 0 ? 0 : busy / (double) now;
+    }
+
+    // CPU time 'p' has received so far, including the part of the current slice already run.
+    public long executed(SimProcess p) {
+        long done = p.burst - p.remaining;
+        if (p.lastCore >= 0 && cores[p.lastCore].running == p) done += workDone(cores[p.lastCore]);
+        return done;
+    }
+
+    // Processes sitting in the run queues (not counting the running ones).
+    public long queued() { return queued; }
+
+    // True when nothing is running, nothing is queued and no arrival is pending.
+    public boolean isIdle() {
+        return idleCores == cores.length && queued == 0 && events.isEmpty();
+    }
+}
@@ -0,0 +1,14 @@
+package scheduler;
+
+/**
+ * INTERFACE: SchedulerListener
+ * Observer hooks fired by SchedulerEngine as the simulation advances.
+ * * All methods default to no-ops so a listener only overrides what it needs
+ *   (a Gantt recorder cares about dispatches, a counter about completions...).
+ */
+public interface SchedulerListener {
+    default void onArrival(SimProcess p, long now) {}
+    default void onDispatch(SimProcess p, int core, long now) {}
+    default void onPreempt(SimProcess p, int core, long now) {}
+    default void onComplete(SimProcess p, int core, long now) {}
+}
@@ -0,0 +1,44 @@
+package scheduler;
+
+/**
+ * INTERFACE: SchedulingPolicy
+ * Decides which ready process the CPU runs next.
+ * * The engine owns the clock and the running process; a policy only owns the
+ *   ready queue. Processes are handed in with enqueue() when they arrive or are
+ *   preempted, and taken out again with next() when the CPU becomes free.
+ */
+public interface SchedulingPolicy {
+
+    // Display name (e.g. "FCFS", "Round Robin").
+    String name();
+
+    // Adds a ready process. 'now' is the current simulated tick.
+    void enqueue(SimProcess p, long now);
+
+    // Removes and returns the process to run next, or null if the queue is empty.
+    SimProcess next(long now);
+
+    // Removes a process for another core to run (work stealing / push migration).
+    // Defaults to next(); FIFO queues give away their tail instead of their head.
+    default SimProcess steal(long now) { return next(now); }
+
+    // Number of processes waiting in the ready queue.
+    int size();
+
+    // Ready process at 'index' in queue order (0 = front). Used by viewers.
+    SimProcess readyAt(int index);
+
+    default boolean isEmpty() { return size() == 0; }
+
+    // Maximum ticks a process may run before being sent back to the queue.
+    // 0 means "run until the burst is finished" (non-preemptive).
+    default long quantum() { return 0; }
+
+    // Per-process quantum, asked right after 'p' was taken out by next(). Policies with
+    // dynamic time slices (CFS, Windows foreground stretching...) override this one.
+    default long quantum(SimProcess p) { return quantum(); }
+
+    // Preemptive policies return true when a newly arrived process should take the CPU
+    // away from 'running', which still needs 'runningRemaining' ticks.
+    default boolean preempts(SimProcess arrived, SimProcess running, long runningRemaining) { return false; }
+}
@@ -0,0 +1,66 @@
+package scheduler;
+
+/**
+ * CLASS: SimProcess
+ * One job flowing through the scheduling engine.
+ * * The descriptor fields (id, name, arrival, burst, nice, interactive) never
+ *   change once the process is created. The bookkeeping fields are owned by
+ *   SchedulerEngine and are only read by viewers, metrics and policies.
+ * * All times are in simulated ticks (1 tick = 1 ms of simulated CPU time).
+ */
+public class SimProcess {
+
+    // --- DESCRIPTOR ---
+    public final int id;
+    public final String name;
+    public final long arrival; // Tick at which the process enters the ready queue.
+    public final long burst;   // Total CPU time the process needs.
+    public final int nice;     // Unix-style priority hint: -20 (greedy) .. 19 (polite).
+    public final boolean interactive; // Foreground / UI work (boosted by desktop schedulers).
+
+    // --- ENGINE BOOKKEEPING ---
+    long remaining;            // CPU time still owed to this process.
+    long firstRun = -1;        // Tick of the first dispatch (-1 = never ran).
+    long finish = -1;          // Tick of completion (-1 = still alive).
+    int heapIndex = -1;        // Slot inside a ProcessHeap (-1 = not in a heap).
+    int lastCore = -1;         // Core this process last ran on (-1 = never ran).
+    long lastRunEnd = 0;       // Tick it last came off a CPU (drives cache decay).
+    int homeSocket = -1;       // Socket holding its memory, fixed at first dispatch.
+    boolean quantumExpired;    // Its last slice ran until SLICE_END without finishing (not preempted).
+
+    // --- POLICY SCRATCH (each policy uses the fields it needs) ---
+    long dispatchRemaining;    // 'remaining' when the current/last slice started.
+    long vruntime;             // CFS virtual runtime (scaled, see CfsPolicy).
+    boolean vruntimeRelative;  // CFS: vruntime is an offset while migrating between queues.
+    int dynPriority = -1;      // Windows dynamic priority (-1 = not assigned yet).
+    long readySince;           // Tick it last entered a ready queue.
+
+    public SimProcess(int id, String name, long arrival, long burst) {
+        this(id, name, arrival, burst, 0, false);
+    }
+
+    public SimProcess(int id, String name, long arrival, long burst, int nice, boolean interactive) {
+        if (burst <= 0) throw new IllegalArgumentException("burst must be positive: " + burst);
+        if (arrival < 0) throw new IllegalArgumentException("arrival must be >= 0: " + arrival);
+        if (nice < -20 || nice > 19) throw new IllegalArgumentException("nice must be in -20..19: " + nice);
+        this.id = id; this.name = name; this.arrival = arrival; this.burst = burst;
+        this.nice = nice; this.interactive = interactive;
+        this.remaining = burst;
+    }
+
+    public long remaining() { return remaining; }
+    public long firstRun() { return firstRun; }
+    public long finish() { return finish; }
+    public boolean isFinished() { return finish >= 0; }
+    public int lastCore() { return lastCore; }
+    public int homeSocket() { return homeSocket; }
+
+    // Fresh, never-run copy with the same descriptor (used to replay one workload several times).
+    public SimProcess copy() { return new SimProcess(id, name, arrival, burst, nice, interactive); }
+
+    // CPU time received during the slice that started at the last dispatch.
+    long sliceWork() { return dispatchRemaining - remaining; }
+
+    @Override
+    public String toString() { return name + "[" + remaining + "/" + burst + "]"; }
+}
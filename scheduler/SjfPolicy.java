@@ -0,0 +1,25 @@
+package scheduler;
+
+import java.util.Comparator;
+
+/**
+ * POLICY: Shortest Job First (non-preemptive)
+ * Picks the ready process with the smallest burst; ties go to the earliest arrival.
+ * * The ready queue is a ProcessHeap, so enqueue and dispatch are both O(log n)
+ *   even with hundreds of thousands of waiting processes.
+ */
+public class SjfPolicy implements SchedulingPolicy {
+    static final Comparator<SimProcess> BY_BURST = (a, b) -> {
+        if (a.burst != b.burst) return Long.compare(a.burst, b.burst);
+        if (a.arrival != b.arrival) return Long.compare(a.arrival, b.arrival);
+        return Integer.compare(a.id, b.id);
+    };
+
+    private final ProcessHeap queue = new ProcessHeap(BY_BURST);
+
+    @Override public String name() { return "SJF"; }
+    @Override public void enqueue(SimProcess p, long now) { queue.add(p); }
+    @Override public SimProcess next(long now) { return queue.poll(); }
+    @Override public int size() { return queue.size(); }
+    @Override public SimProcess readyAt(int index) { return queue.get(index); }
+}
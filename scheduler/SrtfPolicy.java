@@ -0,0 +1,32 @@
+package scheduler;
+
+import java.util.Comparator;
+
+/**
+ * POLICY: Shortest Remaining Time First (preemptive SJF)
+ * Always runs the process with the least CPU time left. A new arrival that needs
+ * less time than what the running process still needs takes the CPU immediately.
+ * * 'remaining' only changes while a process is on the CPU (never while it is in
+ *   the heap), so it is safe to use as the heap key.
+ */
+public class SrtfPolicy implements SchedulingPolicy {
+    static final Comparator<SimProcess> BY_REMAINING = (a, b) -> {
+        if (a.remaining != b.remaining) return Long.compare(a.remaining, b.remaining);
+        if (a.arrival != b.arrival) return Long.compare(a.arrival, b.arrival);
+        return Integer.compare(a.id, b.id);
+    };
+
+    private final ProcessHeap queue = new ProcessHeap(BY_REMAINING);
+
+    @Override public String name() { return "SRTF"; }
+    @Override public void enqueue(SimProcess p, long now) { queue.add(p); }
+    @Override public SimProcess next(long now) { return queue.poll(); }
+    @Override public int size() { return queue.size(); }
+    @Override public SimProcess readyAt(int index) { return queue.get(index); }
+
+    // Strictly shorter only: equal remaining times do not cause a (pointless) context switch.
+    @Override
+    public boolean preempts(SimProcess arrived, SimProcess running, long runningRemaining) {
+        return arrived.remaining < runningRemaining;
+    }
+}
@@ -0,0 +1,67 @@
+package scheduler;
+
+import java.util.Arrays;
+
+/**
+ * CLASS: StudyResult
+ * One run of a study (TopologyStudy, PolicyStudy): the engine's RunReport plus
+ * latency percentiles computed from the finished processes.
+ * * turnaround = finish - arrival, response = first dispatch - arrival.
+ */
+public class StudyResult {
+    public final String label;
+    public final RunReport report;
+    public final long p50, p99, p999;           // Turnaround percentiles (ticks).
+    public final long responseP50, responseP99; // Response-time percentiles (ticks).
+    public final double interactiveResponse;    // Mean response of interactive processes (NaN if none).
+    public final double batchResponse;          // Mean response of the others (NaN if none).
+
+    StudyResult(String label, RunReport report, SimProcess[] finished) {
+        this.label = label;
+        this.report = report;
+        long[] turnaround = new long[finished.length], response = new long[finished.length];
+        double iSum = 0, bSum = 0;
+        int iCount = 0, bCount = 0;
+        for (int i = 0; i < finished.length; i++) {
+            SimProcess p = finished[i];
+            turnaround[i] = p.finish - p.arrival;
+            response[i] = p.firstRun - p.arrival;
+            if (p.interactive) { iSum += response[i]; iCount++; }
+            else { bSum += response[i]; bCount++; }
+        }
+        Arrays.sort(turnaround);
+        Arrays.sort(response);
+        this.p50 = percentile(turnaround, 0.50);
+        this.p99 = percentile(turnaround, 0.99);
+        this.p999 = percentile(turnaround, 0.999);
+        this.responseP50 = percentile(response, 0.50);
+        this.responseP99 = percentile(response, 0.99);
+        this.interactiveResponse = iCount == 0 ? Double.NaN : iSum / iCount;
+        this.batchResponse = bCount == 0 ? Double.NaN : bSum / bCount;
+    }
+
+    private static long percentile(long[] sorted, double q) {
+        if (sorted.length == 0) return 0;
+        return sorted[(int) Math.max(0, Math.min(sorted.length - 1, Math.ceil(q * sorted.length) - 1))];
+    }
+
+    // Runs fresh copies of 'workload' to completion on 'engine' and summarizes the run.
+    static StudyResult run(String label, SchedulerEngine engine, java.util.List<SimProcess> workload) {
+        SimProcess[] copies = new SimProcess[workload.size()];
+        for (int i = 0; i < copies.length; i++) copies[i] = workload.get(i).copy();
+        long start = System.nanoTime();
+        for (SimProcess p : copies) engine.submit(p);
+        engine.runToCompletion();
+        RunReport report = new RunReport(engine, System.nanoTime() - start);
+        return new StudyResult(label, report, copies);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-15s %6.2f jobs/1k ticks | turnaround p50 %,d p99 %,d p99.9 %,d | response p99 %,d"
+                        + " | overhead %.1f%% | ctx %,d | migr %,d",
+                label, report.throughput(), p50, p99, p999, responseP99,
+                100.0 * report.overheadTicks / Math.max(1, report.makespan * report.cores),
+                report.contextSwitches, report.migrations);
+    }
+}
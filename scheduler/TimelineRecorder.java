@@ -0,0 +1,60 @@
+package scheduler;
+
+import java.util.Arrays;
+
+/**
+ * CLASS: TimelineRecorder
+ * SchedulerListener that remembers which process ran on which core, and when,
+ * for the first 'horizon' ticks of a run (a Gantt chart's worth of data).
+ * * Slices are kept in parallel primitive arrays; anything starting after the
+ *   horizon is ignored, so memory stays bounded however long the run goes on.
+ */
+public class TimelineRecorder implements SchedulerListener {
+    private final long horizon;
+    private final long[] openStart;   // Per core: start of the running slice (-1 = idle).
+    private final int[] openPid;
+    private int[] core = new int[256], pid = new int[256];
+    private long[] start = new long[256], end = new long[256];
+    private int size = 0;
+
+    public TimelineRecorder(int cores, long horizon) {
+        this.horizon = horizon;
+        this.openStart = new long[cores];
+        this.openPid = new int[cores];
+        Arrays.fill(openStart, -1);
+    }
+
+    @Override
+    public void onDispatch(SimProcess p, int c, long now) {
+        if (now >= horizon) return;
+        openStart[c] = now;
+        openPid[c] = p.id;
+    }
+
+    @Override
+    public void onPreempt(SimProcess p, int c, long now) { close(c, now); }
+
+    @Override
+    public void onComplete(SimProcess p, int c, long now) { close(c, now); }
+
+    private void close(int c, long now) {
+        if (openStart[c] < 0) return;
+        if (size == start.length) {
+            int n = size * 2;
+            core = Arrays.copyOf(core, n); pid = Arrays.copyOf(pid, n);
+            start = Arrays.copyOf(start, n); end = Arrays.copyOf(end, n);
+        }
+        core[size] = c; pid[size] = openPid[c];
+        start[size] = openStart[c]; end[size] = Math.min(now, horizon);
+        size++;
+        openStart[c] = -1;
+    }
+
+    public long horizon() { return horizon; }
+    public int cores() { return openStart.length; }
+    public int size() { return size; }
+    public int core(int i) { return core[i]; }
+    public int pid(int i) { return pid[i]; }
+    public long start(int i) { return start[i]; }
+    public long end(int i) { return end[i]; }
+}
@@ -0,0 +1,71 @@
+package scheduler;
+
+/**
+ * CLASS: Topology
+ * Physical layout of the simulated machine: sockets, cores per socket and the
+ * memory/cache costs of moving work around.
+ * * CACHE MODEL:
+ * - A process leaves warm cache lines behind on the core it ran on. The warmth
+ *   halves every 'cacheHalfLife' ticks it spends off that core.
+ * - Cores of one socket share the L3, so moving within a socket keeps half the warmth.
+ * - Moving to another socket starts completely cold.
+ * - A dispatch pays 'warmupTicks * (1 - warmth)' ticks of refill before doing real work.
+ * * MEMORY MODEL:
+ * - A process's memory lives on the socket it first ran on (first-touch).
+ * - Running on any other socket stretches its work by (1 + remotePenalty).
+ */
+public class Topology {
+    public final int sockets, coresPerSocket;
+    public final int l3CacheMB;        // Per socket.
+    public final long warmupTicks;     // Refill cost of a completely cold cache.
+    public final long cacheHalfLife;   // Ticks off-core until half the warmth is gone.
+    public final double remotePenalty; // Extra cost of remote memory (0.3 = 30% slower).
+
+    public Topology(int sockets, int coresPerSocket, int l3CacheMB,
+                    long warmupTicks, long cacheHalfLife, double remotePenalty) {
+        if (sockets <= 0 || coresPerSocket <= 0) throw new IllegalArgumentException("need at least one socket and core");
+        if (cacheHalfLife <= 0) throw new IllegalArgumentException("cacheHalfLife must be positive: " + cacheHalfLife);
+        this.sockets = sockets; this.coresPerSocket = coresPerSocket; this.l3CacheMB = l3CacheMB;
+        this.warmupTicks = warmupTicks; this.cacheHalfLife = cacheHalfLife; this.remotePenalty = remotePenalty;
+    }
+
+    // Sensible defaults for a CPU with the given L3: the more cache each core gets,
+    // the longer its lines survive while a process is away.
+    public Topology(int sockets, int coresPerSocket, int l3CacheMB) {
+        this(sockets, coresPerSocket, l3CacheMB, 5, Math.max(1, 20L * l3CacheMB / coresPerSocket), 0.3);
+    }
+
+    // Idealized machine: one socket, free migrations, no remote memory.
+    public static Topology flat(int cores) {
+        return new Topology(1, cores, 0, 0, 1, 0.0);
+    }
+
+    public int totalCores() { return sockets * coresPerSocket; }
+    public int socketOf(int core) { return core / coresPerSocket; }
+    public boolean isFlat() { return warmupTicks == 0 && (sockets == 1 || remotePenalty == 0); }
+
+    // Fraction (0..1) of a process's cache state still usable when it is dispatched on 'core'.
+    public double warmth(SimProcess p, int core, long now) {
+        if (p.lastCore < 0 || warmupTicks == 0) return 0;
+        double decay = Math.pow(0.5, (now - p.lastRunEnd) / (double) cacheHalfLife);
+        if (p.lastCore == core) return decay;
+        if (socketOf(p.lastCore) == socketOf(core)) return 0.5 * decay;
+        return 0;
+    }
+
+    // Refill ticks charged when 'p' is dispatched on 'core'.
+    public long warmupCost(SimProcess p, int core, long now) {
+        return Math.round(warmupTicks * (1 - warmth(p, core, now)));
+    }
+
+    // Wall ticks per tick of work on 'core' (1.0 = local memory).
+    public double stretch(SimProcess p, int core) {
+        if (p.homeSocket < 0 || p.homeSocket == socketOf(core)) return 1.0;
+        return 1.0 + remotePenalty;
+    }
+
+    @Override
+    public String toString() {
+        return sockets + "x" + coresPerSocket + " cores, " + l3CacheMB + "MB L3/socket";
+    }
+}
@@ -0,0 +1,28 @@
+package scheduler;
+
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * CLASS: TopologyStudy
+ * Runs one workload on one Topology under several load balancers, so that
+ * affinity-aware placement can be measured against naive placement.
+ * * Reports throughput plus turnaround percentiles (tail latency).
+ * * Every balancer is an independent run, executed in parallel like CoreScaling.
+ */
+public final class TopologyStudy {
+    private TopologyStudy() {}
+
+    public static List<StudyResult> compare(List<SimProcess> workload, Topology topology,
+                                            Supplier<SchedulingPolicy> policies, List<Supplier<LoadBalancer>> balancers) {
+        return IntStream.range(0, balancers.size()).parallel()
+                .mapToObj(i -> runOne(workload, topology, policies, balancers.get(i).get()))
+                .toList();
+    }
+
+    public static StudyResult runOne(List<SimProcess> workload, Topology topology,
+                                     Supplier<SchedulingPolicy> policies, LoadBalancer balancer) {
+        return StudyResult.run(balancer.name(), new SchedulerEngine(topology, policies, balancer), workload);
+    }
+}
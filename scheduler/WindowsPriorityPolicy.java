@@ -0,0 +1,103 @@
+package scheduler;
+
+/**
+ * POLICY: Windows NT Dispatcher
+ * 32 priority levels, each with its own FIFO ready queue. The highest non-empty
+ * level always runs; within a level, threads round-robin on their quantum.
+ * * BASE PRIORITY: nice -20..19 is mapped onto the "dynamic" range 15..1.
+ * * PRIORITY BOOST: a thread that becomes ready after waiting gets +1, foreground
+ *   (interactive) threads get +2. Each quantum it burns through decays the boost
+ *   by one level until it is back at its base.
+ * * FOREGROUND QUANTUM: foreground threads get a 3x longer quantum.
+ * * A higher-priority arrival preempts immediately; the preempted thread keeps
+ *   its priority and goes back to the *front* of its level.
+ * * Picking the next thread is O(1): a 32-bit mask has one bit per non-empty level.
+ */
+public class WindowsPriorityPolicy implements SchedulingPolicy {
+    public static final int LEVELS = 32, MAX_DYNAMIC = 15;
+    public static final long QUANTUM = 20, FOREGROUND_STRETCH = 3;
+    public static final int WAKE_BOOST = 1, FOREGROUND_BOOST = 2;
+
+    private final ProcessQueue[] levels = new ProcessQueue[LEVELS];
+    private int readyMask = 0; // Bit i set = levels[i] is not empty.
+    private int size = 0;
+
+    public WindowsPriorityPolicy() {
+        for (int i = 0; i < LEVELS; i++) levels[i] = new ProcessQueue();
+    }
+
+    @Override public String name() { return "Windows"; }
+
+    static int basePriority(SimProcess p) {
+        return Math.max(1, Math.min(MAX_DYNAMIC, 8 - Math.round(p.nice * 7 / 20.0f)));
+    }
+
+    // Priority 'p' will have when it (re)enters the queue now.
+    private static int boostedPriority(SimProcess p) {
+        int boost = p.interactive ? FOREGROUND_BOOST : WAKE_BOOST;
+        return Math.min(MAX_DYNAMIC, basePriority(p) + boost);
+    }
+
+    @Override
+    public void enqueue(SimProcess p, long now) {
+        boolean front = false;
+        if (p.dynPriority < 0 || p.firstRun < 0) {
+            p.dynPriority = boostedPriority(p);        // Just became ready: wake boost.
+        } else if (p.quantumExpired) {
+            // Quantum end: decay. Asked of the engine, not worked out from sliceWork(): the
+            // quantum is wall time on the core, and part of it went to switch/warm-up cost.
+            p.dynPriority = Math.max(basePriority(p), p.dynPriority - 1);
+            p.quantumExpired = false; // Decayed once; a later migration must not decay it again.
+        } else if (p.sliceWork() > 0) {
+            front = true;                             // Preempted mid-quantum: keep its turn.
+        }
+        p.dispatchRemaining = p.remaining;
+        ProcessQueue q = levels[p.dynPriority];
+        if (front) q.addFirst(p); else q.addLast(p);
+        readyMask |= 1 << p.dynPriority;
+        size++;
+    }
+
+    @Override
+    public SimProcess next(long now) {
+        if (readyMask == 0) return null;
+        return take(31 - Integer.numberOfLeadingZeros(readyMask), true);
+    }
+
+    // Migrations take from the lowest non-empty level, the tail of the line.
+    @Override
+    public SimProcess steal(long now) {
+        if (readyMask == 0) return null;
+        return take(Integer.numberOfTrailingZeros(readyMask), false);
+    }
+
+    private SimProcess take(int level, boolean head) {
+        ProcessQueue q = levels[level];
+        SimProcess p = head ? q.pollFirst() : q.pollLast();
+        if (q.isEmpty()) readyMask &= ~(1 << level);
+        size--;
+        return p;
+    }
+
+    @Override
+    public long quantum(SimProcess p) { return p.interactive ? QUANTUM * FOREGROUND_STRETCH : QUANTUM; }
+
+    @Override
+    public boolean preempts(SimProcess arrived, SimProcess running, long runningRemaining) {
+        return boostedPriority(arrived) > running.dynPriority;
+    }
+
+    @Override public int size() { return size; }
+
+    // Queue order = highest level first, FIFO inside a level.
+    @Override
+    public SimProcess readyAt(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+        for (int level = LEVELS - 1; level >= 0; level--) {
+            int n = levels[level].size();
+            if (index < n) return levels[level].get(index);
+            index -= n;
+        }
+        throw new IllegalStateException("size out of sync");
+    }
+}
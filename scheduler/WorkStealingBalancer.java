@@ -0,0 +1,19 @@
+package scheduler;
+
+/**
+ * BALANCER: Work Stealing
+ * Arrivals are spread round-robin by process id and stay on their core. A core
+ * that runs dry steals one process from the core with the longest queue.
+ * * No periodic work at all: balancing only happens when a core would idle.
+ */
+public class WorkStealingBalancer implements LoadBalancer {
+
+    @Override public String name() { return "Work Stealing"; }
+    @Override public int place(SimProcess p, Core[] cores) { return Math.floorMod(p.id, cores.length); }
+
+    @Override
+    public int victim(Core idle, Core[] cores) {
+        int v = LoadBalancer.mostQueued(cores);
+        return cores[v].queue.size() > 0 ? v : -1;
+    }
+}
@@ -0,0 +1,73 @@
+package scheduler;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+
+/**
+ * CLASS: WorkloadGenerator
+ * Lazily streams a seeded synthetic workload into SchedulerEngine.feed().
+ * * ARRIVALS: a Poisson process (exponential gaps around 'meanGap' ticks).
+ * * JOBS: a fraction 'ioFraction' are I/O-bound: short bursts, flagged interactive
+ *   (they would block on I/O right after), with a small nice value. The rest are
+ *   CPU-bound and draw from the CPU burst distribution.
+ * * Only the next process exists at any time, so a run can stream tens of millions
+ *   of processes in constant memory. The same seed always yields the same stream.
+ */
+public class WorkloadGenerator implements Iterator<SimProcess> {
+    private final long count;
+    private final double meanGap;
+    private final BurstDistribution cpuBursts, ioBursts;
+    private final double ioFraction;
+    private final SplittableRandom rnd;
+
+    private long produced = 0;
+    private double clock = 0; // Fractional arrival clock, so small gaps do not round away.
+
+    // 'count' = Long.MAX_VALUE streams forever.
+    public WorkloadGenerator(long count, double meanGap, BurstDistribution cpuBursts,
+                             BurstDistribution ioBursts, double ioFraction, long seed) {
+        if (count < 0) throw new IllegalArgumentException("count must be >= 0: " + count);
+        if (meanGap < 0) throw new IllegalArgumentException("meanGap must be >= 0: " + meanGap);
+        if (ioFraction < 0 || ioFraction > 1) throw new IllegalArgumentException("ioFraction must be in 0..1: " + ioFraction);
+        this.count = count; this.meanGap = meanGap;
+        this.cpuBursts = cpuBursts; this.ioBursts = ioBursts; this.ioFraction = ioFraction;
+        this.rnd = new SplittableRandom(seed);
+    }
+
+    // CPU-bound only.
+    public WorkloadGenerator(long count, double meanGap, BurstDistribution bursts, long seed) {
+        this(count, meanGap, bursts, bursts, 0, seed);
+    }
+
+    // Arrival gap that keeps 'cores' cores busy 'load' (0..1) of the time on average.
+    public static double gapForLoad(BurstDistribution cpuBursts, BurstDistribution ioBursts,
+                                    double ioFraction, int cores, double load) {
+        double meanBurst = ioFraction * ioBursts.mean() + (1 - ioFraction) * cpuBursts.mean();
+        return meanBurst / (cores * load);
+    }
+
+    @Override
+    public boolean hasNext() { return produced < count; }
+
+    @Override
+    public SimProcess next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        clock += -meanGap * Math.log(1 - rnd.nextDouble());
+        int id = (int) produced++; // Ids wrap past 2^31 processes; they only label jobs.
+        boolean io = ioFraction > 0 && rnd.nextDouble() < ioFraction;
+        if (io) return new SimProcess(id, "IO" + id, (long) clock, ioBursts.sample(rnd), -5, true);
+        return new SimProcess(id, "CPU" + id, (long) clock, cpuBursts.sample(rnd), rnd.nextInt(10), false);
+    }
+
+    // Materializes the next 'n' processes (for studies that replay one workload several times).
+    public List<SimProcess> take(int n) {
+        List<SimProcess> out = new ArrayList<>(n);
+        for (int i = 0; i < n && hasNext(); i++) out.add(next());
+        return out;
+    }
+
+    public long produced() { return produced; }
+}
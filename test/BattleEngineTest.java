@@ -0,0 +1,273 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TESTS: BattleEngine
+ * Every battle rolls seeded SplittableRandom dice, so each run is repeatable.
+ * * Odds: kernel panics happen at undervoltVal / 200 and crits at l3CacheMB / 100,
+ *   checked over many first moves within five standard errors.
+ * * Timers: Turbo Boost lasts the turn it is used and the next one; SMT threads
+ *   last until the end of the turn; charges and the once-per-battle rule hold.
+ * * Waves: clearing a wave spawns the next one at full HP, the last one wins.
+ * * Snapshots: restore() brings back the exact state, and a restored battle plays on
+ *   exactly like the original when it is given the same dice.
+ */
+class BattleEngineTest {
+
+    private static final int N = 100_000;
+
+    // Core i5: 4 threads, SMT, 48 base damage, 12% crit. Undervolt 60 = 30% panics.
+    private static GameState i5(int undervolt) {
+        GameState.Draft d = GameState.starter().edit();
+        d.currentCpu = Hardware.CpuType.CORE_I5;
+        d.storageLevel = 20; d.ramIndex = 3; d.undervoltVal = undervolt;
+        return d.freeze();
+    }
+
+    // Enemies that hit for nothing, so the player never dies while a rule is measured.
+    private static BattleEngine.Balance harmless() {
+        BattleEngine.Balance b = BattleEngine.Balance.DEFAULT;
+        for (EnemyType t : EnemyType.values()) b = b.with(t, t.hpMult, 0);
+        return b;
+    }
+
+    // --- ODDS ---
+
+    @Test
+    void panicAndCritHappenAtTheirOdds() {
+        GameState gs = i5(60);
+        SplittableRandom seeds = new SplittableRandom(16);
+        int panics = 0, crits = 0, hits = 0;
+        int plain = BattleEngine.skillDamage(gs, false, false), crit = BattleEngine.skillDamage(gs, false, true);
+        for (int n = 0; n < N; n++) {
+            BattleEngine b = new BattleEngine(gs, 7, seeds.split()); // Android Studio: 330 HP, survives a crit.
+            int ram = b.ram();
+            BattleEngine.Outcome o = b.act(BattleEngine.Action.ATTACK);
+            assertEquals(b.maxAP() - 1, b.ap()); // A thread is spent either way.
+            Monster m = b.wave()[0];
+            if (o == BattleEngine.Outcome.KERNEL_PANIC) {
+                panics++;
+                assertEquals(ram, b.ram());      // ...but no RAM, and nothing is hit.
+                assertEquals(m.maxHP, m.currentHP);
+            } else {
+                assertEquals(BattleEngine.Outcome.OK, o);
+                assertEquals(ram - b.cost(BattleEngine.Action.ATTACK), b.ram());
+                int dmg = m.maxHP - m.currentHP;
+                assertTrue(dmg == plain || dmg == crit, "damage " + dmg);
+                hits++;
+                if (dmg == crit) crits++;
+            }
+        }
+        assertEquals(0.30, panics / (double) N, 5 * Math.sqrt(0.30 * 0.70 / N));
+        assertEquals(0.12, crits / (double) hits, 5 * Math.sqrt(0.12 * 0.88 / hits));
+    }
+
+    @Test
+    void noUndervoltNeverPanics() {
+        GameState gs = i5(0);
+        SplittableRandom rng = new SplittableRandom(3);
+        for (int n = 0; n < 10_000; n++)
+            assertNotEquals(BattleEngine.Outcome.KERNEL_PANIC, new BattleEngine(gs, 7, rng).act(BattleEngine.Action.SNIPE));
+        assertTrue(BattleEngine.rollCrit(gs, 0.1199));
+        assertFalse(BattleEngine.rollCrit(gs, 0.12));
+    }
+
+    // --- TIMERS ---
+
+    @Test
+    void turboLastsTheTurnItIsUsedAndTheNext() {
+        GameState gs = i5(0);
+        BattleEngine b = new BattleEngine(gs, 7, harmless(), new SplittableRandom(5));
+        assertEquals(BattleEngine.Outcome.OK, b.act(BattleEngine.Action.TURBO));
+        assertEquals(b.maxAP(), b.ap()); // Costs no thread.
+        assertEquals(1, b.turboCharges());
+        assertEquals(2, b.turboDuration());
+        assertTrue(boosted(gs, b));
+        b.act(BattleEngine.Action.END_TURN);
+        assertEquals(1, b.turboDuration());
+        assertTrue(boosted(gs, b));
+        b.act(BattleEngine.Action.END_TURN);
+        assertEquals(0, b.turboDuration());
+        assertFalse(boosted(gs, b));
+
+        assertEquals(BattleEngine.Outcome.OK, b.act(BattleEngine.Action.TURBO));
+        assertEquals(0, b.turboCharges());
+        assertFalse(b.canUse(BattleEngine.Action.TURBO));
+        assertEquals(BattleEngine.Outcome.UNAVAILABLE, b.act(BattleEngine.Action.TURBO));
+    }
+
+    // Attacks the first enemy and tells whether the hit carried the Turbo bonus.
+    private static boolean boosted(GameState gs, BattleEngine b) {
+        Monster m = b.arena().get(0);
+        int before = m.currentHP;
+        assertEquals(BattleEngine.Outcome.OK, b.act(BattleEngine.Action.ATTACK));
+        int dmg = before - m.currentHP;
+        if (dmg == BattleEngine.skillDamage(gs, true, false) || dmg == BattleEngine.skillDamage(gs, true, true)) return true;
+        assertTrue(dmg == BattleEngine.skillDamage(gs, false, false) || dmg == BattleEngine.skillDamage(gs, false, true), "damage " + dmg);
+        return false;
+    }
+
+    @Test
+    void smtThreadsLastUntilTheEndOfTheTurn() {
+        BattleEngine b = new BattleEngine(i5(0), 7, harmless(), new SplittableRandom(8));
+        b.act(BattleEngine.Action.ATTACK);
+        b.act(BattleEngine.Action.ATTACK);
+        int ram = b.ram();
+        assertEquals(BattleEngine.Outcome.OK, b.act(BattleEngine.Action.SMT));
+        assertEquals(ram - BattleEngine.Action.SMT.ramCost, b.ram()); // No undervolt discount on SMT.
+        assertEquals(8, b.maxAP());
+        assertEquals(2 + 4, b.ap());
+        assertTrue(b.smtUsed() && b.smtActive());
+        assertEquals(BattleEngine.Outcome.UNAVAILABLE, b.act(BattleEngine.Action.SMT));
+        b.act(BattleEngine.Action.END_TURN);
+        assertEquals(4, b.maxAP());
+        assertEquals(4, b.ap());
+        assertFalse(b.smtActive());
+        assertTrue(b.smtUsed());
+        b.act(BattleEngine.Action.END_TURN);
+        assertFalse(b.canUse(BattleEngine.Action.SMT)); // Once per battle.
+
+        BattleEngine athlon = new BattleEngine(GameState.starter(), 1, new SplittableRandom(1));
+        assertEquals(BattleEngine.Outcome.UNAVAILABLE, athlon.act(BattleEngine.Action.SMT)); // No SMT on this CPU.
+    }
+
+    @Test
+    void endTurnRegeneratesAndRefills() {
+        GameState.Draft d = i5(0).edit();
+        d.hasECC = true;
+        GameState gs = d.freeze();
+        BattleEngine b = new BattleEngine(gs, 1, new SplittableRandom(2));
+        b.act(BattleEngine.Action.SMT);
+        b.act(BattleEngine.Action.HEAL);
+        int hp = b.hp(), ram = b.ram(), hits = 0;
+        for (Monster m : b.arena()) hits += BattleEngine.enemyDamage(m.type, BattleEngine.Balance.DEFAULT);
+        b.act(BattleEngine.Action.END_TURN);
+        assertEquals(Math.min(b.maxHP(), hp - hits + gs.currentCooler.regen), b.hp());
+        assertEquals(Math.min(b.maxRAM(), ram + 250), b.ram()); // 100 + 150 for ECC.
+        assertEquals(2, b.turn());
+    }
+
+    // --- WAVES ---
+
+    @Test
+    void clearingAWaveSpawnsTheNextUntilTheLastOneWins() {
+        for (int stage : new int[] {1, 3, 6, 7}) {
+            BattleEngine b = new BattleEngine(i5(0), stage, harmless(), new SplittableRandom(stage));
+            assertEquals(BattleEngine.rounds(stage), b.totalRounds);
+            checkFreshWave(b, stage);
+            int round = 1;
+            while (!b.isOver()) {
+                BattleEngine.Action a = b.canUse(BattleEngine.Action.AOE) ? BattleEngine.Action.AOE : BattleEngine.Action.END_TURN;
+                b.act(a);
+                if (b.round() != round) {
+                    assertEquals(round + 1, b.round(), "stage " + stage);
+                    round = b.round();
+                    checkFreshWave(b, stage);
+                }
+                assertTrue(b.turn() < 500, "stage " + stage + " never ends");
+            }
+            assertTrue(b.isWon() && !b.isLost());
+            assertEquals(b.totalRounds, b.round());
+            assertTrue(b.arena().isEmpty());
+            assertEquals(BattleEngine.Outcome.BATTLE_OVER, b.act(BattleEngine.Action.ATTACK));
+        }
+    }
+
+    private static void checkFreshWave(BattleEngine b, int stage) {
+        Monster[] wave = b.wave();
+        assertEquals(BattleEngine.waveSize(stage), wave.length);
+        assertEquals(wave.length, b.arena().size());
+        for (int i = 0; i < wave.length; i++) {
+            EnemyType t = BattleEngine.enemyType(stage, b.round(), i);
+            assertEquals(t, wave[i].type);
+            assertEquals(BattleEngine.enemyHP(stage, t, b.balance()), wave[i].currentHP);
+            assertSame(wave[i], b.arena().get(i));
+        }
+    }
+
+    @Test
+    void zeroHpEndsTheBattleLost() {
+        GameState.Draft d = GameState.starter().edit();
+        d.storageLevel = 0; // 100 HP against a floor 7 wave.
+        BattleEngine b = new BattleEngine(d.freeze(), 7, new SplittableRandom(4));
+        b.act(BattleEngine.Action.END_TURN);
+        assertTrue(b.isLost());
+        assertEquals(1, b.turn()); // The turn that was lost is not counted as started.
+        assertEquals(BattleEngine.Outcome.BATTLE_OVER, b.act(BattleEngine.Action.END_TURN));
+    }
+
+    // --- SNAPSHOTS ---
+
+    @Test
+    void restoreBringsBackEverySnapshot() {
+        for (long seed = 1; seed <= 50; seed++) {
+            SplittableRandom rng = new SplittableRandom(seed);
+            BattleEngine b = new BattleEngine(i5(40), 3 + (int) (seed % 5), rng);
+            List<BattleState> shots = new ArrayList<>();
+            List<Long> hashes = new ArrayList<>();
+            List<Integer> turns = new ArrayList<>(), alive = new ArrayList<>();
+            for (int step = 0; step < 80 && !b.isOver(); step++) {
+                shots.add(b.snapshot());
+                hashes.add(b.stateHash());
+                turns.add(b.turn());
+                alive.add(b.arena().size());
+                b.act(randomMove(b, rng));
+            }
+            for (int i = shots.size() - 1; i >= 0; i--) { // Newest first, like undo.
+                b.restore(shots.get(i));
+                assertEquals(hashes.get(i), b.stateHash(), "seed " + seed + " step " + i);
+                assertEquals(turns.get(i), b.turn());
+                assertEquals(alive.get(i), b.arena().size());
+                assertEquals(i, b.moves() - shots.get(0).moves, "seed " + seed + " step " + i);
+                if (i > 0) assertSame(shots.get(i - 1), shots.get(i).previous);
+            }
+        }
+    }
+
+    @Test
+    void aRestoredBattlePlaysOnLikeTheOriginal() {
+        for (long seed = 1; seed <= 50; seed++) {
+            SplittableRandom rng = new SplittableRandom(seed);
+            BattleEngine a = new BattleEngine(i5(40), 5, rng);
+            for (int i = 0; i < 10 && !a.isOver(); i++) a.act(randomMove(a, rng));
+            BattleState mid = a.snapshot();
+            BattleEngine b = new BattleEngine(mid, new SplittableRandom(seed * 31));
+            BattleEngine c = a.copy(new SplittableRandom(seed * 31));
+            a = new BattleEngine(a.loadout(), 5, new SplittableRandom(seed * 31)); // Same setup, fresh engine...
+            a.restore(mid);                                                         // ...put back in the middle.
+            assertEquals(a.stateHash(), b.stateHash());
+            assertEquals(a.stateHash(), c.stateHash());
+            SplittableRandom moves = new SplittableRandom(seed + 1000);
+            for (int i = 0; i < 60 && !a.isOver(); i++) {
+                BattleEngine.Action m = randomMove(a, moves);
+                BattleEngine.Outcome o = a.act(m);
+                assertEquals(o, b.act(m), "seed " + seed + " move " + i);
+                assertEquals(o, c.act(m), "seed " + seed + " move " + i);
+                assertEquals(a.stateHash(), b.stateHash());
+                assertEquals(a.stateHash(), c.stateHash());
+            }
+        }
+    }
+
+    @Test
+    void restoreRefusesAnotherSetup() {
+        BattleState floor3 = new BattleEngine(i5(0), 3, new SplittableRandom(1)).snapshot();
+        BattleEngine floor4 = new BattleEngine(i5(0), 4, new SplittableRandom(1));
+        assertThrows(IllegalArgumentException.class, () -> floor4.restore(floor3));
+    }
+
+    // Any move the battle allows right now, END_TURN when none.
+    private static BattleEngine.Action randomMove(BattleEngine b, SplittableRandom rng) {
+        BattleEngine.Action[] all = BattleEngine.Action.values();
+        for (int tries = 0; tries < 8; tries++) {
+            BattleEngine.Action a = all[rng.nextInt(all.length)];
+            if (b.canUse(a)) return a;
+        }
+        return BattleEngine.Action.END_TURN;
+    }
+}
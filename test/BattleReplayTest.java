@@ -0,0 +1,203 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TESTS: BattleRecorder -> BattleReplay
+ * Battles are played the way CyberQuestRPG plays them (recorder fed after every act,
+ * in-turn UNDO through the snapshot chain), written with finish() and read back.
+ * * verify() must hold, and seek(t) must rebuild the exact state every turn began with.
+ * * The loadout fields and a custom balance must survive the file format.
+ * * Files that would break the replay viewer (fields out of range, an input count
+ *   larger than the file, a final turn the inputs can't reach, an UNDO with nothing
+ *   to take back) are refused by read() with an IOException.
+ */
+class BattleReplayTest {
+
+    private static GameState loadout() {
+        GameState.Draft d = GameState.starter().edit();
+        d.currentCpu = Hardware.CpuType.CORE_I5;
+        d.currentCooler = Hardware.CoolerType.AIR_TOWER;
+        d.ramIndex = 2; d.storageLevel = 3; d.overclockVal = 20; d.undervoltVal = 30; d.hasECC = true;
+        return d.freeze();
+    }
+
+    /** A recorded battle plus the state hash at the start of every turn it reached. */
+    private static final class Played {
+        final byte[] file;
+        final BattleEngine end;
+        final List<Long> turnStartHash = new ArrayList<>(); // Index 0 = turn 1.
+        int undos;
+
+        Played(byte[] file, BattleEngine end) { this.file = file; this.end = end; }
+    }
+
+    // Greedy play; after 'undoChance' of the applied moves (never END_TURN) the move is
+    // taken back, as the UNDO button does.
+    private static Played play(GameState gs, int floor, BattleEngine.Balance balance, long seed, double undoChance) {
+        BattleEngine b = new BattleEngine(gs, floor, balance, BattleRecorder.dice(seed));
+        BattleRecorder recorder = new BattleRecorder(gs, floor, balance, seed);
+        BattlePolicy policy = BattlePolicy.greedy();
+        SplittableRandom rng = new SplittableRandom(seed ^ 0x5DEECE66DL);
+        BattleState shown = b.snapshot();
+        List<Long> hashes = new ArrayList<>(List.of(b.stateHash()));
+        long millis = 0;
+        int undos = 0;
+        while (!b.isOver() && b.turn() <= 200) {
+            BattleEngine.Action a = policy.choose(b, rng);
+            BattleEngine.Outcome o = b.act(a);
+            recorder.record(a, o, millis += 1 + rng.nextInt(3000));
+            boolean applied = o == BattleEngine.Outcome.OK || o == BattleEngine.Outcome.KERNEL_PANIC;
+            if (applied) shown = b.snapshot();
+            if (a == BattleEngine.Action.END_TURN) {
+                if (!b.isOver()) hashes.add(b.stateHash());
+            } else if (!applied) {
+                // A refused move (out of threads or RAM) ends the turn, as BalanceSweep does.
+                recorder.record(BattleEngine.Action.END_TURN, b.act(BattleEngine.Action.END_TURN), millis += 1);
+                shown = b.snapshot();
+                if (!b.isOver()) hashes.add(b.stateHash());
+            } else if (!b.isOver() && rng.nextDouble() < undoChance) {
+                shown = shown.previous;
+                b.restore(shown);
+                recorder.recordUndo(millis += 1);
+                undos++;
+            }
+        }
+        Played p = new Played(recorder.finish(b), b);
+        p.turnStartHash.addAll(hashes);
+        p.undos = undos;
+        return p;
+    }
+
+    @Test
+    void roundTripVerifiesAndSeeksEveryTurn() throws IOException {
+        for (long seed = 1; seed <= 50; seed++) {
+            Played p = play(loadout(), 3, BattleEngine.Balance.DEFAULT, seed, 0.2);
+            BattleReplay r = BattleReplay.read(p.file);
+            assertTrue(r.verify(), "seed " + seed);
+            assertEquals(p.end.turn(), r.finalTurn);
+            assertEquals(p.end.stateHash(), r.play().stateHash());
+            for (int t = 1; t <= p.turnStartHash.size(); t++)
+                assertEquals(p.turnStartHash.get(t - 1), r.seek(t).stateHash(), "seed " + seed + " turn " + t);
+        }
+    }
+
+    @Test
+    void undoIsRecordedAndReplayed() throws IOException {
+        Played p = play(loadout(), 3, BattleEngine.Balance.DEFAULT, 99, 0.5);
+        assertTrue(p.undos > 0);
+        BattleReplay r = BattleReplay.read(p.file);
+        int undos = 0;
+        for (int i = 0; i < r.inputs(); i++) if (r.isUndo(i)) { undos++; assertNull(r.action(i)); }
+        assertEquals(p.undos, undos);
+        assertTrue(r.verify());
+    }
+
+    @Test
+    void loadoutAndBalanceSurviveTheFile() throws IOException {
+        BattleEngine.Balance balance = new BattleEngine.Balance().with(EnemyType.values()[0], 1.5, 0.5);
+        GameState gs = loadout();
+        Played p = play(gs, 4, balance, 7, 0.1);
+        BattleReplay r = BattleReplay.read(p.file);
+        assertEquals(4, r.floor);
+        assertEquals(gs.currentCpu, r.loadout.currentCpu);
+        assertEquals(gs.currentCooler, r.loadout.currentCooler);
+        assertEquals(gs.ramIndex, r.loadout.ramIndex);
+        assertEquals(gs.storageLevel, r.loadout.storageLevel);
+        assertEquals(gs.overclockVal, r.loadout.overclockVal);
+        assertEquals(gs.undervoltVal, r.loadout.undervoltVal);
+        assertEquals(gs.hasECC, r.loadout.hasECC);
+        assertArrayEquals(balance.hpMult, r.balance.hpMult);
+        assertArrayEquals(balance.dmgMult, r.balance.dmgMult);
+        assertTrue(r.verify());
+    }
+
+    @Test
+    void aTamperedChecksumFailsVerification() throws IOException {
+        Played p = play(loadout(), 3, BattleEngine.Balance.DEFAULT, 3, 0);
+        byte[] file = p.file.clone();
+        file[file.length - 1] ^= 1; // Last byte of the final state hash.
+        assertFalse(BattleReplay.read(file).verify());
+    }
+
+    @Test
+    void garbageIsRejected() {
+        assertThrows(IOException.class, () -> BattleReplay.read(new byte[] {1, 2, 3, 4, 5}));
+    }
+
+    @Test
+    void loadoutFieldsOutOfRangeAreRejected() {
+        for (int field = 0; field < 4; field++) {
+            GameState.Draft d = loadout().edit();
+            if (field == 0) d.ramIndex = GameState.MAX_RAM_INDEX + 1;
+            if (field == 1) d.storageLevel = GameState.MAX_STORAGE_LEVEL + 1;
+            if (field == 2) d.overclockVal = 101;
+            if (field == 3) d.undervoltVal = 250;
+            byte[] file = empty(d.freeze(), 3);
+            assertThrows(IOException.class, () -> BattleReplay.read(file), "field " + field);
+        }
+        assertThrows(IOException.class, () -> BattleReplay.read(empty(loadout(), 0)));
+    }
+
+    @Test
+    void badInputCountsAndFinalTurnsAreRejected() throws IOException {
+        byte[] ok = empty(loadout(), 3); // ... | count 0 | final turn 1 | 8-byte hash
+        int count = ok.length - 10, turn = ok.length - 9;
+        assertEquals(0, ok[count]);
+        assertEquals(1, ok[turn]);
+        assertEquals(1, BattleReplay.read(ok).finalTurn);
+        // More inputs than bytes in the file, and a count with the sign bit set.
+        assertThrows(IOException.class, () -> BattleReplay.read(splice(ok, count, new byte[] {(byte) 0xFF, (byte) 0xFF, 0x7F})));
+        byte[] negative = new byte[10];
+        java.util.Arrays.fill(negative, (byte) 0xFF);
+        negative[9] = 0x01;
+        assertThrows(IOException.class, () -> BattleReplay.read(splice(ok, count, negative)));
+        // Turn 0 would make an empty slider; turn 2 can't be reached without an END_TURN.
+        for (byte t : new byte[] {0, 2, 127}) {
+            byte[] file = ok.clone();
+            file[turn] = t;
+            assertThrows(IOException.class, () -> BattleReplay.read(file), "final turn " + t);
+        }
+    }
+
+    @Test
+    void undoWithNothingToTakeBackIsRejected() throws IOException {
+        GameState gs = loadout();
+        BattleEngine b = new BattleEngine(gs, 3, BattleRecorder.dice(11));
+        BattleRecorder leading = new BattleRecorder(gs, 3, BattleEngine.Balance.DEFAULT, 11);
+        leading.recordUndo(5);
+        IOException e = assertThrows(IOException.class, () -> BattleReplay.read(leading.finish(b)));
+        assertTrue(e.getMessage().contains("UNDO"), e.getMessage());
+
+        // One move, then two UNDOs: the second has nothing left to take back.
+        BattleRecorder twice = new BattleRecorder(gs, 3, BattleEngine.Balance.DEFAULT, 11);
+        BattleState start = b.snapshot();
+        twice.record(BattleEngine.Action.TURBO, b.act(BattleEngine.Action.TURBO), 1);
+        b.restore(start);
+        twice.recordUndo(2);
+        byte[] once = twice.finish(b);
+        assertTrue(BattleReplay.read(once).verify());
+        twice.recordUndo(3);
+        assertThrows(IOException.class, () -> BattleReplay.read(twice.finish(b)));
+    }
+
+    // A replay with no inputs: the battle as it stood before the first move.
+    private static byte[] empty(GameState gs, int floor) {
+        BattleEngine b = new BattleEngine(gs, floor, BattleRecorder.dice(1));
+        return new BattleRecorder(gs, floor, BattleEngine.Balance.DEFAULT, 1).finish(b);
+    }
+
+    // 'file' with the byte at 'at' replaced by 'bytes'.
+    private static byte[] splice(byte[] file, int at, byte[] bytes) {
+        byte[] out = new byte[file.length - 1 + bytes.length];
+        System.arraycopy(file, 0, out, 0, at);
+        System.arraycopy(bytes, 0, out, at, bytes.length);
+        System.arraycopy(file, at + 1, out, at + bytes.length, file.length - at - 1);
+        return out;
+    }
+}
@@ -0,0 +1,88 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TESTS: BattleSolver
+ * Floor 1 with the starter PC undervolted to 80 (a 40% kernel panic chance per skill),
+ * so the short horizons below are genuinely uncertain.
+ * * The exact value is checked against a closed form where there is one, and against
+ *   a large Monte Carlo run of the solver's own policy on real BattleEngine battles.
+ * * No other player may beat it: greedy play must win at most as often.
+ */
+class BattleSolverTest {
+
+    private static final int FLOOR = 1, BATTLES = 200_000;
+
+    private static GameState undervolted() {
+        GameState.Draft d = GameState.starter().edit();
+        d.undervoltVal = 80;
+        return d.freeze();
+    }
+
+    @Test
+    void starterPcClearsFloorOneForSure() {
+        assertEquals(1.0, new BattleSolver(GameState.starter(), FLOOR, 3, 16).winProbability(), 1e-12);
+    }
+
+    @Test
+    void oneTurnNeedsTwoSkillsWithoutAPanic() {
+        // Two threads, two enemies: both skills must land, each panics with p = 0.4.
+        assertEquals(0.6 * 0.6, new BattleSolver(undervolted(), FLOOR, 1, 16).winProbability(), 1e-12);
+    }
+
+    @Test
+    void winProbabilityMatchesMonteCarloOfItsOwnPolicy() {
+        for (int horizon = 2; horizon <= 3; horizon++) {
+            BattleSolver solver = new BattleSolver(undervolted(), FLOOR, horizon, 16);
+            double exact = solver.winProbability();
+            double played = winRate(solver.policy(), horizon, 2024 + horizon);
+            assertEquals(exact, played, tolerance(exact), "horizon " + horizon);
+        }
+    }
+
+    @Test
+    void noPolicyBeatsTheExactValue() {
+        int horizon = 3;
+        double exact = new BattleSolver(undervolted(), FLOOR, horizon, 16).winProbability();
+        double greedy = winRate(BattlePolicy.greedy(), horizon, 7);
+        assertTrue(greedy <= exact + tolerance(exact), "greedy " + greedy + " > exact " + exact);
+    }
+
+    @Test
+    void pastTheHorizonTheBestMoveIsToEndTheTurn() {
+        BattleSolver solver = new BattleSolver(undervolted(), FLOOR, 1, 16);
+        BattleEngine b = new BattleEngine(undervolted(), FLOOR, new SplittableRandom(1));
+        b.act(BattleEngine.Action.END_TURN);
+        b.act(BattleEngine.Action.END_TURN); // Turn 3 of a 1-turn horizon.
+        BattleSolver.Position late = BattleSolver.positionOf(b);
+        assertEquals(0, solver.winProbability(late));
+        assertEquals(BattleEngine.Action.END_TURN, solver.bestAction(late));
+        assertEquals(0.6 * 0.6, solver.winProbability(), 1e-12); // The table was not touched.
+    }
+
+    // Five standard errors of a BATTLES-sample win rate.
+    private static double tolerance(double p) {
+        return 5 * Math.sqrt(p * (1 - p) / BATTLES);
+    }
+
+    // Share of BATTLES real engine battles 'policy' wins within 'horizon' turns.
+    private static double winRate(BattlePolicy policy, int horizon, long seed) {
+        GameState gs = undervolted();
+        SplittableRandom seeds = new SplittableRandom(seed);
+        int wins = 0;
+        for (int n = 0; n < BATTLES; n++) {
+            SplittableRandom rng = seeds.split();
+            BattleEngine b = new BattleEngine(gs, FLOOR, rng);
+            while (!b.isOver() && b.turn() <= horizon) {
+                BattleEngine.Outcome o = b.act(policy.choose(b, rng));
+                if (o == BattleEngine.Outcome.NO_THREADS || o == BattleEngine.Outcome.OUT_OF_MEMORY
+                        || o == BattleEngine.Outcome.UNAVAILABLE) b.act(BattleEngine.Action.END_TURN);
+            }
+            if (b.isWon() && b.turn() <= horizon) wins++;
+        }
+        return wins / (double) BATTLES;
+    }
+}
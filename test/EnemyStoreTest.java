@@ -0,0 +1,123 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TESTS: EnemyStore
+ * Random spawns, single hits and area hits applied both to the store and to a plain
+ * list of enemies (the brute-force model); after every step every query of the store
+ * must agree with a scan of the list. This covers the lazy area-damage offset and the
+ * HP bucket index together, including spawns after area damage.
+ */
+class EnemyStoreTest {
+
+    private static final int MAX_HP = 300;
+    private static final EnemyType[] TYPES = EnemyType.values();
+
+    /** One enemy of the model. */
+    private static final class Enemy {
+        final int id;
+        final EnemyType type;
+        int hp;
+
+        Enemy(int id, EnemyType type, int hp) { this.id = id; this.type = type; this.hp = hp; }
+    }
+
+    @Test
+    void matchesABruteForceListUnderRandomOperations() {
+        for (long seed = 1; seed <= 200; seed++) {
+            SplittableRandom rng = new SplittableRandom(seed);
+            int capacity = 400;
+            EnemyStore store = new EnemyStore(capacity, MAX_HP);
+            List<Enemy> model = new ArrayList<>(); // Alive enemies in spawn order.
+            int spawned = 0, offset = 0;
+            for (int step = 0; step < 600; step++) {
+                int op = rng.nextInt(10);
+                if ((op < 4 || model.isEmpty()) && spawned < capacity && offset < MAX_HP) {
+                    EnemyType t = TYPES[rng.nextInt(TYPES.length)];
+                    int hp = rng.nextInt(1, MAX_HP - offset + 1); // add() takes up to maxHP - offset.
+                    assertEquals(spawned, store.add(t, hp));
+                    model.add(new Enemy(spawned++, t, hp));
+                } else if (op < 8 && !model.isEmpty()) {
+                    Enemy e = model.get(rng.nextInt(model.size()));
+                    int dmg = rng.nextInt(1, 60);
+                    e.hp -= dmg;
+                    assertEquals(e.hp <= 0, store.damage(e.id, dmg), "seed " + seed + " step " + step);
+                    if (e.hp <= 0) model.remove(e);
+                } else if (!model.isEmpty()) {
+                    int dmg = rng.nextInt(1, 40);
+                    offset += dmg;
+                    int kills = 0;
+                    for (Enemy e : model) if ((e.hp -= dmg) <= 0) kills++;
+                    model.removeIf(e -> e.hp <= 0);
+                    assertEquals(kills, store.damageAll(dmg), "seed " + seed + " step " + step);
+                }
+                check(store, model, "seed " + seed + " step " + step);
+            }
+        }
+    }
+
+    @Test
+    void areaDamageThatKillsEveryoneEmptiesTheStore() {
+        EnemyStore store = new EnemyStore(3, 100);
+        store.add(TYPES[0], 10); store.add(TYPES[0], 50); store.add(TYPES[0], 99);
+        assertEquals(2, store.damageAll(50));
+        assertEquals(2, store.first());
+        assertEquals(49, store.hp(2));
+        assertEquals(1, store.damageAll(1000));
+        assertTrue(store.isEmpty());
+        assertEquals(-1, store.weakest());
+        assertEquals(-1, store.first());
+        assertEquals(0, store.maxHP());
+        assertEquals(0, store.damageAll(5));
+    }
+
+    @Test
+    void rejectsHpOutsideTheIndex() {
+        EnemyStore store = new EnemyStore(4, 100);
+        assertThrows(IllegalArgumentException.class, () -> store.add(TYPES[0], 0));
+        assertThrows(IllegalArgumentException.class, () -> store.add(TYPES[0], 101));
+        store.add(TYPES[0], 100);
+        store.damageAll(30);
+        // Stored HP includes the area damage so far: 71 would need bucket 101.
+        assertThrows(IllegalArgumentException.class, () -> store.add(TYPES[0], 71));
+        store.add(TYPES[0], 70);
+    }
+
+    private static void check(EnemyStore store, List<Enemy> model, String where) {
+        assertEquals(model.size(), store.size(), where);
+        assertEquals(model.isEmpty(), store.isEmpty(), where);
+        assertEquals(model.isEmpty() ? -1 : model.get(0).id, store.first(), where);
+        int min = Integer.MAX_VALUE, max = 0;
+        int[] perType = new int[TYPES.length], damage = new int[TYPES.length];
+        long attack = 0;
+        for (Enemy e : model) {
+            assertEquals(e.hp, store.hp(e.id), where);
+            assertEquals(e.type, store.type(e.id), where);
+            min = Math.min(min, e.hp);
+            max = Math.max(max, e.hp);
+            perType[e.type.ordinal()]++;
+        }
+        for (int t = 0; t < TYPES.length; t++) {
+            assertEquals(perType[t], store.count(TYPES[t]), where);
+            damage[t] = t + 1;
+            attack += (long) perType[t] * damage[t];
+        }
+        assertEquals(attack, store.attack(damage), where);
+        assertEquals(max, store.maxHP(), where);
+        int weakest = store.weakest();
+        if (model.isEmpty()) {
+            assertEquals(-1, weakest, where);
+        } else {
+            assertEquals(min, store.hp(weakest), where);
+            assertTrue(model.stream().anyMatch(e -> e.id == weakest), where); // Alive, not a stale id.
+        }
+        int[] hist = store.histogram(10, 30), expected = new int[10];
+        for (Enemy e : model) expected[Math.min(9, (e.hp - 1) / 30)]++;
+        assertArrayEquals(expected, hist, where);
+    }
+}
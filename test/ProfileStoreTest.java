@@ -0,0 +1,91 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TESTS: ProfileStore and GameState snapshots
+ * * Profile names are the same profile with or without surrounding spaces.
+ * * put() replaces an existing profile only, and never with null.
+ * * Copy-on-write purchases from many threads never spend the same money twice.
+ * * A snapshot's replay bytes can't be changed from outside.
+ */
+class ProfileStoreTest {
+
+    @Test
+    void namesAreTrimmedAtEveryEntryPoint() {
+        ProfileStore store = new ProfileStore();
+        assertTrue(store.create(" bob "));
+        assertFalse(store.create("bob"));
+        store.select(" bob ");
+        assertEquals("bob", store.active());
+        store.update("bob ", d -> d.currency = 5);
+        assertEquals(5, store.snapshot(" bob").currency);
+        assertThrows(IllegalStateException.class, () -> store.delete(" bob"));
+        store.select(ProfileStore.DEFAULT_PROFILE);
+        store.delete(" bob ");
+        assertFalse(store.names().contains("bob"));
+        assertThrows(IllegalArgumentException.class, () -> store.create("   "));
+        assertThrows(IllegalArgumentException.class, () -> store.select("nobody"));
+    }
+
+    @Test
+    void putOnlyReplacesAnExistingProfile() {
+        ProfileStore store = new ProfileStore();
+        GameState.Draft d = GameState.starter().edit();
+        d.currency = 9999;
+        GameState s = d.freeze();
+        store.put(" " + ProfileStore.DEFAULT_PROFILE, s);
+        assertSame(s, store.current());
+        assertThrows(IllegalArgumentException.class, () -> store.put("nobody", s));
+        assertFalse(store.names().contains("nobody"));
+        assertThrows(IllegalArgumentException.class, () -> store.put(ProfileStore.DEFAULT_PROFILE, null));
+        assertSame(s, store.current());
+    }
+
+    @Test
+    void concurrentPurchasesSpendEachDollarOnce() throws InterruptedException {
+        ProfileStore store = new ProfileStore();
+        store.create("other");
+        int threads = 8, attempts = 1000, budget = GameState.starter().currency;
+        AtomicInteger bought = new AtomicInteger();
+        CountDownLatch go = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int w = 0; w < threads; w++) {
+            workers[w] = new Thread(() -> {
+                try { go.await(); } catch (InterruptedException e) { return; }
+                for (int i = 0; i < attempts; i++) {
+                    boolean ok = store.tryUpdate(ProfileStore.DEFAULT_PROFILE, d -> {
+                        if (d.currency < 1) return false;
+                        d.currency -= 1;
+                        d.storageLevel += 1;
+                        return true;
+                    });
+                    if (ok) bought.incrementAndGet();
+                }
+            });
+            workers[w].start();
+        }
+        go.countDown();
+        for (Thread t : workers) t.join();
+        GameState end = store.snapshot(ProfileStore.DEFAULT_PROFILE);
+        assertEquals(budget, bought.get());
+        assertEquals(0, end.currency);
+        assertEquals(GameState.starter().storageLevel + budget, end.storageLevel);
+        assertEquals(budget, store.snapshot("other").currency); // Untouched.
+    }
+
+    @Test
+    void replayBytesCannotBeChangedThroughTheSnapshot() {
+        byte[] file = {1, 2, 3};
+        GameState.Draft d = GameState.starter().edit();
+        d.setLastBattleReplay(file);
+        GameState s = d.freeze();
+        file[0] = 9;                 // The caller's array...
+        s.lastBattleReplay()[1] = 9; // ...and a returned copy.
+        assertArrayEquals(new byte[] {1, 2, 3}, s.lastBattleReplay());
+        assertNull(GameState.starter().lastBattleReplay());
+    }
+}
@@ -0,0 +1,86 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TESTS: ScriptedPolicy
+ * Scripts are run against a fresh floor 1 battle with the starter PC (150/150 HP,
+ * 4096/4096 MB RAM, 2 threads, one enemy), so every condition's answer is known.
+ * * Two-character operators win over their one-character prefixes (<= is not <).
+ * * Percent conditions compare against the maximum, on hp and ram only.
+ * * Empty scripts, rules and conditions, and bad or out-of-range numbers are refused
+ *   when the script is parsed, never while a battle is played.
+ */
+class ScriptedPolicyTest {
+
+    private static BattleEngine.Action pick(String script) {
+        BattleEngine b = new BattleEngine(GameState.starter(), 1, new SplittableRandom(1));
+        return new ScriptedPolicy(script).choose(b, new SplittableRandom(2));
+    }
+
+    // HEAL if 'cond' holds, ATTACK otherwise (both are usable at the start).
+    private static boolean holds(String cond) {
+        return pick("HEAL if " + cond + "; ATTACK") == BattleEngine.Action.HEAL;
+    }
+
+    @Test
+    void twoCharacterOperatorsAreNotReadAsTheirPrefix() {
+        assertTrue(holds("hp<=150"));
+        assertFalse(holds("hp<150"));
+        assertTrue(holds("hp>=150"));
+        assertFalse(holds("hp>150"));
+        assertTrue(holds("hp=150"));
+        assertFalse(holds("hp!=150"));
+        assertTrue(holds("hp != 149"));  // Spaces are allowed around the operator.
+        assertTrue(holds("ap>=2 & enemies=1 & turbo=0 & turn=1 & round=1"));
+        assertFalse(holds("ap>=2 & enemies=2"));
+    }
+
+    @Test
+    void percentIsAShareOfTheMaximum() {
+        assertTrue(holds("hp<=100%"));
+        assertFalse(holds("hp<100%"));
+        assertTrue(holds("ram>99%"));
+        assertTrue(holds("hp>0%"));
+        assertFalse(holds("ram<50%"));
+        for (String v : new String[] {"ap", "enemies", "turbo", "turn", "round"}) {
+            String cond = v + "<50%";
+            assertThrows(IllegalArgumentException.class, () -> new ScriptedPolicy("ATTACK if " + cond), cond);
+        }
+    }
+
+    @Test
+    void rulesAreTriedInOrderAndUnusableOnesAreSkipped() {
+        assertEquals(BattleEngine.Action.SNIPE, pick("SNIPE; ATTACK"));
+        assertEquals(BattleEngine.Action.ATTACK, pick("SMT; ATTACK"));          // The Athlon has no SMT.
+        assertEquals(BattleEngine.Action.END_TURN, pick("ATTACK if hp<10"));   // Nothing matches.
+    }
+
+    @Test
+    void emptyScriptsRulesAndConditionsAreRefused() {
+        for (String script : new String[] {"", "   ", ";", "ATTACK;", "; ATTACK", "ATTACK;;SNIPE", "ATTACK; ;SNIPE",
+                "ATTACK if hp<5 &", "ATTACK if & hp<5", "ATTACK if hp<5 & & ap>0"})
+            assertThrows(IllegalArgumentException.class, () -> new ScriptedPolicy(script), "'" + script + "'");
+    }
+
+    @Test
+    void badNumbersAreRefused() {
+        for (String cond : new String[] {"hp<", "hp<abc", "hp<4O", "hp<1.5", "hp<%", "hp<=40=", "hp<99999999999",
+                "hp<-1", "hp<101%", "ram>=200%", "turn>" + (ScriptedPolicy.MAX_NUMBER + 1)})
+            assertThrows(IllegalArgumentException.class, () -> new ScriptedPolicy("ATTACK if " + cond), cond);
+        new ScriptedPolicy("ATTACK if hp<100% & ram>0% & turn<" + ScriptedPolicy.MAX_NUMBER);
+    }
+
+    @Test
+    void otherMistakesNameTheirPart() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> new ScriptedPolicy("ATTACK; FIREBALL"));
+        assertTrue(e.getMessage().contains("FIREBALL"), e.getMessage());
+        e = assertThrows(IllegalArgumentException.class, () -> new ScriptedPolicy("ATTACK if mana<5"));
+        assertTrue(e.getMessage().contains("mana<5"), e.getMessage());
+        e = assertThrows(IllegalArgumentException.class, () -> new ScriptedPolicy("ATTACK if hp"));
+        assertTrue(e.getMessage().contains("hp"), e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> new ScriptedPolicy("ATTACK;".repeat(ScriptedPolicy.MAX_RULES) + "ATTACK"));
+    }
+}
@@ -0,0 +1,158 @@
+package scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TESTS: Admission
+ * * Known task sets from the real-time scheduling textbooks, with the verdict and the
+ *   reason (which test decided) checked.
+ * * Random small task sets against brute force: EDF against the processor demand at
+ *   every deadline up to two hyperperiods, RM against a tick-by-tick simulation of the
+ *   synchronous release.
+ */
+class AdmissionTest {
+
+    private static PeriodicTask task(int id, long period, long wcet, long deadline) {
+        return new PeriodicTask(id, "T" + id, period, wcet, deadline, 0);
+    }
+
+    private static PeriodicTask task(int id, long period, long wcet) {
+        return task(id, period, wcet, period);
+    }
+
+    // --- RATE MONOTONIC ---
+
+    @Test
+    void rtaAdmitsTheClassicSetThatFailsTheHyperbolicBound() {
+        // (7,3) (12,3) (20,5): U = 0.93, product of (U+1) = 2.23, worst responses 3, 6, 20.
+        List<PeriodicTask> set = List.of(task(1, 7, 3), task(2, 12, 3), task(3, 20, 5));
+        Admission.Result r = Admission.rateMonotonic(set);
+        assertTrue(r.admitted, r.toString());
+        assertTrue(r.reason.contains("response-time"), r.reason);
+    }
+
+    @Test
+    void rtaRejectsWhenTheLowestPriorityTaskMissesAtFullUtilization() {
+        // (4,2) (6,3): U = 1, but T2's response time is 2 + 3 + 2 = 7 > 6.
+        List<PeriodicTask> set = List.of(task(1, 4, 2), task(2, 6, 3));
+        Admission.Result r = Admission.rateMonotonic(set);
+        assertFalse(r.admitted, r.toString());
+        assertTrue(r.reason.startsWith("T2"), r.reason);
+        // EDF schedules the same set: implicit deadlines, U = 1.
+        assertTrue(Admission.edf(set).admitted);
+    }
+
+    @Test
+    void harmonicPeriodsAreSchedulableUpToFullUtilization() {
+        List<PeriodicTask> set = List.of(task(1, 2, 1), task(2, 4, 1), task(3, 8, 2));
+        assertEquals(1.0, Admission.utilization(set), 1e-12);
+        assertTrue(Admission.rateMonotonic(set).admitted);
+    }
+
+    @Test
+    void hyperbolicBoundDecidesLightSets() {
+        Admission.Result r = Admission.rateMonotonic(List.of(task(1, 10, 2), task(2, 20, 4), task(3, 40, 4)));
+        assertTrue(r.admitted);
+        assertEquals("hyperbolic bound holds", r.reason);
+    }
+
+    // --- EDF ---
+
+    @Test
+    void qpaAdmitsAConstrainedDeadlineSetThatFits() {
+        // h(2) = 1, h(3) = 3, h(6) = 4, ... never above the interval.
+        Admission.Result r = Admission.edf(List.of(task(1, 4, 1, 2), task(2, 6, 2, 3)));
+        assertTrue(r.admitted, r.toString());
+        assertTrue(r.reason.contains("QPA"), r.reason);
+    }
+
+    @Test
+    void qpaRejectsDemandAboveTheInterval() {
+        // U = 0.8, but both jobs are due by t = 3 and need 4 ticks.
+        Admission.Result r = Admission.edf(List.of(task(1, 5, 2, 2), task(2, 5, 2, 3)));
+        assertFalse(r.admitted, r.toString());
+    }
+
+    @Test
+    void overloadIsRejectedByBothTests() {
+        List<PeriodicTask> set = List.of(task(1, 3, 2), task(2, 5, 2));
+        assertFalse(Admission.edf(set).admitted);
+        assertFalse(Admission.rateMonotonic(set).admitted);
+    }
+
+    // --- AGAINST BRUTE FORCE ---
+
+    @Test
+    void edfMatchesTheDemandAtEveryDeadline() {
+        SplittableRandom rng = new SplittableRandom(6);
+        for (int n = 0; n < 2000; n++) {
+            List<PeriodicTask> set = randomSet(rng);
+            if (Admission.utilization(set) > 1) continue;
+            long horizon = 2 * hyperperiod(set) + 12;
+            boolean fits = true;
+            for (long t = 1; t <= horizon && fits; t++) fits = Admission.demand(set, t) <= t;
+            assertEquals(fits, Admission.edf(set).admitted, set.toString());
+        }
+    }
+
+    @Test
+    void rateMonotonicMatchesASimulation() {
+        SplittableRandom rng = new SplittableRandom(5);
+        for (int n = 0; n < 2000; n++) {
+            List<PeriodicTask> set = randomSet(rng);
+            if (Admission.utilization(set) > 1) continue;
+            assertEquals(simulateRm(set), Admission.rateMonotonic(set).admitted, set.toString());
+        }
+    }
+
+    // 2-4 tasks, periods 2..12, any wcet and deadline that can fit one job.
+    private static List<PeriodicTask> randomSet(SplittableRandom rng) {
+        int n = rng.nextInt(2, 5);
+        List<PeriodicTask> set = new ArrayList<>();
+        for (int i = 1; i <= n; i++) {
+            long period = rng.nextLong(2, 13);
+            long wcet = rng.nextLong(1, period / 2 + 1);
+            set.add(task(i, period, wcet, rng.nextLong(wcet, period + 1)));
+        }
+        return set;
+    }
+
+    private static long hyperperiod(List<PeriodicTask> set) {
+        long h = 1;
+        for (PeriodicTask t : set) h = h / gcd(h, t.period) * t.period;
+        return h;
+    }
+
+    private static long gcd(long a, long b) { return b == 0 ? a : gcd(b, a % b); }
+
+    // Fixed priorities by period (then id), all released at 0: true if no job misses
+    // its deadline within one hyperperiod.
+    private static boolean simulateRm(List<PeriodicTask> set) {
+        List<PeriodicTask> byRate = new ArrayList<>(set);
+        byRate.sort((a, b) -> a.period != b.period ? Long.compare(a.period, b.period) : Integer.compare(a.id, b.id));
+        long[] left = new long[byRate.size()];    // Work left in the current job.
+        long[] due = new long[byRate.size()];     // Its absolute deadline.
+        for (long t = 0; t < hyperperiod(set); t++) {
+            for (int i = 0; i < left.length; i++) {
+                PeriodicTask task = byRate.get(i);
+                if (left[i] > 0 && t >= due[i]) return false;
+                if (t % task.period == 0) {
+                    if (left[i] > 0) return false;
+                    left[i] = task.wcet;
+                    due[i] = t + task.deadline;
+                }
+            }
+            for (int i = 0; i < left.length; i++) {
+                if (left[i] > 0) { left[i]--; break; }
+            }
+        }
+        for (int i = 0; i < left.length; i++) if (left[i] > 0) return false;
+        return true;
+    }
+}
@@ -0,0 +1,143 @@
+package scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TESTS: LatencyHistogram
+ * * Bucket math: index(upperEdge(i)) == i for every bucket, edges are contiguous, and
+ *   the values around 128, around every power of two and near Long.MAX_VALUE land in
+ *   the bucket whose range holds them.
+ * * Every value is reported within the ~1.6% (1/64) relative error the class promises.
+ * * percentile() against a sorted array (nearest rank), on random and merged data.
+ */
+class LatencyHistogramTest {
+
+    private static final int BUCKETS = LatencyHistogram.index(Long.MAX_VALUE) + 1;
+
+    @Test
+    void upperEdgeAndIndexAreInverse() {
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.upperEdge(BUCKETS - 1));
+        for (int i = 0; i < BUCKETS; i++) {
+            long edge = LatencyHistogram.upperEdge(i);
+            assertEquals(i, LatencyHistogram.index(edge), "bucket " + i);
+            if (i > 0) {
+                long lower = LatencyHistogram.upperEdge(i - 1) + 1; // Contiguous: no gaps, no overlap.
+                assertTrue(lower <= edge, "bucket " + i);
+                assertEquals(i, LatencyHistogram.index(lower), "bucket " + i);
+            }
+        }
+    }
+
+    @Test
+    void edgeValuesLandInTheRightBucket() {
+        for (long v = 0; v < 128; v++) assertEquals(v, LatencyHistogram.index(v)); // Exact buckets.
+        assertEquals(127, LatencyHistogram.upperEdge(127));
+        assertEquals(128, LatencyHistogram.index(128));
+        assertEquals(129, LatencyHistogram.upperEdge(128)); // First split bucket holds 128..129.
+        assertEquals(128, LatencyHistogram.index(129));
+        assertEquals(129, LatencyHistogram.index(130));
+        for (int bit = 7; bit < 63; bit++) {
+            long p = 1L << bit;
+            for (long v : new long[] {p - 1, p, p + 1}) inBucket(v);
+        }
+        for (long v : new long[] {Long.MAX_VALUE, Long.MAX_VALUE - 1, Long.MAX_VALUE - (1L << 56), (1L << 62) + 1})
+            inBucket(v);
+    }
+
+    private static void inBucket(long v) {
+        int i = LatencyHistogram.index(v);
+        assertTrue(i >= 0 && i < BUCKETS, "value " + v);
+        long lower = i == 0 ? 0 : LatencyHistogram.upperEdge(i - 1) + 1;
+        assertTrue(lower <= v && v <= LatencyHistogram.upperEdge(i), "value " + v + " bucket " + i);
+    }
+
+    @Test
+    void relativeErrorIsBounded() {
+        SplittableRandom rng = new SplittableRandom(9);
+        for (int n = 0; n < 200_000; n++) {
+            long v = rng.nextLong(Long.MAX_VALUE) >>> rng.nextInt(63); // Every magnitude.
+            long edge = LatencyHistogram.upperEdge(LatencyHistogram.index(v));
+            assertTrue(edge >= v);
+            assertTrue(edge - v <= v / 64, "value " + v + " reported as " + edge);
+        }
+    }
+
+    @Test
+    void percentilesMatchASortedArray() {
+        for (long seed = 1; seed <= 30; seed++) {
+            SplittableRandom rng = new SplittableRandom(seed);
+            int n = rng.nextInt(1, 5000);
+            long[] values = new long[n];
+            LatencyHistogram h = new LatencyHistogram();
+            for (int i = 0; i < n; i++) {
+                // Mostly small latencies plus a heavy tail, as a scheduler run produces.
+                values[i] = rng.nextInt(10) == 0 ? rng.nextLong(1L << 40) : rng.nextLong(500);
+                h.record(values[i]);
+            }
+            Arrays.sort(values);
+            for (double q : new double[] {0, 0.07, 0.5, 0.9, 0.99, 0.999, 1})
+                checkPercentile(h, values, q, "seed " + seed + " q " + q);
+            assertEquals(values[0], h.min());
+            assertEquals(values[n - 1], h.max());
+            assertEquals(Arrays.stream(values).average().orElse(0), h.mean(), 1e-6 * h.mean());
+        }
+    }
+
+    @Test
+    void ranksAreExactForDecimalQuantiles() {
+        // 0.07 * 100 is 7.000000000000001 in doubles; the 7th of 1..100 is still 7.
+        LatencyHistogram h = new LatencyHistogram();
+        for (long v = 1; v <= 100; v++) h.record(v);
+        assertEquals(7, h.percentile(0.07));
+        assertEquals(50, h.percentile(0.50));
+        assertEquals(99, h.percentile(0.99));
+        assertEquals(1, h.percentile(0));
+        assertEquals(100, h.percentile(1));
+    }
+
+    @Test
+    void addMergesLikeRecordingEverythingOnce() {
+        SplittableRandom rng = new SplittableRandom(4);
+        LatencyHistogram a = new LatencyHistogram(), b = new LatencyHistogram(), empty = new LatencyHistogram();
+        long[] values = new long[3000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = rng.nextLong(100_000);
+            (i % 3 == 0 ? a : b).record(values[i]);
+        }
+        a.add(empty);
+        a.add(b);
+        Arrays.sort(values);
+        assertEquals(values.length, a.count());
+        assertEquals(values[0], a.min());
+        assertEquals(values[values.length - 1], a.max());
+        for (double q : new double[] {0.01, 0.5, 0.99}) checkPercentile(a, values, q, "q " + q);
+        empty.add(a); // Into an empty histogram: min/max come from 'a'.
+        assertEquals(a.min(), empty.min());
+        assertEquals(a.max(), empty.max());
+    }
+
+    @Test
+    void extremeValuesDoNotOverflow() {
+        LatencyHistogram h = new LatencyHistogram();
+        h.record(Long.MAX_VALUE);
+        h.record(Long.MAX_VALUE);
+        h.record(-5); // Clamped to 0.
+        assertEquals(0, h.min());
+        assertEquals(Long.MAX_VALUE, h.max());
+        assertEquals(Long.MAX_VALUE, h.percentile(1));
+        assertEquals(Long.MAX_VALUE * (2.0 / 3), h.mean(), 1e3);
+        assertTrue(h.mean() > 0);
+    }
+
+    // Nearest rank: the ceil(q * n)-th smallest value, reported at most 1/64 above it.
+    private static void checkPercentile(LatencyHistogram h, long[] sorted, double q, String where) {
+        int rank = Math.max(1, (int) Math.ceil(q * sorted.length - 1e-9));
+        long exact = sorted[rank - 1], got = h.percentile(q);
+        assertTrue(got >= exact && got - exact <= exact / 64, where + ": exact " + exact + " got " + got);
+    }
+}
@@ -0,0 +1,191 @@
+package scheduler;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TESTS: SchedTraceReader
+ * * The same small scenario written as ftrace and as `perf sched script` output must
+ *   give the same bursts: "worker thread" (a name with a space) is preempted with R+
+ *   by "db:main" (a name with a colon), so its burst spans both of its runs.
+ * * A line cut by the end of a BLOCK and a last line without a newline are parsed.
+ * * With a small maxLag, long bursts are cut and arrivals still come out in order.
+ * Times are microseconds; 1 tick = 1 ms.
+ */
+class SchedTraceReaderTest {
+
+    private static final int BLOCK = 1 << 20; // SchedTraceReader.BLOCK
+
+    @TempDir
+    Path dir;
+
+    // --- FIXTURE WRITERS (ts in microseconds) ---
+
+    private static String ts(long micros) {
+        return String.format("%d.%06d:", micros / 1_000_000, micros % 1_000_000);
+    }
+
+    private static String ftraceWakeup(long t, String comm, int pid) {
+        return String.format("  %s-%d [000] d..2 %s sched_wakeup: comm=%s pid=%d prio=120 target_cpu=000%n", comm, pid, ts(t), comm, pid);
+    }
+
+    private static String ftraceSwitch(long t, String prev, int prevPid, String state, String next, int nextPid, int nextPrio) {
+        return String.format("  %s-%d [000] d..2 %s sched_switch: prev_comm=%s prev_pid=%d prev_prio=120 prev_state=%s ==> next_comm=%s next_pid=%d next_prio=%d%n",
+                prev, prevPid, ts(t), prev, prevPid, state, next, nextPid, nextPrio);
+    }
+
+    private static String perfWakeup(long t, String comm, int pid) {
+        return String.format("%16s %5d [000] %s       sched:sched_wakeup: %s:%d [120] CPU:000%n", comm, pid, ts(t), comm, pid);
+    }
+
+    private static String perfSwitch(long t, String prev, int prevPid, String state, String next, int nextPid, int nextPrio) {
+        return String.format("%16s %5d [000] %s       sched:sched_switch: %s:%d [120] %s ==> %s:%d [%d]%n",
+                prev, prevPid, ts(t), prev, prevPid, state, next, nextPid, nextPrio);
+    }
+
+    private interface Format {
+        String wakeup(long t, String comm, int pid);
+        String switchTo(long t, String prev, int prevPid, String state, String next, int nextPid, int nextPrio);
+    }
+
+    private static final Format FTRACE = new Format() {
+        public String wakeup(long t, String c, int p) { return ftraceWakeup(t, c, p); }
+        public String switchTo(long t, String a, int ap, String s, String b, int bp, int pr) { return ftraceSwitch(t, a, ap, s, b, bp, pr); }
+    };
+
+    private static final Format PERF = new Format() {
+        public String wakeup(long t, String c, int p) { return perfWakeup(t, c, p); }
+        public String switchTo(long t, String a, int ap, String s, String b, int bp, int pr) { return perfSwitch(t, a, ap, s, b, bp, pr); }
+    };
+
+    // 1.000000 worker wakes; runs 0.1..5.1 ms; preempted (R+) by db:main (5.1..7.1 ms,
+    // then blocks); runs again 7.1..10.1 ms and blocks.
+    private static String[] scenario(Format f) {
+        long t0 = 1_000_000;
+        return new String[] {
+                "# tracer: nop\n",
+                f.wakeup(t0, "worker thread", 100),
+                f.switchTo(t0 + 100, "swapper/0", 0, "R", "worker thread", 100, 120),
+                f.switchTo(t0 + 5_100, "worker thread", 100, "R+", "db:main", 200, 110),
+                f.switchTo(t0 + 7_100, "db:main", 200, "S", "worker thread", 100, 120),
+                f.switchTo(t0 + 10_100, "worker thread", 100, "S", "swapper/0", 0, 120),
+        };
+    }
+
+    private static void checkScenario(List<SimProcess> out) {
+        assertEquals(2, out.size(), out.toString());
+        SimProcess worker = out.get(0), db = out.get(1);
+        assertEquals("worker thread:100", worker.name);
+        assertEquals(0, worker.arrival);
+        assertEquals(8, worker.burst);         // 5 ms + 3 ms: the R+ preemption kept the burst open.
+        assertEquals(0, worker.nice);
+        assertEquals("db:main:200", db.name);
+        assertEquals(5, db.arrival);            // First seen on the CPU at 5.1 ms.
+        assertEquals(2, db.burst);
+        assertEquals(-10, db.nice);             // next_prio 110.
+    }
+
+    private List<SimProcess> read(String content) throws IOException {
+        return read(content, 1_000_000);
+    }
+
+    private List<SimProcess> read(String content, long maxLag) throws IOException {
+        Path file = dir.resolve("trace-" + System.nanoTime() + ".txt");
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        List<SimProcess> out = new ArrayList<>();
+        try (SchedTraceReader r = new SchedTraceReader(file, 1000, maxLag)) {
+            while (r.hasNext()) out.add(r.next());
+            assertEquals(Files.size(file), r.bytesRead());
+        }
+        return out;
+    }
+
+    @Test
+    void ftraceScenario() throws IOException {
+        checkScenario(read(String.join("", scenario(FTRACE))));
+    }
+
+    @Test
+    void perfSchedScriptScenario() throws IOException {
+        checkScenario(read(String.join("", scenario(PERF))));
+    }
+
+    @Test
+    void lastLineWithoutANewline() throws IOException {
+        for (Format f : new Format[] {FTRACE, PERF}) {
+            String text = String.join("", scenario(f));
+            checkScenario(read(text.substring(0, text.length() - 1)));
+        }
+    }
+
+    @Test
+    void lineStraddlingABlockRefill() throws IOException {
+        String[] lines = scenario(FTRACE);
+        String head = lines[0] + lines[1] + lines[2] + lines[3];
+        String tail = lines[4] + lines[5];
+        // A comment line pads the file so line 4 starts just before, at, or just after
+        // the end of the first block (and, with the split inside the line, straddles it).
+        for (int shift : new int[] {-60, -20, -1, 0, 1}) {
+            int pad = BLOCK + shift - head.length();
+            String padding = "#" + "x".repeat(pad - 2) + "\n";
+            String text = head + padding + tail;
+            assertEquals(BLOCK + shift, head.length() + padding.length());
+            checkScenario(read(text));
+        }
+    }
+
+    @Test
+    void longRunsAreCutAtTheLagAndStayInArrivalOrder() throws IOException {
+        // One task runs for 50 ms straight while another wakes every millisecond without
+        // running (its bursts have no work and are dropped). maxLag = 10 ms.
+        StringBuilder sb = new StringBuilder();
+        sb.append(ftraceWakeup(0, "long", 1)).append(ftraceSwitch(0, "swapper/0", 0, "R", "long", 1, 120));
+        for (long t = 1_000; t < 50_000; t += 1_000) sb.append(ftraceWakeup(t, "idle waker", 2));
+        sb.append(ftraceSwitch(50_000, "long", 1, "S", "swapper/0", 0, 120));
+        List<SimProcess> out = read(sb.toString(), 10_000);
+        assertTrue(out.size() > 1, "a 50 ms run with a 10 ms lag must be cut: " + out);
+        long total = 0, last = -1;
+        for (SimProcess p : out) {
+            assertEquals("long:1", p.name);
+            assertTrue(p.arrival >= last, "out of order: " + out);
+            last = p.arrival;
+            total += p.burst;
+        }
+        assertEquals(50, total, 1.0 * out.size()); // Each cut rounds to whole ticks.
+    }
+
+    @Test
+    void randomTracesComeOutInArrivalOrder() throws IOException {
+        for (long seed = 1; seed <= 20; seed++) {
+            SplittableRandom rng = new SplittableRandom(seed);
+            StringBuilder sb = new StringBuilder();
+            long t = 0;
+            int running = 0;
+            for (int i = 0; i < 3000; i++) {
+                t += rng.nextInt(1, 3000);
+                int pid = rng.nextInt(1, 9);
+                if (rng.nextInt(3) == 0) {
+                    sb.append(ftraceWakeup(t, "task " + pid, pid));
+                } else if (pid != running) {
+                    String state = rng.nextBoolean() ? "R+" : "S";
+                    sb.append(ftraceSwitch(t, running == 0 ? "swapper/0" : "task " + running, running, state, "task " + pid, pid, 120));
+                    running = pid;
+                }
+            }
+            List<SimProcess> out = read(sb.toString(), 5_000);
+            assertFalse(out.isEmpty());
+            for (int i = 1; i < out.size(); i++)
+                assertTrue(out.get(i).arrival >= out.get(i - 1).arrival, "seed " + seed + " at " + i);
+        }
+    }
+}